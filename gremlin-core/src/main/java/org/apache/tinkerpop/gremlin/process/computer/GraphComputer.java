@@ -217,6 +217,13 @@ public interface GraphComputer {
             return true;
         }
 
+        /**
+         * Supports skipping the vertices that called {@link Messenger#voteToHalt()} until they receive a message.
+         */
+        public default boolean supportsVoteToHalt() {
+            return false;
+        }
+
         /**
          * Supports {@link VertexProgram} and {@link MapReduce} parameters to be direct referenced Java objects
          * (no serialization required). This is typically true for single machine graph computer engines. For cluster
@@ -46,4 +46,15 @@ public interface Messenger<M> {
      */
     public void sendMessage(final MessageScope messageScope, final M message);
 
+    /**
+     * The currently executing vertex votes to halt, which allows a {@link GraphComputer} that
+     * {@link GraphComputer.Features#supportsVoteToHalt() supports it} to skip the vertex in the following iterations
+     * until it receives a message. A vertex program should only vote to halt when executing the vertex without any
+     * incoming messages would not change anything, as other graph computers execute it regardless. If every vertex
+     * has halted and no messages were sent, but the vertex program does not terminate, then all vertices are executed
+     * in the next iteration.
+     */
+    public default void voteToHalt() {
+    }
+
 }
@@ -293,5 +293,16 @@ public interface VertexProgram<M> extends Cloneable {
         public default boolean requiresEdgePropertyRemoval() {
             return false;
         }
+
+        /**
+         * Determines if the program converges to the same result when each vertex receives the latest
+         * {@link MessageScope.Local} message of its adjacent vertices, whether it was sent in the previous iteration
+         * or earlier in the current one. A {@link GraphComputer} may then deliver such messages as soon as they are
+         * sent, which lets convergent programs finish in fewer iterations. A vertex still only receives the messages of
+         * the scopes that {@link VertexProgram#getMessageScopes(Memory)} returned for the previous iteration.
+         */
+        public default boolean isOrderInsensitive() {
+            return false;
+        }
     }
 }
@@ -153,6 +153,9 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
                 memory.add(VOTE_TO_HALT, false);
             }
         }
+
+        // there is nothing more to do for this vertex until an adjacent vertex sends it a lesser component
+        messenger.voteToHalt();
     }
 
     @Override
@@ -218,6 +221,11 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
             public boolean requiresVertexPropertyAddition() {
                 return true;
             }
+
+            @Override
+            public boolean isOrderInsensitive() {
+                return true;
+            }
         };
     }
 
@@ -273,6 +273,11 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
             public boolean requiresVertexPropertyAddition() {
                 return true;
             }
+
+            @Override
+            public boolean isOrderInsensitive() {
+                return true;
+            }
         };
     }
 }
\ No newline at end of file
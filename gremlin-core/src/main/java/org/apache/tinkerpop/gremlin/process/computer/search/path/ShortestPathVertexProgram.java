@@ -261,7 +261,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             copyHaltedTraversersFromMemory(vertex);
 
             // ignore vertices that don't pass the start-vertex filter
-            if (!isStartVertex(vertex)) return;
+            if (!isStartVertex(vertex)) {
+                messenger.voteToHalt();
+                return;
+            }
 
             // start to track paths for all valid start-vertices
             final Map<Vertex, Pair<Number, Set<Path>>> paths = new HashMap<>();
@@ -333,6 +336,9 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
 
         // VOTE_TO_HALT will be set to true if an iteration hasn't found any new paths
         memory.add(VOTE_TO_HALT, voteToHalt);
+
+        // paths are only extended by incoming messages, so the vertex can be skipped until it receives more of them
+        messenger.voteToHalt();
     }
 
     @Override
@@ -21,6 +21,9 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.filter;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+
+import java.util.NoSuchElementException;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -40,5 +43,36 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
         }
     }
 
+    /**
+     * Filters a whole batch of starts in place, keeping the traversers that pass at the front of the array. A subclass
+     * with its own {@link #processNextStart()} is batched one traverser at a time instead.
+     */
+    @Override
+    protected int nextBatch(final Traverser.Admin<S>[] batch) {
+        if (!this.processesNextStartAs(FilterStep.class))
+            return super.nextBatch(batch);
+        if (this.nextEndBatch(batch) > 0)
+            return 1;
+        while (true) {
+            if (Thread.interrupted()) throw new TraversalInterruptedException();
+            final int size = this.starts.nextBatch(batch);
+            if (0 == size)
+                return 0;
+            int kept = 0;
+            try {
+                for (int i = 0; i < size; i++) {
+                    final Traverser.Admin<S> traverser = batch[i];
+                    if (this.filter(traverser) && traverser.bulk() > 0)
+                        batch[kept++] = this.prepareTraversalForNextStep(traverser);
+                }
+            } catch (final NoSuchElementException e) {
+                // the step signalled its end part way through the batch so only the traversers already kept remain
+                return kept;
+            }
+            if (kept > 0)
+                return kept;
+        }
+    }
+
     protected abstract boolean filter(final Traverser.Admin<S> traverser);
 }
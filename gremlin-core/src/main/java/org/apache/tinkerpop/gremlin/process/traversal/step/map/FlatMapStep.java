@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
 
@@ -51,6 +52,33 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
         }
     }
 
+    /**
+     * Fills the batch from the iterators of as many starts as it takes, without going back through
+     * {@link #next()} for each traverser. A subclass with its own {@link #processNextStart()} is batched one traverser
+     * at a time instead.
+     */
+    @Override
+    protected int nextBatch(final Traverser.Admin<E>[] batch) {
+        if (!this.processesNextStartAs(FlatMapStep.class))
+            return super.nextBatch(batch);
+        if (this.nextEndBatch(batch) > 0)
+            return 1;
+        int size = 0;
+        while (size < batch.length) {
+            if (this.iterator.hasNext()) {
+                batch[size++] = this.prepareTraversalForNextStep(this.head.split(this.iterator.next(), this));
+            } else {
+                if (Thread.interrupted()) throw new TraversalInterruptedException();
+                closeIterator();
+                if (!this.starts.hasNext())
+                    break;
+                this.head = this.starts.next();
+                this.iterator = this.flatMap(this.head);
+            }
+        }
+        return size;
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
     @Override
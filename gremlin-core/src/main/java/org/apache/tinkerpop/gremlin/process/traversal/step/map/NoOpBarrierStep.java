@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Collections;
@@ -57,6 +58,25 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
         return this.barrier.remove();
     }
 
+    /**
+     * Drains the barrier into the batch, refilling it from the starts when it is empty.
+     */
+    @Override
+    protected int nextBatch(final Traverser.Admin<S>[] batch) {
+        if (this.nextEndBatch(batch) > 0)
+            return 1;
+        if (Thread.interrupted()) throw new TraversalInterruptedException();
+        if (this.barrier.isEmpty())
+            this.processAllStarts();
+        int size = 0;
+        while (size < batch.length && !this.barrier.isEmpty()) {
+            final Traverser.Admin<S> traverser = this.barrier.remove();
+            if (traverser.bulk() > 0)
+                batch[size++] = this.prepareTraversalForNextStep(traverser);
+        }
+        return size;
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return Collections.singleton(TraverserRequirement.BULK);
@@ -35,15 +35,20 @@ import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalProduct;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.function.MultiComparator;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.javatuples.Pair;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.BinaryOperator;
@@ -80,12 +85,71 @@ public final class OrderGlobalStep<S, C extends Comparable> extends CollectingBa
 
     @Override
     public void processAllStarts() {
+        if (this.limit > 0 && this.limit != Long.MAX_VALUE) {
+            if (null == this.multiComparator) this.multiComparator = this.createMultiComparator();
+            if (!this.multiComparator.isShuffle()) {
+                this.processAllStartsWithinLimit();
+                return;
+            }
+        }
+
         while (this.starts.hasNext()) {
             // only add the traverser if the comparator traversal was productive
             this.createProjectedTraverser(this.starts.next()).ifPresent(traverserSet::add);
         }
     }
 
+    /**
+     * Keeps only the first {@code limit} traversers, by bulk, that a sort of all of them would give. The traversers
+     * are kept in a heap with the one that sorts last on top, so a start that sorts after it once the limit is
+     * reached is dropped on a single comparison and memory stays bounded by the limit. Ties are broken by the order
+     * in which traversers arrived, as the stable sort of a full {@link TraverserSet} would, and equal traversers are
+     * merged into the first of them, so the traversers kept are the same ones.
+     */
+    private void processAllStartsWithinLimit() {
+        if (!this.starts.hasNext())
+            return;
+
+        final Comparator<Traverser<S>> comparator = (Comparator) this.multiComparator;
+        final PriorityQueue<RankedTraverser<S>> heap = new PriorityQueue<>((a, b) -> {
+            final int comparison = comparator.compare(b.traverser, a.traverser);
+            return 0 != comparison ? comparison : Long.compare(b.rank, a.rank);
+        });
+        final Map<Traverser.Admin<S>, RankedTraverser<S>> kept = new HashMap<>();
+        long rank = 0L;
+        long bulk = 0L;
+
+        // traversers already held came before any of the starts
+        final Iterator<Traverser.Admin<S>> iterator = IteratorUtils.concat(
+                IteratorUtils.removeOnNext(this.traverserSet.iterator()),
+                IteratorUtils.filter(IteratorUtils.map(this.starts, t -> this.createProjectedTraverser(t).orElse(null)), Objects::nonNull));
+        while (iterator.hasNext()) {
+            final Traverser.Admin<S> traverser = iterator.next();
+            final RankedTraverser<S> existing = kept.get(traverser);
+            if (null != existing) {
+                existing.traverser.merge(traverser);
+            } else {
+                final RankedTraverser<S> ranked = new RankedTraverser<>(traverser, rank++);
+                if (bulk >= this.limit && heap.comparator().compare(ranked, heap.peek()) <= 0)
+                    continue;
+                heap.add(ranked);
+                kept.put(traverser, ranked);
+            }
+            bulk += traverser.bulk();
+            while (bulk - heap.peek().traverser.bulk() >= this.limit) {
+                final RankedTraverser<S> dropped = heap.poll();
+                kept.remove(dropped.traverser);
+                bulk -= dropped.traverser.bulk();
+            }
+        }
+
+        final List<RankedTraverser<S>> sorted = new ArrayList<>(heap);
+        sorted.sort(heap.comparator().reversed());
+        for (final RankedTraverser<S> ranked : sorted) {
+            this.traverserSet.add(ranked.traverser);
+        }
+    }
+
     public void setLimit(final long limit) {
         this.limit = limit;
     }
@@ -199,6 +263,16 @@ public final class OrderGlobalStep<S, C extends Comparable> extends CollectingBa
 
     ////////////////
 
+    private static final class RankedTraverser<S> {
+        private final Traverser.Admin<S> traverser;
+        private final long rank;
+
+        private RankedTraverser(final Traverser.Admin<S> traverser, final long rank) {
+            this.traverser = traverser;
+            this.rank = rank;
+        }
+    }
+
     public static final class OrderBiOperator<S> implements BinaryOperator<TraverserSet<S>>, Serializable {
 
         private long limit;
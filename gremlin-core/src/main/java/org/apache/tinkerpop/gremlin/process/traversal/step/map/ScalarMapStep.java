@@ -20,6 +20,9 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+
+import java.util.NoSuchElementException;
 
 /**
  * A type of {@link MapStep} class which will transform the object of one {@link Traverser} into another. This class
@@ -40,5 +43,37 @@ public abstract class ScalarMapStep<S, E> extends MapStep<S,E> {
         return traverser.split(this.map(traverser), this);
     }
 
+    /**
+     * Maps a whole batch of starts in place. A subclass with its own {@link #processNextStart()} is batched one
+     * traverser at a time instead.
+     */
+    @Override
+    protected int nextBatch(final Traverser.Admin<E>[] batch) {
+        if (!this.processesNextStartAs(ScalarMapStep.class))
+            return super.nextBatch(batch);
+        if (this.nextEndBatch(batch) > 0)
+            return 1;
+        final Traverser.Admin<S>[] starts = (Traverser.Admin<S>[]) (Traverser.Admin[]) batch;
+        while (true) {
+            if (Thread.interrupted()) throw new TraversalInterruptedException();
+            final int size = this.starts.nextBatch(starts);
+            if (0 == size)
+                return 0;
+            int kept = 0;
+            try {
+                for (int i = 0; i < size; i++) {
+                    final Traverser.Admin<S> traverser = starts[i];
+                    if (traverser.bulk() > 0)
+                        batch[kept++] = this.prepareTraversalForNextStep(traverser.split(this.map(traverser), this));
+                }
+            } catch (final NoSuchElementException e) {
+                // the step signalled its end part way through the batch so only the traversers already kept remain
+                return kept;
+            }
+            if (kept > 0)
+                return kept;
+        }
+    }
+
     protected abstract E map(final Traverser.Admin<S> traverser);
 }
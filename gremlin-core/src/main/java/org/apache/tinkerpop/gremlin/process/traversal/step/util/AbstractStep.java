@@ -49,6 +49,21 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
 
+    private static final ClassValue<Class<?>> PROCESS_NEXT_START_DECLARERS = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(final Class<?> stepClass) {
+            for (Class<?> c = stepClass; null != c; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("processNextStart");
+                    return c;
+                } catch (final NoSuchMethodException e) {
+                    // keep looking in the superclass
+                }
+            }
+            return AbstractStep.class;
+        }
+    };
+
     public AbstractStep(final Traversal.Admin traversal) {
         this.traversal = traversal;
         this.starts = new ExpandableStepIterator<>(this, (TraverserSet<S>) traversal.getTraverserSetSupplier().get());
@@ -171,6 +186,45 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     protected abstract Traverser.Admin<E> processNextStart() throws NoSuchElementException;
 
+    /**
+     * Moves up to {@code batch.length} traversers out of the step and into the provided array, which is how the
+     * {@link ExpandableStepIterator} of a step with {@link ExpandableStepIterator#setBatchSize(int) batching} enabled
+     * pulls from the step before it. By default the array is filled one traverser at a time with {@link #hasNext()}
+     * and {@link #next()}.
+     *
+     * @param batch the array to fill from its first index
+     * @return the number of traversers placed in the array which is zero only when the step has no more traversers
+     */
+    protected int nextBatch(final Traverser.Admin<E>[] batch) {
+        int size = 0;
+        while (size < batch.length && this.hasNext()) {
+            batch[size++] = this.next();
+        }
+        return size;
+    }
+
+    /**
+     * Moves the traverser held back by an earlier call to {@link #hasNext()} into the batch, so that overrides of
+     * {@link #nextBatch(Traverser.Admin[])} can emit it before processing any further starts.
+     *
+     * @return one if such a traverser was waiting and zero otherwise
+     */
+    protected int nextEndBatch(final Traverser.Admin<E>[] batch) {
+        if (EmptyTraverser.instance() == this.nextEnd)
+            return 0;
+        batch[0] = this.next();
+        return 1;
+    }
+
+    /**
+     * Determines if {@link #processNextStart()} of this step is the one declared by the provided class. An override
+     * of {@link #nextBatch(Traverser.Admin[])} stands in for the {@link #processNextStart()} of the class it is
+     * declared in, so it should only be used when a subclass has not replaced that method with its own.
+     */
+    protected final boolean processesNextStartAs(final Class<? extends AbstractStep> stepClass) {
+        return PROCESS_NEXT_START_DECLARERS.get(this.getClass()) == stepClass;
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this);
@@ -182,6 +236,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         try {
             final AbstractStep<S, E> clone = (AbstractStep<S, E>) super.clone();
             clone.starts = new ExpandableStepIterator<>(clone, (TraverserSet<S>) traversal.getTraverserSetSupplier().get());
+            clone.starts.setBatchSize(this.starts.getBatchSize());
             clone.previousStep = EmptyStep.instance();
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = EmptyTraverser.instance();
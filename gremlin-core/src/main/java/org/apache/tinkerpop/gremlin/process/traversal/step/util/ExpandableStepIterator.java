@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -33,6 +34,14 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
     private TraverserSet<S> traverserSet;
     private final Step<S, ?> hostStep;
 
+    /**
+     * Traversers pulled ahead from the previous step with {@link AbstractStep#nextBatch(Traverser.Admin[])} when
+     * batching is enabled, or {@code null} when traversers are pulled one at a time.
+     */
+    private Traverser.Admin<S>[] batch = null;
+    private int batchIndex = 0;
+    private int batchSize = 0;
+
     public ExpandableStepIterator(final Step<S, ?> hostStep) {
         this(hostStep, new TraverserSet<>());
     }
@@ -44,7 +53,12 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
 
     @Override
     public boolean hasNext() {
-        return !this.traverserSet.isEmpty() || this.hostStep.getPreviousStep().hasNext();
+        if (!this.traverserSet.isEmpty())
+            return true;
+        else if (null == this.batch)
+            return this.hostStep.getPreviousStep().hasNext();
+        else
+            return this.batchIndex < this.batchSize || this.fillBatch();
     }
 
     @Override
@@ -52,12 +66,78 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         if (!this.traverserSet.isEmpty())
             return this.traverserSet.remove();
         /////////////
-        if (this.hostStep.getPreviousStep().hasNext())
-            return this.hostStep.getPreviousStep().next();
+        if (null == this.batch) {
+            if (this.hostStep.getPreviousStep().hasNext())
+                return this.hostStep.getPreviousStep().next();
+        } else if (this.batchIndex < this.batchSize || this.fillBatch()) {
+            final Traverser.Admin<S> traverser = this.batch[this.batchIndex];
+            this.batch[this.batchIndex++] = null;
+            return traverser;
+        }
         /////////////
         return this.traverserSet.remove();
     }
 
+    /**
+     * Moves up to {@code batch.length} traversers into the provided array, taking those added to the host step first
+     * and those already pulled ahead from the previous step next. With batching enabled, an empty iterator hands the
+     * array straight to the previous step so that it is filled without any copying.
+     *
+     * @return the number of traversers placed in the array which is zero only when there are no more traversers
+     */
+    public int nextBatch(final Traverser.Admin<S>[] batch) {
+        int size = 0;
+        while (size < batch.length && !this.traverserSet.isEmpty()) {
+            batch[size++] = this.traverserSet.remove();
+        }
+        if (null == this.batch) {
+            if (0 == size && this.hostStep.getPreviousStep().hasNext())
+                batch[size++] = this.hostStep.getPreviousStep().next();
+        } else {
+            while (size < batch.length && this.batchIndex < this.batchSize) {
+                batch[size++] = this.batch[this.batchIndex];
+                this.batch[this.batchIndex++] = null;
+            }
+            if (0 == size)
+                size = this.nextBatchFromPreviousStep(batch);
+        }
+        return size;
+    }
+
+    /**
+     * Sets how many traversers are pulled from the previous step at a time. A size of one or less, the default,
+     * pulls them one at a time with {@link Step#next()}.
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batch = batchSize > 1 ? new Traverser.Admin[batchSize] : null;
+        this.batchIndex = 0;
+        this.batchSize = 0;
+    }
+
+    /**
+     * Gets how many traversers are pulled from the previous step at a time.
+     */
+    public int getBatchSize() {
+        return null == this.batch ? 1 : this.batch.length;
+    }
+
+    private boolean fillBatch() {
+        this.batchIndex = 0;
+        this.batchSize = this.nextBatchFromPreviousStep(this.batch);
+        return this.batchSize > 0;
+    }
+
+    private int nextBatchFromPreviousStep(final Traverser.Admin<S>[] batch) {
+        final Step<?, S> previousStep = (Step<?, S>) this.hostStep.getPreviousStep();
+        if (previousStep instanceof AbstractStep)
+            return ((AbstractStep<?, S>) previousStep).nextBatch(batch);
+        int size = 0;
+        while (size < batch.length && previousStep.hasNext()) {
+            batch[size++] = previousStep.next();
+        }
+        return size;
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         iterator.forEachRemaining(this.traverserSet::add);
     }
@@ -73,5 +153,10 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
 
     public void clear() {
         this.traverserSet.clear();
+        if (null != this.batch) {
+            Arrays.fill(this.batch, null);
+            this.batchIndex = 0;
+            this.batchSize = 0;
+        }
     }
 }
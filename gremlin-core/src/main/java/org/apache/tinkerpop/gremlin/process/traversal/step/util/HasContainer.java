@@ -39,7 +39,7 @@ public class HasContainer implements Serializable, Cloneable, Predicate<Element>
     private String key;
     private P predicate;
 
-    private final boolean testingIdString;
+    private boolean testingIdString;
 
     public HasContainer(final String key, final P<?> predicate) {
         this.key = key;
@@ -129,6 +129,14 @@ public class HasContainer implements Serializable, Cloneable, Predicate<Element>
         return this.predicate;
     }
 
+    /**
+     * Replaces the predicate, as when a compiled traversal is reused with new values for its filters.
+     */
+    public final void setPredicate(final P<?> predicate) {
+        this.predicate = predicate;
+        this.testingIdString = isStringTestable();
+    }
+
     public final BiPredicate<?, ?> getBiPredicate() {
         return this.predicate.getBiPredicate();
     }
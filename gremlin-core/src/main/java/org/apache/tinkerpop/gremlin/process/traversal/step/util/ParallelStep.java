@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BinaryOperator;
+
+/**
+ * Runs its global child on chunks of its starts in parallel on the common {@link ForkJoinPool}. The results of the
+ * chunks are merged in the order the chunks were taken from the starts, so the steps that follow see them as they
+ * would have had the child run on the calling thread. If the child ends with a {@link ReducingBarrierStep} then each
+ * chunk is reduced on its own and the partial results are merged with the {@link ReducingBarrierStep#getBiOperator()}
+ * of that step, otherwise the traversers each chunk produces are emitted. At most {@code parallelism} chunks are
+ * worked on at once. Interrupting the calling thread cancels the chunks in progress.
+ */
+public final class ParallelStep<S, E> extends AbstractStep<S, E> implements TraversalParent, AutoCloseable {
+
+    private Traversal.Admin<S, E> parallelTraversal;
+    private final int parallelism;
+    private final int chunkSize;
+
+    private transient Queue<Traversal.Admin<S, E>> idleTraversals = new ConcurrentLinkedQueue<>();
+    private transient Deque<ChunkTask> chunks = new ArrayDeque<>();
+    private Iterator<Traverser.Admin<E>> chunkResults = Collections.emptyIterator();
+    private boolean done = false;
+
+    public ParallelStep(final Traversal.Admin traversal, final Traversal.Admin<S, E> parallelTraversal,
+                        final int parallelism, final int chunkSize) {
+        super(traversal);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be at least 1: " + parallelism);
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("The chunkSize must be at least 1: " + chunkSize);
+        this.parallelTraversal = this.integrateChild(parallelTraversal);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getGlobalChildren() {
+        return Collections.singletonList(this.parallelTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements();
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return super.hasNext();
+        } catch (final TraversalInterruptedException e) {
+            this.cancelChunks();
+            throw e;
+        }
+    }
+
+    @Override
+    public Traverser.Admin<E> next() {
+        try {
+            return super.next();
+        } catch (final TraversalInterruptedException e) {
+            this.cancelChunks();
+            throw e;
+        }
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (this.isReducing())
+            return this.reduceAllChunks();
+
+        while (!this.chunkResults.hasNext()) {
+            if (!this.submitChunks())
+                throw FastNoSuchElementException.instance();
+            this.chunkResults = ((List<Traverser.Admin<E>>) this.awaitOldestChunk()).iterator();
+        }
+        return this.chunkResults.next();
+    }
+
+    private Traverser.Admin<E> reduceAllChunks() {
+        if (this.done)
+            throw FastNoSuchElementException.instance();
+        this.done = true;
+
+        final ReducingBarrierStep<?, E> reducingStep = (ReducingBarrierStep<?, E>) this.parallelTraversal.getEndStep();
+        final BinaryOperator<E> operator = reducingStep.getBiOperator();
+        Object seed = ReducingBarrierStep.NON_EMITTING_SEED;
+        // the reduction of no starts at all follows the reducing step, like count() producing zero
+        if (!this.starts.hasNext())
+            seed = new ChunkTask(this.takeTraversal(), Collections.emptyList()).call();
+        while (this.submitChunks()) {
+            final Object partial = this.awaitOldestChunk();
+            if (ReducingBarrierStep.NON_EMITTING_SEED != partial)
+                seed = ReducingBarrierStep.NON_EMITTING_SEED == seed ? partial : operator.apply((E) seed, (E) partial);
+        }
+        if (ReducingBarrierStep.NON_EMITTING_SEED == seed)
+            throw FastNoSuchElementException.instance();
+        return this.getTraversal().getTraverserGenerator().generate(reducingStep.generateFinalResult((E) seed), (Step) this, 1L);
+    }
+
+    /**
+     * Fills the pipeline of chunks being worked on from the starts.
+     *
+     * @return {@code true} if there is at least one chunk to wait on
+     */
+    private boolean submitChunks() {
+        try {
+            while (this.chunks.size() < this.parallelism && this.starts.hasNext()) {
+                final List<Traverser.Admin<S>> chunk = new ArrayList<>(this.chunkSize);
+                while (chunk.size() < this.chunkSize && this.starts.hasNext()) {
+                    chunk.add(this.starts.next());
+                }
+                final ChunkTask task = new ChunkTask(this.takeTraversal(), chunk);
+                task.future = ForkJoinPool.commonPool().submit(task);
+                this.chunks.add(task);
+            }
+        } catch (final RuntimeException e) {
+            this.cancelChunks();
+            throw e;
+        }
+        return !this.chunks.isEmpty();
+    }
+
+    /**
+     * Gets a copy of the parallel traversal for a chunk to run, reusing one left by a finished chunk if there is one.
+     * New copies are cloned here on the calling thread rather than by the chunks themselves.
+     */
+    private Traversal.Admin<S, E> takeTraversal() {
+        final Traversal.Admin<S, E> traversal = this.idleTraversals.poll();
+        return null == traversal ? this.parallelTraversal.clone() : traversal;
+    }
+
+    private Object awaitOldestChunk() {
+        final ChunkTask task = this.chunks.remove();
+        try {
+            return task.future.get();
+        } catch (final InterruptedException e) {
+            task.cancel();
+            this.cancelChunks();
+            throw new TraversalInterruptedException();
+        } catch (final ExecutionException e) {
+            this.cancelChunks();
+            // the pool hands back a copy of what the chunk threw so prefer the original
+            final Throwable cause = null == task.failure ? e.getCause() : task.failure;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private void cancelChunks() {
+        while (!this.chunks.isEmpty()) {
+            this.chunks.remove().cancel();
+        }
+    }
+
+    private boolean isReducing() {
+        return this.parallelTraversal.getEndStep() instanceof ReducingBarrierStep;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.cancelChunks();
+        this.chunkResults = Collections.emptyIterator();
+        this.done = false;
+        this.parallelTraversal.reset();
+    }
+
+    /**
+     * Cancels the chunks in progress, as a traversal that is closed before it is fully iterated may leave some.
+     */
+    @Override
+    public void close() {
+        this.cancelChunks();
+    }
+
+    @Override
+    public ParallelStep<S, E> clone() {
+        final ParallelStep<S, E> clone = (ParallelStep<S, E>) super.clone();
+        clone.parallelTraversal = this.parallelTraversal.clone();
+        clone.idleTraversals = new ConcurrentLinkedQueue<>();
+        clone.chunks = new ArrayDeque<>();
+        clone.chunkResults = Collections.emptyIterator();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.integrateChild(this.parallelTraversal);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.parallelTraversal, this.parallelism, this.chunkSize);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.parallelTraversal.hashCode() ^ this.parallelism ^ Integer.rotateLeft(this.chunkSize, 16);
+    }
+
+    /**
+     * Runs a clone of the parallel traversal over one chunk of starts. The thread running it is interrupted when
+     * the chunk is cancelled, since cancelling a task of a {@link ForkJoinPool} does not.
+     */
+    private final class ChunkTask implements Callable<Object> {
+        private final Traversal.Admin<S, E> traversal;
+        private final List<Traverser.Admin<S>> chunk;
+        private Future<Object> future;
+        private Thread runner = null;
+        private volatile boolean cancelled = false;
+        private volatile Throwable failure = null;
+
+        private ChunkTask(final Traversal.Admin<S, E> traversal, final List<Traverser.Admin<S>> chunk) {
+            this.traversal = traversal;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public Object call() {
+            synchronized (this) {
+                if (this.cancelled) throw new TraversalInterruptedException();
+                this.runner = Thread.currentThread();
+            }
+            try {
+                this.traversal.addStarts(this.chunk.iterator());
+                final Object result;
+                if (isReducing()) {
+                    final Barrier<E> barrier = (Barrier<E>) this.traversal.getEndStep();
+                    result = barrier.hasNextBarrier() ? barrier.nextBarrier() : ReducingBarrierStep.NON_EMITTING_SEED;
+                } else {
+                    final List<Traverser.Admin<E>> traversers = new ArrayList<>();
+                    while (this.traversal.hasNext()) {
+                        traversers.add(this.traversal.nextTraverser());
+                    }
+                    result = traversers;
+                }
+                this.traversal.reset();
+                idleTraversals.offer(this.traversal);
+                return result;
+            } catch (final RuntimeException | Error e) {
+                this.failure = e;
+                throw e;
+            } finally {
+                synchronized (this) {
+                    this.runner = null;
+                }
+                // an interrupt that arrived as the chunk finished must not be left on a pooled thread
+                if (this.cancelled) Thread.interrupted();
+            }
+        }
+
+        private synchronized void cancel() {
+            this.cancelled = true;
+            if (null != this.future) this.future.cancel(false);
+            if (null != this.runner) this.runner.interrupt();
+        }
+    }
+}
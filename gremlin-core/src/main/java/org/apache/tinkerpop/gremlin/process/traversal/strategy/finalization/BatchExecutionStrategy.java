@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.IsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyKeyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyValueStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A strategy that has steps pull traversers from the step before them an array at a time with
+ * {@link AbstractStep#nextBatch(Traverser.Admin[])} rather than one {@link Step#next()} call at a time, which lets
+ * steps like {@link VertexStep} and {@link HasStep} work through a batch in a tight loop. Pulling ahead is only safe
+ * where it cannot be observed, so batching is enabled from the start of a traversal only for as long as the steps being
+ * pulled from are free of side-effects, and not at all on a {@code GraphComputer} or while profiling. A step further
+ * along that only needs a few traversers, such as a {@code limit()}, may cause up to a batch of extra work in the
+ * steps before it.
+ * <p/>
+ * The strategy is not registered by default and is enabled per traversal source:
+ * <pre>
+ * g.withStrategies(new BatchExecutionStrategy(256)).V().out().has("name", "marko")
+ * </pre>
+ */
+public final class BatchExecutionStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy>
+        implements TraversalStrategy.FinalizationStrategy {
+
+    public static final String BATCH_SIZE = "batchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final List<Class<? extends Step>> SIDE_EFFECT_FREE_STEPS = Arrays.asList(
+            GraphStep.class, VertexStep.class, EdgeVertexStep.class, EdgeOtherVertexStep.class, PropertiesStep.class,
+            PropertyKeyStep.class, PropertyValueStep.class, IdStep.class, LabelStep.class, HasStep.class, IsStep.class,
+            IdentityStep.class, NoOpBarrierStep.class);
+
+    private static final Set<Class<? extends FinalizationStrategy>> PRIORS = Collections.singleton(ProfileStrategy.class);
+
+    private final int batchSize;
+
+    public BatchExecutionStrategy() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchExecutionStrategy(final int batchSize) {
+        if (batchSize < 2)
+            throw new IllegalArgumentException("The batchSize must be at least 2: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || TraversalHelper.hasStepOfAssignableClass(ProfileStep.class, traversal))
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        for (int i = 1; i < steps.size() && isFreeOfSideEffects(steps.get(i - 1)); i++) {
+            if (steps.get(i) instanceof AbstractStep)
+                ((AbstractStep<?, ?>) steps.get(i)).getStarts().setBatchSize(this.batchSize);
+        }
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    /**
+     * Determines if the step is one whose traversers can be produced ahead of when they are asked for, or on another
+     * thread, without that being observable.
+     */
+    public static boolean isFreeOfSideEffects(final Step<?, ?> step) {
+        for (final Class<? extends Step> sideEffectFreeStep : SIDE_EFFECT_FREE_STEPS) {
+            if (sideEffectFreeStep.isInstance(step))
+                return true;
+        }
+        return false;
+    }
+
+    public static BatchExecutionStrategy create(final Configuration configuration) {
+        return new BatchExecutionStrategy(configuration.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, BatchExecutionStrategy.class.getCanonicalName());
+        map.put(BATCH_SIZE, this.batchSize);
+        return new MapConfiguration(map);
+    }
+}
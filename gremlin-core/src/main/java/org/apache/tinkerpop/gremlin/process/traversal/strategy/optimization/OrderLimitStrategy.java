@@ -40,11 +40,14 @@ import java.util.List;
 import java.util.Set;
 
 /**
- * {@code OrderLimitStrategy} is an OLAP strategy that folds a {@link RangeGlobalStep} into a preceding
- * {@link OrderGlobalStep}. This helps to eliminate traversers early in the traversal and can
- * significantly reduce the amount of memory required by the OLAP execution engine.
+ * {@code OrderLimitStrategy} folds a {@link RangeGlobalStep} into a preceding {@link OrderGlobalStep}, which then
+ * only keeps as many traversers as the {@link RangeGlobalStep} can let through. This helps to eliminate traversers
+ * early in the traversal and can significantly reduce the amount of memory required by the OLAP execution engine,
+ * while in OLTP the {@link OrderGlobalStep} selects those traversers with a bounded heap rather than sorting all of
+ * them.
  *
- * It's worth noting that certain steps are allowed between {@link OrderGlobalStep} and {@link RangeGlobalStep}:
+ * It's worth noting that certain steps are allowed between {@link OrderGlobalStep} and {@link RangeGlobalStep} in
+ * OLAP:
  * <p/>
  * <ul>
  *     <li>{@link IdStep}</li>
@@ -57,7 +60,9 @@ import java.util.Set;
  * </ul>
  * <p/>
  *
- * These steps will be ignored by the {@code OrderLimitStrategy} and thus not affect its behavior.
+ * These steps will be ignored by the {@code OrderLimitStrategy} and thus not affect its behavior. In OLTP only the
+ * {@link IdStep}, {@link LabelStep}, {@link PathStep} and {@link SackStep} are allowed, as those produce exactly one
+ * traverser for each traverser they are given.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -74,14 +79,18 @@ public final class OrderLimitStrategy extends AbstractTraversalStrategy<Traversa
                     SackStep.class,
                     TreeStep.class));
 
+    private static Set<Class<? extends Step>> LEGAL_STANDARD_STEPS = new HashSet<>(
+            Arrays.asList(LabelStep.class,
+                    IdStep.class,
+                    PathStep.class,
+                    SackStep.class));
+
     private OrderLimitStrategy() {
     }
 
     @Override
     public void apply(final Traversal.Admin<?, ?> traversal) {
-        if (!TraversalHelper.onGraphComputer(traversal))
-            return;
-
+        final Set<Class<? extends Step>> legalSteps = TraversalHelper.onGraphComputer(traversal) ? LEGAL_STEPS : LEGAL_STANDARD_STEPS;
         final List<OrderGlobalStep> orders = TraversalHelper.getStepsOfClass(OrderGlobalStep.class, traversal);
         for (final OrderGlobalStep order : orders) {
             RangeGlobalStep range = null;
@@ -90,7 +99,7 @@ public final class OrderLimitStrategy extends AbstractTraversalStrategy<Traversa
                 if (currentStep instanceof RangeGlobalStep) {
                     range = (RangeGlobalStep) currentStep;
                     break;
-                } else if (!LEGAL_STEPS.contains(currentStep.getClass()))
+                } else if (!legalSteps.contains(currentStep.getClass()))
                     break;
                 else
                     currentStep = currentStep.getNextStep();
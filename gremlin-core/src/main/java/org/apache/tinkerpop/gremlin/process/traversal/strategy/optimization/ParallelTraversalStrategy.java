@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TimeLimitStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LambdaCollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalFlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.OptionsStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchExecutionStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A strategy that runs the start of a standard traversal on the common {@link ForkJoinPool} rather than on the
+ * calling thread alone. The traversers of the starting {@link GraphStep} are split into chunks and the steps that
+ * follow it and its filters, up to the first {@link ReducingBarrierStep} or {@link CollectingBarrierStep}, are run over the chunks in
+ * parallel by a {@link ParallelStep}. A {@link ReducingBarrierStep} like {@code count()} or {@code groupCount()} is
+ * run on each chunk and the partial results are merged with its {@link ReducingBarrierStep#getBiOperator()}, while the
+ * traversers headed for a {@link CollectingBarrierStep} like {@code order()} are handed to it in the order they would
+ * have arrived without the strategy. The strategy runs after the other optimizations so that provider optimizations
+ * still apply to the steps that are moved into the {@link ParallelStep}.
+ * <p/>
+ * Only steps that are free of side-effects are run in parallel, so the strategy leaves the traversal alone if there
+ * is no such barrier to merge at, as well as on a {@code GraphComputer}, while profiling, and for graphs that support
+ * transactions, as those are typically bound to the calling thread. A {@link TimeLimitStep} directly after the
+ * {@link GraphStep} stays on the calling thread and stops further chunks from being started once its time is up,
+ * and interrupting the calling thread interrupts the chunks in progress.
+ * <p/>
+ * The strategy is not registered by default and is enabled per traversal source. The {@link #PARALLELISM} and
+ * {@link #CHUNK_SIZE} may also be given per traversal with {@code with()}, where a {@link #PARALLELISM} of one turns
+ * the strategy off:
+ * <pre>
+ * g.withStrategies(ParallelTraversalStrategy.build().parallelism(8).create()).V().hasLabel("person").out().out().groupCount()
+ * g.withStrategies(ParallelTraversalStrategy.build().create()).with(ParallelTraversalStrategy.CHUNK_SIZE, 100).V().out().count()
+ * </pre>
+ */
+public final class ParallelTraversalStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy>
+        implements TraversalStrategy.OptimizationStrategy {
+
+    public static final String PARALLELISM = "parallelism";
+    public static final String CHUNK_SIZE = "chunkSize";
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final List<Class<? extends Step>> PARENT_STEPS = Arrays.asList(
+            TraversalFilterStep.class, NotStep.class, LocalStep.class, TraversalMapStep.class, TraversalFlatMapStep.class);
+
+    private static final Set<Class<? extends OptimizationStrategy>> PRIORS = new HashSet<>(Arrays.asList(
+            AdjacentToIncidentStrategy.class,
+            ByModulatorOptimizationStrategy.class,
+            CountStrategy.class,
+            EarlyLimitStrategy.class,
+            FilterRankingStrategy.class,
+            IdentityRemovalStrategy.class,
+            IncidentToAdjacentStrategy.class,
+            InlineFilterStrategy.class,
+            LazyBarrierStrategy.class,
+            MatchPredicateStrategy.class,
+            OrderLimitStrategy.class,
+            PathProcessorStrategy.class,
+            PathRetractionStrategy.class,
+            ProductiveByStrategy.class,
+            RepeatUnrollStrategy.class));
+
+    private final int parallelism;
+    private final int chunkSize;
+
+    private ParallelTraversalStrategy(final Builder builder) {
+        if (builder.parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be at least 1: " + builder.parallelism);
+        if (builder.chunkSize < 1)
+            throw new IllegalArgumentException("The chunkSize must be at least 1: " + builder.chunkSize);
+        this.parallelism = builder.parallelism;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || TraversalHelper.onGraphComputer(traversal) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(ProfileSideEffectStep.class, traversal) ||
+                traversal.getGraph().map(graph -> graph.features().graph().supportsTransactions()).orElse(false))
+            return;
+
+        final Map<String, Object> options = traversal.getStrategies().getStrategy(OptionsStrategy.class)
+                .map(OptionsStrategy::getOptions).orElse(Collections.emptyMap());
+        final int parallelism = options.containsKey(PARALLELISM) ? ((Number) options.get(PARALLELISM)).intValue() : this.parallelism;
+        final int chunkSize = options.containsKey(CHUNK_SIZE) ? ((Number) options.get(CHUNK_SIZE)).intValue() : this.chunkSize;
+        if (parallelism <= 1 || chunkSize < 1)
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep) || !((GraphStep) steps.get(0)).isStartStep())
+            return;
+
+        // filters right after the start are left for providers to fold into it, and a time limit there is checked as
+        // the chunks are taken so it stays with the starts
+        int start = 1;
+        while (start < steps.size() && steps.get(start) instanceof HasStep)
+            start++;
+        if (start < steps.size() && steps.get(start) instanceof TimeLimitStep)
+            start++;
+        int end = start;
+        while (end < steps.size() && isParallelizable(steps.get(end)))
+            end++;
+        if (end == start || end == steps.size())
+            return;
+
+        final Step<?, ?> mergeStep = steps.get(end);
+        final boolean reducing;
+        if (mergeStep instanceof ReducingBarrierStep) {
+            // a fold() with a seed and a lambda can't merge partial results
+            if (mergeStep instanceof FoldStep && !((FoldStep) mergeStep).isListFold())
+                return;
+            if (mergeStep instanceof TraversalParent && !isFreeOfSideEffects((TraversalParent) mergeStep))
+                return;
+            reducing = true;
+        } else if (mergeStep instanceof CollectingBarrierStep && !(mergeStep instanceof LambdaCollectingBarrierStep)) {
+            reducing = false;
+        } else {
+            return;
+        }
+
+        final Step startStep = steps.get(start);
+        final Traversal.Admin parallelTraversal = new DefaultTraversal<>();
+        final Step endStep = reducing ? mergeStep.getNextStep() : mergeStep;
+        TraversalHelper.removeToTraversal(startStep, endStep, parallelTraversal);
+        final ParallelStep<?, ?> parallelStep = new ParallelStep<>(traversal, parallelTraversal, parallelism, chunkSize);
+        if (reducing)
+            TraversalHelper.copyLabels(mergeStep, parallelStep, true);
+        traversal.addStep(start, parallelStep);
+    }
+
+    /**
+     * Determines if the step can be run on a chunk of traversers on another thread, which is the case for steps
+     * that are free of side-effects and for some parents of child traversals whose steps are all free of
+     * side-effects.
+     */
+    private static boolean isParallelizable(final Step<?, ?> step) {
+        if (BatchExecutionStrategy.isFreeOfSideEffects(step))
+            return true;
+        for (final Class<? extends Step> parentStep : PARENT_STEPS) {
+            if (parentStep.isInstance(step))
+                return isFreeOfSideEffects((TraversalParent) step);
+        }
+        return false;
+    }
+
+    private static boolean isFreeOfSideEffects(final TraversalParent parent) {
+        return !TraversalHelper.anyStepRecursively(s -> s instanceof Mutating || s instanceof SideEffectCapable ||
+                s instanceof LambdaHolder || s instanceof TimeLimitStep, parent);
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static ParallelTraversalStrategy create(final Configuration configuration) {
+        return build().parallelism(configuration.getInt(PARALLELISM, ForkJoinPool.commonPool().getParallelism()))
+                .chunkSize(configuration.getInt(CHUNK_SIZE, DEFAULT_CHUNK_SIZE)).create();
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, ParallelTraversalStrategy.class.getCanonicalName());
+        map.put(PARALLELISM, this.parallelism);
+        map.put(CHUNK_SIZE, this.chunkSize);
+        return new MapConfiguration(map);
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+        private int parallelism = ForkJoinPool.commonPool().getParallelism();
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder() {}
+
+        /**
+         * The most chunks to work on at once, which defaults to the parallelism of the common {@link ForkJoinPool}.
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * The number of traversers of the {@link GraphStep} to put in each chunk.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public ParallelTraversalStrategy create() {
+            return new ParallelTraversalStrategy(this);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+
+/**
+ * A {@link TraverserSet} for traversals that are iterated by a single thread at a time, which is what
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal} gives its steps when the traversal
+ * is not executed on a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}. It takes no lock and
+ * allocates no entry per traverser: the traversers are held in an array in the order they were added, so removing
+ * the first one is a matter of moving past it, and small sets find equal traversers by scanning that array. Once a
+ * set holds more than a few traversers, an open addressing table of positions in the array is kept to find them.
+ * <p/>
+ * This class is not registered with Gryo as it is never meant to leave the traversal that created it.
+ */
+public class UnsynchronizedTraverserSet<S> extends TraverserSet<S> {
+
+    /**
+     * The number of positions up to which equal traversers are found by scanning the array rather than hashing.
+     */
+    private static final int SCAN_LIMIT = 8;
+    private static final Traverser.Admin[] EMPTY = new Traverser.Admin[0];
+    private static final int FREE = 0;
+    private static final int REMOVED = -1;
+
+    private Traverser.Admin<S>[] traversers = EMPTY;
+    private int head = 0;
+    private int tail = 0;
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * The positions of the traversers plus one, or {@link #FREE} and {@link #REMOVED}, which is only kept while more
+     * than {@link #SCAN_LIMIT} positions are in use.
+     */
+    private int[] slots = null;
+    private int usedSlots = 0;
+
+    public UnsynchronizedTraverserSet() {
+        super((Map<Traverser.Admin<S>, Traverser.Admin<S>>) null);
+    }
+
+    public UnsynchronizedTraverserSet(final Traverser.Admin<S> traverser) {
+        this();
+        if (traverser != null)
+            this.append(traverser);
+    }
+
+    @Override
+    public Iterator<Traverser.Admin<S>> iterator() {
+        return new Iterator<Traverser.Admin<S>>() {
+            private int position = head;
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                this.check();
+                while (this.position < tail && null == traversers[this.position]) {
+                    this.position++;
+                }
+                return this.position < tail;
+            }
+
+            @Override
+            public Traverser.Admin<S> next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+                this.last = this.position++;
+                return traversers[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0)
+                    throw new IllegalStateException();
+                this.check();
+                removeAt(this.last);
+                this.last = -1;
+                this.expectedModCount = modCount;
+            }
+
+            private void check() {
+                if (this.expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        };
+    }
+
+    @Override
+    public Traverser.Admin<S> get(final Traverser.Admin<S> traverser) {
+        final int position = this.find(traverser);
+        return position < 0 ? null : this.traversers[position];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public long bulkSize() {
+        long bulk = 0L;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i]) bulk = bulk + this.traversers[i].bulk();
+        }
+        return bulk;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    @Override
+    public boolean contains(final Object traverser) {
+        return null != traverser && this.find(traverser) >= 0;
+    }
+
+    @Override
+    public boolean add(final Traverser.Admin<S> traverser) {
+        final int position = this.find(traverser);
+        if (position < 0) {
+            this.append(traverser);
+            return true;
+        } else {
+            this.traversers[position].merge(traverser);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean offer(final Traverser.Admin<S> traverser) {
+        return this.add(traverser);
+    }
+
+    @Override
+    public Traverser.Admin<S> remove() {  // pop, exception if empty
+        if (0 == this.size)
+            throw FastNoSuchElementException.instance();
+        final int position = this.first();
+        final Traverser.Admin<S> traverser = this.traversers[position];
+        this.removeAt(position);
+        return traverser;
+    }
+
+    @Override
+    public Traverser.Admin<S> poll() {  // pop, null if empty
+        return 0 == this.size ? null : this.remove();
+    }
+
+    @Override
+    public Traverser.Admin<S> element() { // peek, exception if empty
+        if (0 == this.size)
+            throw new NoSuchElementException();
+        return this.traversers[this.first()];
+    }
+
+    @Override
+    public Traverser.Admin<S> peek() { // peek, null if empty
+        return 0 == this.size ? null : this.traversers[this.first()];
+    }
+
+    @Override
+    public boolean remove(final Object traverser) {
+        final int position = null == traverser ? -1 : this.find(traverser);
+        if (position < 0)
+            return false;
+        this.removeAt(position);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.traversers, this.head, this.tail, null);
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+        this.slots = null;
+        this.usedSlots = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Spliterator<Traverser.Admin<S>> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
+    }
+
+    @Override
+    public String toString() {
+        final StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i]) joiner.add(String.valueOf(this.traversers[i]));
+        }
+        return joiner.toString();
+    }
+
+    @Override
+    public void sort(final Comparator<Traverser<S>> comparator) {
+        this.compact();
+        Arrays.sort(this.traversers, 0, this.size, comparator);
+        this.rebuildSlots();
+    }
+
+    @Override
+    public void shuffle(final Random random) {
+        this.compact();
+        // the same swaps as Collections.shuffle() so that a seeded random orders the traversers as TraverserSet does
+        for (int i = this.size; i > 1; i--) {
+            final int j = random.nextInt(i);
+            final Traverser.Admin<S> traverser = this.traversers[i - 1];
+            this.traversers[i - 1] = this.traversers[j];
+            this.traversers[j] = traverser;
+        }
+        this.rebuildSlots();
+    }
+
+    private int first() {
+        while (null == this.traversers[this.head]) {
+            this.head++;
+        }
+        return this.head;
+    }
+
+    private int find(final Object traverser) {
+        if (null == this.slots) {
+            for (int i = this.head; i < this.tail; i++) {
+                if (null != this.traversers[i] && this.traversers[i].equals(traverser))
+                    return i;
+            }
+            return -1;
+        }
+        final int mask = this.slots.length - 1;
+        for (int i = hash(traverser) & mask; ; i = (i + 1) & mask) {
+            final int slot = this.slots[i];
+            if (FREE == slot)
+                return -1;
+            if (REMOVED != slot && this.traversers[slot - 1].equals(traverser))
+                return slot - 1;
+        }
+    }
+
+    private void append(final Traverser.Admin<S> traverser) {
+        if (this.tail == this.traversers.length)
+            this.makeRoom();
+        this.traversers[this.tail] = traverser;
+        if (null != this.slots)
+            this.insertSlot(this.tail);
+        this.tail++;
+        this.size++;
+        this.modCount++;
+        if (null == this.slots && this.tail - this.head > SCAN_LIMIT)
+            this.rebuildSlots(true);
+    }
+
+    private void removeAt(final int position) {
+        if (null != this.slots)
+            this.removeSlot(position);
+        this.traversers[position] = null;
+        this.size--;
+        this.modCount++;
+        if (0 == this.size) {
+            this.head = 0;
+            this.tail = 0;
+            this.slots = null;
+            this.usedSlots = 0;
+        } else if (position == this.head) {
+            this.head++;
+        }
+    }
+
+    /**
+     * Makes room at the end of a full array by moving the traversers to its front when at least half of it is free,
+     * and by moving them to a larger array otherwise.
+     */
+    private void makeRoom() {
+        if (this.size <= this.traversers.length >> 1 && this.size < this.traversers.length) {
+            this.compact();
+            this.rebuildSlots();
+        } else {
+            final Traverser.Admin<S>[] larger = new Traverser.Admin[Math.max(4, this.traversers.length << 1)];
+            int next = 0;
+            for (int i = this.head; i < this.tail; i++) {
+                if (null != this.traversers[i]) larger[next++] = this.traversers[i];
+            }
+            this.traversers = larger;
+            this.head = 0;
+            this.tail = next;
+            this.rebuildSlots();
+        }
+    }
+
+    private void compact() {
+        int next = 0;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i]) this.traversers[next++] = this.traversers[i];
+        }
+        Arrays.fill(this.traversers, next, this.tail, null);
+        this.head = 0;
+        this.tail = next;
+        this.modCount++;
+    }
+
+    private void rebuildSlots() {
+        this.rebuildSlots(null != this.slots);
+    }
+
+    private void rebuildSlots(final boolean keep) {
+        if (!keep) return;
+        int capacity = SCAN_LIMIT << 1;
+        while (capacity * 3 < (this.tail - this.head + 1) * 8) {
+            capacity <<= 1;
+        }
+        this.slots = new int[capacity];
+        this.usedSlots = 0;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i]) this.insertSlot(i);
+        }
+    }
+
+    private void insertSlot(final int position) {
+        if ((this.usedSlots + 1) * 4 > this.slots.length * 3) {
+            // the table is rebuilt without its removed slots, and at twice the size if it is still half full
+            final int[] old = this.slots;
+            int live = 1;
+            for (final int slot : old) {
+                if (slot > 0) live++;
+            }
+            this.slots = new int[live * 2 > old.length ? old.length << 1 : old.length];
+            this.usedSlots = 0;
+            for (final int slot : old) {
+                if (slot > 0) this.insertSlot(slot - 1);
+            }
+        }
+        final int mask = this.slots.length - 1;
+        int i = hash(this.traversers[position]) & mask;
+        while (this.slots[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        if (FREE == this.slots[i]) this.usedSlots++;
+        this.slots[i] = position + 1;
+    }
+
+    private void removeSlot(final int position) {
+        final int mask = this.slots.length - 1;
+        for (int i = hash(this.traversers[position]) & mask; ; i = (i + 1) & mask) {
+            if (this.slots[i] == position + 1) {
+                this.slots[i] = REMOVED;
+                return;
+            }
+        }
+    }
+
+    private static int hash(final Object traverser) {
+        final int hash = traverser.hashCode() * 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -33,10 +33,13 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.DefaultTraverserGeneratorFactory;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.EmptyTraverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.UnsynchronizedTraverserSet;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.util.function.TraverserSetSupplier;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -46,6 +49,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -118,6 +122,17 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
         return this.generator;
     }
 
+    /**
+     * Gets a supplier of {@link UnsynchronizedTraverserSet} when the traversal is not executed on a
+     * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}, as its steps are then only ever iterated
+     * by one thread at a time. Traversals on a computer, whose steps are created again as the traversal is cloned for
+     * the workers, keep the synchronized {@link TraverserSet} that is exchanged between them.
+     */
+    @Override
+    public Supplier<TraverserSet<S>> getTraverserSetSupplier() {
+        return TraversalHelper.onGraphComputer(this) ? TraverserSetSupplier.instance() : UnsynchronizedTraverserSet::new;
+    }
+
     @Override
     public void applyStrategies() throws IllegalStateException {
         if (this.locked) throw Traversal.Exceptions.traversalIsLocked();
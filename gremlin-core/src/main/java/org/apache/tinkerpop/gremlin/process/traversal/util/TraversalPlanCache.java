@@ -0,0 +1,421 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ConfigurationConverter;
+import org.apache.tinkerpop.gremlin.jsr223.JavaTranslator;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.VertexProgramStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.TraversalStrategyProxy;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of the traversals that {@link Bytecode} compiles to, for workloads that submit many traversals of a few
+ * shapes which only differ in the values they filter on. The shape of the {@link Bytecode} is what remains once the
+ * values of its {@code has(key, value)} and {@code has(key, predicate)} instructions are taken out, and a traversal of
+ * a known shape is not translated and has no strategies applied: the compiled traversal cached for the shape is
+ * cloned and its {@link HasContainer} instances are given the new values instead.
+ * <p/>
+ * A compiled traversal is only cached when each of those values can be found in exactly one {@link HasContainer}
+ * after strategy application, so shapes whose strategies fold, merge or duplicate the filters are compiled every time.
+ * Other values, like those of {@code limit()}, {@code is()} or the identifiers given to {@code V()}, remain part of the
+ * shape. Traversals whose side-effects, sacks or {@code fold()} seeds are not immutable values, like a list that
+ * {@code Operator.addAll} adds to, are compiled every time, as a cached traversal would share them with its clones.
+ * Traversals executed on a {@code GraphComputer} are compiled every time as well, since their vertex programs are
+ * created from the traversals they hold as given, before strategies are applied, where the values cannot be rebound.
+ * Strategies applied to the first traversal of a shape are not applied again for later values, so a plan that
+ * depends on the values themselves, like the filter order of a step ranked by statistics, is kept for all of them.
+ * <p/>
+ * The cache holds the most recently used shapes up to its maximum size and may be shared by threads and by
+ * {@link TraversalSource} instances, which are part of the shape. The steps of the cached traversals must clone their
+ * {@link HasContainer} instances when they are cloned.
+ */
+public final class TraversalPlanCache {
+
+    private final int maximumSize;
+    private final Map<Shape, Plan> plans;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TraversalPlanCache(final int maximumSize) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("The maximum size of the plan cache must be greater than zero");
+        this.maximumSize = maximumSize;
+        this.plans = Collections.synchronizedMap(new LinkedHashMap<Shape, Plan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Shape, Plan> eldest) {
+                if (size() <= TraversalPlanCache.this.maximumSize)
+                    return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Gets the traversal for the {@link Bytecode} with its strategies applied, translating it with a
+     * {@link JavaTranslator} over the {@link TraversalSource} only if no traversal of its shape was cached yet.
+     */
+    public <T extends Traversal.Admin<?, ?>> T translate(final TraversalSource traversalSource, final Bytecode bytecode) {
+        final Shape shape = BytecodeHelper.isGraphOperation(bytecode) ? null : Shape.of(traversalSource, bytecode);
+        if (null != shape) {
+            final Plan plan = this.plans.get(shape);
+            if (null != plan) {
+                this.hits.incrementAndGet();
+                return (T) plan.bind(shape.parameters, bytecode);
+            }
+        }
+
+        this.misses.incrementAndGet();
+        final T traversal = JavaTranslator.<TraversalSource, T>of(traversalSource).translate(bytecode);
+        traversal.applyStrategies();
+        if (null != shape) {
+            final Plan plan = Plan.of(traversal, shape.parameters);
+            if (null != plan) this.plans.put(shape, plan);
+        }
+        return traversal;
+    }
+
+    /**
+     * Gets the number of traversals that were cloned from a cached traversal.
+     */
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * Gets the number of traversals that were translated and had strategies applied to them.
+     */
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * Gets the number of cached traversals that were dropped to stay within the maximum size.
+     */
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Gets the number of shapes that have a cached traversal.
+     */
+    public int size() {
+        return this.plans.size();
+    }
+
+    public void clear() {
+        this.plans.clear();
+    }
+
+    /**
+     * Gets the {@link HasContainer} instances of the traversal and its children in the order of
+     * {@link TraversalHelper#getStepsOfAssignableClassRecursively(Class, Traversal.Admin)}, which is the same for a
+     * traversal and its clones.
+     */
+    private static List<HasContainer> getHasContainers(final Traversal.Admin<?, ?> traversal) {
+        final List<HasContainer> hasContainers = new ArrayList<>();
+        for (final HasContainerHolder holder : TraversalHelper.getStepsOfAssignableClassRecursively(HasContainerHolder.class, traversal)) {
+            hasContainers.addAll(holder.getHasContainers());
+        }
+        return hasContainers;
+    }
+
+    /**
+     * A value taken out of a {@code has()} instruction, with the key it filters and the predicate it filters with.
+     */
+    private static final class Parameter {
+        private final String key;
+        private final P<?> predicate;
+
+        private Parameter(final String key, final P<?> predicate) {
+            this.key = key;
+            this.predicate = predicate;
+        }
+
+        private boolean matches(final HasContainer hasContainer) {
+            final P<?> other = hasContainer.getPredicate();
+            return this.key.equals(hasContainer.getKey()) && null != other &&
+                    this.predicate.getClass().equals(other.getClass()) &&
+                    this.predicate.getBiPredicate().equals(other.getBiPredicate()) &&
+                    Objects.equals(this.predicate.getOriginalValue(), other.getOriginalValue());
+        }
+    }
+
+    /**
+     * The {@link Bytecode} of a traversal with the values of its {@code has()} instructions replaced by markers of
+     * their type, along with the values themselves which are not part of its equality.
+     */
+    private static final class Shape {
+        private static final Object UNCACHEABLE = new Object();
+        private static final String PARAMETER = "?";
+
+        /**
+         * The operators whose arguments seed state that a traversal changes as it is iterated, like a side-effect that
+         * {@code Operator.addAll} adds to, which a cached traversal would share with all of its clones.
+         */
+        private static final Set<String> SEEDS = new HashSet<>(Arrays.asList(
+                TraversalSource.Symbols.withSideEffect, TraversalSource.Symbols.withSack, GraphTraversal.Symbols.fold));
+        private static final Set<Class<?>> IMMUTABLE_VALUES = new HashSet<>(Arrays.asList(
+                String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+                Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class));
+
+        private final TraversalSource traversalSource;
+        private final List<Object> instructions;
+        private final List<Parameter> parameters;
+        private final int hashCode;
+
+        private Shape(final TraversalSource traversalSource, final List<Object> instructions, final List<Parameter> parameters) {
+            this.traversalSource = traversalSource;
+            this.instructions = instructions;
+            this.parameters = parameters;
+            this.hashCode = System.identityHashCode(traversalSource) ^ instructions.hashCode();
+        }
+
+        /**
+         * Gets the shape of the {@link Bytecode} or {@code null} if it holds arguments, like lambdas, that cannot be
+         * compared with those of other traversals.
+         */
+        private static Shape of(final TraversalSource traversalSource, final Bytecode bytecode) {
+            final List<Parameter> parameters = new ArrayList<>();
+            final Object instructions = shape(bytecode, parameters);
+            return UNCACHEABLE == instructions ? null : new Shape(traversalSource, (List<Object>) instructions, parameters);
+        }
+
+        private static Object shape(final Bytecode bytecode, final List<Parameter> parameters) {
+            final List<Object> sourceInstructions = new ArrayList<>();
+            for (final Bytecode.Instruction instruction : bytecode.getSourceInstructions()) {
+                final Object shape = shape(instruction, false, parameters);
+                if (UNCACHEABLE == shape) return UNCACHEABLE;
+                sourceInstructions.add(shape);
+            }
+            final List<Object> stepInstructions = new ArrayList<>();
+            for (final Bytecode.Instruction instruction : bytecode.getStepInstructions()) {
+                final Object shape = shape(instruction, true, parameters);
+                if (UNCACHEABLE == shape) return UNCACHEABLE;
+                stepInstructions.add(shape);
+            }
+            return Arrays.asList(sourceInstructions, stepInstructions);
+        }
+
+        private static Object shape(final Bytecode.Instruction instruction, final boolean step, final List<Parameter> parameters) {
+            final Object[] arguments = instruction.getArguments();
+            final List<Object> shape = new ArrayList<>(arguments.length + 1);
+            shape.add(instruction.getOperator());
+            if (SEEDS.contains(instruction.getOperator())) {
+                for (final Object argument : arguments) {
+                    if (!isImmutable(argument instanceof Bytecode.Binding ? ((Bytecode.Binding) argument).value() : argument))
+                        return UNCACHEABLE;
+                }
+            }
+            final int parameter = step ? parameterIndex(instruction) : -1;
+            for (int i = 0; i < arguments.length; i++) {
+                final Object argument = i == parameter ? parameter((String) arguments[i - 1], arguments[i], parameters) : shape(arguments[i], parameters);
+                if (UNCACHEABLE == argument) return UNCACHEABLE;
+                shape.add(argument);
+            }
+            return shape;
+        }
+
+        /**
+         * Determines if the argument of an instruction that seeds the state of a traversal cannot be changed, so that
+         * the traversals cloned from a cached one may share it.
+         */
+        private static boolean isImmutable(final Object argument) {
+            return null == argument || argument instanceof Enum || IMMUTABLE_VALUES.contains(argument.getClass());
+        }
+
+        /**
+         * Gets the index of the value of a {@code has(key, value)} or {@code has(label, key, value)} instruction whose
+         * key is a property key or -1 if the instruction has no such value.
+         */
+        private static int parameterIndex(final Bytecode.Instruction instruction) {
+            final Object[] arguments = instruction.getArguments();
+            if (!GraphTraversal.Symbols.has.equals(instruction.getOperator()) || arguments.length < 2 || arguments.length > 3)
+                return -1;
+            for (int i = 0; i < arguments.length - 1; i++) {
+                if (!(arguments[i] instanceof String)) return -1;
+            }
+            final String key = (String) arguments[arguments.length - 2];
+            for (final T token : T.values()) {
+                if (token.getAccessor().equals(key)) return -1;
+            }
+            return arguments.length - 1;
+        }
+
+        /**
+         * Takes the value out of a {@code has()} instruction if it is a single value or a predicate of values, leaving
+         * a marker of its type in the shape, or gets the shape of the value if it is anything else.
+         */
+        private static Object parameter(final String key, final Object argument, final List<Parameter> parameters) {
+            final Object value = argument instanceof Bytecode.Binding ? ((Bytecode.Binding) argument).value() : argument;
+            if (value instanceof P && !(value instanceof ConnectiveP) && UNCACHEABLE != shape(((P<?>) value).getValue(), parameters)) {
+                final P<?> predicate = (P<?>) value;
+                parameters.add(new Parameter(key, predicate));
+                return Arrays.asList(PARAMETER, predicate.getClass(), predicate.getBiPredicate());
+            } else if (value instanceof String || value instanceof Number || value instanceof Boolean ||
+                    value instanceof Character || value instanceof UUID || value instanceof Date) {
+                parameters.add(new Parameter(key, P.eq(value)));
+                return Arrays.asList(PARAMETER, value.getClass());
+            } else {
+                return shape(value, parameters);
+            }
+        }
+
+        /**
+         * Gets an argument in a form that is equal to the same argument of another traversal, which for strategies
+         * is their class and configuration, or {@link #UNCACHEABLE} if there is no such form.
+         */
+        private static Object shape(final Object argument, final List<Parameter> parameters) {
+            if (null == argument || argument instanceof String || argument instanceof Number || argument instanceof Boolean ||
+                    argument instanceof Character || argument instanceof Enum || argument instanceof Class ||
+                    argument instanceof UUID || argument instanceof Date || argument instanceof Element)
+                return argument;
+            else if (argument instanceof Bytecode.Binding)
+                return shape(((Bytecode.Binding) argument).value(), parameters);
+            else if (argument instanceof Bytecode)
+                return shape((Bytecode) argument, parameters);
+            else if (argument instanceof ConnectiveP) {
+                for (final P<?> predicate : ((ConnectiveP<?>) argument).getPredicates()) {
+                    if (UNCACHEABLE == shape(predicate, parameters)) return UNCACHEABLE;
+                }
+                return argument;
+            } else if (argument instanceof P)
+                return UNCACHEABLE == shape(((P<?>) argument).getValue(), parameters) ? UNCACHEABLE : argument;
+            else if (argument instanceof TraversalStrategyProxy)
+                return shape(((TraversalStrategyProxy<?>) argument).getStrategyClass(), ((TraversalStrategyProxy<?>) argument).getConfiguration(), parameters);
+            else if (argument instanceof TraversalStrategy)
+                return shape(argument.getClass(), ((TraversalStrategy<?>) argument).getConfiguration(), parameters);
+            else if (argument instanceof Map) {
+                final Map<Object, Object> map = new LinkedHashMap<>();
+                for (final Map.Entry<?, ?> entry : ((Map<?, ?>) argument).entrySet()) {
+                    final Object key = shape(entry.getKey(), parameters);
+                    final Object value = shape(entry.getValue(), parameters);
+                    if (UNCACHEABLE == key || UNCACHEABLE == value) return UNCACHEABLE;
+                    map.put(key, value);
+                }
+                return map;
+            } else if (argument instanceof Collection) {
+                final Collection<Object> collection = argument instanceof Set ? new HashSet<>() : new ArrayList<>();
+                for (final Object object : (Collection<?>) argument) {
+                    final Object shape = shape(object, parameters);
+                    if (UNCACHEABLE == shape) return UNCACHEABLE;
+                    collection.add(shape);
+                }
+                return collection;
+            } else
+                return UNCACHEABLE;
+        }
+
+        private static Object shape(final Class<?> strategyClass, final Configuration configuration, final List<Parameter> parameters) {
+            final Object shape = shape(ConfigurationConverter.getMap(configuration), parameters);
+            return UNCACHEABLE == shape ? UNCACHEABLE : Arrays.asList(strategyClass, shape);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Shape && this.traversalSource == ((Shape) other).traversalSource &&
+                    this.instructions.equals(((Shape) other).instructions);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * A traversal with strategies applied, which is never iterated, and the positions of the {@link HasContainer}
+     * instances that hold the values taken out of its shape.
+     */
+    private static final class Plan {
+        private final Traversal.Admin<?, ?> traversal;
+        private final int[] positions;
+
+        private Plan(final Traversal.Admin<?, ?> traversal, final int[] positions) {
+            this.traversal = traversal;
+            this.positions = positions;
+        }
+
+        /**
+         * Gets the plan of a traversal which has had strategies applied or {@code null} if the values of its shape are
+         * not each held by exactly one of its {@link HasContainer} instances or if it is executed by vertex programs.
+         */
+        private static Plan of(final Traversal.Admin<?, ?> traversal, final List<Parameter> parameters) {
+            if (TraversalHelper.hasStepOfAssignableClassRecursively(VertexProgramStep.class, traversal))
+                return null;
+            final Traversal.Admin<?, ?> clone = traversal.clone();
+            final List<HasContainer> hasContainers = getHasContainers(clone);
+            final int[] positions = new int[parameters.size()];
+            final Set<Integer> taken = new HashSet<>();
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = -1;
+                for (int j = 0; j < hasContainers.size(); j++) {
+                    if (parameters.get(i).matches(hasContainers.get(j))) {
+                        if (-1 != positions[i]) return null;
+                        positions[i] = j;
+                    }
+                }
+                if (-1 == positions[i] || !taken.add(positions[i])) return null;
+            }
+            return new Plan(clone, positions);
+        }
+
+        private Traversal.Admin<?, ?> bind(final List<Parameter> parameters, final Bytecode bytecode) {
+            final Traversal.Admin<?, ?> clone = this.traversal.clone();
+            final List<HasContainer> hasContainers = getHasContainers(clone);
+            for (int i = 0; i < this.positions.length; i++) {
+                hasContainers.get(this.positions[i]).setPredicate(parameters.get(i).predicate.clone());
+            }
+            if (clone instanceof DefaultTraversal)
+                ((DefaultTraversal<?, ?>) clone).bytecode = bytecode.clone();
+            return clone;
+        }
+    }
+}
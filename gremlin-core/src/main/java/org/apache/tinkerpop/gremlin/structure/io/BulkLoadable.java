@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.io.InputStream;
+
+/**
+ * A {@link Graph} that can take a large number of new elements more quickly when it is told that they are being
+ * loaded together, for example by deferring the maintenance of its indices until the last of them has been added.
+ * The Gryo and GraphSON implementations of {@link GraphReader#readGraph(InputStream, Graph)}, and so the
+ * {@code io()} step when it reads, hold a load open for the whole of the read.
+ */
+public interface BulkLoadable {
+
+    /**
+     * Begins a bulk load of about {@code expectedVertices} vertices and {@code expectedEdges} edges, either of which
+     * may be {@code -1} if it is not known. Elements that are added while the load is open may not be fully visible
+     * to reads of the graph until it is closed, so the graph should only be written to by the load until then.
+     */
+    public Load bulkLoad(final long expectedVertices, final long expectedEdges);
+
+    /**
+     * Begins a bulk load of an unknown number of elements if the {@code graph} is {@link BulkLoadable} and does not
+     * support transactions, which batch their own writes, or otherwise returns a load that does nothing.
+     */
+    public static Load open(final Graph graph) {
+        return graph instanceof BulkLoadable && !graph.features().graph().supportsTransactions() ?
+                ((BulkLoadable) graph).bulkLoad(-1, -1) :
+                () -> {};
+    }
+
+    /**
+     * A bulk load, which completes the load of the elements that were added to the graph when it is closed.
+     */
+    public interface Load extends AutoCloseable {
+
+        @Override
+        public void close();
+    }
+}
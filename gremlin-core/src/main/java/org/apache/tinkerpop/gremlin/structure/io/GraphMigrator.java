@@ -25,6 +25,7 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.tinkerpop.gremlin.structure.io.IoCore.gryo;
 
@@ -49,7 +50,9 @@ public final class GraphMigrator {
 
     /**
      * Pipe the data from one graph to another graph.  It is important that the reader and writer utilize the
-     * same format.
+     * same format.  The graph is written from the calling thread, so that the data of its open transaction is
+     * migrated, and read into the other graph from a separate thread whose transaction is rolled back if the
+     * reader does not complete it.
      *
      * @param fromGraph the graph to take data from.
      * @param toGraph   the graph to take data to.
@@ -60,11 +63,22 @@ public final class GraphMigrator {
     public static void migrateGraph(final Graph fromGraph, final Graph toGraph,
                                     final GraphReader reader, final GraphWriter writer) throws IOException {
         final PipedInputStream inPipe = new PipedInputStream(1024);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final Thread readerThread = new Thread(() -> {
+            try {
+                reader.readGraph(inPipe, toGraph);
+            } catch (Throwable t) {
+                failure.set(t);
+            } finally {
+                if (toGraph.features().graph().supportsTransactions()) toGraph.tx().rollback();
+            }
+        });
 
         final PipedOutputStream outPipe = new PipedOutputStream(inPipe) {
             @Override
             public void close() throws IOException {
-                while (inPipe.available() > 0) {
+                while (inPipe.available() > 0 && readerThread.isAlive()) {
                     try {
                         Thread.sleep(500);
                     } catch (InterruptedException e) {
@@ -75,19 +89,28 @@ public final class GraphMigrator {
             }
         };
 
-        new Thread(() -> {
+        readerThread.start();
+        IOException writeFailure = null;
+        try {
+            writer.writeGraph(outPipe, fromGraph);
+            outPipe.flush();
+        } catch (IOException e) {
+            writeFailure = e;
+        } finally {
+            outPipe.close();
             try {
-                writer.writeGraph(outPipe, fromGraph);
-                outPipe.flush();
-                outPipe.close();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            } finally {
-                if (fromGraph.features().graph().supportsTransactions()) fromGraph.tx().rollback();
-                if (toGraph.features().graph().supportsTransactions()) toGraph.tx().rollback();
+                readerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        }).start();
+        }
 
-        reader.readGraph(inPipe, toGraph);
+        // a failed read leaves the pipe without a reader so its failure is the one to report
+        final Throwable t = failure.get();
+        if (null == t && null != writeFailure) throw writeFailure;
+        if (t instanceof IOException) throw (IOException) t;
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        if (null != t) throw new IOException(t);
     }
 }
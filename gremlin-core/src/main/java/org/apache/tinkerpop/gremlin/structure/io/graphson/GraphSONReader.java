@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.BulkLoadable;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
 import org.apache.tinkerpop.gremlin.structure.io.Mapper;
@@ -87,7 +88,8 @@ public final class GraphSONReader implements GraphReader {
 
     /**
      * Read data into a {@link Graph} from output generated by any of the {@link GraphSONWriter} {@code writeVertex} or
-     * {@code writeVertices} methods or by {@link GryoWriter#writeGraph(OutputStream, Graph)}.
+     * {@code writeVertices} methods or by {@link GryoWriter#writeGraph(OutputStream, Graph)}. The read is a bulk load of
+     * the graph if it is {@link BulkLoadable}.
      *
      * @param inputStream a stream containing an entire graph of vertices and edges as defined by the accompanying
      *                    {@link GraphSONWriter#writeGraph(OutputStream, Graph)}.
@@ -95,6 +97,12 @@ public final class GraphSONReader implements GraphReader {
      */
     @Override
     public void readGraph(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        try (final BulkLoadable.Load load = BulkLoadable.open(graphToWriteTo)) {
+            readElements(inputStream, graphToWriteTo);
+        }
+    }
+
+    private void readElements(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
         // dual pass - create all vertices and store to cache the ids.  then create edges.  as long as we don't
         // have vertex labels in the output we can't do this single pass
         final Map<StarGraph.StarVertex,Vertex> cache = new HashMap<>();
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+
+/**
+ * Estimates of the shape of the data in a {@link Graph} that strategies may use to judge how selective a filter is,
+ * for example to choose between indices or to order filters so that the ones that remove the most traversers are
+ * tested first. The figures are estimates and may lag behind or overstate the data, so they must only ever be used
+ * to choose between equivalent plans.
+ */
+public interface GraphStatistics {
+
+    /**
+     * The selectivity assumed for a predicate whose distribution is not known, such as a range.
+     */
+    public static final double DEFAULT_SELECTIVITY = 1.0d / 3.0d;
+
+    /**
+     * Gets the number of elements of the class.
+     */
+    public long count(final Class<? extends Element> elementClass);
+
+    /**
+     * Gets the number of elements of the class with the label.
+     */
+    public long count(final Class<? extends Element> elementClass, final String label);
+
+    /**
+     * Gets the number of values of the property key held by elements of the class, which counts each value of a
+     * multi-property.
+     */
+    public long countValues(final Class<? extends Element> elementClass, final String key);
+
+    /**
+     * Gets an estimate of the number of distinct values of the property key held by elements of the class.
+     */
+    public long countDistinctValues(final Class<? extends Element> elementClass, final String key);
+
+    /**
+     * Gets the number of vertices whose degree in the direction for the edge label, or for all edges when the label
+     * is {@code null}, falls in each bucket, where bucket {@code 0} holds the vertices without such edges and bucket
+     * {@code i} holds those whose degree is at least {@code 2^(i-1)} and less than {@code 2^i}.
+     */
+    public long[] degreeHistogram(final Direction direction, final String label);
+
+    /**
+     * Gets the average degree of the vertices in the direction for the edge label, or for all edges when the label
+     * is {@code null}.
+     */
+    public default double averageDegree(final Direction direction, final String label) {
+        final long vertices = this.count(Vertex.class);
+        if (0 == vertices)
+            return 0.0d;
+        final long edges = null == label ? this.count(Edge.class) : this.count(Edge.class, label);
+        return (Direction.BOTH == direction ? 2.0d : 1.0d) * edges / vertices;
+    }
+
+    /**
+     * Estimates the fraction of the elements of the class that pass the {@link HasContainer}, from {@code 0} when
+     * none are expected to pass to {@code 1} when all are. Equality of a label or a property value is estimated from
+     * the counts and the number of distinct values, {@code within()} as the sum of its values and their negations as
+     * the remainder. Anything else is taken to be the {@link #DEFAULT_SELECTIVITY} of the elements with the key.
+     */
+    public default double selectivity(final Class<? extends Element> elementClass, final HasContainer hasContainer) {
+        final long elements = this.count(elementClass);
+        if (0 == elements)
+            return 0.0d;
+
+        final String key = hasContainer.getKey();
+        final boolean isToken = T.id.getAccessor().equals(key) || T.label.getAccessor().equals(key);
+        final double present = isToken ? 1.0d : Math.min(1.0d, (double) this.countValues(elementClass, key) / elements);
+
+        final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+        final Collection<?> values;
+        if (Compare.eq == biPredicate || Compare.neq == biPredicate)
+            values = Collections.singleton(hasContainer.getValue());
+        else if ((Contains.within == biPredicate || Contains.without == biPredicate) && hasContainer.getValue() instanceof Collection)
+            values = (Collection<?>) hasContainer.getValue();
+        else
+            return DEFAULT_SELECTIVITY * present;
+
+        final double selectivity;
+        if (T.id.getAccessor().equals(key)) {
+            selectivity = (double) values.size() / elements;
+        } else if (T.label.getAccessor().equals(key)) {
+            long labelled = 0;
+            for (final Object label : values) {
+                if (label instanceof String) labelled += this.count(elementClass, (String) label);
+            }
+            selectivity = (double) labelled / elements;
+        } else {
+            selectivity = values.size() * present / Math.max(1L, this.countDistinctValues(elementClass, key));
+        }
+
+        final double bounded = Math.min(1.0d, selectivity);
+        return Compare.neq == biPredicate || Contains.without == biPredicate ? 1.0d - bounded : bounded;
+    }
+
+    /**
+     * Gets the statistics of the {@code graph} if it keeps them.
+     */
+    public static Optional<GraphStatistics> of(final Graph graph) {
+        return graph instanceof Provider ? Optional.ofNullable(((Provider) graph).statistics()) : Optional.empty();
+    }
+
+    /**
+     * A {@link Graph} that may keep {@link GraphStatistics}.
+     */
+    public interface Provider {
+
+        /**
+         * Gets the statistics of the graph or {@code null} if it does not keep them.
+         */
+        public GraphStatistics statistics();
+    }
+}
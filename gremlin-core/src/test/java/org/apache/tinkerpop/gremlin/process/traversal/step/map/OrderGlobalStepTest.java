@@ -20,15 +20,24 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.StepTest;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderLimitStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
+import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
 import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author Daniel Kuppitz (http://gremlin.guru)
@@ -36,6 +45,9 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
  */
 public class OrderGlobalStepTest extends StepTest {
 
+    private static final GraphTraversalSource g = traversal().withEmbedded(EmptyGraph.instance()).
+            withStrategies(OrderLimitStrategy.instance());
+
     @Override
     protected List<Traversal> getTraversals() {
         return Arrays.asList(
@@ -64,4 +76,42 @@ public class OrderGlobalStepTest extends StepTest {
             __.inject(list).unfold().order().by(__.identity(), Order.shuffle).by().iterate();
         }
     }
+
+    @Test
+    public void shouldKeepOnlyTraversersThatRangeLetsThrough() {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i);
+        }
+        Collections.shuffle(list, new Random(1234567890L));
+
+        final Traversal.Admin<?, ?> traversal = g.inject(list).unfold().order().by(Order.desc).range(5, 10).asAdmin();
+        assertEquals(Arrays.asList(9994, 9993, 9992, 9991, 9990), traversal.toList());
+        assertEquals(10L, TraversalHelper.getFirstStepOfAssignableClass(OrderGlobalStep.class, traversal).get().getLimit());
+    }
+
+    @Test
+    public void shouldKeepOrderOfTiesWithinLimit() {
+        final Comparator<String> byLength = Comparator.comparingInt(String::length);
+        assertEquals(Arrays.asList("a", "d", "f"),
+                g.inject("bb", "a", "cc", "d", "ee", "f").order().by(byLength).limit(3).toList());
+        assertEquals(Arrays.asList("a", "d", "f", "bb"),
+                g.inject("bb", "a", "cc", "d", "ee", "f").order().by(byLength).limit(4).toList());
+        assertEquals(Arrays.asList("bb", "cc"),
+                g.inject("bb", "a", "cc", "d", "ee", "f").order().by(byLength.reversed()).limit(2).toList());
+    }
+
+    @Test
+    public void shouldMergeEqualTraversersWithinLimit() {
+        assertEquals(Arrays.asList(1, 1), g.inject(3, 1, 2, 1).order().limit(2).toList());
+        assertEquals(Arrays.asList(1, 1, 2), g.inject(3, 1, 2, 1, 2).order().limit(3).toList());
+        assertEquals(Arrays.asList(3, 3, 3), g.inject(1, 3, 2, 3, 3).order().by(Order.desc).limit(3).toList());
+    }
+
+    @Test
+    public void shouldSortAllWhenRangeMayNotLetTraversersThrough() {
+        final Traversal.Admin<?, ?> traversal = g.inject(3, 1, 2).order().select("a").limit(1).asAdmin();
+        traversal.applyStrategies();
+        assertEquals(Long.MAX_VALUE, TraversalHelper.getFirstStepOfAssignableClass(OrderGlobalStep.class, traversal).get().getLimit());
+    }
 }
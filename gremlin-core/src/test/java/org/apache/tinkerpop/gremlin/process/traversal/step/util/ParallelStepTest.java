@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelStepTest {
+
+    private static final Integer[] NUMBERS = IntStream.range(0, 10000).boxed().toArray(Integer[]::new);
+
+    @Test
+    public void shouldMergeReducedChunksWithTheBiOperator() {
+        final Traversal.Admin<Integer, Long> traversal = parallel(__.<Integer>start().is(P.gte(10)).count().asAdmin(), 4, 100, NUMBERS);
+        assertEquals(Collections.singletonList(9990L), traversal.toList());
+    }
+
+    @Test
+    public void shouldReduceNoStartsLikeTheReducingStep() {
+        assertEquals(Collections.singletonList(0L), parallel(__.<Integer>start().count().asAdmin(), 4, 100).toList());
+        assertEquals(Collections.singletonList(Collections.emptyList()), parallel(__.<Integer>start().fold().asAdmin(), 4, 100).toList());
+        assertEquals(Collections.emptyList(), parallel(__.<Integer>start().sum().asAdmin(), 4, 100).toList());
+    }
+
+    @Test
+    public void shouldEmitTraversersInTheOrderOfTheStarts() {
+        final Traversal.Admin<Integer, Integer> traversal = parallel(__.<Integer>start().is(P.neq(5000)).asAdmin(), 3, 7, NUMBERS);
+        final List<Integer> expected = new ArrayList<>(Arrays.asList(NUMBERS));
+        expected.remove(Integer.valueOf(5000));
+        assertEquals(expected, traversal.toList());
+    }
+
+    @Test
+    public void shouldRunAgainAfterResetAndWhenCloned() {
+        final Traversal.Admin<Integer, Long> traversal = parallel(__.<Integer>start().is(P.lt(100)).count().asAdmin(), 2, 10, NUMBERS);
+        final Traversal.Admin<Integer, Long> clone = traversal.clone();
+        assertEquals(Collections.singletonList(100L), traversal.toList());
+        assertEquals(Collections.singletonList(100L), clone.toList());
+    }
+
+    @Test
+    public void shouldRethrowExceptionOfChunk() {
+        final Traversal.Admin<Integer, Integer> traversal = parallel(__.<Integer>start().map(t -> {
+            if (t.get() == 5000) throw new IllegalStateException("bad start");
+            return t.get();
+        }).asAdmin(), 4, 100, NUMBERS);
+        try {
+            traversal.iterate();
+        } catch (final IllegalStateException e) {
+            assertEquals("bad start", e.getMessage());
+            return;
+        }
+        throw new AssertionError("The exception of the chunk should have been rethrown");
+    }
+
+    @Test
+    public void shouldInterruptChunksWhenInterrupted() throws Exception {
+        final CountDownLatch chunkStarted = new CountDownLatch(1);
+        final CountDownLatch chunkInterrupted = new CountDownLatch(1);
+        final Traversal.Admin<Integer, Integer> traversal = parallel(__.<Integer>start().map(t -> {
+            chunkStarted.countDown();
+            try {
+                Thread.sleep(60000);
+            } catch (final InterruptedException e) {
+                chunkInterrupted.countDown();
+                throw new TraversalInterruptedException();
+            }
+            return t.get();
+        }).asAdmin(), 2, 10, NUMBERS);
+
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                traversal.iterate();
+            } catch (final Throwable t) {
+                thrown.set(t);
+            }
+        });
+        thread.start();
+
+        assertTrue(chunkStarted.await(10, TimeUnit.SECONDS));
+        thread.interrupt();
+        thread.join(10000);
+        assertThat(thrown.get(), instanceOf(TraversalInterruptedException.class));
+        assertThat(chunkInterrupted.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    private static <E> Traversal.Admin<Integer, E> parallel(final Traversal.Admin<Integer, E> parallelTraversal,
+                                                           final int parallelism, final int chunkSize,
+                                                           final Integer... starts) {
+        final Traversal.Admin<Integer, E> traversal = (Traversal.Admin) __.inject(starts).asAdmin();
+        traversal.addStep(new ParallelStep<>(traversal, parallelTraversal, parallelism, chunkSize));
+        return traversal;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.LambdaSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceVertex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+
+public class BatchExecutionStrategyTest {
+
+    private static final GraphTraversalSource g = traversal().withEmbedded(EmptyGraph.instance()).
+            withStrategies(new BatchExecutionStrategy(16));
+
+    @Test
+    public void shouldBatchStepsThatFollowStepsWithoutSideEffects() {
+        final Traversal.Admin<?, ?> traversal = g.V().out().has("name", "marko").values("name").sideEffect(t -> {}).
+                map(t -> t.get()).asAdmin();
+        traversal.applyStrategies();
+
+        final List<Step> steps = traversal.getSteps();
+        assertEquals(1, getBatchSize(steps.get(0)));
+        assertEquals(16, getBatchSize(TraversalHelper.getFirstStepOfAssignableClass(VertexStep.class, traversal).get()));
+        assertEquals(16, getBatchSize(TraversalHelper.getFirstStepOfAssignableClass(PropertiesStep.class, traversal).get()));
+        assertEquals(16, getBatchSize(TraversalHelper.getFirstStepOfAssignableClass(LambdaSideEffectStep.class, traversal).get()));
+        assertEquals(1, getBatchSize(traversal.getEndStep()));
+    }
+
+    @Test
+    public void shouldBatchChildTraversals() {
+        final Traversal.Admin<?, ?> traversal = g.V().local(out().out().limit(1)).asAdmin();
+        traversal.applyStrategies();
+
+        final Traversal.Admin<?, ?> child = TraversalHelper.getStepsOfAssignableClassRecursively(VertexStep.class, traversal).get(0).getTraversal();
+        for (final Step step : child.getSteps().subList(1, child.getSteps().size())) {
+            assertEquals(step.toString(), 16, getBatchSize(step));
+        }
+    }
+
+    @Test
+    public void shouldKeepBatchSizeWhenCloned() {
+        final Traversal.Admin<?, ?> traversal = g.V().out().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(16, getBatchSize(traversal.clone().getEndStep()));
+    }
+
+    @Test
+    public void shouldNotBatchWhenProfiling() {
+        final Traversal.Admin<?, ?> traversal = g.withStrategies(ProfileStrategy.instance()).V().out().out().profile().asAdmin();
+        traversal.applyStrategies();
+        for (final Step step : traversal.getSteps()) {
+            if (step instanceof AbstractStep)
+                assertEquals(step.toString(), 1, getBatchSize(step));
+        }
+    }
+
+    @Test
+    public void shouldPullFromSubclassesThatProcessTheirOwnStartsOneAtATime() {
+        final Traversal.Admin<Vertex, Vertex> traversal = g.inject((Vertex) new ReferenceVertex(1, "person"),
+                new ReferenceVertex(2, "person"), new ReferenceVertex(3, "person"), new ReferenceVertex(4, "person")).asAdmin();
+        traversal.addStep(new SkippingHasStep<>(traversal)).addStep(new IdStep<>(traversal));
+        traversal.applyStrategies();
+
+        // inject() is not free of side-effects so the step after the subclass is batched by hand
+        ((AbstractStep<?, ?>) traversal.getEndStep()).getStarts().setBatchSize(16);
+        assertEquals(Arrays.asList(2, 4), traversal.toList());
+    }
+
+    @Test
+    public void shouldCreateFromConfiguration() {
+        final BatchExecutionStrategy strategy = BatchExecutionStrategy.create(new BatchExecutionStrategy(128).getConfiguration());
+        assertThat(strategy.getBatchSize(), is(128));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowBatchOfOne() {
+        new BatchExecutionStrategy(1);
+    }
+
+    /**
+     * A provider style subclass that skips every other start in its own {@link #processNextStart()}.
+     */
+    private static final class SkippingHasStep<S extends Element> extends HasStep<S> {
+
+        private SkippingHasStep(final Traversal.Admin traversal) {
+            super(traversal);
+        }
+
+        @Override
+        protected Traverser.Admin<S> processNextStart() {
+            this.starts.next();
+            return super.processNextStart();
+        }
+    }
+
+    private static int getBatchSize(final Step step) {
+        return ((AbstractStep<?, ?>) step).getStarts().getBatchSize();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TimeLimitStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ParallelTraversalStrategyTest {
+
+    private static final GraphTraversalSource g = traversal().withEmbedded(EmptyGraph.instance()).
+            withStrategies(ParallelTraversalStrategy.build().parallelism(4).chunkSize(100).create());
+
+    @Test
+    public void shouldMoveStepsUpToReducingBarrierIntoParallelStep() {
+        final Traversal.Admin<?, ?> traversal = g.V().out().out().groupCount().as("a").asAdmin();
+        traversal.applyStrategies();
+
+        final List<Step> steps = traversal.getSteps();
+        assertEquals(2, steps.size());
+        assertThat(steps.get(0), instanceOf(GraphStep.class));
+        final ParallelStep<?, ?> parallelStep = (ParallelStep<?, ?>) steps.get(1);
+        assertEquals(4, parallelStep.getParallelism());
+        assertEquals(100, parallelStep.getChunkSize());
+        assertThat(parallelStep.getLabels().contains("a"), is(true));
+        assertThat(parallelStep.getGlobalChildren().get(0).getEndStep(), instanceOf(GroupCountStep.class));
+    }
+
+    @Test
+    public void shouldLeaveCollectingBarrierOnCallingThread() {
+        final Traversal.Admin<?, ?> traversal = g.V().out().order().by("name").asAdmin();
+        traversal.applyStrategies();
+
+        final List<Step> steps = traversal.getSteps();
+        assertThat(steps.get(1), instanceOf(ParallelStep.class));
+        assertThat(steps.get(2), instanceOf(OrderGlobalStep.class));
+    }
+
+    @Test
+    public void shouldKeepTimeLimitOnCallingThread() {
+        final Traversal.Admin<?, ?> traversal = g.V().timeLimit(1000).out().count().asAdmin();
+        traversal.applyStrategies();
+
+        final List<Step> steps = traversal.getSteps();
+        assertThat(steps.get(1), instanceOf(TimeLimitStep.class));
+        assertThat(steps.get(2), instanceOf(ParallelStep.class));
+    }
+
+    @Test
+    public void shouldLeaveFiltersOfStartForProviders() {
+        final Traversal.Admin<?, ?> traversal = g.V().has("name", "marko").hasLabel("person").out().count().asAdmin();
+        traversal.applyStrategies();
+
+        final List<Step> steps = traversal.getSteps();
+        assertThat(steps.get(1), instanceOf(HasStep.class));
+        assertThat(steps.get(2), instanceOf(ParallelStep.class));
+    }
+
+    @Test
+    public void shouldNotParallelizeStepsWithSideEffects() {
+        assertNotParallel(g.V().out().sideEffect(t -> {}).count().asAdmin());
+        assertNotParallel(g.V().out().aggregate("x").count().asAdmin());
+        assertNotParallel(g.V().where(out().addE("knows")).count().asAdmin());
+        assertNotParallel(g.V().out().fold(0, (a, b) -> a).asAdmin());
+    }
+
+    @Test
+    public void shouldNotParallelizeWithoutBarrierToMergeAt() {
+        assertNotParallel(g.V().out().out().asAdmin());
+        assertNotParallel(g.V().count().asAdmin());
+        assertNotParallel(g.inject(1, 2, 3).count().asAdmin());
+    }
+
+    @Test
+    public void shouldNotParallelizeWhenTurnedOffWithOption() {
+        assertNotParallel(g.with(ParallelTraversalStrategy.PARALLELISM, 1).V().out().count().asAdmin());
+    }
+
+    @Test
+    public void shouldTakeChunkSizeFromOption() {
+        final Traversal.Admin<?, ?> traversal = g.with(ParallelTraversalStrategy.CHUNK_SIZE, 10).V().out().count().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(10, ((ParallelStep<?, ?>) traversal.getSteps().get(1)).getChunkSize());
+    }
+
+    @Test
+    public void shouldNotParallelizeWhenProfiling() {
+        final Traversal.Admin<?, ?> traversal = g.withStrategies(ProfileStrategy.instance()).V().out().count().profile().asAdmin();
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(ParallelStep.class, traversal));
+    }
+
+    @Test
+    public void shouldCreateFromConfiguration() {
+        final ParallelTraversalStrategy strategy = ParallelTraversalStrategy.create(
+                ParallelTraversalStrategy.build().parallelism(3).chunkSize(50).create().getConfiguration());
+        assertEquals(3, strategy.getParallelism());
+        assertEquals(50, strategy.getChunkSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowEmptyChunks() {
+        ParallelTraversalStrategy.build().chunkSize(0).create();
+    }
+
+    private static void assertNotParallel(final Traversal.Admin<?, ?> traversal) {
+        traversal.applyStrategies();
+        assertFalse(traversal.toString(), TraversalHelper.hasStepOfAssignableClassRecursively(ParallelStep.class, traversal));
+    }
+}
@@ -26,7 +26,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,7 +45,8 @@ public class TraverserSetImplementationTest {
     public static Iterable<Object[]> data() {
         return Arrays.asList(new Object[][]{
                 {TraverserSet.class.getSimpleName(), (Supplier) TraverserSet::new},
-                {IndexedTraverserSet.class.getSimpleName(), (Supplier) () -> new IndexedTraverserSet<String,String>(x -> x.substring(0,1))}});
+                {IndexedTraverserSet.class.getSimpleName(), (Supplier) () -> new IndexedTraverserSet<String,String>(x -> x.substring(0,1))},
+                {UnsynchronizedTraverserSet.class.getSimpleName(), (Supplier) UnsynchronizedTraverserSet::new}});
     }
 
     @Parameterized.Parameter(value = 0)
@@ -191,6 +194,67 @@ public class TraverserSetImplementationTest {
         assertEquals(3, ts.bulkSize());
     }
 
+    @Test
+    public void shouldHoldManyTraversersInOrder() {
+        final TraverserSet<String> ts = traverserSetMaker.get();
+        for (int i = 0; i < 1000; i++) {
+            ts.add(makeTraverser("v" + i, 1));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertThat(ts.add(makeTraverser("v" + i, 1)), is(false));
+        }
+        assertEquals(1000, ts.size());
+        assertEquals(2000, ts.bulkSize());
+        assertThat(ts.contains(makeTraverser("v999", 1)), is(true));
+        assertThat(ts.contains(makeTraverser("v1000", 1)), is(false));
+
+        for (int i = 0; i < 1000; i = i + 2) {
+            assertThat(ts.remove(makeTraverser("v" + i, 1)), is(true));
+        }
+        assertThat(ts.remove(makeTraverser("v0", 1)), is(false));
+        assertEquals(500, ts.size());
+
+        final Iterator<Traverser.Admin<String>> itty = ts.iterator();
+        itty.next();
+        itty.remove();
+        assertEquals(499, ts.size());
+        assertEquals("v3", ts.peek().get());
+
+        for (int i = 3; i < 1000; i = i + 2) {
+            final Traverser.Admin<String> t = ts.remove();
+            assertEquals("v" + i, t.get());
+            assertEquals(2, t.bulk());
+            ts.add(makeTraverser("w" + i, 1));
+        }
+        assertEquals(499, ts.size());
+        assertEquals("w3", ts.poll().get());
+        ts.clear();
+        assertNull(ts.poll());
+        assertThat(ts.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldSortAndShuffleLikeTraverserSet() {
+        final TraverserSet<String> ts = traverserSetMaker.get();
+        final TraverserSet<String> expected = new TraverserSet<>();
+        for (int i = 0; i < 100; i++) {
+            ts.add(makeTraverser("v" + i, 1));
+            expected.add(makeTraverser("v" + i, 1));
+        }
+        ts.remove(makeTraverser("v50", 1));
+        expected.remove(makeTraverser("v50", 1));
+
+        ts.shuffle(new Random(123456789L));
+        expected.shuffle(new Random(123456789L));
+        assertEquals(expected.toString(), ts.toString());
+
+        ts.sort(Comparator.comparing(t -> t.get()));
+        expected.sort(Comparator.comparing(t -> t.get()));
+        assertEquals(expected.toString(), ts.toString());
+        assertThat(ts.contains(makeTraverser("v99", 1)), is(true));
+        assertThat(ts.contains(makeTraverser("v50", 1)), is(false));
+    }
+
     private TraverserSet<String> makeStringTraversers() {
         final TraverserSet<String> ts = traverserSetMaker.get();
         ts.add(makeTraverser("a", 1));
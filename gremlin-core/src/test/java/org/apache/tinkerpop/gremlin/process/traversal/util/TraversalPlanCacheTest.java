@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TraversalPlanCacheTest {
+    private static final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldCloneCachedTraversalWithNewValues() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        final Traversal.Admin<?, ?> first = cache.translate(g, g.V().has("name", "marko").out().asAdmin().getBytecode());
+        final Bytecode bytecode = g.V().has("name", "vadas").out().asAdmin().getBytecode();
+        final Traversal.Admin<?, ?> second = cache.translate(g, bytecode);
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+        assertTrue(second.isLocked());
+        assertEquals(bytecode, second.getBytecode());
+        assertEquals(Arrays.asList("name.eq(marko)"), getHasContainers(first));
+        assertEquals(Arrays.asList("name.eq(vadas)"), getHasContainers(second));
+        assertEquals(first.getSteps().size(), second.getSteps().size());
+    }
+
+    @Test
+    public void shouldCloneCachedTraversalWithNewPredicateValues() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        cache.translate(g, g.V().has("person", "age", P.gt(30)).local(__.out().has("weight", P.lt(0.5))).asAdmin().getBytecode());
+        final Traversal.Admin<?, ?> traversal = cache.translate(g, g.V().has("person", "age", P.gt(20)).local(__.out().has("weight", P.lt(1.0))).asAdmin().getBytecode());
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(Arrays.asList("~label.eq(person)", "age.gt(20)", "weight.lt(1.0)"), getHasContainers(traversal));
+    }
+
+    @Test
+    public void shouldKeepPredicatesAndOtherValuesInShape() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        cache.translate(g, g.V().has("age", P.gt(30)).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", P.lt(30)).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", 30).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", 30).limit(1).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", 30).limit(2).asAdmin().getBytecode());
+        cache.translate(g, g.V(1).has("age", 30).asAdmin().getBytecode());
+        cache.translate(g, g.V(2).has("age", 30).asAdmin().getBytecode());
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(7, cache.getMissCount());
+        assertEquals(7, cache.size());
+    }
+
+    @Test
+    public void shouldKeepTraversalSourceInShape() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        cache.translate(g, g.V().has("name", "marko").asAdmin().getBytecode());
+        cache.translate(EmptyGraph.instance().traversal(), g.V().has("name", "vadas").asAdmin().getBytecode());
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheTraversalWithAmbiguousValues() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        cache.translate(g, g.V().has("name", "marko").out().has("name", "marko").asAdmin().getBytecode());
+        assertEquals(0, cache.size());
+
+        cache.translate(g, g.V().has("name", "marko").out().has("name", "vadas").asAdmin().getBytecode());
+        final Traversal.Admin<?, ?> traversal = cache.translate(g, g.V().has("name", "josh").out().has("name", "josh").asAdmin().getBytecode());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(Arrays.asList("name.eq(josh)", "name.eq(josh)"), getHasContainers(traversal));
+    }
+
+    @Test
+    public void shouldNotCacheTraversalWithLambdas() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        cache.translate(g, g.V().has("name", "marko").map(t -> 1).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("name", "marko").map(t -> 1).asAdmin().getBytecode());
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldNotShareMutableSideEffectsBetweenTraversalsOfSameShape() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        for (int i = 0; i < 2; i++) {
+            final Traversal.Admin<?, ?> traversal = cache.translate(g, g.withSideEffect("x", new ArrayList<>(), Operator.addAll).
+                    inject(1).aggregate("x").cap("x").asAdmin().getBytecode());
+            assertEquals(Collections.singletonList(1), traversal.next());
+        }
+        for (int i = 0; i < 2; i++) {
+            final Traversal.Admin<?, ?> traversal = cache.translate(g, g.inject(Collections.singletonList(1), Collections.singletonList(2)).
+                    fold(new ArrayList<>(), (BiFunction) Operator.addAll).asAdmin().getBytecode());
+            assertEquals(2, ((List<?>) traversal.next()).size());
+        }
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.size());
+
+        // immutable side-effects are shared safely
+        cache.translate(g, g.withSideEffect("x", 1, Operator.sum).inject(1).asAdmin().getBytecode());
+        cache.translate(g, g.withSideEffect("x", 1, Operator.sum).inject(1).asAdmin().getBytecode());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldNotCacheTraversalExecutedByVertexPrograms() {
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+        final GraphTraversalSource computer = g.withComputer();
+        cache.translate(computer, computer.V().has("name", "marko").values("age").asAdmin().getBytecode());
+        cache.translate(computer, computer.V().has("name", "vadas").values("age").asAdmin().getBytecode());
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedShape() {
+        final TraversalPlanCache cache = new TraversalPlanCache(2);
+        cache.translate(g, g.V().has("name", "marko").asAdmin().getBytecode());
+        cache.translate(g, g.V().has("name", "marko").out().asAdmin().getBytecode());
+        cache.translate(g, g.V().has("name", "vadas").asAdmin().getBytecode());
+        cache.translate(g, g.V().has("name", "marko").in().asAdmin().getBytecode());
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.translate(g, g.V().has("name", "josh").asAdmin().getBytecode());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowEmptyCache() {
+        new TraversalPlanCache(0);
+    }
+
+    private static List<String> getHasContainers(final Traversal.Admin<?, ?> traversal) {
+        return TraversalHelper.getStepsOfAssignableClassRecursively(HasContainerHolder.class, traversal).stream().
+                flatMap(holder -> holder.getHasContainers().stream()).
+                map(HasContainer::toString).collect(Collectors.toList());
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.util.BytecodeHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
@@ -55,6 +56,7 @@ import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -79,6 +81,29 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
 
     private static final Bindings EMPTY_BINDINGS = new SimpleBindings();
 
+    /**
+     * Configuration setting for the number of distinct traversal shapes whose compiled plans are kept so that
+     * requests differing only in the values given to {@code has()} skip translation and strategy application. A
+     * value of zero or less disables the cache.
+     */
+    public static final String CONFIG_PLAN_CACHE_MAX_SIZE = "planCacheMaxSize";
+
+    /**
+     * Default size of the plan cache is zero which leaves it disabled.
+     */
+    public static final int DEFAULT_PLAN_CACHE_MAX_SIZE = 0;
+
+    static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
+
+    static {
+        DEFAULT_SETTINGS.className = TraversalOpProcessor.class.getCanonicalName();
+        DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
+            put(CONFIG_PLAN_CACHE_MAX_SIZE, DEFAULT_PLAN_CACHE_MAX_SIZE);
+        }};
+    }
+
+    private TraversalPlanCache planCache = null;
+
     public TraversalOpProcessor() {
         super(false);
     }
@@ -88,6 +113,16 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         return OP_PROCESSOR_NAME;
     }
 
+    @Override
+    public void init(final Settings settings) {
+        final int planCacheMaxSize = Integer.parseInt(settings.optionalProcessor(TraversalOpProcessor.class).
+                orElse(DEFAULT_SETTINGS).config.getOrDefault(CONFIG_PLAN_CACHE_MAX_SIZE, DEFAULT_PLAN_CACHE_MAX_SIZE).toString());
+        if (planCacheMaxSize > 0) {
+            planCache = new TraversalPlanCache(planCacheMaxSize);
+            MetricManager.INSTANCE.registerTraversalPlanCacheMetrics(planCache, "traversal", "plan-cache");
+        }
+    }
+
     @Override
     public void close() throws Exception {
         // do nothing = no resources to release
@@ -180,10 +215,12 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         final Traversal.Admin<?, ?> traversal;
         try {
             final Optional<String> lambdaLanguage = BytecodeHelper.getLambdaLanguage(bytecode);
-            if (!lambdaLanguage.isPresent())
-                traversal = JavaTranslator.of(g).translate(bytecode);
-            else
+            if (lambdaLanguage.isPresent())
                 traversal = context.getGremlinExecutor().eval(bytecode, EMPTY_BINDINGS, lambdaLanguage.get(), traversalSourceName);
+            else if (planCache != null)
+                traversal = planCache.translate(g, bytecode);
+            else
+                traversal = JavaTranslator.of(g).translate(bytecode);
         } catch (ScriptException ex) {
             logger.error("Traversal contains a lambda that cannot be compiled", ex);
             throw new OpProcessorException("Traversal contains a lambda that cannot be compiled",
@@ -215,8 +252,9 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
                 beforeProcessing(graph, context);
 
                 try {
-                    // compile the traversal - without it getEndStep() has nothing in it
-                    traversal.applyStrategies();
+                    // compile the traversal - without it getEndStep() has nothing in it. traversals from the plan
+                    // cache arrive already compiled
+                    if (!traversal.isLocked()) traversal.applyStrategies();
                     handleIterator(context, new TraverserIterator(traversal), graph);
                 } catch (Exception ex) {
                     Throwable t = ex;
@@ -36,6 +36,7 @@ import info.ganglia.gmetric4j.gmetric.GMetric;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.jsr223.GremlinScriptEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -490,4 +491,26 @@ public enum MetricManager {
                     (Gauge<Long>) gremlinGroovyScriptEngine::getClassCacheTotalLoadTime);
         }
     }
+
+    /**
+     * Registers metrics from a {@link TraversalPlanCache} so that its hit rate can be watched alongside the other
+     * server metrics.
+     */
+    public void registerTraversalPlanCacheMetrics(final TraversalPlanCache planCache, final String... prefix) {
+        // only register if metrics aren't already registered. typically only happens in testing where two gremlin
+        // server instances are running in the same jvm
+        final String hitCount = MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "hit-count"));
+        if (getRegistry().getNames().contains(hitCount)) return;
+
+        getRegistry().register(hitCount, (Gauge<Long>) planCache::getHitCount);
+        getRegistry().register(
+                MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "miss-count")),
+                (Gauge<Long>) planCache::getMissCount);
+        getRegistry().register(
+                MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "eviction-count")),
+                (Gauge<Long>) planCache::getEvictionCount);
+        getRegistry().register(
+                MetricRegistry.name(GremlinServer.class, ArrayUtils.add(prefix, "size")),
+                (Gauge<Integer>) planCache::size);
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchExecutionStrategy;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+/**
+ * Compares traversals that pull traversers one at a time with the same traversals run with the
+ * {@link BatchExecutionStrategy} at different batch sizes, against a {@code TinkerGraph} loaded with the Grateful Dead
+ * data set. A batch size of one runs without the strategy.
+ */
+@LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+public class BatchExecutionBenchmark extends AbstractGraphBenchmark {
+
+    @Param({"1", "64", "512"})
+    public int batchSize;
+
+    private GraphTraversalSource gb;
+
+    @Setup
+    public void prepareBatchSize() {
+        gb = batchSize > 1 ? g.withStrategies(new BatchExecutionStrategy(batchSize)) : g;
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_out_out_out() {
+        return gb.V().out().out().out().toList();
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_outE_inV_outE_inV_outE_inV() {
+        return gb.V().outE().inV().outE().inV().outE().inV().toList();
+    }
+
+    @Benchmark
+    public List<Edge> g_V_outE_hasXweight_gtX1XX() {
+        return gb.V().outE().has("weight", P.gt(1)).toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_hasXsongType_originalX_valuesXnameX() {
+        return gb.V().out().out().has("songType", "original").values("name").toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_barrier_out_barrier_out_id() {
+        return gb.V().out().barrier().out().barrier().out().id().toList();
+    }
+}
@@ -20,9 +20,11 @@ package org.apache.tinkerpop.gremlin.process;
 
 import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
@@ -81,6 +83,21 @@ public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
         return g.V().out().map(v -> g.V(v.get()).out().out().values("name").toList()).toList();
     }
 
+    @Benchmark
+    public List<Vertex> g_V_out_barrier_out_barrier_out() throws Exception {
+        return g.V().out().barrier().out().barrier().out().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_order_byXname_descX_valuesXnameX() throws Exception {
+        return g.V().out().out().order().by("name", Order.desc).values("name").toList();
+    }
+
+    @Benchmark
+    public List<Map<Object, Long>> g_V_out_out_dedup_groupCount_byXlabelX() throws Exception {
+        return g.V().out().out().dedup().groupCount().by(T.label).toList();
+    }
+
     @Benchmark
     public List<Map<Object, Long>> g_V_label_groupCount() throws Exception {
         return g.V().label().groupCount().toList();
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderLimitStrategy;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+
+/**
+ * Compares {@code order().limit()} when the {@link OrderLimitStrategy} has the order keep only the traversers that
+ * the limit lets through with the same traversals fully sorted without the strategy, against a {@code TinkerGraph}
+ * loaded with the Grateful Dead data set.
+ */
+@LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+public class OrderLimitBenchmark extends AbstractGraphBenchmark {
+
+    @Param({"true", "false"})
+    public boolean orderLimit;
+
+    private GraphTraversalSource go;
+
+    @Setup
+    public void prepareOrderLimit() {
+        go = orderLimit ? g : g.withoutStrategies(OrderLimitStrategy.class);
+    }
+
+    @Benchmark
+    public List<Edge> g_E_order_byXweight_descX_limitX10X() {
+        return go.E().order().by("weight", Order.desc).limit(10).toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_order_byXname_descX_limitX10X_id() {
+        return go.V().out().out().order().by("name", Order.desc).limit(10).id().toList();
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_both_both_order_byXperformances_descX_limitX100X() {
+        return go.V().both().both().order().by("performances", Order.desc).limit(100).toList();
+    }
+}
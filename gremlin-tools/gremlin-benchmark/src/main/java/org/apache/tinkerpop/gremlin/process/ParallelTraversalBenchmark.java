@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.ParallelTraversalStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares traversals run on the calling thread with the same traversals run with the
+ * {@link ParallelTraversalStrategy} at different levels of parallelism, against a {@code TinkerGraph} loaded with the
+ * Grateful Dead data set. A parallelism of one runs without the strategy.
+ */
+@LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+public class ParallelTraversalBenchmark extends AbstractGraphBenchmark {
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    private GraphTraversalSource gp;
+
+    @Setup
+    public void prepareParallelism() {
+        gp = parallelism > 1 ?
+                g.withStrategies(ParallelTraversalStrategy.build().parallelism(parallelism).chunkSize(64).create()) : g;
+    }
+
+    @Benchmark
+    public Long g_V_out_out_out_count() {
+        return gp.V().out().out().out().count().next();
+    }
+
+    @Benchmark
+    public Map<Object, Long> g_V_hasLabelXsongX_out_out_groupCount_byXnameX() {
+        return gp.V().hasLabel("song").out().out().<Object>groupCount().by("name").next();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_valuesXnameX_order() {
+        return gp.V().out().out().values("name").order().toList();
+    }
+}
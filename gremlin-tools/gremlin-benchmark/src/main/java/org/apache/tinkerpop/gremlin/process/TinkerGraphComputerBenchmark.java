@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphComputerBenchmark} measures three iterations of {@link PageRankVertexProgram} on a graph whose edges
+ * mostly connect to a few vertices that are added first, so that the vertices with the most edges are next to each
+ * other in the order the workers of {@code TinkerGraphComputer} are given them. Comparing the results for different
+ * numbers of workers shows how well the work is shared between them on such a skewed graph. The number of workers
+ * cannot exceed the available processors, so the {@code workers} parameter may need to be set with the JMH {@code -p}
+ * option on smaller machines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerGraphComputerBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"1000000"})
+    public int edgeCount;
+
+    @Param({"1", "4"})
+    public int workers;
+
+    private TinkerGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerGraph.open();
+        final Random rand = new Random(123456789L);
+        final List<Vertex> vertices = new ArrayList<>(vertexCount);
+        for (int ix = 0; ix < vertexCount; ix++) {
+            vertices.add(graph.addVertex(T.label, "person"));
+        }
+        // one end of each edge is drawn from a distribution that strongly favors the first vertices added
+        for (int ie = 0; ie < edgeCount; ie++) {
+            final int hub = (int) (vertexCount * Math.pow(rand.nextDouble(), 8));
+            vertices.get(hub).addEdge("knows", vertices.get(rand.nextInt(vertexCount)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    public ComputerResult testPageRank() throws Exception {
+        return graph.compute().workers(workers).program(PageRankVertexProgram.build().iterations(3).create(graph)).submit().get();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.UnsynchronizedTraverserSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.Supplier;
+
+/**
+ * Compares the synchronized {@link TraverserSet} with the {@link UnsynchronizedTraverserSet} that standard
+ * traversals use by filling a set with traversers, half of which are merged with one already in it, and draining it
+ * as a barrier does. The barrier heavy traversals of {@link GraphTraversalBenchmark} show the effect on whole
+ * traversals.
+ */
+@State(Scope.Thread)
+public class TraverserSetBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"TraverserSet", "UnsynchronizedTraverserSet"})
+    public String traverserSet;
+
+    @Param({"10", "10000"})
+    public int traverserCount;
+
+    private Supplier<TraverserSet<Integer>> supplier;
+    private Traverser.Admin<Integer>[] traversers;
+
+    @Setup
+    public void prepare() {
+        supplier = traverserSet.equals("TraverserSet") ? TraverserSet::new : UnsynchronizedTraverserSet::new;
+
+        // every other traverser is equal to the one before it so half of the adds are merges
+        traversers = new Traverser.Admin[traverserCount];
+        for (int ix = 0; ix < traverserCount; ix++) {
+            traversers[ix] = new B_O_Traverser<>(ix / 2, 1).asAdmin();
+        }
+    }
+
+    @Benchmark
+    public long testFillAndDrain() {
+        final TraverserSet<Integer> set = supplier.get();
+        for (final Traverser.Admin<Integer> traverser : traversers) {
+            set.add(traverser.split());
+        }
+        long bulk = 0;
+        while (!set.isEmpty()) {
+            bulk += set.remove().bulk();
+        }
+        return bulk;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@code TinkerGraphIdLookupBenchmark} measures the throughput of looking up vertices and edges of a
+ * {@link TinkerGraph} by their identifiers, through {@link Graph#vertices(Object...)} and {@code g.V(ids)}, and of
+ * traversing from vertices that are looked up by identifier to their edges, for each {@link TinkerGraph.IdManager}.
+ * The {@code LONG} and {@code INTEGER} managers hold their elements in primitive keyed maps.
+ */
+@State(Scope.Thread)
+public class TinkerGraphIdLookupBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"ANY", "LONG", "INTEGER"})
+    public String idManager;
+
+    @Param({"100"})
+    public int idsPerLookup;
+
+    private TinkerGraph graph;
+    private GraphTraversalSource g;
+    private Object[] vertexIds;
+    private Object[] edgeIds;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, idManager);
+        configuration.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, idManager);
+        graph = TinkerGraph.open(configuration);
+        g = graph.traversal();
+
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+        final Vertex[] vertices = new Vertex[vertexCount];
+        for (int ix = 0; ix < vertexCount; ix++) {
+            vertices[ix] = graph.addVertex("person");
+        }
+        final Edge[] edges = new Edge[vertexCount];
+        for (int ix = 0; ix < vertexCount; ix++) {
+            edges[ix] = vertices[ix].addEdge("knows", vertices[rand.nextInt(vertexCount)]);
+        }
+
+        // the identifiers are looked up as they were generated so that no conversion is needed for any manager
+        vertexIds = new Object[idsPerLookup];
+        edgeIds = new Object[idsPerLookup];
+        for (int ix = 0; ix < idsPerLookup; ix++) {
+            vertexIds[ix] = vertices[rand.nextInt(vertexCount)].id();
+            edgeIds[ix] = edges[rand.nextInt(vertexCount)].id();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    public long testGraphVertices() {
+        return IteratorUtils.count(graph.vertices(vertexIds));
+    }
+
+    @Benchmark
+    public long testGraphEdges() {
+        return IteratorUtils.count(graph.edges(edgeIds));
+    }
+
+    @Benchmark
+    public List<Vertex> testTraversalV() {
+        return g.V(vertexIds).toList();
+    }
+
+    @Benchmark
+    public List<Object> testTraversalOutE() {
+        return g.V(vertexIds).outE().inV().id().toList();
+    }
+}
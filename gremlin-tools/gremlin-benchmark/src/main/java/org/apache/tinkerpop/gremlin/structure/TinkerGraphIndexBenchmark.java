@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphIndexBenchmark} measures the maintenance of the {@link TinkerGraph} indices: the time to
+ * {@code drop()} every vertex, and so every edge, of a graph whose vertex and edge keys are all indexed, and the time
+ * to build an index over a graph that is already loaded. Each invocation works on a freshly loaded graph so the
+ * results are single shot times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerGraphIndexBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"1", "4"})
+    public int indexedKeys;
+
+    @Param({"1000"})
+    public int distinctValues;
+
+    /**
+     * A graph whose vertex keys and edge key are indexed before it is loaded.
+     */
+    @State(Scope.Thread)
+    public static class IndexedGraph {
+        private TinkerGraph graph;
+
+        @Setup(Level.Invocation)
+        public void prepare(final TinkerGraphIndexBenchmark benchmark) {
+            graph = TinkerGraph.open();
+            for (int ik = 0; ik < benchmark.indexedKeys; ik++) {
+                graph.createIndex("k" + ik, Vertex.class);
+            }
+            graph.createIndex("since", Edge.class);
+            benchmark.load(graph);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            graph.close();
+        }
+    }
+
+    /**
+     * A graph that is loaded without any indices.
+     */
+    @State(Scope.Thread)
+    public static class UnindexedGraph {
+        private TinkerGraph graph;
+
+        @Setup(Level.Invocation)
+        public void prepare(final TinkerGraphIndexBenchmark benchmark) {
+            graph = TinkerGraph.open();
+            benchmark.load(graph);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            graph.close();
+        }
+    }
+
+    private void load(final TinkerGraph graph) {
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+        final List<Vertex> vertices = new ArrayList<>(vertexCount);
+        for (int ix = 0; ix < vertexCount; ix++) {
+            final Vertex v = graph.addVertex("person");
+            for (int ik = 0; ik < indexedKeys; ik++) {
+                v.property("k" + ik, rand.nextInt(distinctValues));
+            }
+            vertices.add(v);
+        }
+        for (final Vertex v : vertices) {
+            v.addEdge("knows", vertices.get(rand.nextInt(vertexCount)), "since", rand.nextInt(distinctValues));
+        }
+    }
+
+    @Benchmark
+    public TinkerGraph testDropAll(final IndexedGraph loaded) {
+        loaded.graph.traversal().V().drop().iterate();
+        return loaded.graph;
+    }
+
+    @Benchmark
+    public TinkerGraph testCreateIndex(final UnindexedGraph loaded) {
+        for (int ik = 0; ik < indexedKeys; ik++) {
+            loaded.graph.createIndex("k" + ik, Vertex.class);
+        }
+        return loaded.graph;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphStorageBenchmark} compares the heap retained by a {@link TinkerGraph} using the default storage
+ * layout with one configured for {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_STORAGE}, which also holds the
+ * elements by their numeric identifiers. The footprint is reported
+ * as the {@code retainedBytes} secondary result of each iteration and is measured by collecting garbage before and
+ * after the graph is loaded, so the primary time result includes that collection and should not be read as load time.
+ * Note that JMH sums event counters over the iterations in its final summary.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(time = 5)
+@Measurement(time = 5)
+public class TinkerGraphStorageBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"false", "true"})
+    public boolean compactStorage;
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"10"})
+    public int edgesPerVertex;
+
+    private Graph graph;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void release() {
+        graph = null;
+    }
+
+    @Benchmark
+    public Graph testLoadGraph(final Footprint footprint) {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_STORAGE, compactStorage);
+
+        final long before = usedHeap();
+        graph = TinkerGraph.open(conf);
+
+        final Random rand = new Random(584545454L);
+        final List<Vertex> vertices = new ArrayList<>(vertexCount);
+        for (int ix = 0; ix < vertexCount; ix++) {
+            vertices.add(graph.addVertex(T.label, "person", "name", "p" + ix, "age", ix % 100));
+        }
+        for (final Vertex v : vertices) {
+            for (int ie = 0; ie < edgesPerVertex; ie++) {
+                v.addEdge(ie % 2 == 0 ? "knows" : "created", vertices.get(rand.nextInt(vertexCount)), "weight", rand.nextDouble());
+            }
+        }
+        vertices.clear();
+
+        footprint.retainedBytes = usedHeap() - before;
+        return graph;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int ix = 0; ix < 3; ix++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
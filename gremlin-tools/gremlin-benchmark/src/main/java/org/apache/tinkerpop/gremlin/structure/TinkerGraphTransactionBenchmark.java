@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphTransactionBenchmark} measures the throughput of readers and a writer that share a
+ * {@link TinkerGraph} configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}. Each reader transaction
+ * traverses the neighborhood of a random vertex while each writer transaction changes a property of a random vertex
+ * and adds an edge, so the results show how much the readers are slowed by concurrent commits. The number of threads
+ * in each role can be changed with the JMH {@code -tg} option.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TinkerGraphTransactionBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"10000"})
+    public int vertexCount;
+
+    @Param({"10"})
+    public int edgesPerVertex;
+
+    private Graph graph;
+    private GraphTraversalSource g;
+    private Object[] ids;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        graph = TinkerGraph.open(conf);
+        g = graph.traversal();
+
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+        final List<Vertex> vertices = new ArrayList<>(vertexCount);
+        for (int ix = 0; ix < vertexCount; ix++) {
+            vertices.add(graph.addVertex(T.label, "person", "name", "p" + ix, "age", ix % 100));
+        }
+        for (final Vertex v : vertices) {
+            for (int ie = 0; ie < edgesPerVertex; ie++) {
+                v.addEdge("knows", vertices.get(rand.nextInt(vertexCount)), "weight", rand.nextDouble());
+            }
+        }
+        graph.tx().commit();
+        ids = vertices.stream().map(Element::id).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public long testRead() {
+        final long count = g.V(randomId()).out("knows").has("age", 42).count().next();
+        graph.tx().commit();
+        return count;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Edge testWrite() {
+        final Vertex v = graph.vertices(randomId()).next();
+        v.property("age", ThreadLocalRandom.current().nextInt(100));
+        final Edge e = v.addEdge("knows", graph.vertices(randomId()).next(), "weight", 0.5d);
+        graph.tx().commit();
+        return e;
+    }
+
+    private Object randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.function.Function2;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.util.LongAccumulator;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
@@ -80,6 +81,23 @@ public final class SparkExecutor {
             final SparkMemory memory,
             final Configuration graphComputerConfiguration,    // has the Graph/GraphComputer.configuration() information
             final Configuration vertexProgramConfiguration) { // has the VertexProgram.loadState() information
+        return executeVertexProgramIteration(graphRDD, viewIncomingRDD, memory, graphComputerConfiguration, vertexProgramConfiguration, false, null);
+    }
+
+    /**
+     * Executes an iteration of the vertex program, skipping the vertices that voted to halt and were not sent a
+     * message unless {@code wakeAll} is set. If an accumulator is provided, it counts the vertices that will be
+     * skipped in the next iteration. The count is taken in the action that completes the iteration, so retried or
+     * speculative tasks do not add to it more than once.
+     */
+    public static <M> JavaPairRDD<Object, ViewIncomingPayload<M>> executeVertexProgramIteration(
+            final JavaPairRDD<Object, VertexWritable> graphRDD,
+            final JavaPairRDD<Object, ViewIncomingPayload<M>> viewIncomingRDD,
+            final SparkMemory memory,
+            final Configuration graphComputerConfiguration,    // has the Graph/GraphComputer.configuration() information
+            final Configuration vertexProgramConfiguration,    // has the VertexProgram.loadState() information
+            final boolean wakeAll,
+            final LongAccumulator haltedVertices) {
 
         boolean partitionedGraphRDD = graphRDD.partitioner().isPresent();
 
@@ -104,6 +122,12 @@ public final class SparkExecutor {
                     return IteratorUtils.map(partitionIterator, vertexViewIncoming -> {
                         final StarGraph.StarVertex vertex = vertexViewIncoming._2()._1().get(); // get the vertex from the vertex writable
                         final boolean hasViewAndMessages = vertexViewIncoming._2()._2().isPresent(); // if this is the first iteration, then there are no views or messages
+                        // a vertex that voted to halt and was not sent a message keeps its view without being executed
+                        if (!wakeAll && hasViewAndMessages && vertexViewIncoming._2()._2().get().isHalted() && vertexViewIncoming._2()._2().get().getIncomingMessages().isEmpty()) {
+                            if (!partitionIterator.hasNext())
+                                workerVertexProgram.workerIterationEnd(memory.asImmutable()); // if no more vertices in the partition, end the worker's iteration
+                            return new Tuple2<>(vertex.id(), new ViewOutgoingPayload<>(vertexViewIncoming._2()._2().get().getView(), Collections.<Tuple2<Object, M>>emptyList(), true));
+                        }
                         final List<DetachedVertexProperty<Object>> previousView = hasViewAndMessages ? vertexViewIncoming._2()._2().get().getView() : memory.isInitialIteration() ? new ArrayList<>() : Collections.emptyList();
                         // revive compute properties if they already exist
                         if (memory.isInitialIteration() && vertexComputeKeysArray.length > 0)
@@ -125,11 +149,12 @@ public final class SparkExecutor {
                         // drop compute property view as it has now been detached from the vertex
                         vertex.dropVertexProperties(vertexComputeKeysArray);
                         final List<Tuple2<Object, M>> outgoingMessages = messenger.getOutgoingMessages(); // get the outgoing messages being sent by this vertex
+                        final boolean halted = messenger.isHalted(); // a halted vertex must be emitted so that the next iteration knows to skip it
                         if (!partitionIterator.hasNext())
                             workerVertexProgram.workerIterationEnd(memory.asImmutable()); // if no more vertices in the partition, end the worker's iteration
-                        return (nextView.isEmpty() && outgoingMessages.isEmpty()) ?
+                        return (nextView.isEmpty() && outgoingMessages.isEmpty() && !halted) ?
                                 null : // if there is no view nor outgoing messages, emit nothing
-                                new Tuple2<>(vertex.id(), new ViewOutgoingPayload<>(nextView, outgoingMessages));  // else, emit the vertex id, its view, and its outgoing messages
+                                new Tuple2<>(vertex.id(), new ViewOutgoingPayload<>(nextView, outgoingMessages, halted));  // else, emit the vertex id, its view, and its outgoing messages
                     });
                 }, true)  // true means that the partition is preserved
                 .filter(tuple -> null != tuple); // if there are no messages or views, then the tuple is null (memory optimization)
@@ -178,6 +203,9 @@ public final class SparkExecutor {
         newViewIncomingRDD
                 .foreachPartition(partitionIterator -> {
                     KryoShimServiceLoader.applyConfiguration(graphComputerConfiguration);
+                    if (null != haltedVertices)
+                        haltedVertices.add(IteratorUtils.count(IteratorUtils.filter(partitionIterator,
+                                tuple -> tuple._2().isHalted() && tuple._2().getIncomingMessages().isEmpty())));
                 }); // need to complete a task so its BSP and the memory for this iteration is updatedß
         return newViewIncomingRDD;
     }
@@ -36,6 +36,7 @@ import org.apache.spark.serializer.KryoRegistrator;
 import org.apache.spark.serializer.KryoSerializer;
 import org.apache.spark.serializer.Serializer;
 import org.apache.spark.storage.StorageLevel;
+import org.apache.spark.util.LongAccumulator;
 import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.AbstractHadoopGraphComputer;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.util.ComputerSubmissionHelper;
@@ -213,6 +214,16 @@ public final class SparkGraphComputer extends AbstractHadoopGraphComputer {
         return configure(SPARK_KRYO_REGISTRATION_REQUIRED, required);
     }
 
+    @Override
+    public AbstractHadoopGraphComputer.Features features() {
+        return new AbstractHadoopGraphComputer.Features() {
+            @Override
+            public boolean supportsVoteToHalt() {
+                return true;
+            }
+        };
+    }
+
     @Override
     public Future<ComputerResult> submit() {
         this.validateStatePriorToExecution();
@@ -388,6 +399,10 @@ public final class SparkGraphComputer extends AbstractHadoopGraphComputer {
                         this.vertexProgram.setup(memory);
                         JavaPairRDD<Object, ViewIncomingPayload<Object>> viewIncomingRDD = null;
                         memory.broadcastMemory(sparkContext);
+                        // vertices that voted to halt are skipped until they are sent a message, unless all of them are
+                        final LongAccumulator haltedVertices = JavaSparkContext.toSparkContext(sparkContext).longAccumulator();
+                        long vertexCount = -1;
+                        boolean wakeAll = false;
                         // execute the vertex program
                         while (true) {
                             if (Thread.interrupted()) {
@@ -395,11 +410,18 @@ public final class SparkGraphComputer extends AbstractHadoopGraphComputer {
                                 throw new TraversalInterruptedException();
                             }
                             memory.setInExecute(true);
-                            viewIncomingRDD = SparkExecutor.executeVertexProgramIteration(loadedGraphRDD, viewIncomingRDD, memory, graphComputerConfiguration, vertexProgramConfiguration);
+                            haltedVertices.reset();
+                            viewIncomingRDD = SparkExecutor.executeVertexProgramIteration(loadedGraphRDD, viewIncomingRDD, memory, graphComputerConfiguration, vertexProgramConfiguration, wakeAll, haltedVertices);
                             memory.setInExecute(false);
                             if (this.vertexProgram.terminate(memory))
                                 break;
                             else {
+                                wakeAll = false;
+                                if (haltedVertices.value() > 0) {
+                                    if (vertexCount < 0)
+                                        vertexCount = loadedGraphRDD.count();
+                                    wakeAll = haltedVertices.value() == vertexCount;
+                                }
                                 memory.incrIteration();
                                 memory.broadcastMemory(sparkContext);
                             }
@@ -31,6 +31,7 @@ public final class ViewOutgoingPayload<M> implements Payload {
 
     private List<DetachedVertexProperty<Object>> view;
     private List<Tuple2<Object, M>> outgoingMessages;
+    private boolean halted = false;
 
     private ViewOutgoingPayload() {
 
@@ -41,8 +42,13 @@ public final class ViewOutgoingPayload<M> implements Payload {
         this.outgoingMessages = outgoingMessages.isEmpty() ? null : outgoingMessages;
     }
 
+    public ViewOutgoingPayload(final List<DetachedVertexProperty<Object>> view, final List<Tuple2<Object, M>> outgoingMessages, final boolean halted) {
+        this(view, outgoingMessages);
+        this.halted = halted;
+    }
+
     public ViewPayload getView() {
-        return new ViewPayload(this.view);
+        return new ViewPayload(this.view, this.halted);
     }
 
     public List<Tuple2<Object, M>> getOutgoingMessages() {
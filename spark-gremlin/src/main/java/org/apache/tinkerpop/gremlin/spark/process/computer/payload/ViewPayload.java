@@ -29,6 +29,7 @@ import java.util.List;
 public final class ViewPayload implements Payload {
 
     private List<DetachedVertexProperty<Object>> view;
+    private boolean halted = false;
 
     private ViewPayload() {
     }
@@ -37,6 +38,18 @@ public final class ViewPayload implements Payload {
         this.view = view;
     }
 
+    public ViewPayload(final List<DetachedVertexProperty<Object>> view, final boolean halted) {
+        this.view = view;
+        this.halted = halted;
+    }
+
+    /**
+     * Determines if the vertex of the view voted to halt.
+     */
+    public boolean isHalted() {
+        return this.halted;
+    }
+
     public List<DetachedVertexProperty<Object>> getView() {
         return null == this.view ? Collections.emptyList() : this.view;
     }
@@ -23,6 +23,8 @@ import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.optimization.GraphFilterStrategy;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
@@ -38,6 +40,7 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -49,6 +52,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -68,11 +72,20 @@ public final class TinkerGraphComputer implements GraphComputer {
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
+    private TinkerMessageBoard messageBoard;
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private int workers = Runtime.getRuntime().availableProcessors();
     private final GraphFilter graphFilter = new GraphFilter();
+    private long[] workerBusyTime = new long[0];
+    private long[] workerIdleTime = new long[0];
+    private long memoryBudget;
+    private boolean asynchronous;
+    private boolean reuseContext;
+    private boolean contextReused = false;
+    private String spillDirectory;
+    private long spilledBytes = 0;
+    private final LongAdder vertexExecutions = new LongAdder();
 
     private final ThreadFactory threadFactoryBoss = new BasicThreadFactory.Builder().namingPattern(TinkerGraphComputer.class.getSimpleName() + "-boss").build();
 
@@ -84,6 +97,10 @@ public final class TinkerGraphComputer implements GraphComputer {
 
     public TinkerGraphComputer(final TinkerGraph graph) {
         this.graph = graph;
+        this.memoryBudget = graph.configuration().getLong(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET, -1L);
+        this.spillDirectory = graph.configuration().getString(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_SPILL_DIRECTORY, System.getProperty("java.io.tmpdir"));
+        this.asynchronous = graph.configuration().getBoolean(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS, false);
+        this.reuseContext = graph.configuration().getBoolean(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT, false);
     }
 
     @Override
@@ -128,6 +145,26 @@ public final class TinkerGraphComputer implements GraphComputer {
         return this;
     }
 
+    /**
+     * Accepts {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET},
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_SPILL_DIRECTORY},
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS} and
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT} to override those of the graph configuration for
+     * this computation.
+     */
+    @Override
+    public GraphComputer configure(final String key, final Object value) {
+        if (TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET.equals(key))
+            this.memoryBudget = Long.parseLong(value.toString());
+        else if (TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_SPILL_DIRECTORY.equals(key))
+            this.spillDirectory = value.toString();
+        else if (TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS.equals(key))
+            this.asynchronous = Boolean.parseBoolean(value.toString());
+        else if (TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT.equals(key))
+            this.reuseContext = Boolean.parseBoolean(value.toString());
+        return this;
+    }
+
     @Override
     public Future<ComputerResult> submit() {
         // a graph computer can only be executed once
@@ -156,30 +193,50 @@ public final class TinkerGraphComputer implements GraphComputer {
         this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
         final Future<ComputerResult> result = computerService.submit(() -> {
             final long time = System.currentTimeMillis();
-            final TinkerGraphComputerView view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, null != this.vertexProgram ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet());
-            final TinkerWorkerPool workers = new TinkerWorkerPool(this.graph, this.memory, this.workers);
+            final Set<VertexComputeKey> computeKeys = null != this.vertexProgram ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet();
+            // the context is only kept for graphs without transactions as their threads see different elements
+            final TinkerGraphComputerContext context = this.reuseContext && !this.graph.features().graph().supportsTransactions() ?
+                    TinkerGraphComputerContext.acquire(this.graph, this.graphFilter, this.workers) : null;
+            final TinkerGraphComputerView view = null == context ?
+                    TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, computeKeys) :
+                    context.createView(this.graph, computeKeys);
+            final TinkerWorkerPool workers = null == context ?
+                    new TinkerWorkerPool(this.graph, this.memory, this.workers) :
+                    context.getWorkerPool(this.memory);
+            this.contextReused = null != context && context.isReused();
+            final TinkerSpillStore spillStore = this.memoryBudget < 0 ? null : new TinkerSpillStore(Paths.get(this.spillDirectory), this.memoryBudget);
             try {
                 if (null != this.vertexProgram) {
                     // execute the vertex program
+                    if (null != spillStore) view.setSpillStore(spillStore);
+                    // messages are only delivered as soon as they are sent to programs that converge regardless
+                    final boolean asynchronous = this.asynchronous && this.vertexProgram.getFeatures().isOrderInsensitive();
+                    this.messageBoard = new TinkerMessageBoard<>(workers.getVertices(), spillStore, asynchronous);
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         if (Thread.interrupted()) throw new TraversalInterruptedException();
                         this.memory.completeSubRound();
                         workers.setVertexProgram(this.vertexProgram);
-                        workers.executeVertexProgram((vertices, vertexProgram, workerMemory) -> {
+                        // vertices that voted to halt are skipped until they are sent a message
+                        workers.executeVertexProgram(this.messageBoard::isScheduled, (vertices, vertexProgram, workerMemory) -> {
                             vertexProgram.workerIterationStart(workerMemory.asImmutable());
                             while (vertices.hasNext()) {
                                 final Vertex vertex = vertices.next();
                                 if (Thread.interrupted()) throw new TraversalInterruptedException();
+                                this.vertexExecutions.increment();
                                 vertexProgram.execute(
                                         ComputerGraph.vertexProgram(vertex, vertexProgram),
                                         new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()),
                                         workerMemory);
+                                view.spill(vertex);
                             }
                             vertexProgram.workerIterationEnd(workerMemory.asImmutable());
                             workerMemory.complete();
                         });
-                        this.messageBoard.completeIteration();
+                        if (asynchronous)
+                            this.messageBoard.completeIteration(this.vertexProgram.getMessageScopes(this.memory));
+                        else
+                            this.messageBoard.completeIteration();
                         this.memory.completeSubRound();
                         if (this.vertexProgram.terminate(this.memory)) {
                             this.memory.incrIteration();
@@ -188,6 +245,7 @@ public final class TinkerGraphComputer implements GraphComputer {
                             this.memory.incrIteration();
                         }
                     }
+                    this.messageBoard.close();
                     view.complete(); // drop all transient vertex compute keys
                 }
 
@@ -237,19 +295,73 @@ public final class TinkerGraphComputer implements GraphComputer {
                 TinkerHelper.dropGraphComputerView(this.graph); // drop the view from the original source graph
                 return new DefaultComputerResult(resultGraph, this.memory.asImmutable());
             } catch (InterruptedException ie) {
+                if (null != context) context.invalidate();
                 workers.closeNow();
                 throw new TraversalInterruptedException();
             } catch (Exception ex) {
+                if (null != context) context.invalidate();
                 workers.closeNow();
                 throw new RuntimeException(ex);
             } finally {
-                workers.close();
+                this.workerBusyTime = workers.getBusyTime();
+                this.workerIdleTime = workers.getIdleTime();
+                if (null == context)
+                    workers.close();
+                else
+                    context.release();
+                if (null != spillStore) {
+                    this.spilledBytes = spillStore.getSpilledBytes();
+                    spillStore.close();
+                }
             }
         });
         this.computerService.shutdown();
         return result;
     }
 
+    /**
+     * Gets the milliseconds each worker spent running the vertex program and map reduce jobs, which is available once
+     * the {@link ComputerResult} of {@link #submit()} is.
+     */
+    public long[] getWorkerBusyTime() {
+        return this.workerBusyTime;
+    }
+
+    /**
+     * Gets the milliseconds each worker spent waiting for the other workers to complete an iteration, which is
+     * available once the {@link ComputerResult} of {@link #submit()} is.
+     */
+    public long[] getWorkerIdleTime() {
+        return this.workerIdleTime;
+    }
+
+    /**
+     * Gets the bytes of messages and vertex compute key values that were written to spill files because they did not
+     * fit within {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET}, which is available once the
+     * {@link ComputerResult} of {@link #submit()} is.
+     */
+    public long getSpilledBytes() {
+        return this.spilledBytes;
+    }
+
+    /**
+     * Gets the number of times the vertex program was executed on a vertex, which is smaller than the number of
+     * vertices times the number of iterations when vertices {@link Messenger#voteToHalt() vote to halt}, and which is
+     * available once the {@link ComputerResult} of {@link #submit()} is.
+     */
+    public long getVertexExecutions() {
+        return this.vertexExecutions.sum();
+    }
+
+    /**
+     * Determines if the computation reused the worker threads, vertices and {@link GraphFilter} view of an earlier one
+     * on the graph, as {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT} allows, which is available once
+     * the {@link ComputerResult} of {@link #submit()} is.
+     */
+    public boolean isContextReused() {
+        return this.contextReused;
+    }
+
     @Override
     public String toString() {
         return StringFactory.graphComputerString(this);
@@ -282,6 +394,11 @@ public final class TinkerGraphComputer implements GraphComputer {
                 return false;
             }
 
+            @Override
+            public boolean supportsVoteToHalt() {
+                return true;
+            }
+
             @Override
             public boolean supportsVertexRemoval() {
                 return false;
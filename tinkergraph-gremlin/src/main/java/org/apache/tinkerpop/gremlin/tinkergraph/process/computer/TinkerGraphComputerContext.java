@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The worker threads, the vertices they share and the {@link GraphFilter} view that {@link TinkerGraphComputer} keeps
+ * on its graph when {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT} is enabled, so that the
+ * computations which follow with the same filter and number of workers do not set them up again. Any change to the
+ * graph invalidates the context, which the next computation then replaces.
+ */
+public final class TinkerGraphComputerContext implements AutoCloseable {
+
+    private final GraphFilter graphFilter;
+    private final int workers;
+    private final TinkerGraphComputerView filteredView;
+    private final TinkerWorkerPool workerPool;
+    private volatile boolean valid = true;
+
+    /**
+     * Whether a computation holds the context and how many have acquired it, both guarded by the class.
+     */
+    private boolean inUse = false;
+    private long uses = 0;
+
+    private TinkerGraphComputerContext(final TinkerGraph graph, final GraphFilter graphFilter, final int workers) {
+        this.graphFilter = graphFilter.clone();
+        this.workers = workers;
+        // the vertices of the workers are those that are legal in the view
+        this.filteredView = TinkerHelper.createGraphComputerView(graph, this.graphFilter, Collections.emptySet());
+        try {
+            this.workerPool = new TinkerWorkerPool(graph, workers, true);
+        } finally {
+            TinkerHelper.dropGraphComputerView(graph);
+        }
+    }
+
+    /**
+     * Takes the context of the graph for a computation, replacing it when it is stale or was set up for another
+     * filter or number of workers, or returns {@code null} if another computation holds it.
+     */
+    static synchronized TinkerGraphComputerContext acquire(final TinkerGraph graph, final GraphFilter graphFilter, final int workers) {
+        TinkerGraphComputerContext context = TinkerHelper.getComputerContext(graph);
+        if (null != context && context.inUse)
+            return null;
+        if (null == context || !context.valid || context.workers != workers ||
+                !sameFilter(context.graphFilter.getVertexFilter(), graphFilter.getVertexFilter()) ||
+                !sameFilter(context.graphFilter.getEdgeFilter(), graphFilter.getEdgeFilter())) {
+            if (null != context) context.close();
+            context = new TinkerGraphComputerContext(graph, graphFilter, workers);
+            TinkerHelper.setComputerContext(graph, context);
+        }
+        context.inUse = true;
+        context.uses++;
+        return context;
+    }
+
+    private static boolean sameFilter(final Traversal.Admin<?, ?> a, final Traversal.Admin<?, ?> b) {
+        return null == a ? null == b : null != b && a.equals(b);
+    }
+
+    /**
+     * Returns the context so that the next computation can acquire it.
+     */
+    void release() {
+        synchronized (TinkerGraphComputerContext.class) {
+            this.inUse = false;
+        }
+    }
+
+    /**
+     * Determines if the computation that holds the context is not the first to use it.
+     */
+    boolean isReused() {
+        synchronized (TinkerGraphComputerContext.class) {
+            return this.uses > 1;
+        }
+    }
+
+    /**
+     * Creates the view of a computation, which shares the legal vertices and edges of the context.
+     */
+    TinkerGraphComputerView createView(final TinkerGraph graph, final Set<VertexComputeKey> computeKeys) {
+        return TinkerHelper.createGraphComputerView(graph, this.filteredView, computeKeys);
+    }
+
+    /**
+     * Gets the workers, which are prepared for a computation with the memory.
+     */
+    TinkerWorkerPool getWorkerPool(final TinkerMemory memory) {
+        this.workerPool.setMemory(memory);
+        return this.workerPool;
+    }
+
+    /**
+     * Marks the context as stale, so that the next computation sets up another one.
+     */
+    public void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Stops the worker threads of the context.
+     */
+    @Override
+    public void close() {
+        this.valid = false;
+        try {
+            this.workerPool.close();
+        } catch (final Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
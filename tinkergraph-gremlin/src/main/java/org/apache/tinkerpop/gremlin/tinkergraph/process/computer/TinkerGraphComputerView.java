@@ -52,16 +52,27 @@ public final class TinkerGraphComputerView {
     private final TinkerGraph graph;
     protected final Map<String, VertexComputeKey> computeKeys;
     private Map<Element, Map<String, List<VertexProperty<?>>>> computeProperties;
-    private final Set<Object> legalVertices = new HashSet<>();
-    private final Map<Object, Set<Object>> legalEdges = new HashMap<>();
+    private final Set<Object> legalVertices;
+    private final Map<Object, Set<Object>> legalEdges;
     private final GraphFilter graphFilter;
 
+    /**
+     * The store that compute key values are spilled to once its memory budget is used, which is only set when the
+     * {@link TinkerGraphComputer} is configured with a budget, and whether values that are read back from it during
+     * the vertex program should stay on the heap until the vertex has executed.
+     */
+    private TinkerSpillStore spillStore = null;
+    private TinkerSpillStore.SpillFile spillFile = null;
+    private volatile boolean executing = true;
+
     public TinkerGraphComputerView(final TinkerGraph graph, final GraphFilter graphFilter, final Set<VertexComputeKey> computeKeys) {
         this.graph = graph;
         this.computeKeys = new HashMap<>();
         computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
         this.computeProperties = new ConcurrentHashMap<>();
         this.graphFilter = graphFilter;
+        this.legalVertices = new HashSet<>();
+        this.legalEdges = new HashMap<>();
         if (this.graphFilter.hasFilter()) {
             graph.vertices().forEachRemaining(vertex -> {
                 boolean legalVertex = false;
@@ -78,15 +89,31 @@ public final class TinkerGraphComputerView {
         }
     }
 
+    /**
+     * Creates a view with the vertices and edges that the {@link GraphFilter} of another view of the same graph
+     * determined to be legal, which are shared rather than copied as they are not changed by a computation.
+     */
+    public TinkerGraphComputerView(final TinkerGraphComputerView filteredView, final Set<VertexComputeKey> computeKeys) {
+        this.graph = filteredView.graph;
+        this.computeKeys = new HashMap<>();
+        computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
+        this.computeProperties = new ConcurrentHashMap<>();
+        this.graphFilter = filteredView.graphFilter;
+        this.legalVertices = filteredView.legalVertices;
+        this.legalEdges = filteredView.legalEdges;
+    }
+
     public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
+            final TinkerVertexProperty<V> property = null == this.spillStore ?
+                    new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
+                        @Override
+                        public void remove() {
+                            removeProperty(vertex, key, this);
+                        }
+                    } :
+                    new SpillableProperty<>(vertex, key, value);
             this.addValue(vertex, key, property);
             return property;
         } else {
@@ -128,7 +155,25 @@ public final class TinkerGraphComputerView {
         return !this.graphFilter.hasEdgeFilter() || this.legalEdges.get(vertex.id()).contains(edge.id());
     }
 
+    void setSpillStore(final TinkerSpillStore spillStore) {
+        this.spillStore = spillStore;
+        this.spillFile = spillStore.createFile();
+    }
+
+    /**
+     * Spills the compute key values of a vertex that has executed if they do not fit within the memory budget.
+     */
+    void spill(final Vertex vertex) {
+        if (null == this.spillStore) return;
+        for (final List<VertexProperty<?>> properties : this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).values()) {
+            for (final VertexProperty<?> property : properties) {
+                ((SpillableProperty<?>) property).spill();
+            }
+        }
+    }
+
     protected void complete() {
+        this.executing = false;
         // remove all transient properties from the vertices
         for (final VertexComputeKey computeKey : this.computeKeys.values()) {
             if (computeKey.isTransient()) {
@@ -222,10 +267,65 @@ public final class TinkerGraphComputerView {
     }
 
     private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
+        if (property instanceof SpillableProperty) ((SpillableProperty<?>) property).release();
         this.computeProperties.<List<Map<String, VertexProperty<?>>>>getOrDefault(vertex, Collections.emptyMap()).get(key).remove(property);
     }
 
     private List<VertexProperty<?>> getValue(final Vertex vertex, final String key) {
         return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
     }
-}
\ No newline at end of file
+
+    /**
+     * A compute key property whose value is either on the heap, where it counts against the memory budget, or in the
+     * spill file. A value that is read back while the vertex program executes stays on the heap until the vertex has
+     * executed, as vertex programs may change a value such as a {@code TraverserSet} without setting it again.
+     */
+    private final class SpillableProperty<V> extends TinkerVertexProperty<V> {
+
+        private V heldValue;
+        private boolean held = true;
+        private long handle = TinkerSpillStore.NONE;
+        private int reservedBytes = 0;
+
+        private SpillableProperty(final TinkerVertex vertex, final String key, final V value) {
+            super(vertex, key, value);
+            this.heldValue = value;
+            this.setValue(null);
+        }
+
+        @Override
+        public V value() {
+            if (this.held) return this.heldValue;
+            final V value = (V) spillFile.read(this.handle);
+            if (executing) {
+                this.heldValue = value;
+                this.held = true;
+            }
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            removeProperty((TinkerVertex) this.element(), this.key(), this);
+        }
+
+        private void spill() {
+            if (!this.held) return;
+            final byte[] bytes = spillStore.serialize(this.heldValue);
+            spillStore.release(this.reservedBytes);
+            if (spillStore.reserve(bytes.length)) {
+                this.reservedBytes = bytes.length;
+            } else {
+                this.reservedBytes = 0;
+                this.handle = TinkerSpillStore.NONE == this.handle ? spillFile.write(bytes) : spillFile.rewrite(this.handle, bytes);
+                this.heldValue = null;
+                this.held = false;
+            }
+        }
+
+        private void release() {
+            spillStore.release(this.reservedBytes);
+            this.reservedBytes = 0;
+        }
+    }
+}
@@ -18,29 +18,426 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * Holds the messages sent by the workers of an iteration of {@link TinkerGraphComputer} for the workers of the next
+ * iteration. Each vertex of the computation has a slot in dense arrays, one for all {@link MessageScope.Global}
+ * messages, which are held at the vertex they are sent to, and one for each {@link MessageScope.Local}, whose messages
+ * are held at the vertex that sent them. Workers add messages to a slot with a compare-and-set, combining them in
+ * place when the {@link MessageCombiner} of the vertex program is provided, so sending a message takes no locks and,
+ * with a combiner, allocates nothing but the combined message.
+ * <p/>
+ * An asynchronous board keeps a single slot for each vertex and {@link MessageScope.Local} across iterations, which a
+ * vertex replaces with the messages it sends and which its adjacent vertices read as soon as they execute, so that a
+ * vertex receives the latest messages of its adjacent vertices whether they were sent in the previous iteration or
+ * the current one. {@link MessageScope.Global} messages are always received in the iteration after they are sent.
+ * <p/>
+ * The board also schedules the vertices of the next iteration of a synchronous board, skipping those that voted to
+ * halt unless they were sent a message. As the senders of {@link MessageScope.Local} messages are known rather than
+ * their receivers, the incident traversal of a sender is only walked to find them once a vertex has halted.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<MessageScope, Map<Vertex,Queue<M>>> sendMessages = new ConcurrentHashMap<>();
-    public Map<MessageScope, Map<Vertex, Queue<M>>> receiveMessages = new ConcurrentHashMap<>();
-    public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    private final Vertex[] vertices;
+    private final Map<Object, Integer> indices;
+    private final int size;
+    private final TinkerSpillStore spillStore;
+    private final boolean asynchronous;
+
+    private Messages<M> sendGlobal = null;
+    private Messages<M> receiveGlobal = null;
+    private LocalMessages<M>[] sendLocal = new LocalMessages[0];
+    private LocalMessages<M>[] receiveLocal = new LocalMessages[0];
+
+    /**
+     * The {@link MessageScope.Local} instances that messages were sent with, which are usually fields of the vertex
+     * program, so that finding their messages does not require the {@code hashCode()} of the scope which constructs
+     * its incident traversal.
+     */
+    private volatile LocalMessages<M>[] sendLocalAliases = new LocalMessages[0];
+
+    /**
+     * Whether each vertex voted to halt when it last executed, the votes of the current iteration and the vertices
+     * that it executes, where {@code null} schedules all of them.
+     */
+    private final boolean[] halted;
+    private final boolean[] votes;
+    private boolean[] scheduled = null;
+
+    /**
+     * Creates a board for the vertices that holds messages which are not combined in the spill store, if one is
+     * provided, once its memory budget is used. The {@link MessageScope.Local} messages of an asynchronous board are
+     * replaced rather than received only once and are always held on the heap.
+     */
+    TinkerMessageBoard(final Vertex[] vertices, final TinkerSpillStore spillStore, final boolean asynchronous) {
+        this.vertices = vertices;
+        this.size = vertices.length;
+        this.spillStore = spillStore;
+        this.asynchronous = asynchronous;
+        this.indices = new HashMap<>(vertices.length * 4 / 3 + 1);
+        for (int i = 0; i < vertices.length; i++) {
+            this.indices.put(vertices[i].id(), i);
+        }
+        this.halted = new boolean[asynchronous ? 0 : vertices.length];
+        this.votes = new boolean[asynchronous ? 0 : vertices.length];
+    }
+
+    /**
+     * Gets the slot of the vertex or {@code -1} if it is not part of the computation.
+     */
+    int indexOf(final Vertex vertex) {
+        final Integer index = this.indices.get(vertex.id());
+        return null == index ? -1 : index;
+    }
+
+    void sendGlobal(final int index, final M message, final MessageCombiner<M> combiner) {
+        Messages<M> messages = this.sendGlobal;
+        if (null == messages) {
+            synchronized (this) {
+                if (null == this.sendGlobal) this.sendGlobal = new Messages<>(this.size, this.spillStore);
+                messages = this.sendGlobal;
+            }
+        }
+        messages.add(index, message, combiner);
+    }
+
+    boolean isAsynchronous() {
+        return this.asynchronous;
+    }
+
+    /**
+     * Skips the vertex in the next iterations until it is sent a message, which an asynchronous board ignores as the
+     * latest messages of the adjacent vertices remain to be received.
+     */
+    void voteToHalt(final int index) {
+        if (!this.asynchronous) this.votes[index] = true;
+    }
+
+    /**
+     * Determines if the vertex executes in the current iteration.
+     */
+    boolean isScheduled(final int index) {
+        return null == this.scheduled || this.scheduled[index];
+    }
+
+    /**
+     * Adds a message to those the vertex sent with the scope or, when {@code replace} is set, replaces them with it,
+     * which an asynchronous board does for the first message a vertex sends with a scope in an iteration.
+     */
+    void sendLocal(final MessageScope.Local<M> scope, final int index, final M message, final MessageCombiner<M> combiner,
+                   final boolean replace) {
+        Messages<M> messages = null;
+        for (final LocalMessages<M> local : this.sendLocalAliases) {
+            if (local.scope == scope) {
+                messages = local.messages;
+                break;
+            }
+        }
+        if (null == messages) messages = this.registerLocal(scope).messages;
+        if (replace)
+            messages.set(index, message, combiner);
+        else
+            messages.add(index, message, combiner);
+    }
+
+    private synchronized LocalMessages<M> registerLocal(final MessageScope.Local<M> scope) {
+        LocalMessages<M> found = null;
+        for (final LocalMessages<M> local : this.sendLocal) {
+            if (local.scope == scope || local.scope.equals(scope)) {
+                found = local;
+                break;
+            }
+        }
+        if (null == found) {
+            found = new LocalMessages<>(scope, new Messages<>(this.size, this.asynchronous ? null : this.spillStore));
+            this.sendLocal = append(this.sendLocal, found);
+        }
+        this.sendLocalAliases = append(this.sendLocalAliases, new LocalMessages<>(scope, found.messages));
+        return found;
+    }
+
+    private static <M> LocalMessages<M>[] append(final LocalMessages<M>[] locals, final LocalMessages<M> local) {
+        final LocalMessages<M>[] appended = Arrays.copyOf(locals, locals.length + 1);
+        appended[locals.length] = local;
+        return appended;
+    }
+
+    Iterator<M> receiveGlobal(final int index) {
+        return null == this.receiveGlobal || index < 0 ? Collections.emptyIterator() : this.receiveGlobal.get(index);
+    }
+
+    LocalMessages<M>[] receiveLocal() {
+        return this.receiveLocal;
+    }
 
     public void completeIteration() {
-        this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
-        this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        this.close(this.receiveGlobal, this.receiveLocal);
+        this.receiveGlobal = this.sendGlobal;
+        this.receiveLocal = this.sendLocal;
+        this.sendGlobal = null;
+        this.sendLocal = new LocalMessages[0];
+        this.sendLocalAliases = new LocalMessages[0];
+        this.schedule();
+    }
+
+    /**
+     * Schedules the vertices that did not vote to halt and those that were sent a message. If none of them are then
+     * all the vertices are scheduled, as the vertex program did not terminate.
+     */
+    private void schedule() {
+        boolean anyHalted = false;
+        for (int i = 0; i < this.size; i++) {
+            // vertices that were not executed remain halted
+            if (this.isScheduled(i)) this.halted[i] = this.votes[i];
+            this.votes[i] = false;
+            anyHalted = anyHalted || this.halted[i];
+        }
+        if (!anyHalted) {
+            this.scheduled = null;
+            return;
+        }
+        final boolean[] scheduled = new boolean[this.size];
+        boolean anyScheduled = false;
+        for (int i = 0; i < this.size; i++) {
+            if (!this.halted[i] || (null != this.receiveGlobal && this.receiveGlobal.has(i))) {
+                scheduled[i] = true;
+                anyScheduled = true;
+            }
+        }
+        for (final LocalMessages<M> local : this.receiveLocal) {
+            for (int i = 0; i < this.size; i++) {
+                if (local.messages.has(i))
+                    anyScheduled = this.scheduleReceivers(local, this.vertices[i], scheduled) || anyScheduled;
+            }
+        }
+        this.scheduled = anyScheduled ? scheduled : null;
+    }
+
+    private boolean scheduleReceivers(final LocalMessages<M> local, final Vertex sender, final boolean[] scheduled) {
+        final Direction direction = local.getDirection();
+        final Iterator<Edge> edges;
+        final Direction lastDirection;
+        if (null != direction) {
+            edges = sender.edges(direction, local.getEdgeLabels());
+            lastDirection = direction;
+        } else {
+            final Traversal.Admin<Vertex, Edge> traversal = local.scope.getIncidentTraversal().get().asAdmin();
+            traversal.addStart(traversal.getTraverserGenerator().generate(sender, traversal.getStartStep(), 1l));
+            edges = traversal;
+            lastDirection = TraversalHelper.getLastStepOfAssignableClass(VertexStep.class, traversal).get().getDirection();
+        }
+        boolean anyScheduled = false;
+        while (edges.hasNext()) {
+            final Edge edge = edges.next();
+            if (lastDirection.equals(Direction.OUT))
+                anyScheduled = this.schedule(edge.inVertex(), scheduled) || anyScheduled;
+            else if (lastDirection.equals(Direction.IN))
+                anyScheduled = this.schedule(edge.outVertex(), scheduled) || anyScheduled;
+            else if (null != direction)
+                anyScheduled = this.schedule(edge.outVertex().equals(sender) ? edge.inVertex() : edge.outVertex(), scheduled) || anyScheduled;
+            else {
+                // the vertex that the last step of a longer traversal walked from is unknown, so both are scheduled
+                anyScheduled = this.schedule(edge.inVertex(), scheduled) || anyScheduled;
+                anyScheduled = this.schedule(edge.outVertex(), scheduled) || anyScheduled;
+            }
+        }
+        return anyScheduled;
+    }
+
+    private boolean schedule(final Vertex vertex, final boolean[] scheduled) {
+        final int index = this.indexOf(vertex);
+        if (index < 0) return false;
+        scheduled[index] = true;
+        return true;
+    }
+
+    /**
+     * Completes an iteration of an asynchronous board, after which vertices receive the {@link MessageScope.Local}
+     * messages of the scopes that the vertex program declared for the iteration.
+     */
+    void completeIteration(final Set<MessageScope> scopes) {
+        if (null != this.receiveGlobal) this.receiveGlobal.close();
+        this.receiveGlobal = this.sendGlobal;
+        this.sendGlobal = null;
+        this.receiveLocal = Arrays.stream(this.sendLocal).filter(local -> scopes.contains(local.scope)).toArray(LocalMessages[]::new);
+    }
+
+    /**
+     * Releases the messages of the last iteration.
+     */
+    void close() {
+        this.close(this.receiveGlobal, this.receiveLocal);
+        this.close(this.sendGlobal, this.sendLocal);
+    }
+
+    private void close(final Messages<M> global, final LocalMessages<M>[] locals) {
+        if (null != global) global.close();
+        for (final LocalMessages<M> local : locals) {
+            local.messages.close();
+        }
+    }
+
+    /**
+     * The messages of a {@link MessageScope.Local} along with the direction and labels of its incident traversal when
+     * it is a single {@link VertexStep}, which allows the messages to be received without constructing the traversal.
+     */
+    static final class LocalMessages<M> {
+
+        final MessageScope.Local<M> scope;
+        final Messages<M> messages;
+        private Direction direction;
+        private String[] edgeLabels;
+        private boolean analyzed = false;
+
+        private LocalMessages(final MessageScope.Local<M> scope, final Messages<M> messages) {
+            this.scope = scope;
+            this.messages = messages;
+        }
+
+        /**
+         * Gets the direction of the incident traversal, from the vertex that sent the messages, or {@code null} if the
+         * traversal is not a single {@link VertexStep} of edges.
+         */
+        synchronized Direction getDirection() {
+            if (!this.analyzed) {
+                final Traversal.Admin<Vertex, Edge> traversal = this.scope.getIncidentTraversal().get().asAdmin();
+                final List<Step> steps = traversal.getSteps();
+                if (1 == steps.size() && steps.get(0) instanceof VertexStep && ((VertexStep<?>) steps.get(0)).returnsEdge()) {
+                    this.direction = ((VertexStep<?>) steps.get(0)).getDirection();
+                    this.edgeLabels = ((VertexStep<?>) steps.get(0)).getEdgeLabels();
+                }
+                this.analyzed = true;
+            }
+            return this.direction;
+        }
+
+        synchronized String[] getEdgeLabels() {
+            return this.edgeLabels;
+        }
+    }
+
+    /**
+     * A slot for each vertex that holds either its combined message or its messages in a linked list of
+     * {@link Node}. Messages that are not combined are written to a file of the spill store, when there is one, if
+     * they do not fit within its memory budget.
+     */
+    static final class Messages<M> {
+
+        private final AtomicReferenceArray<Object> slots;
+        private final TinkerSpillStore spillStore;
+        private final AtomicLong reservedBytes = new AtomicLong(0);
+        private volatile TinkerSpillStore.SpillFile spillFile = null;
+
+        private Messages(final int size, final TinkerSpillStore spillStore) {
+            this.slots = new AtomicReferenceArray<>(size);
+            this.spillStore = spillStore;
+        }
+
+        void add(final int index, final M message, final MessageCombiner<M> combiner) {
+            final Object held = null == combiner ? this.hold(message) : message;
+            while (true) {
+                final Object current = this.slots.get(index);
+                final Object updated;
+                if (null == current)
+                    updated = null == combiner ? new Node(held, null) : message;
+                else
+                    updated = null == combiner ? new Node(held, (Node) current) : combiner.combine((M) current, message);
+                if (this.slots.compareAndSet(index, current, updated))
+                    return;
+            }
+        }
+
+        boolean has(final int index) {
+            return null != this.slots.get(index);
+        }
+
+        void set(final int index, final M message, final MessageCombiner<M> combiner) {
+            this.slots.set(index, null == combiner ? new Node(this.hold(message), null) : message);
+        }
+
+        private Object hold(final M message) {
+            if (null == this.spillStore) return message;
+            final byte[] bytes = this.spillStore.serialize(message);
+            if (this.spillStore.reserve(bytes.length)) {
+                this.reservedBytes.addAndGet(bytes.length);
+                return message;
+            }
+            return new Spilled(this.spillFile().write(bytes));
+        }
+
+        private synchronized TinkerSpillStore.SpillFile spillFile() {
+            if (null == this.spillFile) this.spillFile = this.spillStore.createFile();
+            return this.spillFile;
+        }
+
+        private void close() {
+            if (null == this.spillStore) return;
+            this.spillStore.release(this.reservedBytes.getAndSet(0));
+            synchronized (this) {
+                if (null != this.spillFile) this.spillFile.close();
+            }
+        }
+
+        Iterator<M> get(final int index) {
+            final Object value = this.slots.get(index);
+            if (null == value)
+                return Collections.emptyIterator();
+            if (!(value instanceof Node))
+                return IteratorUtils.of((M) value);
+            // the list holds the last message first so it is read backwards to return them in the order they were sent
+            Node node = (Node) value;
+            final Object[] messages = new Object[node.size];
+            for (int i = messages.length - 1; null != node; node = node.next) {
+                messages[i--] = node.message instanceof Spilled ? this.spillFile.read(((Spilled) node.message).handle) : node.message;
+            }
+            return (Iterator<M>) Arrays.asList(messages).iterator();
+        }
+    }
+
+    private static final class Node {
+
+        private final Object message;
+        private final Node next;
+        private final int size;
+
+        private Node(final Object message, final Node next) {
+            this.message = message;
+            this.next = next;
+            this.size = null == next ? 1 : next.size + 1;
+        }
+    }
+
+    /**
+     * The handle of a message in the spill file.
+     */
+    private static final class Spilled {
+
+        private final long handle;
+
+        private Spilled(final long handle) {
+            this.handle = handle;
+        }
     }
 }
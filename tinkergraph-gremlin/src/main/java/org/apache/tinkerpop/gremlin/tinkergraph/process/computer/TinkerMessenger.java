@@ -24,7 +24,6 @@ import org.apache.tinkerpop.gremlin.process.computer.Messenger;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
-import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -32,15 +31,11 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.gremlin.util.iterator.MultiIterator;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -50,6 +45,15 @@ public final class TinkerMessenger<M> implements Messenger<M> {
     private final Vertex vertex;
     private final TinkerMessageBoard<M> messageBoard;
     private final MessageCombiner<M> combiner;
+    private int index = UNKNOWN;
+
+    /**
+     * The scopes this vertex has sent messages with in this iteration, which replace those it sent before when the
+     * board is asynchronous.
+     */
+    private List<MessageScope.Local<M>> sentScopes = null;
+
+    private static final int UNKNOWN = -2;
 
     public TinkerMessenger(final Vertex vertex, final TinkerMessageBoard<M> messageBoard, final Optional<MessageCombiner<M>> combiner) {
         this.vertex = vertex;
@@ -60,35 +64,19 @@ public final class TinkerMessenger<M> implements Messenger<M> {
     @Override
     public Iterator<M> receiveMessages() {
         final MultiIterator<M> multiIterator = new MultiIterator<>();
-        for (final MessageScope messageScope : this.messageBoard.receiveMessages.keySet()) {
-//        for (final MessageScope messageScope : this.messageBoard.previousMessageScopes) {
-            if (messageScope instanceof MessageScope.Local) {
-                final MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messageScope;
-                final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get().asAdmin(), this.vertex);
-                final Direction direction = TinkerMessenger.getDirection(incidentTraversal);
-                final Edge[] edge = new Edge[1]; // simulates storage side-effects available in Gremlin, but not Java streams
-                multiIterator.addIterator(StreamSupport.stream(Spliterators.spliteratorUnknownSize(VertexProgramHelper.reverse(incidentTraversal.asAdmin()), Spliterator.IMMUTABLE | Spliterator.SIZED), false)
-                        .map((Edge e) -> {
-                            edge[0] = e;
-                            Vertex vv;
-                            if (direction.equals(Direction.IN) || direction.equals(Direction.OUT)) {
-                                vv = e.vertices(direction).next();
-                            } else {
-                                vv = e.outVertex() == this.vertex ? e.inVertex() : e.outVertex();
-                            }
-                            return this.messageBoard.receiveMessages.get(messageScope).get(vv);
-                        })
-                        .filter(q -> null != q)
-                        .flatMap(Queue::stream)
-                        .map(message -> localMessageScope.getEdgeFunction().apply(message, edge[0]))
-                        .iterator());
-
+        multiIterator.addIterator(this.messageBoard.receiveGlobal(this.index()));
+        for (final TinkerMessageBoard.LocalMessages<M> local : this.messageBoard.receiveLocal()) {
+            final Direction direction = local.getDirection();
+            if (null != direction) {
+                // the incident traversal is a single step so the edges it reaches from the senders can be walked back
+                // directly rather than constructing and reversing it for this vertex
+                multiIterator.addIterator(IteratorUtils.flatMap(this.vertex.edges(direction.opposite(), local.getEdgeLabels()),
+                        e -> this.receiveMessages(local, direction, e)));
             } else {
-                multiIterator.addIterator(Stream.of(this.vertex)
-                        .map(this.messageBoard.receiveMessages.get(messageScope)::get)
-                        .filter(q -> null != q)
-                        .flatMap(Queue::stream)
-                        .iterator());
+                final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(local.scope.getIncidentTraversal().get().asAdmin(), this.vertex);
+                final Direction lastDirection = TinkerMessenger.getDirection(incidentTraversal);
+                multiIterator.addIterator(IteratorUtils.flatMap(VertexProgramHelper.reverse(incidentTraversal),
+                        e -> this.receiveMessages(local, lastDirection, e)));
             }
         }
         return multiIterator;
@@ -96,24 +84,55 @@ public final class TinkerMessenger<M> implements Messenger<M> {
 
     @Override
     public void sendMessage(final MessageScope messageScope, final M message) {
-//        this.messageBoard.currentMessageScopes.add(messageScope);
         if (messageScope instanceof MessageScope.Local) {
-            addMessage(this.vertex, message, messageScope);
+            final int index = this.index();
+            if (index >= 0) {
+                final MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messageScope;
+                this.messageBoard.sendLocal(localMessageScope, index, message, this.combiner,
+                        this.messageBoard.isAsynchronous() && this.firstSent(localMessageScope));
+            }
+        } else {
+            ((MessageScope.Global) messageScope).vertices().forEach(v -> {
+                final int index = this.messageBoard.indexOf(v);
+                if (index >= 0)
+                    this.messageBoard.sendGlobal(index, message, this.combiner);
+            });
+        }
+    }
+
+    @Override
+    public void voteToHalt() {
+        final int index = this.index();
+        if (index >= 0)
+            this.messageBoard.voteToHalt(index);
+    }
+
+    private Iterator<M> receiveMessages(final TinkerMessageBoard.LocalMessages<M> local, final Direction direction, final Edge edge) {
+        final Vertex sender;
+        if (direction.equals(Direction.IN) || direction.equals(Direction.OUT)) {
+            sender = direction.equals(Direction.OUT) ? edge.outVertex() : edge.inVertex();
         } else {
-            ((MessageScope.Global) messageScope).vertices().forEach(v -> addMessage(v, message, messageScope));
+            sender = edge.outVertex().equals(this.vertex) ? edge.inVertex() : edge.outVertex();
+        }
+        final int senderIndex = this.messageBoard.indexOf(sender);
+        return senderIndex < 0 ?
+                Collections.emptyIterator() :
+                IteratorUtils.map(local.messages.get(senderIndex), message -> local.scope.getEdgeFunction().apply(message, edge));
+    }
+
+    private boolean firstSent(final MessageScope.Local<M> scope) {
+        if (null == this.sentScopes) this.sentScopes = new ArrayList<>(1);
+        for (final MessageScope.Local<M> sent : this.sentScopes) {
+            if (sent == scope || sent.equals(scope)) return false;
         }
+        this.sentScopes.add(scope);
+        return true;
     }
 
-    private void addMessage(final Vertex vertex, final M message, MessageScope messageScope) {
-        this.messageBoard.sendMessages.compute(messageScope, (ms, messages) -> {
-            if(null==messages) messages = new ConcurrentHashMap<>();
-            return messages;
-        });
-        this.messageBoard.sendMessages.get(messageScope).compute(vertex, (v, queue) -> {
-            if (null == queue) queue = new ConcurrentLinkedQueue<>();
-            queue.add(null != this.combiner && !queue.isEmpty() ? this.combiner.combine(queue.remove(), message) : message);
-            return queue;
-        });
+    private int index() {
+        if (UNKNOWN == this.index)
+            this.index = this.messageBoard.indexOf(this.vertex);
+        return this.index;
     }
 
     ///////////
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIoRegistryV3d0;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the messages and vertex compute key values of a {@link TinkerGraphComputer} that do not fit within the memory
+ * budget it is configured with, through {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph#GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET},
+ * in memory-mapped temporary files. The budget is counted in the bytes that values take once written with Gryo, so
+ * every value is written when it is first held and is kept on the heap only if the budget allows. Values that are
+ * read back from a file are new objects and any graph elements within them are detached.
+ */
+final class TinkerSpillStore implements AutoCloseable {
+
+    /**
+     * The bytes of file that are mapped at a time, which is exceeded only by a value that is larger.
+     */
+    private static final int SEGMENT_BYTES = 1 << 26;
+
+    /**
+     * The handle of a value that is not in a file.
+     */
+    static final long NONE = -1L;
+
+    private final Path directory;
+    private final long memoryBudget;
+    private final AtomicLong heapBytes = new AtomicLong(0);
+    private final AtomicLong spilledBytes = new AtomicLong(0);
+    private final List<SpillFile> files = new ArrayList<>();
+    private final ThreadLocal<Kryo> kryo = ThreadLocal.withInitial(() ->
+            GryoMapper.build().version(GryoVersion.V3_0).addRegistry(TinkerIoRegistryV3d0.instance()).create().createMapper());
+
+    TinkerSpillStore(final Path directory, final long memoryBudget) {
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+    }
+
+    byte[] serialize(final Object value) {
+        final Output output = new Output(256, -1);
+        this.kryo.get().writeClassAndObject(output, value);
+        return output.toBytes();
+    }
+
+    /**
+     * Counts the bytes against the memory budget if it allows them, in which case the value they were written from may
+     * stay on the heap.
+     */
+    boolean reserve(final long bytes) {
+        while (true) {
+            final long current = this.heapBytes.get();
+            if (current + bytes > this.memoryBudget) return false;
+            if (this.heapBytes.compareAndSet(current, current + bytes)) return true;
+        }
+    }
+
+    void release(final long bytes) {
+        if (bytes > 0) this.heapBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Gets the bytes that have been written to files, including those of values that were written more than once.
+     */
+    long getSpilledBytes() {
+        return this.spilledBytes.get();
+    }
+
+    synchronized SpillFile createFile() {
+        try {
+            Files.createDirectories(this.directory);
+            final Path path = Files.createTempFile(this.directory, "tinkergraph-computer-", ".spill");
+            final SpillFile file = new SpillFile(FileChannel.open(path, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE));
+            this.files.add(file);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        final List<SpillFile> open;
+        synchronized (this) {
+            open = new ArrayList<>(this.files);
+        }
+        for (final SpillFile file : open) {
+            file.close();
+        }
+    }
+
+    /**
+     * A file of values that are each written as their capacity, their length and their bytes. A value is referred to
+     * by a handle that combines the mapped segment of the file that holds it with its offset in that segment.
+     */
+    final class SpillFile {
+
+        private final FileChannel channel;
+        private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+        private long fileEnd = 0;
+        private int segmentEnd = 0;
+        private boolean closed = false;
+
+        private SpillFile(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the bytes to the file and gets the handle to read them back with.
+         */
+        long write(final byte[] bytes) {
+            final int recordBytes = Integer.BYTES * 2 + bytes.length;
+            final int segment;
+            final int offset;
+            synchronized (this) {
+                final MappedByteBuffer[] current = this.segments;
+                if (0 == current.length || this.segmentEnd + recordBytes > current[current.length - 1].capacity()) {
+                    final int segmentBytes = Math.max(SEGMENT_BYTES, recordBytes);
+                    try {
+                        final MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+                        grown[current.length] = this.channel.map(FileChannel.MapMode.READ_WRITE, this.fileEnd, segmentBytes);
+                        this.segments = grown;
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    this.fileEnd += segmentBytes;
+                    this.segmentEnd = 0;
+                }
+                segment = this.segments.length - 1;
+                offset = this.segmentEnd;
+                this.segmentEnd += recordBytes;
+            }
+            final ByteBuffer buffer = this.segments[segment].duplicate();
+            buffer.position(offset);
+            buffer.putInt(bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            spilledBytes.addAndGet(bytes.length);
+            return ((long) segment << 32) | offset;
+        }
+
+        /**
+         * Writes the bytes in place of those of the handle if they fit or to the end of the file if they do not.
+         */
+        long rewrite(final long handle, final byte[] bytes) {
+            final ByteBuffer buffer = this.segments[(int) (handle >>> 32)].duplicate();
+            buffer.position((int) handle);
+            if (buffer.getInt() < bytes.length) return this.write(bytes);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+            spilledBytes.addAndGet(bytes.length);
+            return handle;
+        }
+
+        Object read(final long handle) {
+            final ByteBuffer buffer = this.segments[(int) (handle >>> 32)].duplicate();
+            buffer.position((int) handle + Integer.BYTES);
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return kryo.get().readClassAndObject(new Input(bytes));
+        }
+
+        void close() {
+            synchronized (this) {
+                if (this.closed) return;
+                this.closed = true;
+                this.segments = new MappedByteBuffer[0];
+                try {
+                    this.channel.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            synchronized (TinkerSpillStore.this) {
+                files.remove(this);
+            }
+        }
+    }
+}
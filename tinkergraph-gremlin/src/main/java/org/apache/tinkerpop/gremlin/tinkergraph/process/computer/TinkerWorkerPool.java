@@ -25,27 +25,50 @@ import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 import org.apache.tinkerpop.gremlin.util.function.TriConsumer;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 
 /**
+ * Runs the workers of a {@link TinkerGraphComputer}. Rather than giving each worker a fixed share of the vertices, the
+ * vertices are split into small chunks that the workers claim one at a time, so a worker that is held up by vertices
+ * with many edges does not leave the other workers idle at the end of the iteration while it finishes its share.
+ * The time each worker spends running and waiting for the other workers is recorded and available from
+ * {@link #getBusyTime()} and {@link #getIdleTime()}.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public final class TinkerWorkerPool implements AutoCloseable {
 
     private static final BasicThreadFactory THREAD_FACTORY_WORKER = new BasicThreadFactory.Builder().namingPattern("tinker-worker-%d").build();
+    private static final BasicThreadFactory THREAD_FACTORY_DAEMON_WORKER = new BasicThreadFactory.Builder().namingPattern("tinker-cached-worker-%d").daemon(true).build();
+
+    /**
+     * The number of chunks per worker that the vertices are split into, which is the number of chunks that are left
+     * for the other workers to claim while one of them is busy with a single chunk.
+     */
+    private static final int CHUNKS_PER_WORKER = 16;
+
+    /**
+     * The largest number of vertices in a chunk, which bounds the imbalance between workers at the end of an iteration
+     * on large graphs.
+     */
+    private static final int MAX_CHUNK_SIZE = 1024;
 
     private final int numberOfWorkers;
     private final ExecutorService workerPool;
@@ -54,34 +77,51 @@ public final class TinkerWorkerPool implements AutoCloseable {
     private VertexProgramPool vertexProgramPool;
     private MapReducePool mapReducePool;
     private final Queue<TinkerWorkerMemory> workerMemoryPool = new ConcurrentLinkedQueue<>();
-    private final List<List<Vertex>> workerVertices = new ArrayList<>();
+    private final Vertex[] vertices;
+    private final int chunkSize;
+    private final long[] busyTime;
+    private final long[] idleTime;
 
     public TinkerWorkerPool(final TinkerGraph graph, final TinkerMemory memory, final int numberOfWorkers) {
+        this(graph, numberOfWorkers, THREAD_FACTORY_WORKER);
+        this.setMemory(memory);
+    }
+
+    /**
+     * Creates a pool for the vertices of the graph that are legal in its current {@link TinkerGraphComputerView},
+     * whose threads do not prevent the JVM from exiting when it is kept by a {@link TinkerGraphComputerContext}.
+     */
+    TinkerWorkerPool(final TinkerGraph graph, final int numberOfWorkers, final boolean daemon) {
+        this(graph, numberOfWorkers, daemon ? THREAD_FACTORY_DAEMON_WORKER : THREAD_FACTORY_WORKER);
+    }
+
+    private TinkerWorkerPool(final TinkerGraph graph, final int numberOfWorkers, final BasicThreadFactory threadFactory) {
         this.numberOfWorkers = numberOfWorkers;
-        this.workerPool = Executors.newFixedThreadPool(numberOfWorkers, THREAD_FACTORY_WORKER);
+        this.workerPool = Executors.newFixedThreadPool(numberOfWorkers, threadFactory);
         this.completionService = new ExecutorCompletionService<>(this.workerPool);
+        this.vertices = IteratorUtils.list(graph.vertices()).toArray(new Vertex[0]);
+        this.chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, this.vertices.length / (this.numberOfWorkers * CHUNKS_PER_WORKER)));
+        this.busyTime = new long[numberOfWorkers];
+        this.idleTime = new long[numberOfWorkers];
+    }
+
+    /**
+     * Prepares the workers for a computation with the memory, which resets their busy and idle time.
+     */
+    void setMemory(final TinkerMemory memory) {
+        this.workerMemoryPool.clear();
         for (int i = 0; i < this.numberOfWorkers; i++) {
             this.workerMemoryPool.add(new TinkerWorkerMemory(memory));
-            this.workerVertices.add(new ArrayList<>());
-        }
-        int batchSize = TinkerHelper.getVertices(graph).size() / this.numberOfWorkers;
-        if (0 == batchSize)
-            batchSize = 1;
-        int counter = 0;
-        int index = 0;
-
-        List<Vertex> currentWorkerVertices = this.workerVertices.get(index);
-        final Iterator<Vertex> iterator = graph.vertices();
-        while (iterator.hasNext()) {
-            final Vertex vertex = iterator.next();
-            if (counter++ < batchSize || index == this.workerVertices.size() - 1) {
-                currentWorkerVertices.add(vertex);
-            } else {
-                currentWorkerVertices = this.workerVertices.get(++index);
-                currentWorkerVertices.add(vertex);
-                counter = 1;
-            }
         }
+        Arrays.fill(this.busyTime, 0L);
+        Arrays.fill(this.idleTime, 0L);
+    }
+
+    /**
+     * Gets the vertices of the computation in the order that the workers claim them.
+     */
+    Vertex[] getVertices() {
+        return this.vertices;
     }
 
     public void setVertexProgram(final VertexProgram vertexProgram) {
@@ -93,35 +133,44 @@ public final class TinkerWorkerPool implements AutoCloseable {
     }
 
     public void executeVertexProgram(final TriConsumer<Iterator<Vertex>, VertexProgram, TinkerWorkerMemory> worker) throws InterruptedException {
-        for (int i = 0; i < this.numberOfWorkers; i++) {
-            final int index = i;
-            this.completionService.submit(() -> {
-                final VertexProgram vp = this.vertexProgramPool.take();
-                final TinkerWorkerMemory workerMemory = this.workerMemoryPool.poll();
-                final List<Vertex> vertices = this.workerVertices.get(index);
-                worker.accept(vertices.iterator(), vp, workerMemory);
-                this.vertexProgramPool.offer(vp);
-                this.workerMemoryPool.offer(workerMemory);
-                return null;
-            });
-        }
-        for (int i = 0; i < this.numberOfWorkers; i++) {
-            try {
-                this.completionService.take().get();
-            } catch (InterruptedException ie) {
-                throw ie;
-            } catch (final Exception e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
-        }
+        this.executeVertexProgram(index -> true, worker);
+    }
+
+    /**
+     * Executes the vertex program on the vertices whose index in {@link #getVertices()} is scheduled.
+     */
+    public void executeVertexProgram(final IntPredicate scheduled, final TriConsumer<Iterator<Vertex>, VertexProgram, TinkerWorkerMemory> worker) throws InterruptedException {
+        final AtomicInteger nextChunk = new AtomicInteger(0);
+        this.execute(index -> {
+            final VertexProgram vp = this.vertexProgramPool.take();
+            final TinkerWorkerMemory workerMemory = this.workerMemoryPool.poll();
+            worker.accept(new ChunkIterator(nextChunk, scheduled), vp, workerMemory);
+            this.vertexProgramPool.offer(vp);
+            this.workerMemoryPool.offer(workerMemory);
+        });
     }
 
     public void executeMapReduce(final Consumer<MapReduce> worker) throws InterruptedException {
+        this.execute(index -> {
+            final MapReduce mr = this.mapReducePool.take();
+            worker.accept(mr);
+            this.mapReducePool.offer(mr);
+        });
+    }
+
+    /**
+     * Runs the task once for each worker, waits for all of them to complete and records the time each one was busy
+     * and the time it then waited for the others.
+     */
+    private void execute(final IntConsumer task) throws InterruptedException {
+        final long[] busy = new long[this.numberOfWorkers];
+        final long start = System.nanoTime();
         for (int i = 0; i < this.numberOfWorkers; i++) {
+            final int index = i;
             this.completionService.submit(() -> {
-                final MapReduce mr = this.mapReducePool.take();
-                worker.accept(mr);
-                this.mapReducePool.offer(mr);
+                final long workerStart = System.nanoTime();
+                task.accept(index);
+                busy[index] = System.nanoTime() - workerStart;
                 return null;
             });
         }
@@ -134,6 +183,25 @@ public final class TinkerWorkerPool implements AutoCloseable {
                 throw new IllegalStateException(e.getMessage(), e);
             }
         }
+        final long elapsed = System.nanoTime() - start;
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            this.busyTime[i] += busy[i];
+            this.idleTime[i] += elapsed - busy[i];
+        }
+    }
+
+    /**
+     * Gets the milliseconds each worker spent running vertex programs and map reduce jobs.
+     */
+    public long[] getBusyTime() {
+        return Arrays.stream(this.busyTime).map(TimeUnit.NANOSECONDS::toMillis).toArray();
+    }
+
+    /**
+     * Gets the milliseconds each worker spent waiting for the other workers to complete.
+     */
+    public long[] getIdleTime() {
+        return Arrays.stream(this.idleTime).map(TimeUnit.NANOSECONDS::toMillis).toArray();
     }
 
     public void closeNow() throws Exception {
@@ -144,4 +212,39 @@ public final class TinkerWorkerPool implements AutoCloseable {
     public void close() throws Exception {
         this.workerPool.shutdown();
     }
-}
\ No newline at end of file
+
+    /**
+     * Iterates the vertices of the chunks that it claims from those shared by the workers of an iteration.
+     */
+    private final class ChunkIterator implements Iterator<Vertex> {
+
+        private final AtomicInteger nextChunk;
+        private final IntPredicate scheduled;
+        private int next = 0;
+        private int end = 0;
+
+        private ChunkIterator(final AtomicInteger nextChunk, final IntPredicate scheduled) {
+            this.nextChunk = nextChunk;
+            this.scheduled = scheduled;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                for (; this.next < this.end; this.next++) {
+                    if (this.scheduled.test(this.next)) return true;
+                }
+                final int start = this.nextChunk.getAndIncrement() * chunkSize;
+                if (start >= vertices.length || start < 0) return false;
+                this.next = start;
+                this.end = Math.min(start + chunkSize, vertices.length);
+            }
+        }
+
+        @Override
+        public Vertex next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            return vertices[this.next++];
+        }
+    }
+}
@@ -19,15 +19,21 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraphIterator;
@@ -36,11 +42,17 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -48,11 +60,15 @@ import java.util.stream.Collectors;
  */
 public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, AutoCloseable {
 
-    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private String orderKey = null;
+    private Order order = Order.asc;
+    private long limit = Long.MAX_VALUE;
+    private Boolean streaming = null;
     /**
      * List of iterators opened by this step.
      */
-    private final List<Iterator> iterators = new ArrayList<>();
+    private List<Iterator> iterators = new ArrayList<>();
 
     public TinkerGraphStep(final GraphStep<S, E> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
@@ -67,20 +83,17 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
+        TinkerHelper.readWrite(graph);
         Iterator<Edge> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.edges(this.ids));
-        else
-            iterator = null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                                .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                                .collect(Collectors.<Edge>toList()).iterator();
-
+        else {
+            final Iterator<Edge> indexed = (Iterator) this.queryIndex(graph, Edge.class);
+            iterator = null == indexed ? this.iteratorScan(graph, graph.edges()) : indexed;
+        }
 
         iterators.add(iterator);
 
@@ -89,31 +102,198 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
+        TinkerHelper.readWrite(graph);
         Iterator<? extends Vertex> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.vertices(this.ids));
-        else
-            iterator = (null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
-                    IteratorUtils.filter(TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
-                                         vertex -> HasContainer.testAll(vertex, this.hasContainers)));
+        else {
+            final Iterator<Vertex> indexed = (Iterator) this.queryIndex(graph, Vertex.class);
+            iterator = null == indexed ? this.iteratorScan(graph, graph.vertices()) : indexed;
+        }
 
         iterators.add(iterator);
 
         return iterator;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
+    /**
+     * Gets the elements that match the {@link HasContainer} instances by way of the indices of the graph or
+     * {@code null} if no index can be used. Equality is preferred over {@code within()}, which is preferred over
+     * ranges, as they tend to be the more selective. Where equality can be answered by more than one single key or
+     * composite index, the one that returns the fewest elements is used. An ordered limit scan is used ahead of a
+     * range when the step has been told it feeds an {@code order().by(key).limit(n)}. The label index is used when
+     * it holds fewer elements than the chosen property index or when no property index applies.
+     */
+    private Iterator<? extends Element> queryIndex(final TinkerGraph graph, final Class<? extends Element> indexedClass) {
+        final Set<String> labels = getIndexedLabels(this.hasContainers);
+        final long labelCount = null == labels ? Long.MAX_VALUE : countByLabels(graph, indexedClass, labels);
+
+        final Set<String> indexedKeys = graph.getIndexedKeys(indexedClass);
+        if (indexedKeys.isEmpty() && graph.getCompositeIndexes(indexedClass).isEmpty())
+            return null == labels ? null : this.filter(getByLabels(graph, indexedClass, labels));
+
+        final Map<String, Object> equalities = new HashMap<>();
+        final Map<String, List<P<?>>> predicatesByKey = new LinkedHashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getBiPredicate() == Compare.eq && !equalities.containsKey(hasContainer.getKey()))
+                equalities.put(hasContainer.getKey(), hasContainer.getValue());
+            if (indexedKeys.contains(hasContainer.getKey()))
+                predicatesByKey.computeIfAbsent(hasContainer.getKey(), k -> new ArrayList<>()).add(hasContainer.getPredicate());
+        }
+
+        if (!equalities.isEmpty()) {
+            final Collection<? extends Element> indexed = Vertex.class.isAssignableFrom(indexedClass) ?
+                    TinkerHelper.queryVertexIndex(graph, equalities) :
+                    TinkerHelper.queryEdgeIndex(graph, equalities);
+            if (null != indexed) return this.filter(indexed, graph, indexedClass, labels, labelCount);
+        }
+
+        for (final Map.Entry<String, List<P<?>>> entry : predicatesByKey.entrySet()) {
+            if (entry.getValue().stream().anyMatch(p -> p.getBiPredicate() == Contains.within)) {
+                final Collection<? extends Element> indexed = this.queryIndex(graph, indexedClass, entry.getKey(), entry.getValue());
+                if (null != indexed) return this.filter(indexed, graph, indexedClass, labels, labelCount);
+            }
+        }
+
+        if (null != this.orderKey && indexedKeys.contains(this.orderKey)) {
+            final List<P<?>> predicates = predicatesByKey.getOrDefault(this.orderKey, Collections.emptyList());
+            final NavigableMap<Object, ? extends Set<? extends Element>> ordered = Vertex.class.isAssignableFrom(indexedClass) ?
+                    TinkerHelper.queryOrderedVertexIndex(graph, this.orderKey, predicates) :
+                    TinkerHelper.queryOrderedEdgeIndex(graph, this.orderKey, predicates);
+            if (null != ordered) return this.orderedLimitScan(graph, ordered).iterator();
+        }
+
+        for (final Map.Entry<String, List<P<?>>> entry : predicatesByKey.entrySet()) {
+            final Collection<? extends Element> indexed = this.queryIndex(graph, indexedClass, entry.getKey(), entry.getValue());
+            if (null != indexed) return this.filter(indexed, graph, indexedClass, labels, labelCount);
+        }
+
+        return null == labels ? null : this.filter(getByLabels(graph, indexedClass, labels));
+    }
+
+    private Collection<? extends Element> queryIndex(final TinkerGraph graph, final Class<? extends Element> indexedClass,
+                                                     final String key, final List<P<?>> predicates) {
+        return Vertex.class.isAssignableFrom(indexedClass) ?
+                TinkerHelper.queryVertexIndex(graph, key, predicates) :
+                TinkerHelper.queryEdgeIndex(graph, key, predicates);
+    }
+
+    private Iterator<? extends Element> filter(final Collection<? extends Element> indexed) {
+        return IteratorUtils.filter(indexed.iterator(), element -> TinkerHelper.isVisible(element) &&
+                HasContainer.testAll(element, this.hasContainers));
+    }
+
+    private Iterator<? extends Element> filter(final Collection<? extends Element> indexed, final TinkerGraph graph,
+                                               final Class<? extends Element> indexedClass, final Set<String> labels,
+                                               final long labelCount) {
+        return this.filter(indexed.size() <= labelCount ? indexed : getByLabels(graph, indexedClass, labels));
+    }
+
+    /**
+     * Gets the labels that an element must have to pass the {@code hasLabel()} filters among the {@link HasContainer}
+     * instances or {@code null} if there are no such filters which can be answered by the label index of the graph.
+     */
+    public static Set<String> getIndexedLabels(final List<HasContainer> hasContainers) {
+        Set<String> labels = null;
+        for (final HasContainer hasContainer : hasContainers) {
+            final Set<String> allowed = getIndexedLabels(hasContainer);
+            if (null == allowed) continue;
+            if (null == labels)
+                labels = allowed;
+            else
+                labels.retainAll(allowed);
+        }
+        return labels;
+    }
+
+    /**
+     * Gets the labels that the {@link HasContainer} allows or {@code null} if it is not an {@code eq()} or
+     * {@code within()} of labels.
+     */
+    public static Set<String> getIndexedLabels(final HasContainer hasContainer) {
+        if (!T.label.getAccessor().equals(hasContainer.getKey()))
+            return null;
+
+        final Object value = hasContainer.getValue();
+        if (hasContainer.getBiPredicate() == Compare.eq && value instanceof String)
+            return new HashSet<>(Collections.singleton((String) value));
+        else if (hasContainer.getBiPredicate() == Contains.within && value instanceof Collection &&
+                ((Collection<?>) value).stream().allMatch(v -> v instanceof String))
+            return new HashSet<>((Collection<String>) value);
+        else
+            return null;
+    }
+
+    private static long countByLabels(final TinkerGraph graph, final Class<? extends Element> indexedClass, final Set<String> labels) {
+        long count = 0;
+        for (final String label : labels) {
+            count += Vertex.class.isAssignableFrom(indexedClass) ?
+                    TinkerHelper.getVerticesByLabel(graph, label).size() :
+                    TinkerHelper.getEdgesByLabel(graph, label).size();
+        }
+        return count;
+    }
 
-        final Iterator<HasContainer> itty = IteratorUtils.filter(hasContainers.iterator(),
-                c -> c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey()));
-        return itty.hasNext() ? itty.next() : null;
+    /**
+     * Copies the elements with the labels out of the label index so that the traversal may mutate the graph as it
+     * iterates them.
+     */
+    private static List<Element> getByLabels(final TinkerGraph graph, final Class<? extends Element> indexedClass, final Set<String> labels) {
+        final List<Element> elements = new ArrayList<>();
+        for (final String label : labels) {
+            elements.addAll(Vertex.class.isAssignableFrom(indexedClass) ?
+                    TinkerHelper.getVerticesByLabel(graph, label) :
+                    TinkerHelper.getEdgesByLabel(graph, label));
+        }
+        return elements;
+    }
 
+    /**
+     * Reads the ordered index in the direction of the {@link #order} until {@link #limit} elements pass the filters.
+     * Elements that tie with the last one are all included so that the downstream {@code order()} makes the same
+     * choice among them as it would have given all of the elements. The index of a transactional graph also holds
+     * the values that other transactions see, so an element is only taken under the value it holds for this one.
+     */
+    private List<Element> orderedLimitScan(final TinkerGraph graph, final NavigableMap<Object, ? extends Set<? extends Element>> ordered) {
+        final boolean transactional = graph.features().graph().supportsTransactions();
+        final List<Element> list = new ArrayList<>();
+        for (final Map.Entry<Object, ? extends Set<? extends Element>> entry : (Order.desc == this.order ? ordered.descendingMap() : ordered).entrySet()) {
+            if (list.size() >= this.limit) break;
+            for (final Element element : entry.getValue()) {
+                if (transactional && !(TinkerHelper.isVisible(element) && TinkerHelper.hasIndexedValue(element, this.orderKey, entry.getKey())))
+                    continue;
+                if (HasContainer.testAll(element, this.hasContainers))
+                    list.add(element);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Notifies the step that it is followed by an {@code order().by(key, order).limit(limit)} so that it only needs
+     * to produce the first elements by that order when an ordered index is available for the key. The step still
+     * produces a superset of what the limit keeps, so the {@code order()} and {@code limit()} must remain in place.
+     */
+    public void setOrderedLimit(final String key, final Order order, final long limit) {
+        this.orderKey = key;
+        this.order = order;
+        this.limit = limit;
+    }
+
+    /**
+     * Orders the {@link HasContainer} instances so that those expected to pass the fewest elements come first, which
+     * both short-circuits the filtering of each element sooner and makes the most selective {@code within()} or
+     * range the first candidate for an index. Containers of equal selectivity keep the order they were added in.
+     */
+    public void rankHasContainers(final GraphStatistics statistics) {
+        final Map<HasContainer, Double> selectivities = new HashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            selectivities.put(hasContainer, statistics.selectivity(this.returnClass, hasContainer));
+        }
+        this.hasContainers.sort(Comparator.comparing(selectivities::get));
     }
 
     @Override
@@ -126,6 +306,41 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
                     StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
+    /**
+     * Produces the elements of a full scan that pass the {@link HasContainer} instances. The matching elements are
+     * copied to a list first so that the traversal may safely mutate the graph as it goes unless the graph is
+     * configured for streaming scans and the traversal has no {@link Mutating} steps, in which case elements are
+     * filtered as they are iterated so that time to the first result and memory use do not grow with the graph.
+     */
+    private <E extends Element> Iterator<E> iteratorScan(final TinkerGraph graph, final Iterator<E> iterator) {
+        if (null == this.streaming)
+            this.streaming = TinkerHelper.usesStreamingScans(graph) &&
+                    !TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+
+        return this.streaming ? this.iteratorStream(iterator) : this.iteratorList(iterator);
+    }
+
+    private <E extends Element> Iterator<E> iteratorStream(final Iterator<E> iterator) {
+        final Iterator<E> filtered = IteratorUtils.filter(iterator, e -> HasContainer.testAll(e, this.hasContainers));
+        return new CloseableIterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return filtered.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return filtered.next();
+            }
+
+            @Override
+            public void close() {
+                // release the resources of the scan which is still open if the traversal did not exhaust it
+                CloseableIterator.closeIterator(iterator);
+            }
+        };
+    }
+
     private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
         final List<E> list = new ArrayList<>();
         while (iterator.hasNext()) {
@@ -156,9 +371,28 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
             this.hasContainers.add(hasContainer);
     }
 
+    /**
+     * Clones the {@link HasContainer} instances so that the clone may be given other values for them, and has the
+     * clone produce its own elements rather than those of this step.
+     */
+    @Override
+    public TinkerGraphStep<S, E> clone() {
+        final TinkerGraphStep<S, E> clone = (TinkerGraphStep<S, E>) super.clone();
+        clone.hasContainers = new ArrayList<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        clone.iterators = new ArrayList<>();
+        clone.setIteratorSupplier(() -> (Iterator<E>) (Vertex.class.isAssignableFrom(clone.returnClass) ? clone.vertices() : clone.edges()));
+        return clone;
+    }
+
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.hasContainers.hashCode();
+        int result = super.hashCode() ^ this.hasContainers.hashCode();
+        if (null != this.orderKey)
+            result ^= this.orderKey.hashCode() ^ this.order.hashCode() ^ Long.hashCode(this.limit);
+        return result;
     }
 
     @Override
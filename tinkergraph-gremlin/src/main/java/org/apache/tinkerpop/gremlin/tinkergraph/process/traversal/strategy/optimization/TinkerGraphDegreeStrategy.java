@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexDegreeStep;
+
+
+/**
+ * This strategy answers the count of the edges or adjacent vertices of a vertex from the degree that
+ * {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper#getDegree} takes from the adjacency of the
+ * vertex, rather than iterating them, by replacing a {@link VertexStep} that is followed by a {@link CountGlobalStep}
+ * with a {@link TinkerVertexDegreeStep}.
+ *
+ * @example <pre>
+ * g.V().out('knows').count()                   // is replaced by TinkerVertexDegreeStep and CountGlobalStep
+ * g.V(1).outE().count()                        // is replaced by TinkerVertexDegreeStep and CountGlobalStep
+ * g.V().project('d').by(bothE('a','b').count()) // is replaced by TinkerVertexDegreeStep and CountGlobalStep
+ * </pre>
+ */
+public final class TinkerGraphDegreeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphDegreeStrategy INSTANCE = new TinkerGraphDegreeStrategy();
+
+    private TinkerGraphDegreeStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!vertexStep.getLabels().isEmpty())
+                continue;
+            Step<?, ?> next = vertexStep.getNextStep();
+            // a barrier between the steps only merges traversers and is not needed once they are not split
+            final Step<?, ?> barrier = next instanceof NoOpBarrierStep && next.getLabels().isEmpty() ? next : null;
+            if (null != barrier)
+                next = next.getNextStep();
+            if (!(next instanceof CountGlobalStep))
+                continue;
+            if (null != barrier)
+                traversal.removeStep(barrier);
+            TraversalHelper.replaceStep((Step) vertexStep,
+                    new TinkerVertexDegreeStep(traversal, vertexStep.getDirection(), vertexStep.getEdgeLabels()), traversal);
+        }
+    }
+
+    public static TinkerGraphDegreeStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -18,17 +18,26 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.javatuples.Pair;
+
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -60,6 +69,22 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
                 }
                 currentStep = currentStep.getNextStep();
             }
+
+            // with statistics the filters are ranked so that the most selective are tested and indexed first
+            traversal.getGraph().flatMap(GraphStatistics::of).ifPresent(tinkerGraphStep::rankHasContainers);
+
+            // an order().by(key).limit(n) right after the graph step can be fed from an ordered index if one exists
+            if (currentStep instanceof OrderGlobalStep && currentStep.getNextStep() instanceof RangeGlobalStep) {
+                final List<Pair<Traversal.Admin, Comparator>> comparators = ((OrderGlobalStep) currentStep).getComparators();
+                final long high = ((RangeGlobalStep) currentStep.getNextStep()).getHighRange();
+                if (comparators.size() == 1 && high != -1 &&
+                        comparators.get(0).getValue0() instanceof ValueTraversal &&
+                        null == ((ValueTraversal) comparators.get(0).getValue0()).getBypassTraversal() &&
+                        (comparators.get(0).getValue1() == Order.asc || comparators.get(0).getValue1() == Order.desc)) {
+                    tinkerGraphStep.setOrderedLimit(((ValueTraversal) comparators.get(0).getValue0()).getPropertyKey(),
+                            (Order) comparators.get(0).getValue1(), high);
+                }
+            }
         }
     }
 
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The edges of a vertex for a single label and direction held in an array. It is used by the compact storage mode of
+ * {@link TinkerGraph} in place of a {@code HashSet}. Edges are only ever added to it once, when they are created, so
+ * {@link #add(Edge)} appends without checking for duplicates. Each edge remembers its slot in the array so that removal
+ * moves the last edge into the slot of the removed one without searching for it, which keeps dropping the edges of a
+ * vertex with many edges linear in their number.
+ */
+final class TinkerAdjacencyList extends AbstractCollection<Edge> {
+
+    private static final TinkerEdge[] EMPTY = new TinkerEdge[0];
+
+    private final boolean out;
+    private TinkerEdge[] edges = EMPTY;
+    private int size = 0;
+
+    /**
+     * @param out whether the edges are the outgoing edges of the vertex, which determines the slot of the edge that
+     *            is used
+     */
+    TinkerAdjacencyList(final boolean out) {
+        this.out = out;
+    }
+
+    @Override
+    public boolean add(final Edge edge) {
+        if (this.size == this.edges.length)
+            this.edges = Arrays.copyOf(this.edges, this.size + (this.size >> 1) + 1);
+        this.setSlot((TinkerEdge) edge, this.size);
+        this.edges[this.size++] = (TinkerEdge) edge;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object edge) {
+        if (!(edge instanceof TinkerEdge)) return false;
+        final TinkerEdge tinkerEdge = (TinkerEdge) edge;
+        final int slot = this.out ? tinkerEdge.outSlot : tinkerEdge.inSlot;
+        if (slot < 0 || slot >= this.size || this.edges[slot] != tinkerEdge) return false;
+        final TinkerEdge last = this.edges[--this.size];
+        this.edges[slot] = last;
+        this.setSlot(last, slot);
+        this.edges[this.size] = null;
+        this.setSlot(tinkerEdge, -1);
+        return true;
+    }
+
+    private void setSlot(final TinkerEdge edge, final int slot) {
+        if (this.out)
+            edge.outSlot = slot;
+        else
+            edge.inSlot = slot;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+        return new Iterator<Edge>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public Edge next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return edges[this.next++];
+            }
+        };
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@code Map} that holds its keys and values in a single array which is searched linearly. It is used by the
+ * compact storage mode of {@link TinkerGraph} for the property and adjacency maps of elements, which typically have
+ * few enough entries that a search is cheaper than the table, entry objects and spare capacity of a {@code HashMap}.
+ */
+final class TinkerArrayMap<K, V> extends AbstractMap<K, V> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * Keys are held at even positions and the value of each key at the position that follows it.
+     */
+    private Object[] table = EMPTY;
+    private int size = 0;
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final int index = this.indexOf(key);
+        return index < 0 ? null : (V) this.table[index + 1];
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final int index = this.indexOf(key);
+        if (index >= 0) {
+            final V old = (V) this.table[index + 1];
+            this.table[index + 1] = value;
+            return old;
+        }
+
+        final int position = this.size * 2;
+        if (position == this.table.length)
+            this.table = Arrays.copyOf(this.table, (this.size + (this.size >> 1) + 1) * 2);
+        this.table[position] = key;
+        this.table[position + 1] = value;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final int index = this.indexOf(key);
+        if (index < 0) return null;
+        final V old = (V) this.table[index + 1];
+        this.removeAt(index);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        this.table = EMPTY;
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int indexOf(final Object key) {
+        for (int i = 0; i < this.size * 2; i = i + 2) {
+            if (Objects.equals(key, this.table[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the entry at the index by moving the last entry into its place.
+     */
+    private void removeAt(final int index) {
+        final int last = (this.size - 1) * 2;
+        this.table[index] = this.table[last];
+        this.table[index + 1] = this.table[last + 1];
+        this.table[last] = null;
+        this.table[last + 1] = null;
+        this.size--;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int next = 0;
+        private int current = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < size;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!this.hasNext()) throw new NoSuchElementException();
+            this.current = this.next++;
+            final K key = (K) table[this.current * 2];
+            return new SimpleEntry<K, V>(key, (V) table[this.current * 2 + 1]) {
+                @Override
+                public V setValue(final V value) {
+                    super.setValue(value);
+                    return put(key, value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (this.current < 0) throw new IllegalStateException();
+            removeAt(this.current * 2);
+            // the last entry was moved into the removed position so it is the next to visit
+            this.next = this.current;
+            this.current = -1;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.io.BulkLoadable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A bulk load of a {@link TinkerGraph}, which is begun with {@link TinkerGraph#bulkLoad(long, long)} and completed
+ * when it is closed. While it is open:
+ * <ul>
+ *     <li>the indices of the graph are suspended, so lookups fall back to scans, and are rebuilt in bulk over the
+ *     whole graph when the load is closed</li>
+ *     <li>the key/values given to {@code addVertex()} and {@code addEdge()} are trusted to be legal and the check for
+ *     an existing element with the same id is made as the element is added</li>
+ *     <li>the properties of an element that are given when it is added are held in a map that is sized for them</li>
+ *     <li>edges are not added to the adjacency of their vertices until the load is closed, when the vertices are
+ *     shared among threads that each add the edges of their own vertices in the order the edges were loaded</li>
+ * </ul>
+ * The graph should therefore only be written to by the load until it is closed and elements should not be removed.
+ * Only the thread that began the load may add elements to the graph while it is open, so that elements added by other
+ * threads are neither trusted nor left without their adjacency, and they fail with an {@code IllegalStateException}
+ * instead. Indices cannot be created or dropped during a load.
+ * <p/>
+ * When the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE} its elements and their
+ * properties are written to the storage as they are added, so only the suspension of the indices and the trust in the
+ * key/values apply.
+ */
+public final class TinkerBulkLoader implements BulkLoadable.Load {
+
+    private final TinkerGraph graph;
+    private final Thread owner = Thread.currentThread();
+    private final TinkerIndex<TinkerVertex> vertexIndex;
+    private final TinkerIndex<TinkerEdge> edgeIndex;
+    private final List<TinkerEdge> edges;
+    private int depth = 1;
+
+    TinkerBulkLoader(final TinkerGraph graph, final long expectedVertices, final long expectedEdges) {
+        this.graph = graph;
+        if (null == graph.offHeapStorage && expectedVertices > 0 && graph.vertices.isEmpty())
+            graph.vertices = TinkerHelper.createIdMap(graph.vertexIdManager, capacity(expectedVertices));
+        if (null == graph.offHeapStorage && expectedEdges > 0 && graph.edges.isEmpty())
+            graph.edges = TinkerHelper.createIdMap(graph.edgeIdManager, capacity(expectedEdges));
+        this.edges = expectedEdges > 0 ? new ArrayList<>(capacity(expectedEdges)) : new ArrayList<>();
+
+        this.vertexIndex = graph.vertexIndex;
+        this.edgeIndex = graph.edgeIndex;
+        graph.vertexIndex = null;
+        graph.edgeIndex = null;
+    }
+
+    /**
+     * Gets the load that is open on the graph, or {@code null} if there is none, which fails if it was begun by
+     * another thread than the current one.
+     */
+    static TinkerBulkLoader of(final TinkerGraph graph) {
+        final TinkerBulkLoader bulkLoader = graph.bulkLoader;
+        if (null != bulkLoader && bulkLoader.owner != Thread.currentThread())
+            throw new IllegalStateException("The graph cannot be changed by other threads during a bulk load");
+        return bulkLoader;
+    }
+
+    /**
+     * Nests another load in this one, which completes the elements of both when the outermost is closed.
+     */
+    void nest() {
+        this.depth++;
+    }
+
+    /**
+     * Holds an edge that was added during the load until it can be added to the adjacency of its vertices.
+     */
+    void defer(final TinkerEdge edge) {
+        synchronized (this.edges) {
+            this.edges.add(edge);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.graph) {
+            if (0 == this.depth || --this.depth > 0)
+                return;
+
+            try {
+                this.buildAdjacency();
+            } finally {
+                this.edges.clear();
+                this.graph.vertexIndex = this.vertexIndex;
+                this.graph.edgeIndex = this.edgeIndex;
+                if (null != this.vertexIndex) this.vertexIndex.reindex();
+                if (null != this.edgeIndex) this.edgeIndex.reindex();
+                this.graph.bulkLoader = null;
+                TinkerHelper.graphChanged(this.graph);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void buildAdjacency() {
+        // the edges are split once, a chunk per thread, by the thread that owns each of their vertices, after which
+        // each thread adds only the edges of the vertices it owns, chunk by chunk, so no vertex is written by two
+        // threads and the adjacency of each vertex is built in the order its edges were loaded
+        final int partitions = ForkJoinPool.getCommonPoolParallelism();
+        final int chunkSize = Math.max(1, (this.edges.size() + partitions - 1) / partitions);
+        final int chunks = (this.edges.size() + chunkSize - 1) / chunkSize;
+        final List<TinkerEdge>[][] outEdges = new List[chunks][partitions];
+        final List<TinkerEdge>[][] inEdges = new List[chunks][partitions];
+        final Queue<TinkerEdge> dangling = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            for (int i = chunk * chunkSize; i < Math.min(this.edges.size(), (chunk + 1) * chunkSize); i++) {
+                final TinkerEdge edge = this.edges.get(i);
+                if (edge.removed)
+                    continue;
+
+                final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+                final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+                if (outVertex.removed || inVertex.removed) {
+                    dangling.add(edge);
+                    continue;
+                }
+
+                bucket(outEdges[chunk], Math.floorMod(outVertex.hashCode(), partitions)).add(edge);
+                bucket(inEdges[chunk], Math.floorMod(inVertex.hashCode(), partitions)).add(edge);
+            }
+        });
+        IntStream.range(0, partitions).parallel().forEach(partition -> {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                if (null != outEdges[chunk][partition]) {
+                    for (final TinkerEdge edge : outEdges[chunk][partition]) {
+                        TinkerHelper.addOutEdge((TinkerVertex) edge.outVertex, edge.label, edge);
+                    }
+                }
+                if (null != inEdges[chunk][partition]) {
+                    for (final TinkerEdge edge : inEdges[chunk][partition]) {
+                        TinkerHelper.addInEdge((TinkerVertex) edge.inVertex, edge.label, edge);
+                    }
+                }
+            }
+        });
+
+        // the edges of vertices that were removed during the load were never seen by the removal
+        dangling.forEach(TinkerEdge::unlink);
+    }
+
+    private static List<TinkerEdge> bucket(final List<TinkerEdge>[] buckets, final int partition) {
+        if (null == buckets[partition]) buckets[partition] = new ArrayList<>();
+        return buckets[partition];
+    }
+
+    private static int capacity(final long expected) {
+        return (int) Math.min(expected, Integer.MAX_VALUE - 8);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index over an ordered list of property keys which maps the combination of values an element has for those keys
+ * to the elements that have it. An element is only indexed if it has a value for every key and, for multi-properties,
+ * is indexed under every combination of its values. The combinations held for each element are also tracked so that
+ * they can be replaced whenever one of the keys changes.
+ */
+final class TinkerCompositeIndex<T extends Element> {
+
+    private final List<String> keys;
+    private final Map<List<Object>, Set<T>> index = new ConcurrentHashMap<>();
+    private final Map<T, Set<List<Object>>> entries = new ConcurrentHashMap<>();
+
+    TinkerCompositeIndex(final List<String> keys) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+    }
+
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    public List<T> get(final List<Object> values) {
+        final Set<T> set = this.index.get(indexable(values));
+        return null == set ? Collections.emptyList() : new ArrayList<>(set);
+    }
+
+    public long count(final List<Object> values) {
+        final Set<T> set = this.index.get(indexable(values));
+        return null == set ? 0 : set.size();
+    }
+
+    /**
+     * Re-indexes the element from its current property values.
+     */
+    public void update(final T element) {
+        this.remove(element);
+        final Set<List<Object>> combinations = combinations(element);
+        if (combinations.isEmpty())
+            return;
+
+        for (final List<Object> combination : combinations) {
+            Set<T> objects = this.index.get(combination);
+            if (null == objects) {
+                this.index.putIfAbsent(combination, ConcurrentHashMap.newKeySet());
+                objects = this.index.get(combination);
+            }
+            objects.add(element);
+        }
+        this.entries.put(element, combinations);
+    }
+
+    public void remove(final T element) {
+        final Set<List<Object>> combinations = this.entries.remove(element);
+        if (null == combinations)
+            return;
+
+        for (final List<Object> combination : combinations) {
+            final Set<T> objects = this.index.get(combination);
+            if (null != objects) {
+                objects.remove(element);
+                if (objects.isEmpty())
+                    this.index.remove(combination);
+            }
+        }
+    }
+
+    public void clear() {
+        this.index.clear();
+        this.entries.clear();
+    }
+
+    private Set<List<Object>> combinations(final T element) {
+        // a transactional graph indexes the values of every version of the element that can still be read
+        final boolean transactional = null != ((TinkerGraph) element.graph()).transaction;
+        Set<List<Object>> combinations = Collections.singleton(Collections.emptyList());
+        for (final String key : this.keys) {
+            final List<Object> values = new ArrayList<>();
+            if (transactional) {
+                TinkerHelper.getLinkedValues(element, key).forEach(value -> values.add(TinkerIndex.indexable(value)));
+            } else {
+                final Iterator<? extends Property<Object>> properties = element.properties(key);
+                while (properties.hasNext()) {
+                    values.add(TinkerIndex.indexable(properties.next().value()));
+                }
+            }
+            if (values.isEmpty())
+                return Collections.emptySet();
+
+            final Set<List<Object>> expanded = new HashSet<>();
+            for (final List<Object> combination : combinations) {
+                for (final Object value : values) {
+                    final List<Object> next = new ArrayList<>(combination.size() + 1);
+                    next.addAll(combination);
+                    next.add(value);
+                    expanded.add(next);
+                }
+            }
+            combinations = expanded;
+        }
+        return combinations;
+    }
+
+    private static List<Object> indexable(final List<Object> values) {
+        final List<Object> indexable = new ArrayList<>(values.size());
+        for (final Object value : values) {
+            indexable.add(TinkerIndex.indexable(value));
+        }
+        return indexable;
+    }
+}
@@ -28,8 +28,8 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +45,13 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     protected final Vertex outVertex;
     private final boolean allowNullPropertyValues;
 
+    /**
+     * The slots of the edge in the adjacency of its vertices when the graph is configured with
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY} or {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_STORAGE}.
+     */
+    int outSlot = -1;
+    int inSlot = -1;
+
     protected TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex) {
         super(id, label);
         this.outVertex = outVertex;
@@ -53,9 +60,22 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         TinkerHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
 
+    /**
+     * Creates an edge that refers to its record in the {@link TinkerOffHeapStorage} of the graph, which is indexed by
+     * its label when it is added rather than when it is created.
+     */
+    TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex, final long reference) {
+        super(id, label, reference);
+        this.outVertex = outVertex;
+        this.inVertex = inVertex;
+        this.allowNullPropertyValues = ((TinkerGraph) outVertex.graph()).allowNullPropertyValues;
+    }
+
     @Override
     public <V> Property<V> property(final String key, final V value) {
-        if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final TinkerVersion version = null == graph.transaction ? null : graph.transaction.write();
+        if (TinkerHelper.isRemoved(graph, this)) throw elementAlreadyRemoved(Edge.class, id);
         ElementHelper.validateProperty(key, value);
 
         if (!allowNullPropertyValues && null == value) {
@@ -64,42 +84,90 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         }
 
         final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
+        final TinkerProperty<V> newProperty = new TinkerProperty<>(this, key, value);
+        if (null != graph.offHeapStorage) {
+            graph.offHeapStorage.putProperty(this, key, value);
+        } else {
+            if (null == this.properties) this.properties = TinkerHelper.createElementMap(graph);
+            if (null == version) {
+                this.properties.put(key, newProperty);
+            } else {
+                version.change(this);
+                TinkerHelper.putProperty(version, this.properties, newProperty);
+            }
+        }
         TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+        if (null != graph.statistics) {
+            if (oldProperty.isPresent()) graph.statistics.removeValue(this, key);
+            graph.statistics.addValue(this, key, value);
+        }
+        if (TinkerHelper.isLogged(this)) graph.mutationLog.setProperty(newProperty);
+        TinkerHelper.graphChanged(graph);
         return newProperty;
 
     }
 
     @Override
     public <V> Property<V> property(final String key) {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.transaction) return TinkerHelper.getProperty(graph.transaction, this.properties, key);
+        if (null != graph.offHeapStorage) return graph.offHeapStorage.property(this, key);
         return null == this.properties ? Property.<V>empty() : this.properties.getOrDefault(key, Property.<V>empty());
     }
 
     @Override
     public Set<String> keys() {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.transaction) return TinkerHelper.getKeys(graph.transaction, this.properties);
+        if (null != graph.offHeapStorage) return graph.offHeapStorage.keys(this);
         return null == this.properties ? Collections.emptySet() : this.properties.keySet();
     }
 
     @Override
     public void remove() {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.transaction) {
+            final TinkerVersion version = graph.transaction.write();
+            if (!TinkerHelper.isRemoved(graph, this)) version.remove(this, this::unlink);
+            return;
+        }
+
+        final boolean logged = TinkerHelper.isLogged(this);
+        this.unlink();
+        if (logged) graph.mutationLog.removeEdge(this);
+        TinkerHelper.graphChanged(graph);
+    }
+
+    /**
+     * Removes the edge from its vertices, the indices and the graph.
+     */
+    void unlink() {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.offHeapStorage) {
+            TinkerHelper.removeElementIndex(this);
+            graph.offHeapStorage.removeEdge(this);
+            this.removed = true;
+            return;
+        }
+
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
 
         if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+            final Collection<Edge> edges = outVertex.outEdges.get(this.label());
+            if (null != edges && edges.remove(this) && null != graph.statistics)
+                graph.statistics.updateDegree(outVertex, Direction.OUT, this.label, false);
         }
         if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+            final Collection<Edge> edges = inVertex.inEdges.get(this.label());
+            if (null != edges && edges.remove(this) && null != graph.statistics)
+                graph.statistics.updateDegree(inVertex, Direction.IN, this.label, false);
         }
 
         TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
+        if (null != graph.statistics) graph.statistics.removeValues(this);
+        graph.edges.remove(this.id());
+        TinkerHelper.removeLabelIndex(graph.edgeLabels, this);
         this.properties = null;
         this.removed = true;
     }
@@ -122,7 +190,7 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public Iterator<Vertex> vertices(final Direction direction) {
-        if (removed) return Collections.emptyIterator();
+        if (TinkerHelper.isUnlinked(this)) return Collections.emptyIterator();
         switch (direction) {
             case OUT:
                 return IteratorUtils.of(this.outVertex);
@@ -140,6 +208,9 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.transaction) return TinkerHelper.getProperties(graph.transaction, this.properties, propertyKeys);
+        if (null != graph.offHeapStorage) return graph.offHeapStorage.properties(this, propertyKeys);
         if (null == this.properties) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
             final Property<V> property = this.properties.get(propertyKeys[0]);
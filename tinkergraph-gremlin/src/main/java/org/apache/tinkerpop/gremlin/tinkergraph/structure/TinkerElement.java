@@ -30,9 +30,28 @@ public abstract class TinkerElement implements Element {
     protected final String label;
     protected boolean removed = false;
 
+    /**
+     * The versions of the transactions that added, last changed and removed the element when the graph is
+     * configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    TinkerVersion createdIn = null;
+    TinkerVersion changedIn = null;
+    TinkerVersion removedIn = null;
+
+    /**
+     * The reference to the record of the element when the graph is configured with
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE}, which is {@code -1} for elements held on the heap.
+     */
+    final long reference;
+
     protected TinkerElement(final Object id, final String label) {
+        this(id, label, -1L);
+    }
+
+    TinkerElement(final Object id, final String label, final long reference) {
         this.id = id;
         this.label = label;
+        this.reference = reference;
     }
 
     @Override
@@ -28,20 +28,28 @@ import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.BulkLoadable;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerContext;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -67,12 +75,13 @@ import java.util.stream.Stream;
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_COMPUTER)
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_LIMITED_STANDARD)
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_LIMITED_COMPUTER)
-public final class TinkerGraph implements Graph {
+public final class TinkerGraph implements Graph, BulkLoadable, GraphStatistics.Provider {
 
     static {
         TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
                 TinkerGraphStepStrategy.instance(),
-                TinkerGraphCountStrategy.instance()));
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphDegreeStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -86,15 +95,31 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
     public static final String GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES = "gremlin.tinkergraph.allowNullPropertyValues";
+    public static final String GREMLIN_TINKERGRAPH_STREAMING_SCANS = "gremlin.tinkergraph.streamingScans";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT_STORAGE = "gremlin.tinkergraph.compactStorage";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG = "gremlin.tinkergraph.mutationLog";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_FLUSH_INTERVAL = "gremlin.tinkergraph.mutationLogFlushInterval";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_COMPACTION_SIZE = "gremlin.tinkergraph.mutationLogCompactionSize";
+    public static final String GREMLIN_TINKERGRAPH_TRANSACTIONS = "gremlin.tinkergraph.transactions";
+    public static final String GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY = "gremlin.tinkergraph.orderedAdjacency";
+    public static final String GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET = "gremlin.tinkergraph.computerMemoryBudget";
+    public static final String GREMLIN_TINKERGRAPH_COMPUTER_SPILL_DIRECTORY = "gremlin.tinkergraph.computerSpillDirectory";
+    public static final String GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS = "gremlin.tinkergraph.computerAsynchronous";
+    public static final String GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT = "gremlin.tinkergraph.computerReuseContext";
+    public static final String GREMLIN_TINKERGRAPH_STATISTICS = "gremlin.tinkergraph.statistics";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE = "gremlin.tinkergraph.offHeapStorage";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
     protected AtomicLong currentId = new AtomicLong(-1L);
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    protected Map<Object, Vertex> vertices;
+    protected Map<Object, Edge> edges;
+    protected Map<String, Set<Vertex>> vertexLabels = new ConcurrentHashMap<>();
+    protected Map<String, Set<Edge>> edgeLabels = new ConcurrentHashMap<>();
 
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphComputerView graphComputerView = null;
+    protected TinkerGraphComputerContext computerContext = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
 
@@ -103,22 +128,56 @@ public final class TinkerGraph implements Graph {
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
     protected final boolean allowNullPropertyValues;
+    protected final boolean streamingScans;
+    protected final boolean compactStorage;
+    protected final boolean orderedAdjacency;
+    protected TinkerMutationLog mutationLog = null;
+    protected volatile TinkerBulkLoader bulkLoader = null;
+    protected final TinkerGraphStatistics statistics;
+    protected final TinkerTransaction transaction;
+
+    /**
+     * The storage that holds the elements of the graph outside of the heap when it is configured with
+     * {@link #GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE}, which is {@code null} otherwise.
+     */
+    final TinkerOffHeapStorage offHeapStorage;
 
     private final Configuration configuration;
     private final String graphLocation;
     private final String graphFormat;
+    private long snapshotSequence = 0L;
+
+    /**
+     * The elements of the snapshot the graph was opened from that are not yet materialized, which is {@code null}
+     * once they all are.
+     */
+    TinkerSnapshotImage snapshotImage = null;
+
+    /**
+     * Whether the graph is unchanged since it was opened from or last written to its snapshot, in which case
+     * the snapshot is not written again.
+     */
+    boolean snapshotCurrent = false;
 
     /**
      * An empty private constructor that initializes {@link TinkerGraph}.
      */
     private TinkerGraph(final Configuration configuration) {
         this.configuration = configuration;
-        vertexIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, Vertex.class);
-        edgeIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, Edge.class);
-        vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
+        compactStorage = configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT_STORAGE, false);
+
+        // compact storage defaults to numeric identifiers so that elements are held in primitive-keyed maps
+        final DefaultIdManager defaultIdManager = compactStorage ? DefaultIdManager.LONG : DefaultIdManager.ANY;
+        vertexIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, Vertex.class, defaultIdManager);
+        edgeIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, Edge.class, defaultIdManager);
+        vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class, defaultIdManager);
+        vertices = TinkerHelper.createIdMap(vertexIdManager, 0);
+        edges = TinkerHelper.createIdMap(edgeIdManager, 0);
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
+        streamingScans = configuration.getBoolean(GREMLIN_TINKERGRAPH_STREAMING_SCANS, false);
+        orderedAdjacency = configuration.getBoolean(GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY, false);
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -127,7 +186,35 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
-        if (graphLocation != null) loadGraph();
+        final boolean logMutations = configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false);
+        if (logMutations && !TinkerSnapshot.FORMAT.equals(graphFormat))
+            throw new IllegalStateException(String.format("The %s requires the %s to be %s",
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_GRAPH_FORMAT, TinkerSnapshot.FORMAT));
+
+        statistics = configuration.getBoolean(GREMLIN_TINKERGRAPH_STATISTICS, false) ? new TinkerGraphStatistics(this) : null;
+        transaction = configuration.getBoolean(GREMLIN_TINKERGRAPH_TRANSACTIONS, false) ? new TinkerTransaction(this) : null;
+        if (null != transaction && (compactStorage || logMutations || orderedAdjacency || null != statistics))
+            throw new IllegalStateException(String.format("The %s cannot be combined with %s, %s, %s or %s",
+                    GREMLIN_TINKERGRAPH_TRANSACTIONS, GREMLIN_TINKERGRAPH_COMPACT_STORAGE,
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY,
+                    GREMLIN_TINKERGRAPH_STATISTICS));
+
+        offHeapStorage = configuration.getBoolean(GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, false) ? new TinkerOffHeapStorage(this) : null;
+        if (null != offHeapStorage && (null != transaction || compactStorage || logMutations || orderedAdjacency || null != statistics))
+            throw new IllegalStateException(String.format("The %s cannot be combined with %s, %s, %s, %s or %s",
+                    GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, GREMLIN_TINKERGRAPH_TRANSACTIONS, GREMLIN_TINKERGRAPH_COMPACT_STORAGE,
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY,
+                    GREMLIN_TINKERGRAPH_STATISTICS));
+        if (null != offHeapStorage && TinkerSnapshot.FORMAT.equals(graphFormat))
+            throw new IllegalStateException(String.format("The %s cannot be used with a %s of %s",
+                    GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, GREMLIN_TINKERGRAPH_GRAPH_FORMAT, TinkerSnapshot.FORMAT));
+        if (null != offHeapStorage) {
+            vertices = offHeapStorage.vertices();
+            edges = offHeapStorage.edges();
+        }
+
+        if (graphLocation != null) loadGraph(logMutations);
+        if (null != transaction && transaction.isOpen()) transaction.commit();
     }
 
     /**
@@ -163,20 +250,38 @@ public final class TinkerGraph implements Graph {
 
     @Override
     public Vertex addVertex(final Object... keyValues) {
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        final boolean bulk = null != TinkerBulkLoader.of(this);
+        if (!bulk) ElementHelper.legalPropertyKeyValueArray(keyValues);
+        final TinkerVersion version = null == this.transaction ? null : this.transaction.write();
         Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
         final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
         if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
+            if (!bulk && this.vertices.containsKey(idValue))
                 throw Exceptions.vertexWithIdAlreadyExists(idValue);
         } else {
             idValue = vertexIdManager.getNextId(this);
         }
 
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+        if (null != this.offHeapStorage) {
+            final TinkerVertex vertex = this.offHeapStorage.addVertex(idValue, label);
+            if (null == vertex) throw Exceptions.vertexWithIdAlreadyExists(idValue);
+            TinkerHelper.graphChanged(this);
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        }
 
+        final TinkerVertex vertex = new TinkerVertex(idValue, label, this);
+        if (null != version) version.add(vertex, vertex::unlink);
+        if (!bulk)
+            this.vertices.put(vertex.id(), vertex);
+        else if (null != this.vertices.putIfAbsent(vertex.id(), vertex))
+            throw Exceptions.vertexWithIdAlreadyExists(idValue);
+        TinkerHelper.addLabelIndex(this.vertexLabels, vertex);
+        if (null != this.mutationLog) this.mutationLog.addVertex(vertex);
+        TinkerHelper.graphChanged(this);
+
+        if (bulk) vertex.properties = TinkerHelper.createElementMap(this, keyValues);
         ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
         return vertex;
     }
@@ -196,7 +301,7 @@ public final class TinkerGraph implements Graph {
     @Override
     public Variables variables() {
         if (null == this.variables)
-            this.variables = new TinkerGraphVariables();
+            this.variables = new TinkerGraphVariables(this);
         return this.variables;
     }
 
@@ -218,26 +323,60 @@ public final class TinkerGraph implements Graph {
     public void clear() {
         this.vertices.clear();
         this.edges.clear();
+        this.vertexLabels.clear();
+        this.edgeLabels.clear();
         this.variables = null;
         this.currentId.set(-1L);
         this.vertexIndex = null;
         this.edgeIndex = null;
         this.graphComputerView = null;
+        TinkerHelper.graphChanged(this);
+        if (null != this.mutationLog) this.mutationLog.clear();
+        if (null != this.transaction) this.transaction.clear();
+        if (null != this.statistics) this.statistics.clear();
+    }
+
+    /**
+     * Persists the data in the graph to the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} without closing the graph.
+     * When the {@link #GREMLIN_TINKERGRAPH_MUTATION_LOG} is enabled, this compacts the log into the snapshot that is
+     * written. This method must not be called concurrently with changes to the graph.
+     */
+    public void checkpoint() {
+        if (null == graphLocation)
+            throw new IllegalStateException(String.format("The %s must be specified to checkpoint the graph",
+                    GREMLIN_TINKERGRAPH_GRAPH_LOCATION));
+        saveGraph();
     }
 
     /**
      * This method only has an effect if the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} is set, in which case the
      * data in the graph is persisted to that location. This method may be called multiple times and does not release
-     * resources.
+     * resources other than the {@link #GREMLIN_TINKERGRAPH_MUTATION_LOG}, which is compacted and closed, so that later
+     * changes to the graph are only persisted by a further call to this method.
      */
     @Override
     public void close() {
+        if (null != this.transaction) this.transaction.close();
+        if (null != this.computerContext) {
+            this.computerContext.close();
+            this.computerContext = null;
+        }
         if (graphLocation != null) saveGraph();
+        if (null != this.mutationLog) {
+            try {
+                this.mutationLog.close();
+            } catch (IOException ex) {
+                throw new RuntimeException(String.format("Could not close the mutation log of %s", graphLocation), ex);
+            } finally {
+                this.mutationLog = null;
+            }
+        }
     }
 
     @Override
     public Transaction tx() {
-        throw Exceptions.transactionsNotSupported();
+        if (null == this.transaction) throw Exceptions.transactionsNotSupported();
+        return this.transaction;
     }
 
     @Override
@@ -255,10 +394,15 @@ public final class TinkerGraph implements Graph {
         return createElementIterator(Edge.class, edges, edgeIdManager, edgeIds);
     }
 
-    private void loadGraph() {
+    private void loadGraph(final boolean logMutations) {
+        if (graphFormat.equals(TinkerSnapshot.FORMAT)) {
+            loadSnapshot(logMutations);
+            return;
+        }
+
         final File f = new File(graphLocation);
         if (f.exists() && f.isFile()) {
-            try {
+            try (final TinkerBulkLoader load = null == transaction ? bulkLoad(-1, -1) : null) {
                 if (graphFormat.equals("graphml")) {
                     io(IoCore.graphml()).readGraph(graphLocation);
                 } else if (graphFormat.equals("graphson")) {
@@ -274,8 +418,58 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Loads the snapshot and replays the mutation log that follows it, which is also done when the log is not enabled
+     * so that changes recorded by an earlier configuration of the graph are not lost.
+     */
+    private void loadSnapshot(final boolean logMutations) {
+        final Path path = Paths.get(graphLocation);
+        final Path logPath = Paths.get(graphLocation + TinkerMutationLog.EXTENSION);
+        try {
+            if (Files.isRegularFile(path)) {
+                snapshotSequence = TinkerSnapshot.open(this, path);
+                // the statistics and the transaction expect every element of the graph to be present
+                if (null != snapshotImage && (null != statistics || null != transaction)) snapshotImage.loadAll();
+                snapshotCurrent = true;
+            }
+            if (logMutations || Files.isRegularFile(logPath)) {
+                final Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                final TinkerMutationLog log = TinkerMutationLog.open(this, path, logPath, snapshotSequence,
+                        configuration.getLong(GREMLIN_TINKERGRAPH_MUTATION_LOG_FLUSH_INTERVAL, 100L),
+                        configuration.getLong(GREMLIN_TINKERGRAPH_MUTATION_LOG_COMPACTION_SIZE, 1L << 30));
+                if (logMutations)
+                    mutationLog = log;
+                else {
+                    snapshotSequence = log.sequence();
+                    log.close();
+                }
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException(String.format("Could not load graph at %s with %s", graphLocation, graphFormat), ex);
+        }
+    }
+
     private void saveGraph() {
         final File f = new File(graphLocation);
+        if (graphFormat.equals(TinkerSnapshot.FORMAT)) {
+            // the snapshot replaces the existing file only once it is written in full and any log it reflects is
+            // only removed after that. a graph that is unchanged since it was opened is not written again, which
+            // would otherwise materialize every element of the snapshot it may not have read yet
+            try {
+                if (null != mutationLog) {
+                    if (!snapshotCurrent) mutationLog.compact();
+                } else {
+                    if (!snapshotCurrent) TinkerSnapshot.write(this, f.toPath(), snapshotSequence);
+                    Files.deleteIfExists(Paths.get(graphLocation + TinkerMutationLog.EXTENSION));
+                }
+                snapshotCurrent = true;
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
+            }
+            return;
+        }
+
         if (f.exists()) {
             f.delete();
         } else {
@@ -305,9 +499,10 @@ public final class TinkerGraph implements Graph {
     private <T extends Element> Iterator<T> createElementIterator(final Class<T> clazz, final Map<Object, T> elements,
                                                                   final IdManager idManager,
                                                                   final Object... ids) {
+        TinkerHelper.readWrite(this);
         final Iterator<T> iterator;
         if (0 == ids.length) {
-            iterator = new TinkerGraphIterator<>(elements.values().iterator());
+            iterator = track(new TinkerGraphIterator<>(visible(elements.values().iterator())));
         } else {
             final List<Object> idList = Arrays.asList(ids);
 
@@ -315,12 +510,16 @@ public final class TinkerGraph implements Graph {
             // to that type and pop off the identifier. there is no need to pass that through the IdManager since
             // the assumption is that if it's already an Element, its identifier must be valid to the Graph and to
             // its associated IdManager. All other objects are passed to the IdManager for conversion.
-            return new TinkerGraphIterator<>(IteratorUtils.filter(IteratorUtils.map(idList, id -> {
+            return track(new TinkerGraphIterator<>(visible(IteratorUtils.filter(IteratorUtils.map(idList, id -> {
                 // ids cant be null so all of those filter out
                 if (null == id) return null;
-                final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : idManager.convert(id);
+                final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : id;
+                // numeric identifiers are looked up by their primitive value without converting and boxing them
+                if (elements instanceof TinkerLongElementMap && TinkerLongElementMap.isKey(iid))
+                    return ((TinkerLongElementMap<T>) elements).get(DefaultIdManager.INTEGER == idManager ?
+                            ((Number) iid).intValue() : ((Number) iid).longValue());
                 return elements.get(idManager.convert(iid));
-            }).iterator(), Objects::nonNull));
+            }).iterator(), Objects::nonNull))));
         }
         return TinkerHelper.inComputerMode(this) ?
                 (Iterator<T>) (clazz.equals(Vertex.class) ?
@@ -329,6 +528,23 @@ public final class TinkerGraph implements Graph {
                 iterator;
     }
 
+    /**
+     * Registers the iterator with the transaction of the current thread, if it has one open, so that it is closed
+     * when the transaction ends.
+     */
+    private <T> TinkerGraphIterator<T> track(final TinkerGraphIterator<T> iterator) {
+        final TinkerVersion version = null == this.transaction ? null : this.transaction.current();
+        if (null != version) version.track(iterator);
+        return iterator;
+    }
+
+    /**
+     * Filters out the elements that are not visible to the transaction of the current thread.
+     */
+    private <T extends Element> Iterator<T> visible(final Iterator<T> iterator) {
+        return null == this.transaction ? iterator : IteratorUtils.filter(iterator, TinkerHelper::isVisible);
+    }
+
     /**
      * Return TinkerGraph feature set.
      * <p/>
@@ -437,7 +653,7 @@ public final class TinkerGraph implements Graph {
 
         @Override
         public boolean supportsTransactions() {
-            return false;
+            return null != transaction;
         }
 
         @Override
@@ -468,6 +684,39 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Begins a {@link TinkerBulkLoader bulk load} of about {@code expectedVertices} vertices and
+     * {@code expectedEdges} edges, either of which may be {@code -1} if it is not known. The maps that hold the
+     * elements of an empty graph are sized for the expected number of them. A load that is begun while another is
+     * open is nested in it, so its elements are completed when the outermost load is closed. Only the thread that
+     * began a load may add elements or begin a nested load until it is closed. Bulk loads cannot be used with
+     * {@link #GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    @Override
+    public synchronized TinkerBulkLoader bulkLoad(final long expectedVertices, final long expectedEdges) {
+        if (null != this.transaction)
+            throw new IllegalStateException(String.format("A bulk load cannot be used with %s", GREMLIN_TINKERGRAPH_TRANSACTIONS));
+        if (null == this.bulkLoader)
+            this.bulkLoader = new TinkerBulkLoader(this, expectedVertices, expectedEdges);
+        else
+            TinkerBulkLoader.of(this).nest();
+        return this.bulkLoader;
+    }
+
+    /**
+     * Gets the {@link TinkerGraphStatistics} of the graph, which are only kept when
+     * {@link #GREMLIN_TINKERGRAPH_STATISTICS} is enabled and are {@code null} otherwise.
+     */
+    @Override
+    public TinkerGraphStatistics statistics() {
+        return this.statistics;
+    }
+
+    private void checkNotBulkLoading() {
+        if (null != this.bulkLoader)
+            throw new IllegalStateException("Indices cannot be created or dropped during a bulk load");
+    }
+
     ///////////// GRAPH SPECIFIC INDEXING METHODS ///////////////
 
     /**
@@ -480,12 +729,28 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. An {@link IndexType#ORDERED} index can additionally answer range predicates like
+     * {@code gt()} or {@code between()} and supply {@code order().by(key).limit(n)} without a full scan. A key can
+     * only be indexed with one type at a time.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the kind of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        checkNotBulkLoading();
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createKeyIndex(key, indexType);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createKeyIndex(key, indexType);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -499,6 +764,7 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void dropIndex(final String key, final Class<E> elementClass) {
+        checkNotBulkLoading();
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
@@ -508,6 +774,65 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a composite index over the ordered list of property keys for said element class ({@link Vertex} or
+     * {@link Edge}). Elements are indexed by the combination of their values for all of the keys, so a traversal
+     * that filters for equality on each of the keys can be answered with a single lookup. Elements that do not have
+     * a value for every key are not indexed. When several indices could answer a traversal, the one returning the
+     * fewest elements is used.
+     *
+     * @param keys         the property keys to index together which must contain at least two keys
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        checkNotBulkLoading();
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param keys         the property keys of the composite index in the order they were given on creation
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        checkNotBulkLoading();
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the keys of all the composite indices for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of composite indices each given as its ordered list of keys
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexes(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Return all the keys currently being index for said element class  ({@link Vertex} or {@link Edge}).
      *
@@ -525,11 +850,30 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * The kinds of index that can be created with {@link #createIndex(String, Class, IndexType)}.
+     */
+    public enum IndexType {
+        /**
+         * A hash-based index that answers equality and {@code within()} lookups.
+         */
+        HASH,
+
+        /**
+         * A sorted index that answers equality, {@code within()} and range lookups such as {@code lt()},
+         * {@code gte()}, {@code between()}, {@code inside()} and {@code outside()}. It also allows an
+         * {@code order().by(key).limit(n)} that directly follows {@code V()} or {@code E()} to read only the first
+         * entries of the index.
+         */
+        ORDERED
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
-    private static IdManager<?> selectIdManager(final Configuration config, final String configKey, final Class<? extends Element> clazz) {
-        final String vertexIdManagerConfigValue = config.getString(configKey, DefaultIdManager.ANY.name());
+    private static IdManager<?> selectIdManager(final Configuration config, final String configKey, final Class<? extends Element> clazz,
+                                                final DefaultIdManager defaultIdManager) {
+        final String vertexIdManagerConfigValue = config.getString(configKey, defaultIdManager.name());
         try {
             return DefaultIdManager.valueOf(vertexIdManagerConfigValue);
         } catch (IllegalArgumentException iae) {
@@ -84,6 +84,13 @@ public class TinkerGraphIterator<E> implements CloseableIterator<E> {
         }
     }
 
+    /**
+     * Determines if the iterator has been fully consumed or closed.
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
     @Override
     public void close() {
         if (!finished) {
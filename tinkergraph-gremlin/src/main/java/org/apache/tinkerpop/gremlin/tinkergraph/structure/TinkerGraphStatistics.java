@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link GraphStatistics} of a {@link TinkerGraph} configured with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_STATISTICS}, which are updated as the graph is changed. Label counts are read
+ * from the label index of the graph. For each property key the number of values is counted and the number of
+ * distinct values is estimated with a HyperLogLog sketch, which is never lowered when values are removed. The degrees
+ * of the vertices are kept as histograms of power of two buckets for each edge label and direction and for all of
+ * the edges in each direction.
+ */
+public final class TinkerGraphStatistics implements GraphStatistics {
+
+    /**
+     * The key of the histograms of the degrees over all edge labels, which cannot be an edge label itself.
+     */
+    private static final String ALL_LABELS = "";
+    private static final int BUCKETS = 33;
+
+    private final TinkerGraph graph;
+    private final Map<String, KeyStatistics> vertexKeys = new ConcurrentHashMap<>();
+    private final Map<String, KeyStatistics> edgeKeys = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLongArray> outDegrees = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLongArray> inDegrees = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLongArray> bothDegrees = new ConcurrentHashMap<>();
+
+    TinkerGraphStatistics(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.graph.vertices.size() : this.graph.edges.size();
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass, final String label) {
+        return Vertex.class.isAssignableFrom(elementClass) ?
+                TinkerHelper.getVerticesByLabel(this.graph, label).size() :
+                TinkerHelper.getEdgesByLabel(this.graph, label).size();
+    }
+
+    @Override
+    public long countValues(final Class<? extends Element> elementClass, final String key) {
+        final KeyStatistics statistics = this.keys(elementClass).get(key);
+        return null == statistics ? 0 : statistics.values.sum();
+    }
+
+    @Override
+    public long countDistinctValues(final Class<? extends Element> elementClass, final String key) {
+        final KeyStatistics statistics = this.keys(elementClass).get(key);
+        return null == statistics ? 0 : Math.min(statistics.values.sum(), statistics.distinct.estimate());
+    }
+
+    @Override
+    public long[] degreeHistogram(final Direction direction, final String label) {
+        final AtomicLongArray buckets = this.degrees(direction).get(null == label ? ALL_LABELS : label);
+        final long[] histogram = new long[BUCKETS];
+        long withEdges = 0;
+        if (null != buckets) {
+            for (int i = 1; i < BUCKETS; i++) {
+                histogram[i] = buckets.get(i);
+                withEdges += histogram[i];
+            }
+        }
+        histogram[0] = Math.max(0, this.count(Vertex.class) - withEdges);
+        return histogram;
+    }
+
+    void clear() {
+        this.vertexKeys.clear();
+        this.edgeKeys.clear();
+        this.outDegrees.clear();
+        this.inDegrees.clear();
+        this.bothDegrees.clear();
+    }
+
+    void addValue(final Element element, final String key, final Object value) {
+        final KeyStatistics statistics = this.keys(element.getClass()).computeIfAbsent(key, k -> new KeyStatistics());
+        statistics.values.increment();
+        statistics.distinct.add(value);
+    }
+
+    void removeValue(final Element element, final String key) {
+        final KeyStatistics statistics = this.keys(element.getClass()).get(key);
+        if (null != statistics) statistics.values.decrement();
+    }
+
+    /**
+     * Removes the values of the properties of an element that is removed from the graph.
+     */
+    void removeValues(final TinkerVertex vertex) {
+        if (null != vertex.properties)
+            vertex.properties.forEach((key, properties) -> properties.forEach(property -> this.removeValue(vertex, key)));
+    }
+
+    void removeValues(final TinkerEdge edge) {
+        if (null != edge.properties)
+            edge.properties.keySet().forEach(key -> this.removeValue(edge, key));
+    }
+
+    /**
+     * Moves the vertex between the buckets of the degree histograms after an edge with the label has been added to
+     * ({@code added} is {@code true}) or removed from its adjacency in the direction.
+     */
+    void updateDegree(final TinkerVertex vertex, final Direction direction, final String label, final boolean added) {
+        final Map<String, Collection<Edge>> adjacency = Direction.OUT == direction ? vertex.outEdges : vertex.inEdges;
+        final Map<String, Collection<Edge>> opposite = Direction.OUT == direction ? vertex.inEdges : vertex.outEdges;
+        final int change = added ? 1 : -1;
+
+        final int degree = size(adjacency, label);
+        this.move(this.degrees(direction), label, degree - change, degree);
+        final int total = size(adjacency, null);
+        this.move(this.degrees(direction), ALL_LABELS, total - change, total);
+        final int both = degree + size(opposite, label);
+        this.move(this.bothDegrees, label, both - change, both);
+        final int bothTotal = total + size(opposite, null);
+        this.move(this.bothDegrees, ALL_LABELS, bothTotal - change, bothTotal);
+    }
+
+    private void move(final Map<String, AtomicLongArray> histograms, final String label, final int from, final int to) {
+        final AtomicLongArray buckets = histograms.computeIfAbsent(label, k -> new AtomicLongArray(BUCKETS));
+        if (from > 0) buckets.decrementAndGet(bucket(from));
+        if (to > 0) buckets.incrementAndGet(bucket(to));
+    }
+
+    private static int bucket(final int degree) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(degree);
+    }
+
+    private static int size(final Map<String, Collection<Edge>> adjacency, final String label) {
+        if (null == adjacency) return 0;
+        if (null != label) {
+            final Collection<Edge> edges = adjacency.get(label);
+            return null == edges ? 0 : edges.size();
+        }
+        int size = 0;
+        for (final Collection<Edge> edges : adjacency.values()) {
+            size += edges.size();
+        }
+        return size;
+    }
+
+    private Map<String, KeyStatistics> keys(final Class<?> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.vertexKeys : this.edgeKeys;
+    }
+
+    private Map<String, AtomicLongArray> degrees(final Direction direction) {
+        return Direction.OUT == direction ? this.outDegrees : Direction.IN == direction ? this.inDegrees : this.bothDegrees;
+    }
+
+    private static final class KeyStatistics {
+        private final LongAdder values = new LongAdder();
+        private final DistinctValues distinct = new DistinctValues();
+    }
+
+    /**
+     * A HyperLogLog sketch with {@code 2^12} registers, which estimates the number of distinct values it is given to
+     * within about two percent.
+     */
+    static final class DistinctValues {
+        private static final int PRECISION = 12;
+        private static final int REGISTERS = 1 << PRECISION;
+        private static final double ALPHA = 0.7213d / (1.0d + 1.079d / REGISTERS);
+
+        private final AtomicIntegerArray registers = new AtomicIntegerArray(REGISTERS);
+
+        void add(final Object value) {
+            final long hash = mix(null == value ? 0 : value.hashCode());
+            final int register = (int) (hash >>> (Long.SIZE - PRECISION));
+            final int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+            int current = this.registers.get(register);
+            while (rank > current && !this.registers.compareAndSet(register, current, rank)) {
+                current = this.registers.get(register);
+            }
+        }
+
+        long estimate() {
+            double sum = 0.0d;
+            int zeros = 0;
+            for (int i = 0; i < REGISTERS; i++) {
+                final int rank = this.registers.get(i);
+                sum += 1.0d / (1L << rank);
+                if (0 == rank) zeros++;
+            }
+            final double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+            // linear counting is more accurate while many registers are still empty
+            return Math.round(zeros > 0 && estimate <= 2.5d * REGISTERS ?
+                    REGISTERS * Math.log((double) REGISTERS / zeros) : estimate);
+        }
+
+        /**
+         * Spreads the bits of a hash code over a {@code long} with the finalizer of MurmurHash3 so that values with
+         * close hash codes, like small numbers, fall in different registers.
+         */
+        private static long mix(final int hashCode) {
+            long hash = hashCode;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb53fe63bc4d9L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -33,9 +33,18 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class TinkerGraphVariables implements Graph.Variables {
 
     private final Map<String, Object> variables = new ConcurrentHashMap<>();
+    private final TinkerGraph graph;
 
     public TinkerGraphVariables() {
+        this(null);
+    }
 
+    /**
+     * Creates the variables of the graph so that changes to them are recorded in its mutation log and undone when
+     * its transaction rolls back. The variables are not versioned, so changes are visible before they are committed.
+     */
+    TinkerGraphVariables(final TinkerGraph graph) {
+        this.graph = graph;
     }
 
     @Override
@@ -50,13 +59,33 @@ public final class TinkerGraphVariables implements Graph.Variables {
 
     @Override
     public void remove(final String key) {
-        this.variables.remove(key);
+        this.recordRollback(key);
+        if (null != this.variables.remove(key) && null != this.graph) {
+            this.graph.snapshotCurrent = false;
+            if (null != this.graph.mutationLog) this.graph.mutationLog.removeVariable(key);
+        }
     }
 
     @Override
     public void set(final String key, final Object value) {
         GraphVariableHelper.validateVariable(key, value);
+        this.recordRollback(key);
         this.variables.put(key, value);
+        if (null != this.graph) {
+            this.graph.snapshotCurrent = false;
+            if (null != this.graph.mutationLog) this.graph.mutationLog.setVariable(key, value);
+        }
+    }
+
+    private void recordRollback(final String key) {
+        if (null == this.graph || null == this.graph.transaction) return;
+        final Object previous = this.variables.get(key);
+        this.graph.transaction.write().rollbacks.add(() -> {
+            if (null == previous)
+                this.variables.remove(key);
+            else
+                this.variables.put(key, previous);
+        });
     }
 
     public String toString() {
@@ -20,23 +20,34 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerContext;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -48,46 +59,319 @@ public final class TinkerHelper {
     }
 
     protected static Edge addEdge(final TinkerGraph graph, final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
+        final TinkerBulkLoader bulkLoader = TinkerBulkLoader.of(graph);
         ElementHelper.validateLabel(label);
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        if (null == bulkLoader) ElementHelper.legalPropertyKeyValueArray(keyValues);
+
+        final TinkerVersion version = null == graph.transaction ? null : graph.transaction.write();
+        if (null != version) {
+            if (isRemoved(graph, outVertex)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, outVertex.id);
+            if (isRemoved(graph, inVertex)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, inVertex.id);
+            if (version.conflictsWith(outVertex.removedIn)) throw TinkerVersion.conflict(outVertex);
+            if (version.conflictsWith(inVertex.removedIn)) throw TinkerVersion.conflict(inVertex);
+        }
 
         Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
 
         final Edge edge;
         if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
+            if (null == bulkLoader && graph.edges.containsKey(idValue))
                 throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
         } else {
             idValue = graph.edgeIdManager.getNextId(graph);
         }
 
+        if (null != graph.offHeapStorage) {
+            edge = graph.offHeapStorage.addEdge(idValue, outVertex, label, inVertex);
+            if (null == edge) throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+            autoUpdateIndex((TinkerEdge) edge, T.label.getAccessor(), label, null);
+            ElementHelper.attachProperties(edge, keyValues);
+            graphChanged(graph);
+            return edge;
+        }
+
         edge = new TinkerEdge(idValue, outVertex, label, inVertex);
+        if (null != version) version.add((TinkerEdge) edge, ((TinkerEdge) edge)::unlink);
+        if (null != bulkLoader) ((TinkerEdge) edge).properties = createElementMap(graph, keyValues);
         ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
+        if (null == bulkLoader)
+            graph.edges.put(edge.id(), edge);
+        else if (null != graph.edges.putIfAbsent(edge.id(), edge))
+            throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+        TinkerHelper.addLabelIndex(graph.edgeLabels, edge);
+        if (null != version) {
+            TinkerHelper.linkEdge(version, (TinkerEdge) edge);
+        } else if (null == bulkLoader) {
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            TinkerHelper.addInEdge(inVertex, label, edge);
+        } else {
+            bulkLoader.defer((TinkerEdge) edge);
+        }
+        // the edge is logged with the properties attached above as they are not logged before the edge exists
+        if (null != graph.mutationLog) graph.mutationLog.addEdge(edge);
+        graphChanged(graph);
         return edge;
 
     }
 
+    /**
+     * Adds the edge of a transaction to its vertices, checking each vertex for a removal by another transaction
+     * along with the addition so that a concurrent removal of the vertex finds the edge and fails instead.
+     */
+    private static void linkEdge(final TinkerVersion version, final TinkerEdge edge) {
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+        synchronized (outVertex) {
+            if (version.conflictsWith(outVertex.removedIn)) {
+                edge.unlink();
+                throw TinkerVersion.conflict(outVertex);
+            }
+            TinkerHelper.addOutEdge(outVertex, edge.label, edge);
+        }
+        synchronized (inVertex) {
+            if (version.conflictsWith(inVertex.removedIn)) {
+                edge.unlink();
+                throw TinkerVersion.conflict(inVertex);
+            }
+            TinkerHelper.addInEdge(inVertex, edge.label, edge);
+        }
+    }
+
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.outEdges) vertex.outEdges = createElementMap(graph);
+        Collection<Edge> edges = vertex.outEdges.get(label);
         if (null == edges) {
-            edges = new HashSet<>();
+            edges = createAdjacency(graph, true);
             vertex.outEdges.put(label, edges);
         }
-        edges.add(edge);
+        if (edges.add(edge) && null != graph.statistics)
+            graph.statistics.updateDegree(vertex, Direction.OUT, label, true);
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.inEdges) vertex.inEdges = createElementMap(graph);
+        Collection<Edge> edges = vertex.inEdges.get(label);
         if (null == edges) {
-            edges = new HashSet<>();
+            edges = createAdjacency(graph, false);
             vertex.inEdges.put(label, edges);
         }
-        edges.add(edge);
+        if (edges.add(edge) && null != graph.statistics)
+            graph.statistics.updateDegree(vertex, Direction.IN, label, true);
+    }
+
+    /**
+     * Creates a map to hold the properties or adjacency of an element, which is array-backed when the graph is
+     * configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_STORAGE} and safe to read while it is written
+     * when the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    static <K, V> Map<K, V> createElementMap(final TinkerGraph graph) {
+        if (graph.compactStorage)
+            return new TinkerArrayMap<>();
+        return null == graph.transaction ? new HashMap<>() : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a map to hold the properties of an element that are given in the {@code keyValues} it is added with,
+     * which is sized for them, or returns {@code null} if there are none so that it is only created when needed.
+     */
+    static <K, V> Map<K, V> createElementMap(final TinkerGraph graph, final Object... keyValues) {
+        int keys = 0;
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (!(keyValues[i] instanceof T)) keys++;
+        }
+        if (0 == keys)
+            return null;
+        if (graph.compactStorage)
+            return new TinkerArrayMap<>();
+        return null == graph.transaction ? new HashMap<>(keys * 4 / 3 + 1) : new ConcurrentHashMap<>(keys);
+    }
+
+    /**
+     * Creates a list to hold the values of a vertex property key, which is sized for a single value when the graph
+     * is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_STORAGE}.
+     */
+    static <V> List<V> createPropertyList(final TinkerGraph graph) {
+        if (graph.compactStorage)
+            return new ArrayList<>(1);
+        return null == graph.transaction ? new ArrayList<>() : new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Creates the collection to hold the edges of a vertex for a single label and direction, which keeps the edges in
+     * the order they were added when the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY}.
+     */
+    private static Collection<Edge> createAdjacency(final TinkerGraph graph, final boolean out) {
+        if (graph.orderedAdjacency)
+            return new TinkerOrderedAdjacency(out);
+        if (graph.compactStorage)
+            return new TinkerAdjacencyList(out);
+        return null == graph.transaction ? new HashSet<>() : ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Opens the transaction of the current thread for a read of the graph, as configured by its read-write behavior,
+     * if the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    public static void readWrite(final TinkerGraph graph) {
+        if (null != graph.transaction) graph.transaction.readWrite();
+    }
+
+    /**
+     * Determines if the element is visible to the current thread, which is always the case for elements of a graph
+     * that is not configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    public static boolean isVisible(final Element element) {
+        final TinkerGraph graph = (TinkerGraph) element.graph();
+        if (null == graph.transaction) return true;
+        final TinkerElement tinkerElement = (TinkerElement) element;
+        return graph.transaction.isVisible(tinkerElement.createdIn, tinkerElement.removedIn);
+    }
+
+    /**
+     * Determines if the element was removed from the graph by the current thread or, for a graph configured with
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE}, through any other instance of the element.
+     */
+    static boolean isUnlinked(final TinkerElement element) {
+        if (element.removed) return true;
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(element);
+        return null != storage && !storage.isLive(element);
+    }
+
+    /**
+     * Determines if the element is removed, which for a transactional graph includes removals that are visible to
+     * the current thread but not yet purged.
+     */
+    static boolean isRemoved(final TinkerGraph graph, final TinkerElement element) {
+        return isUnlinked(element) || (null != graph.transaction && !graph.transaction.isVisible(element.createdIn, element.removedIn));
+    }
+
+    /**
+     * Counts the elements that are visible to the current thread.
+     */
+    public static long countVisible(final TinkerGraph graph, final Collection<? extends Element> elements) {
+        if (null == graph.transaction) return elements.size();
+        long count = 0;
+        for (final Element element : elements) {
+            if (isVisible(element)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the version of the property, or of one it replaced, that is visible to the current thread or
+     * {@code null} if there is none.
+     */
+    private static <V> Property<V> visibleVersion(final TinkerTransaction transaction, final Property<V> property) {
+        for (TinkerProperty<V> version = (TinkerProperty<V>) property; null != version; version = version.previous) {
+            if (transaction.isVisible(version.createdIn, version.removedIn))
+                return version;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the property for the key from the properties of an edge or vertex property of a transactional graph.
+     */
+    static <V> Property<V> getProperty(final TinkerTransaction transaction, final Map<String, Property> properties, final String key) {
+        final Property<V> property = null == properties ? null : visibleVersion(transaction, properties.get(key));
+        return null == property ? Property.<V>empty() : property;
+    }
+
+    /**
+     * Gets the keys of the properties of an edge or vertex property of a transactional graph.
+     */
+    static Set<String> getKeys(final TinkerTransaction transaction, final Map<String, Property> properties) {
+        if (null == properties) return Collections.emptySet();
+        final Set<String> keys = new HashSet<>();
+        properties.forEach((key, property) -> {
+            if (null != visibleVersion(transaction, property)) keys.add(key);
+        });
+        return keys;
+    }
+
+    /**
+     * Gets the properties for the keys from the properties of an edge or vertex property of a transactional graph.
+     */
+    static <V> Iterator<Property<V>> getProperties(final TinkerTransaction transaction, final Map<String, Property> properties, final String... propertyKeys) {
+        if (null == properties) return Collections.emptyIterator();
+        final List<Property<V>> list = new ArrayList<>();
+        properties.forEach((key, property) -> {
+            if (ElementHelper.keyExists(key, propertyKeys)) {
+                final Property<V> visible = visibleVersion(transaction, property);
+                if (null != visible) list.add(visible);
+            }
+        });
+        return list.iterator();
+    }
+
+    /**
+     * Puts a new version of a property in the properties of an edge or vertex property of a transactional graph,
+     * which replaces the current version for the transactions that can see the new one.
+     */
+    static <V> void putProperty(final TinkerVersion version, final Map<String, Property> properties, final TinkerProperty<V> property) {
+        final String key = property.key();
+        final TinkerProperty<V> latest = (TinkerProperty<V>) properties.get(key);
+        property.createdIn = version;
+        property.previous = latest;
+        if (null != latest && null == latest.removedIn) {
+            latest.removedIn = version;
+            version.rollbacks.add(() -> latest.removedIn = null);
+        }
+        properties.put(key, property);
+        version.rollbacks.add(() -> {
+            if (null == latest)
+                properties.remove(key, property);
+            else
+                properties.put(key, latest);
+        });
+        if (null != latest) version.purges.add(() -> property.previous = null);
+    }
+
+    /**
+     * Removes a property from the properties of an edge or vertex property of a transactional graph for the
+     * transactions that can see the removal.
+     */
+    static void removeProperty(final TinkerVersion version, final Map<String, Property> properties, final TinkerProperty<?> property) {
+        property.removedIn = version;
+        version.rollbacks.add(() -> property.removedIn = null);
+        version.purges.add(() -> properties.remove(property.key(), property));
+    }
+
+    /**
+     * Gets the values the element holds for the key in every version of its properties that is not yet purged,
+     * which are the values an index must keep for the element.
+     */
+    static List<Object> getLinkedValues(final Element element, final String key) {
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of((TinkerElement) element);
+        if (null != storage) return storage.values((TinkerElement) element, key);
+        final List<Object> values = new ArrayList<>();
+        if (element instanceof TinkerVertex) {
+            final Map<String, List<VertexProperty>> properties = ((TinkerVertex) element).properties;
+            final List<VertexProperty> list = null == properties ? null : properties.get(key);
+            if (null != list) list.forEach(property -> values.add(property.value()));
+        } else {
+            final Map<String, Property> properties = ((TinkerEdge) element).properties;
+            for (TinkerProperty<?> property = null == properties ? null : (TinkerProperty<?>) properties.get(key);
+                 null != property; property = property.previous) {
+                values.add(property.value());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Determines if the element has a value for the key, visible to the current thread, that an index would hold
+     * under the {@code indexedValue}.
+     */
+    public static boolean hasIndexedValue(final Element element, final String key, final Object indexedValue) {
+        final Iterator<? extends Property<Object>> properties = element.properties(key);
+        while (properties.hasNext()) {
+            if (TinkerIndex.isSameValue(properties.next().value(), indexedValue))
+                return true;
+        }
+        return false;
     }
 
     public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
@@ -98,6 +382,115 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Gets the vertices from the most selective vertex index that can answer the equalities or {@code null} if there
+     * is none.
+     */
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final Map<String, Object> equalities) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.get(equalities);
+    }
+
+    /**
+     * Gets the edges from the most selective edge index that can answer the equalities or {@code null} if there is
+     * none.
+     */
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final Map<String, Object> equalities) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.get(equalities);
+    }
+
+    /**
+     * Gets the vertices that may match the predicates for the key from the vertex index or {@code null} if the index
+     * cannot answer them.
+     */
+    public static Collection<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.query(key, predicates);
+    }
+
+    /**
+     * Gets the edges that may match the predicates for the key from the edge index or {@code null} if the index
+     * cannot answer them.
+     */
+    public static Collection<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.query(key, predicates);
+    }
+
+    /**
+     * Gets the vertices of an ordered index grouped by value in ascending order or {@code null} if the key does not
+     * have an ordered index that can be read in order.
+     */
+    public static NavigableMap<Object, Set<TinkerVertex>> queryOrderedVertexIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.queryOrdered(key, predicates);
+    }
+
+    /**
+     * Gets the edges of an ordered index grouped by value in ascending order or {@code null} if the key does not
+     * have an ordered index that can be read in order.
+     */
+    public static NavigableMap<Object, Set<TinkerEdge>> queryOrderedEdgeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.queryOrdered(key, predicates);
+    }
+
+    static <T extends Element> void addLabelIndex(final Map<String, Set<T>> labels, final T element) {
+        labels.computeIfAbsent(element.label(), k -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    static <T extends Element> void removeLabelIndex(final Map<String, Set<T>> labels, final T element) {
+        labels.computeIfPresent(element.label(), (k, elements) -> {
+            elements.remove(element);
+            return elements.isEmpty() ? null : elements;
+        });
+    }
+
+    /**
+     * Gets the vertices with the specified label. The returned set is live and must be copied by callers that may
+     * mutate the graph while iterating it.
+     */
+    public static Set<Vertex> getVerticesByLabel(final TinkerGraph graph, final String label) {
+        final TinkerSnapshotImage snapshotImage = graph.snapshotImage;
+        if (null != snapshotImage) snapshotImage.loadAll();
+        if (null != graph.offHeapStorage) return Collections.unmodifiableSet(graph.offHeapStorage.verticesByLabel(label));
+        return Collections.unmodifiableSet(graph.vertexLabels.getOrDefault(label, Collections.emptySet()));
+    }
+
+    /**
+     * Gets the edges with the specified label. The returned set is live and must be copied by callers that may
+     * mutate the graph while iterating it.
+     */
+    public static Set<Edge> getEdgesByLabel(final TinkerGraph graph, final String label) {
+        final TinkerSnapshotImage snapshotImage = graph.snapshotImage;
+        if (null != snapshotImage) snapshotImage.loadAll();
+        if (null != graph.offHeapStorage) return Collections.unmodifiableSet(graph.offHeapStorage.edgesByLabel(label));
+        return Collections.unmodifiableSet(graph.edgeLabels.getOrDefault(label, Collections.emptySet()));
+    }
+
+    /**
+     * Determines if full scans of the graph may filter elements as they are iterated rather than first copying the
+     * matching elements to a list, as configured by {@link TinkerGraph#GREMLIN_TINKERGRAPH_STREAMING_SCANS}.
+     */
+    public static boolean usesStreamingScans(final TinkerGraph graph) {
+        return graph.streamingScans;
+    }
+
+    /**
+     * Determines if changes to the element are recorded in the mutation log, which is the case only for elements
+     * that are part of a graph that has a log as changes to elements that are still being created, already removed
+     * or only part of a {@link TinkerGraphComputerView} are either logged with their element or not at all.
+     */
+    static boolean isLogged(final TinkerElement element) {
+        if (element instanceof TinkerEdge) {
+            final TinkerGraph graph = (TinkerGraph) ((TinkerEdge) element).graph();
+            return null != graph.mutationLog && graph.edges.get(element.id) == element;
+        } else if (element instanceof TinkerVertexProperty) {
+            final TinkerVertex vertex = (TinkerVertex) ((TinkerVertexProperty<?>) element).element();
+            if (null == ((TinkerGraph) vertex.graph()).mutationLog || null == vertex.properties) return false;
+            final List<VertexProperty> list = vertex.properties.get(((TinkerVertexProperty<?>) element).key());
+            return null != list && list.stream().anyMatch(vertexProperty -> vertexProperty == element);
+        } else {
+            final TinkerGraph graph = (TinkerGraph) ((TinkerVertex) element).graph();
+            return null != graph.mutationLog && graph.vertices.get(element.id) == element;
+        }
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -106,6 +499,10 @@ public final class TinkerHelper {
         return graph.graphComputerView = new TinkerGraphComputerView(graph, graphFilter, computeKeys);
     }
 
+    public static TinkerGraphComputerView createGraphComputerView(final TinkerGraph graph, final TinkerGraphComputerView filteredView, final Set<VertexComputeKey> computeKeys) {
+        return graph.graphComputerView = new TinkerGraphComputerView(filteredView, computeKeys);
+    }
+
     public static TinkerGraphComputerView getGraphComputerView(final TinkerGraph graph) {
         return graph.graphComputerView;
     }
@@ -114,7 +511,27 @@ public final class TinkerHelper {
         graph.graphComputerView = null;
     }
 
+    public static TinkerGraphComputerContext getComputerContext(final TinkerGraph graph) {
+        return graph.computerContext;
+    }
+
+    public static void setComputerContext(final TinkerGraph graph, final TinkerGraphComputerContext computerContext) {
+        graph.computerContext = computerContext;
+    }
+
+    /**
+     * Marks the {@link TinkerGraphComputerContext} of the graph as stale and the snapshot it was opened from as no
+     * longer current, which is called by every change to its elements outside of a {@link TinkerGraphComputerView}.
+     */
+    static void graphChanged(final TinkerGraph graph) {
+        final TinkerGraphComputerContext computerContext = graph.computerContext;
+        if (null != computerContext) computerContext.invalidate();
+        if (graph.snapshotCurrent) graph.snapshotCurrent = false;
+    }
+
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(vertex);
+        if (null != storage) return storage.vertexPropertyMap(vertex);
         return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
     }
 
@@ -154,7 +571,69 @@ public final class TinkerHelper {
             graph.edgeIndex.remove(key, value, edge);
     }
 
+    /**
+     * Materializes the edges of the vertex that are still held by the snapshot the graph was opened from.
+     */
+    private static void loadAdjacency(final TinkerGraph graph, final TinkerVertex vertex) {
+        final TinkerSnapshotImage snapshotImage = graph.snapshotImage;
+        if (null != snapshotImage) snapshotImage.loadAdjacency(vertex);
+    }
+
+    /**
+     * Counts the edges of the vertex from the sizes of its adjacency, which is kept per edge label and direction, rather
+     * than by iterating them. The edges are iterated when the graph is in computer mode or configured with
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}, as the adjacency then holds edges that are not visible.
+     */
+    public static long getDegree(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        loadAdjacency(graph, vertex);
+        if (inComputerMode(graph) || null != graph.transaction)
+            return IteratorUtils.count(vertex.edges(direction, edgeLabels));
+        if (null != graph.offHeapStorage) return graph.offHeapStorage.degree(vertex, direction, edgeLabels);
+        long degree = 0;
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH))
+            degree += getDegree(vertex.outEdges, edgeLabels);
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH))
+            degree += getDegree(vertex.inEdges, edgeLabels);
+        return degree;
+    }
+
+    private static long getDegree(final Map<String, Collection<Edge>> adjacency, final String... edgeLabels) {
+        if (null == adjacency) return 0L;
+        long degree = 0;
+        if (edgeLabels.length == 0) {
+            for (final Collection<Edge> edges : adjacency.values()) {
+                degree += edges.size();
+            }
+        } else {
+            for (final String edgeLabel : edgeLabels) {
+                final Collection<Edge> edges = adjacency.get(edgeLabel);
+                if (null != edges) degree += edges.size();
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Iterates the edges of the adjacency without copying them, which is only safe when the graph is configured with
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY} as its adjacency tolerates changes while it is iterated.
+     */
+    private static Iterator<Edge> iterateAdjacency(final Map<String, Collection<Edge>> adjacency, final String... edgeLabels) {
+        if (null == adjacency) return Collections.emptyIterator();
+        final List<Collection<Edge>> edges = edgeLabels.length == 0 ?
+                new ArrayList<>(adjacency.values()) :
+                Stream.of(edgeLabels).map(adjacency::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return IteratorUtils.flatMap(edges.iterator(), Collection::iterator);
+    }
+
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        loadAdjacency((TinkerGraph) vertex.graph(), vertex);
+        final TinkerOffHeapStorage storage = ((TinkerGraph) vertex.graph()).offHeapStorage;
+        if (null != storage) return (Iterator) storage.edges(vertex, direction, edgeLabels).iterator();
+        if (((TinkerGraph) vertex.graph()).orderedAdjacency)
+            return (Iterator) IteratorUtils.concat(
+                    direction.equals(Direction.IN) ? Collections.emptyIterator() : iterateAdjacency(vertex.outEdges, edgeLabels),
+                    direction.equals(Direction.OUT) ? Collections.emptyIterator() : iterateAdjacency(vertex.inEdges, edgeLabels));
         final List<Edge> edges = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -176,10 +655,22 @@ public final class TinkerHelper {
                     Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
             }
         }
+        if (null != ((TinkerGraph) vertex.graph()).transaction) edges.removeIf(edge -> !isVisible(edge));
         return (Iterator) edges.iterator();
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        loadAdjacency((TinkerGraph) vertex.graph(), vertex);
+        if (null != ((TinkerGraph) vertex.graph()).transaction)
+            return IteratorUtils.map(getEdges(vertex, direction, edgeLabels), edge -> (TinkerVertex) (edge.outVertex == vertex ? edge.inVertex : edge.outVertex));
+        final TinkerOffHeapStorage storage = ((TinkerGraph) vertex.graph()).offHeapStorage;
+        if (null != storage) return (Iterator) storage.vertices(vertex, direction, edgeLabels).iterator();
+        if (((TinkerGraph) vertex.graph()).orderedAdjacency)
+            return IteratorUtils.concat(
+                    direction.equals(Direction.IN) ? Collections.emptyIterator() :
+                            IteratorUtils.map(iterateAdjacency(vertex.outEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).inVertex),
+                    direction.equals(Direction.OUT) ? Collections.emptyIterator() :
+                            IteratorUtils.map(iterateAdjacency(vertex.inEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).outVertex));
         final List<Vertex> vertices = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -188,7 +679,7 @@ public final class TinkerHelper {
                 else if (edgeLabels.length == 1)
                     vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
                 else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
+                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Collection::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
             }
         }
         if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
@@ -198,12 +689,23 @@ public final class TinkerHelper {
                 else if (edgeLabels.length == 1)
                     vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
                 else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
+                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Collection::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
             }
         }
         return (Iterator) vertices.iterator();
     }
 
+    /**
+     * Creates the map that holds the elements of a graph by their identifiers for about {@code expectedSize}
+     * elements, which is keyed by primitive values for the {@link TinkerGraph.DefaultIdManager#LONG} and
+     * {@link TinkerGraph.DefaultIdManager#INTEGER} managers.
+     */
+    static <E extends Element> Map<Object, E> createIdMap(final TinkerGraph.IdManager<?> idManager, final int expectedSize) {
+        if (TinkerGraph.DefaultIdManager.LONG == idManager || TinkerGraph.DefaultIdManager.INTEGER == idManager)
+            return new TinkerLongElementMap<>(TinkerGraph.DefaultIdManager.INTEGER == idManager, expectedSize);
+        return expectedSize > 0 ? new ConcurrentHashMap<>(expectedSize) : new ConcurrentHashMap<>();
+    }
+
     public static Map<Object, Vertex> getVertices(final TinkerGraph graph) {
         return graph.vertices;
     }
@@ -18,18 +18,33 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
-import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
+import java.util.stream.IntStream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -37,35 +52,86 @@ import java.util.concurrent.ConcurrentHashMap;
 final class TinkerIndex<T extends Element> {
 
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the values of {@link TinkerGraph.IndexType#ORDERED} keys that have no natural order (e.g. a {@code List})
+     * and therefore cannot be placed in the sorted map for that key.
+     */
+    protected Map<String, Map<Object, Set<T>>> unorderableIndex = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
     private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> orderedKeys = new HashSet<>();
+    private final Map<List<String>, TinkerCompositeIndex<T>> compositeIndices = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
+    /**
+     * The keys and values that each element is held under in the single key indices, as pairs in a flat array, so
+     * that removing an element only visits its own entries rather than every value of every indexed key.
+     */
+    private final Map<T, Object[]> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The number of shares of the elements for each thread of the common pool when an index is built, so that
+     * threads that finish early can take another.
+     */
+    private static final int PARTITIONS_PER_THREAD = 4;
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
     }
 
     protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (null == keyMap) {
-            this.index.putIfAbsent(key, new ConcurrentHashMap<>());
-            keyMap = this.index.get(key);
-        }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            keyMap.putIfAbsent(value, ConcurrentHashMap.newKeySet());
-            objects = keyMap.get(value);
-        }
-        objects.add(element);
+        final Object indexedValue = indexable(value);
+        if (this.keyMap(key, indexedValue).computeIfAbsent(indexedValue, v -> ConcurrentHashMap.newKeySet()).add(element))
+            this.addEntry(element, key, indexedValue);
+    }
+
+    /**
+     * Gets the map of values to elements that holds the value for the key, creating it if needed.
+     */
+    private Map<Object, Set<T>> keyMap(final String key, final Object indexedValue) {
+        final Map<String, Map<Object, Set<T>>> keyMaps = this.keyMaps(key, indexedValue);
+        return keyMaps.computeIfAbsent(key, k -> keyMaps == this.index && this.orderedKeys.contains(key) ?
+                new ConcurrentSkipListMap<>(IndexedValueComparator.INSTANCE) :
+                new ConcurrentHashMap<>());
+    }
+
+    private void addEntry(final T element, final String key, final Object indexedValue) {
+        this.entries.compute(element, (e, pairs) -> {
+            if (null == pairs)
+                return new Object[]{key, indexedValue};
+            final Object[] added = Arrays.copyOf(pairs, pairs.length + 2);
+            added[pairs.length] = key;
+            added[pairs.length + 1] = indexedValue;
+            return added;
+        });
+    }
+
+    private void removeEntry(final T element, final String key, final Object indexedValue) {
+        this.entries.computeIfPresent(element, (e, pairs) -> {
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i].equals(key) && isSameValue(pairs[i + 1], indexedValue))
+                    return 2 == pairs.length ? null : without(pairs, i);
+            }
+            return pairs;
+        });
+    }
+
+    private static Object[] without(final Object[] pairs, final int index) {
+        final Object[] removed = new Object[pairs.length - 2];
+        System.arraycopy(pairs, 0, removed, 0, index);
+        System.arraycopy(pairs, index + 2, removed, index, pairs.length - index - 2);
+        return removed;
     }
 
     public List<T> get(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Object indexedValue = indexable(value);
+        final Map<Object, Set<T>> keyMap = this.keyMaps(key, indexedValue).get(key);
         if (null == keyMap) {
             return Collections.emptyList();
         } else {
-            Set<T> set = keyMap.get(indexable(value));
+            Set<T> set = keyMap.get(indexedValue);
             if (null == set)
                 return Collections.emptyList();
             else
@@ -74,11 +140,12 @@ final class TinkerIndex<T extends Element> {
     }
 
     public long count(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Object indexedValue = indexable(value);
+        final Map<Object, Set<T>> keyMap = this.keyMaps(key, indexedValue).get(key);
         if (null == keyMap) {
             return 0;
         } else {
-            final Set<T> set = keyMap.get(indexable(value));
+            final Set<T> set = keyMap.get(indexedValue);
             if (null == set)
                 return 0;
             else
@@ -86,59 +153,313 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Gets the elements from the most selective of the single key and composite indices that can be used to answer
+     * the {@code equalities}, judged by the number of elements each would return. Returns {@code null} if none of
+     * the indices can be used.
+     */
+    public List<T> get(final Map<String, Object> equalities) {
+        String bestKey = null;
+        TinkerCompositeIndex<T> bestCompositeIndex = null;
+        List<Object> bestValues = null;
+        long bestCount = Long.MAX_VALUE;
+        for (final Map.Entry<String, Object> equality : equalities.entrySet()) {
+            if (this.indexedKeys.contains(equality.getKey())) {
+                final long count = this.count(equality.getKey(), equality.getValue());
+                if (null == bestKey || count < bestCount) {
+                    bestKey = equality.getKey();
+                    bestCount = count;
+                }
+            }
+        }
+        for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+            if (equalities.keySet().containsAll(compositeIndex.getKeys())) {
+                final List<Object> values = new ArrayList<>(compositeIndex.getKeys().size());
+                compositeIndex.getKeys().forEach(k -> values.add(equalities.get(k)));
+                final long count = compositeIndex.count(values);
+                if ((null == bestKey && null == bestCompositeIndex) || count < bestCount) {
+                    bestCompositeIndex = compositeIndex;
+                    bestValues = values;
+                    bestCount = count;
+                }
+            }
+        }
+
+        if (null != bestCompositeIndex)
+            return bestCompositeIndex.get(bestValues);
+        else if (null != bestKey)
+            return this.get(bestKey, equalities.get(bestKey));
+        else
+            return null;
+    }
+
+    /**
+     * Gets the elements whose value for the {@code key} may satisfy all of the {@code predicates}, each of which is
+     * expected to have been applied to that {@code key}. The result may hold elements that do not match so callers
+     * must still test them against the predicates. Returns {@code null} if the index cannot answer any of the
+     * predicates, in which case the caller should fall back to a scan.
+     */
+    public Collection<T> query(final String key, final List<P<?>> predicates) {
+        if (!this.indexedKeys.contains(key))
+            return null;
+
+        // equality is the most selective lookup so prefer it, then within() and finally a range
+        for (final P<?> predicate : predicates) {
+            if (predicate.getBiPredicate() == Compare.eq)
+                return this.get(key, predicate.getValue());
+        }
+        for (final P<?> predicate : predicates) {
+            if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+                final Set<T> elements = new LinkedHashSet<>();
+                for (final Object value : (Collection<?>) predicate.getValue()) {
+                    elements.addAll(this.get(key, value));
+                }
+                return elements;
+            }
+        }
+
+        final NavigableMap<Object, Set<T>> range = this.range(key, predicates);
+        if (null != range) {
+            final List<T> elements = new ArrayList<>();
+            range.values().forEach(elements::addAll);
+            return elements;
+        }
+
+        // outside() and other or() of predicates can be answered as the union of the lookups for each predicate
+        for (final P<?> predicate : predicates) {
+            if (predicate instanceof OrP) {
+                Set<T> elements = new LinkedHashSet<>();
+                for (final P<?> p : ((OrP<?>) predicate).getPredicates()) {
+                    final Collection<T> matches = this.query(key, p instanceof AndP ?
+                            (List) ((AndP<?>) p).getPredicates() : Collections.singletonList(p));
+                    if (null == matches) {
+                        elements = null;
+                        break;
+                    }
+                    elements.addAll(matches);
+                }
+                if (null != elements)
+                    return elements;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the sorted values of an {@link TinkerGraph.IndexType#ORDERED} {@code key}, restricted to any range that
+     * can be determined from the {@code predicates}, in the same order that {@code Order.asc} would sort them.
+     * Returns {@code null} if the key is not ordered or if its values are not all of a mutually comparable type.
+     */
+    public NavigableMap<Object, Set<T>> queryOrdered(final String key, final List<P<?>> predicates) {
+        if (!this.orderedKeys.contains(key) || this.hasUnorderableValues(key))
+            return null;
+
+        final NavigableMap<Object, Set<T>> keyMap = (NavigableMap<Object, Set<T>>) this.index.get(key);
+        if (null == keyMap)
+            return Collections.emptyNavigableMap();
+        if (!keyMap.isEmpty() && !isHomogeneous(keyMap, keyMap.lastKey()))
+            return null;
+
+        final NavigableMap<Object, Set<T>> range = this.range(key, predicates);
+        return null == range ? keyMap : range;
+    }
+
     public void remove(final String key, final Object value, final T element) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        this.removeValue(key, value, element);
+        this.updateCompositeIndices(key, element);
+    }
+
+    private void removeValue(final String key, final Object value, final T element) {
+        if (null != this.graph.transaction) {
+            // the value stays indexed while any version of the element that holds it can still be read
+            final TinkerVersion version = this.graph.transaction.current();
+            if (null != version) {
+                version.reindexes.add(() -> this.removeValue(key, value, element));
+                return;
+            }
+            for (final Object linkedValue : TinkerHelper.getLinkedValues(element, key)) {
+                if (isSameValue(linkedValue, value))
+                    return;
+            }
+        }
+
+        final Object indexedValue = indexable(value);
+        if (this.removeFromKeyMap(key, indexedValue, element))
+            this.removeEntry(element, key, indexedValue);
+    }
+
+    private boolean removeFromKeyMap(final String key, final Object indexedValue, final T element) {
+        final Map<Object, Set<T>> keyMap = this.keyMaps(key, indexedValue).get(key);
         if (null != keyMap) {
-            final Set<T> objects = keyMap.get(indexable(value));
-            if (null != objects) {
-                objects.remove(element);
+            final Set<T> objects = keyMap.get(indexedValue);
+            if (null != objects && objects.remove(element)) {
                 if (objects.size() == 0) {
-                    keyMap.remove(value);
+                    keyMap.remove(indexedValue);
                 }
+                return true;
             }
         }
+        return false;
     }
 
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
+            final Object[] pairs = this.entries.remove(element);
+            if (null != pairs) {
+                for (int i = 0; i < pairs.length; i += 2) {
+                    this.removeFromKeyMap((String) pairs[i], pairs[i + 1], element);
                 }
             }
+            for (TinkerCompositeIndex<T> compositeIndex : compositeIndices.values()) {
+                compositeIndex.remove(element);
+            }
         }
     }
 
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key)) {
-            this.remove(key, oldValue, element);
+            this.removeValue(key, oldValue, element);
             this.put(key, newValue, element);
+            // revalidates the new value which is no longer held by the element if the transaction rolls back
+            if (null != this.graph.transaction) this.removeValue(key, newValue, element);
         }
+        this.updateCompositeIndices(key, element);
     }
 
-    public void createKeyIndex(final String key) {
+    private void updateCompositeIndices(final String key, final T element) {
+        if (this.compositeIndices.isEmpty())
+            return;
+
+        final TinkerVersion version = null == this.graph.transaction ? null : this.graph.transaction.current();
+        if (null != version) version.reindexes.add(() -> this.updateCompositeIndices(key, element));
+
+        for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+            if (compositeIndex.getKeys().contains(key))
+                compositeIndex.update(element);
+        }
+    }
+
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
 
-        if (this.indexedKeys.contains(key))
+        final boolean ordered = TinkerGraph.IndexType.ORDERED == indexType;
+        if (this.indexedKeys.contains(key)) {
+            if (this.orderedKeys.contains(key) != ordered)
+                throw new IllegalStateException(String.format(
+                        "The key %s is already indexed with a different index type - drop the index before creating it as %s", key, indexType));
             return;
+        }
+        if (ordered) this.orderedKeys.add(key);
         this.indexedKeys.add(key);
 
-        (Vertex.class.isAssignableFrom(this.indexClass) ?
-                this.graph.vertices.values().parallelStream() :
-                this.graph.edges.values().parallelStream())
-                .map(e -> new Object[]{((T) e).property(key), e})
-                .filter(a -> ((Property) a[0]).isPresent())
-                .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
+        if (null != this.graph.transaction) {
+            // every version of an element that can still be read must be found by the index
+            (Vertex.class.isAssignableFrom(this.indexClass) ? this.graph.vertices.values() : this.graph.edges.values())
+                    .forEach(e -> TinkerHelper.getLinkedValues(e, key).forEach(value -> this.put(key, value, (T) e)));
+            return;
+        }
+
+        this.build(key);
+    }
+
+    /**
+     * Drops the entries of all of the indices and builds them again over all of the elements of the graph, which is
+     * done when a bulk load, during which the indices are not maintained, is closed.
+     */
+    void reindex() {
+        this.index.clear();
+        this.unorderableIndex.clear();
+        this.entries.clear();
+        for (final String key : this.indexedKeys) {
+            this.build(key);
+        }
+        for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+            compositeIndex.clear();
+            this.build(compositeIndex);
+        }
+    }
+
+    private void build(final String key) {
+        // each share of the elements is grouped by value first, so that the shared maps are visited once for each
+        // distinct value of a share rather than once for each element
+        final Object[] elements = (Vertex.class.isAssignableFrom(this.indexClass) ? this.graph.vertices : this.graph.edges).values().toArray();
+        final int partitions = Math.max(1, Math.min(elements.length, ForkJoinPool.getCommonPoolParallelism() * PARTITIONS_PER_THREAD));
+        final int partitionSize = (elements.length + partitions - 1) / partitions;
+        IntStream.range(0, partitions).parallel().forEach(partition -> {
+            final Map<Object, List<T>> byValue = new HashMap<>();
+            for (int i = partition * partitionSize; i < Math.min(elements.length, (partition + 1) * partitionSize); i++) {
+                final T element = (T) elements[i];
+                element.properties(key).forEachRemaining(property ->
+                        byValue.computeIfAbsent(indexable(property.value()), v -> new ArrayList<>(1)).add(element));
+            }
+            byValue.forEach((indexedValue, byElements) -> {
+                final Set<T> objects = this.keyMap(key, indexedValue).computeIfAbsent(indexedValue, v -> ConcurrentHashMap.newKeySet(byElements.size()));
+                for (final T element : byElements) {
+                    if (objects.add(element))
+                        this.addEntry(element, key, indexedValue);
+                }
+            });
+        });
     }
 
     public void dropKeyIndex(final String key) {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
+        if (this.unorderableIndex.containsKey(key))
+            this.unorderableIndex.remove(key).clear();
 
         this.indexedKeys.remove(key);
+        this.orderedKeys.remove(key);
+
+        for (final T element : this.entries.keySet()) {
+            this.entries.computeIfPresent(element, (e, pairs) -> {
+                Object[] kept = pairs;
+                for (int i = kept.length - 2; i >= 0; i -= 2) {
+                    if (kept[i].equals(key)) kept = without(kept, i);
+                }
+                return 0 == kept.length ? null : kept;
+            });
+        }
+    }
+
+    public void createCompositeIndex(final List<String> keys) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.size() < 2)
+            throw new IllegalArgumentException("A composite index requires at least two keys - use a single key index otherwise");
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+
+        if (this.compositeIndices.containsKey(keys))
+            return;
+        final TinkerCompositeIndex<T> compositeIndex = new TinkerCompositeIndex<>(keys);
+        this.compositeIndices.put(compositeIndex.getKeys(), compositeIndex);
+        this.build(compositeIndex);
+    }
+
+    private void build(final TinkerCompositeIndex<T> compositeIndex) {
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> compositeIndex.update((T) e));
+    }
+
+    public void dropCompositeIndex(final List<String> keys) {
+        final TinkerCompositeIndex<T> compositeIndex = this.compositeIndices.remove(keys);
+        if (null != compositeIndex)
+            compositeIndex.clear();
+    }
+
+    public Set<List<String>> getCompositeIndexKeys() {
+        return Collections.unmodifiableSet(this.compositeIndices.keySet());
     }
 
     /**
@@ -149,10 +470,104 @@ final class TinkerIndex<T extends Element> {
         return null == obj ? IndexedNull.instance() : obj;
     }
 
+    /**
+     * Determines if two values would be held under the same entry of an index.
+     */
+    static boolean isSameValue(final Object first, final Object second) {
+        final Object firstIndexed = indexable(first);
+        final Object secondIndexed = indexable(second);
+        return firstIndexed.equals(secondIndexed) || (IndexedValueComparator.isOrderable(firstIndexed) &&
+                IndexedValueComparator.isOrderable(secondIndexed) &&
+                IndexedValueComparator.sameType(firstIndexed, secondIndexed) &&
+                0 == IndexedValueComparator.INSTANCE.compare(firstIndexed, secondIndexed));
+    }
+
     public Set<String> getIndexedKeys() {
         return this.indexedKeys;
     }
 
+    /**
+     * Selects the maps that hold the given value for the key which is the main index unless the key is ordered and
+     * the value has no natural order.
+     */
+    private Map<String, Map<Object, Set<T>>> keyMaps(final String key, final Object indexedValue) {
+        return this.orderedKeys.contains(key) && !IndexedValueComparator.isOrderable(indexedValue) ?
+                this.unorderableIndex :
+                this.index;
+    }
+
+    private boolean hasUnorderableValues(final String key) {
+        final Map<Object, Set<T>> keyMap = this.unorderableIndex.get(key);
+        return null != keyMap && !keyMap.isEmpty();
+    }
+
+    /**
+     * Builds the portion of the ordered index on {@code key} bounded by the {@code gt/gte/lt/lte} predicates. Returns
+     * {@code null} if there are no such predicates or if a scan would have to compare values of incompatible types,
+     * as a scan would raise an error there which the index would otherwise hide.
+     */
+    private NavigableMap<Object, Set<T>> range(final String key, final List<P<?>> predicates) {
+        if (!this.orderedKeys.contains(key) || this.hasUnorderableValues(key))
+            return null;
+
+        final Comparator<Object> comparator = IndexedValueComparator.INSTANCE;
+        Object lower = null;
+        Object upper = null;
+        boolean lowerInclusive = false;
+        boolean upperInclusive = false;
+        for (final P<?> predicate : predicates) {
+            final BiPredicate<?, ?> biPredicate = predicate.getBiPredicate();
+            final Object value = predicate.getValue();
+            if (biPredicate == Compare.gt || biPredicate == Compare.gte) {
+                if (null == value || !IndexedValueComparator.isOrderable(value)) return null;
+                final int c = null == lower ? 1 : comparator.compare(value, lower);
+                if (c > 0 || (c == 0 && biPredicate == Compare.gt)) {
+                    lower = value;
+                    lowerInclusive = biPredicate == Compare.gte;
+                }
+            } else if (biPredicate == Compare.lt || biPredicate == Compare.lte) {
+                if (null == value || !IndexedValueComparator.isOrderable(value)) return null;
+                final int c = null == upper ? -1 : comparator.compare(value, upper);
+                if (c < 0 || (c == 0 && biPredicate == Compare.lt)) {
+                    upper = value;
+                    upperInclusive = biPredicate == Compare.lte;
+                }
+            }
+        }
+
+        if (null == lower && null == upper)
+            return null;
+        if (null != lower && null != upper && !IndexedValueComparator.sameType(lower, upper))
+            return null;
+
+        final NavigableMap<Object, Set<T>> keyMap = (NavigableMap<Object, Set<T>>) this.index.get(key);
+        if (null == keyMap)
+            return Collections.emptyNavigableMap();
+        if (!isHomogeneous(keyMap, null == lower ? upper : lower))
+            return null;
+
+        // null values never satisfy a range so the lowest possible bound excludes them
+        final Object from = null == lower ? IndexedNull.instance() : lower;
+        final boolean fromInclusive = null != lower && lowerInclusive;
+        if (null == upper)
+            return keyMap.tailMap(from, fromInclusive);
+
+        final int c = comparator.compare(from, upper);
+        if (c > 0 || (c == 0 && !(fromInclusive && upperInclusive)))
+            return Collections.emptyNavigableMap();
+        return keyMap.subMap(from, fromInclusive, upper, upperInclusive);
+    }
+
+    /**
+     * Determines if all of the non-null values in the sorted map are of the same type as the {@code probe}. The map
+     * is sorted by type first so only its lowest and highest non-null values need to be checked.
+     */
+    private static boolean isHomogeneous(final NavigableMap<Object, ?> keyMap, final Object probe) {
+        final Object first = keyMap.higherKey(IndexedNull.instance());
+        return null == first ||
+                (IndexedValueComparator.sameType(first, probe) && IndexedValueComparator.sameType(keyMap.lastKey(), probe));
+    }
+
     public static final class IndexedNull {
         private static final IndexedNull inst = new IndexedNull();
 
@@ -172,4 +587,53 @@ final class TinkerIndex<T extends Element> {
             return o instanceof IndexedNull;
         }
     }
+
+    /**
+     * Sorts the values of an ordered index. Values are grouped by type, with {@link IndexedNull} first, then all
+     * numbers which are compared with {@link NumberHelper} as {@link Compare} does and then any other
+     * {@code Comparable} grouped by class name and sorted naturally within that class.
+     */
+    static final class IndexedValueComparator implements Comparator<Object> {
+
+        static final IndexedValueComparator INSTANCE = new IndexedValueComparator();
+
+        private IndexedValueComparator() {}
+
+        /**
+         * Determines if a value can be held in an ordered index. Enums are excluded because {@code Order} sorts them
+         * by name rather than by their natural order.
+         */
+        static boolean isOrderable(final Object value) {
+            return value instanceof IndexedNull || (value instanceof Comparable && !(value instanceof Enum));
+        }
+
+        static boolean sameType(final Object first, final Object second) {
+            final int rank = rank(first);
+            return rank == rank(second) && (rank < 2 || first.getClass().equals(second.getClass()));
+        }
+
+        private static int rank(final Object value) {
+            if (value instanceof IndexedNull)
+                return 0;
+            else if (value instanceof Number)
+                return 1;
+            else
+                return 2;
+        }
+
+        @Override
+        public int compare(final Object first, final Object second) {
+            final int rank = rank(first);
+            final int c = Integer.compare(rank, rank(second));
+            if (c != 0)
+                return c;
+            else if (0 == rank)
+                return 0;
+            else if (1 == rank)
+                return NumberHelper.compare((Number) first, (Number) second);
+
+            final int classes = first.getClass().getName().compareTo(second.getClass().getName());
+            return 0 != classes ? classes : ((Comparable) first).compareTo(second);
+        }
+    }
 }
@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The elements of a {@link TinkerGraph} keyed by the primitive value of their numeric identifiers, which is used in
+ * place of a {@code ConcurrentHashMap} when the {@link TinkerGraph.IdManager} is
+ * {@link TinkerGraph.DefaultIdManager#LONG} or {@link TinkerGraph.DefaultIdManager#INTEGER}. Neither storing nor
+ * looking up an element with {@link #get(long)} allocates, as the keys are held in a {@code long[]} of an open
+ * addressing table rather than as boxed keys of hash nodes.
+ * <p/>
+ * The map is split into segments whose changes are made under the lock of the segment while reads take no lock.
+ * A value is published after its key so a reader that sees the value also sees its key, and a slot is only ever
+ * reused for the key it was first given, so a reader never pairs a key with the value of another. Removed slots are
+ * dropped when the table of the segment is rebuilt. Like the {@code ConcurrentHashMap} it replaces, iteration is
+ * weakly consistent and {@code null} values are not allowed.
+ * <p/>
+ * Sequential identifiers are dealt out over the segments by their lowest bits and the rest of the identifier is the
+ * slot, so the segments fill evenly while iterating slot by slot across the segments keeps identifiers that fit in
+ * the tables in ascending order, which is the order the {@code ConcurrentHashMap} gave them.
+ */
+final class TinkerLongElementMap<V> extends AbstractMap<Object, V> {
+
+    private static final Object REMOVED = new Object();
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean integerKeys;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Creates a map for about {@code expectedSize} elements whose identifiers are returned by {@link #keySet()} as
+     * {@code Integer} when {@code integerKeys} is {@code true} and as {@code Long} otherwise.
+     */
+    TinkerLongElementMap(final boolean integerKeys, final int expectedSize) {
+        this.integerKeys = integerKeys;
+        final int capacity = capacity(expectedSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Determines if the identifier can be a key of the map, which holds {@code Long} and {@code Integer} identifiers
+     * and the smaller integral types that convert to them without loss.
+     */
+    static boolean isKey(final Object id) {
+        return id instanceof Long || id instanceof Integer || id instanceof Short || id instanceof Byte;
+    }
+
+    public V get(final long key) {
+        final long hash = hash(key);
+        final Table table = this.segments[segment(hash)].table;
+        final int mask = table.keys.length - 1;
+        for (int i = index(hash) & mask; ; i = (i + 1) & mask) {
+            final Object value = table.values.get(i);
+            if (null == value)
+                return null;
+            if (table.keys[i] == key)
+                return REMOVED == value ? null : (V) value;
+        }
+    }
+
+    @Override
+    public V get(final Object key) {
+        return isKey(key) ? this.get(((Number) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != this.get(key);
+    }
+
+    @Override
+    public V put(final Object key, final V value) {
+        return this.put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(final Object key, final V value) {
+        return this.put(key, value, true);
+    }
+
+    private V put(final Object key, final V value, final boolean onlyIfAbsent) {
+        if (!isKey(key))
+            throw new IllegalArgumentException(String.format("Expected a Long or Integer identifier but received %s", key));
+        if (null == value)
+            throw new NullPointerException();
+        final long k = ((Number) key).longValue();
+        final long hash = hash(k);
+        final Segment segment = this.segments[segment(hash)];
+        synchronized (segment) {
+            while (true) {
+                final Table table = segment.table;
+                final int mask = table.keys.length - 1;
+                int i = index(hash) & mask;
+                Object current;
+                while (null != (current = table.values.get(i)) && table.keys[i] != k) {
+                    i = (i + 1) & mask;
+                }
+                if (null == current) {
+                    if ((segment.used + 1) * 4L > table.keys.length * 3L) {
+                        segment.rebuild(capacity(segment.size + 1));
+                        continue;
+                    }
+                    table.keys[i] = k;
+                    table.values.set(i, value);
+                    segment.used++;
+                    segment.size++;
+                    return null;
+                } else if (REMOVED == current) {
+                    table.values.set(i, value);
+                    segment.size++;
+                    return null;
+                } else {
+                    if (!onlyIfAbsent) table.values.set(i, value);
+                    return (V) current;
+                }
+            }
+        }
+    }
+
+    @Override
+    public V remove(final Object key) {
+        if (!isKey(key))
+            return null;
+        final long k = ((Number) key).longValue();
+        final long hash = hash(k);
+        final Segment segment = this.segments[segment(hash)];
+        synchronized (segment) {
+            final Table table = segment.table;
+            final int mask = table.keys.length - 1;
+            for (int i = index(hash) & mask; ; i = (i + 1) & mask) {
+                final Object current = table.values.get(i);
+                if (null == current)
+                    return null;
+                if (table.keys[i] == k) {
+                    if (REMOVED == current)
+                        return null;
+                    table.values.set(i, REMOVED);
+                    segment.size--;
+                    return (V) current;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (final Segment segment : this.segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (final Segment segment : this.segments) {
+            if (segment.size > 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.table = new Table(MIN_CAPACITY);
+                segment.size = 0;
+                segment.used = 0;
+            }
+        }
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    @Override
+                    V element(final long key, final Object value) {
+                        return (V) value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongElementMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Object, V>> entrySet() {
+        return new AbstractSet<Entry<Object, V>>() {
+            @Override
+            public Iterator<Entry<Object, V>> iterator() {
+                return new SlotIterator<Entry<Object, V>>() {
+                    @Override
+                    Entry<Object, V> element(final long key, final Object value) {
+                        return new SimpleImmutableEntry<>(integerKeys ? (Object) (int) key : (Object) key, (V) value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerLongElementMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Folds the high bits of the identifier into its low bits as {@code Long.hashCode()} and the spreading of the
+     * {@code ConcurrentHashMap} do, which leaves identifiers below 65536 as they are.
+     */
+    private static long hash(final long key) {
+        final long hash = key ^ (key >>> 32);
+        return hash ^ ((hash & 0xffffffffL) >>> 16);
+    }
+
+    private static int segment(final long hash) {
+        return (int) hash & (SEGMENTS - 1);
+    }
+
+    private static int index(final long hash) {
+        return (int) (hash >>> SEGMENT_BITS);
+    }
+
+    private static int capacity(final int size) {
+        final long slots = Math.max(MIN_CAPACITY, (size * 4L + 2) / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(slots - 1) << 1);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+
+        private Table(final int capacity) {
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private static final class Segment {
+        private volatile Table table;
+        private volatile int size = 0;
+        /**
+         * The number of slots that hold a key, including those whose value was removed, guarded by the segment.
+         */
+        private int used = 0;
+
+        private Segment(final int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        /**
+         * Copies the keys that still have a value into a new table, which is published once it is complete.
+         */
+        private void rebuild(final int capacity) {
+            final Table old = this.table;
+            final Table table = new Table(capacity);
+            final int mask = capacity - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                final Object value = old.values.get(i);
+                if (null != value && REMOVED != value) {
+                    int j = index(hash(old.keys[i])) & mask;
+                    while (null != table.values.get(j)) {
+                        j = (j + 1) & mask;
+                    }
+                    table.keys[j] = old.keys[i];
+                    table.values.lazySet(j, value);
+                }
+            }
+            this.used = this.size;
+            this.table = table;
+        }
+    }
+
+    /**
+     * Visits the slots in order, each slot across all of the segments, over the tables the segments had when the
+     * iterator was created so that an element moved by a rebuild is not returned twice.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private final Table[] tables = new Table[SEGMENTS];
+        private final int slots;
+        private int segment = SEGMENTS;
+        private int slot = -1;
+        private T next = null;
+
+        private SlotIterator() {
+            int slots = 0;
+            for (int i = 0; i < SEGMENTS; i++) {
+                this.tables[i] = segments[i].table;
+                slots = Math.max(slots, this.tables[i].keys.length);
+            }
+            this.slots = slots;
+            this.advance();
+        }
+
+        abstract T element(final long key, final Object value);
+
+        private void advance() {
+            this.next = null;
+            while (true) {
+                if (this.segment == SEGMENTS) {
+                    if (++this.slot == this.slots) return;
+                    this.segment = 0;
+                }
+                final Table table = this.tables[this.segment++];
+                if (this.slot < table.keys.length) {
+                    final Object value = table.values.get(this.slot);
+                    if (null != value && REMOVED != value) {
+                        this.next = this.element(table.keys[this.slot], value);
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != this.next;
+        }
+
+        @Override
+        public T next() {
+            if (null == this.next)
+                throw new NoSuchElementException();
+            final T current = this.next;
+            this.advance();
+            return current;
+        }
+    }
+}
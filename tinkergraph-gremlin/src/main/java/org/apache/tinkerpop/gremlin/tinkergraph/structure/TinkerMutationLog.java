@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} that persists to a {@link TinkerSnapshot}, which
+ * is enabled with {@link TinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG}. Each mutation is appended as a record that
+ * holds a sequence number and a checksum. Records are buffered and written with a single sync every
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG_FLUSH_INTERVAL} milliseconds, so that concurrent and rapid
+ * mutations share the cost of the sync, or synchronously if that interval is zero.
+ * <p/>
+ * Compaction writes a snapshot that holds the sequence of the last record it reflects and then truncates the log.
+ * When the graph is opened the records that follow the sequence of the snapshot are replayed, which makes a crash
+ * between the snapshot and the truncation harmless. A partially written record at the end of the log is discarded.
+ * <p/>
+ * Each record is logged once the mutation it describes is applied to the graph, so that a compaction triggered by
+ * any record writes a snapshot that is consistent with its sequence.
+ */
+final class TinkerMutationLog implements AutoCloseable {
+
+    /**
+     * The extension appended to the location of the snapshot to name the log that follows it.
+     */
+    static final String EXTENSION = ".log";
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte ADD_EDGE = 2;
+    private static final byte ADD_VERTEX_PROPERTY = 3;
+    private static final byte SET_META_PROPERTY = 4;
+    private static final byte SET_EDGE_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX = 6;
+    private static final byte REMOVE_EDGE = 7;
+    private static final byte REMOVE_VERTEX_PROPERTY = 8;
+    private static final byte REMOVE_META_PROPERTY = 9;
+    private static final byte REMOVE_EDGE_PROPERTY = 10;
+    private static final byte SET_VARIABLE = 11;
+    private static final byte REMOVE_VARIABLE = 12;
+    private static final byte CLEAR = 13;
+
+    private static final int GROUP_BYTES = 1 << 20;
+
+    private final TinkerGraph graph;
+    private final Path snapshotPath;
+    private final FileChannel channel;
+    private final long compactionBytes;
+    private final ScheduledExecutorService flusher;
+
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final TinkerSnapshot.Writer writer = new TinkerSnapshot.Writer(new DataOutputStream(record));
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOutput = new DataOutputStream(pending);
+    private final CRC32 crc = new CRC32();
+
+    private long sequence;
+    private IOException failure = null;
+
+    private TinkerMutationLog(final TinkerGraph graph, final Path snapshotPath, final FileChannel channel,
+                              final long sequence, final long flushInterval, final long compactionBytes) {
+        this.graph = graph;
+        this.snapshotPath = snapshotPath;
+        this.channel = channel;
+        this.sequence = sequence;
+        this.compactionBytes = compactionBytes;
+        if (flushInterval > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "tinkergraph-mutation-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Replays the records of the log at the path that follow the sequence of the snapshot the graph was loaded from
+     * and opens the log to have further mutations appended to it.
+     */
+    static TinkerMutationLog open(final TinkerGraph graph, final Path snapshotPath, final Path logPath,
+                                  final long snapshotSequence, final long flushInterval,
+                                  final long compactionBytes) throws IOException {
+        final FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long sequence = snapshotSequence;
+            long validBytes = 0;
+            channel.position(0);
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            final CRC32 crc = new CRC32();
+            while (true) {
+                final byte[] payload;
+                try {
+                    final int length = input.readInt();
+                    final int checksum = input.readInt();
+                    if (length < 0 || length > channel.size() - validBytes) break;
+                    payload = new byte[length];
+                    input.readFully(payload);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) break;
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                final TinkerSnapshot.Reader reader = new TinkerSnapshot.Reader(ByteBuffer.wrap(payload));
+                final long recordSequence = reader.readLong();
+                if (recordSequence > sequence) {
+                    replay(graph, reader);
+                    sequence = recordSequence;
+                }
+                validBytes = validBytes + Integer.BYTES * 2 + payload.length;
+            }
+
+            // discard whatever follows the last complete record which can only be a write cut short by a crash
+            channel.truncate(validBytes);
+            channel.position(validBytes);
+            return new TinkerMutationLog(graph, snapshotPath, channel, sequence, flushInterval, compactionBytes);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static void replay(final TinkerGraph graph, final TinkerSnapshot.Reader reader) throws IOException {
+        try {
+            final byte type = reader.readByte();
+            switch (type) {
+                case ADD_VERTEX:
+                    graph.addVertex(T.id, reader.readValue(), T.label, reader.readValue());
+                    break;
+                case ADD_EDGE: {
+                    final Object id = reader.readValue();
+                    final String label = (String) reader.readValue();
+                    final Vertex outVertex = graph.vertices.get(reader.readValue());
+                    final Vertex inVertex = graph.vertices.get(reader.readValue());
+                    final Object[] keyValues = new Object[2 + reader.readInt() * 2];
+                    keyValues[0] = T.id;
+                    keyValues[1] = id;
+                    for (int i = 2; i < keyValues.length; i++) {
+                        keyValues[i] = reader.readValue();
+                    }
+                    outVertex.addEdge(label, inVertex, keyValues);
+                    break;
+                }
+                case ADD_VERTEX_PROPERTY: {
+                    final Vertex vertex = graph.vertices.get(reader.readValue());
+                    final Object id = reader.readValue();
+                    vertex.property(VertexProperty.Cardinality.list, (String) reader.readValue(), reader.readValue(), T.id, id);
+                    break;
+                }
+                case SET_META_PROPERTY:
+                    findVertexProperty(graph, reader).property((String) reader.readValue(), reader.readValue());
+                    break;
+                case SET_EDGE_PROPERTY:
+                    graph.edges.get(reader.readValue()).property((String) reader.readValue(), reader.readValue());
+                    break;
+                case REMOVE_VERTEX:
+                    graph.vertices.get(reader.readValue()).remove();
+                    break;
+                case REMOVE_EDGE:
+                    graph.edges.get(reader.readValue()).remove();
+                    break;
+                case REMOVE_VERTEX_PROPERTY:
+                    findVertexProperty(graph, reader).remove();
+                    break;
+                case REMOVE_META_PROPERTY:
+                    findVertexProperty(graph, reader).property((String) reader.readValue()).remove();
+                    break;
+                case REMOVE_EDGE_PROPERTY:
+                    graph.edges.get(reader.readValue()).property((String) reader.readValue()).remove();
+                    break;
+                case SET_VARIABLE:
+                    graph.variables().set((String) reader.readValue(), reader.readValue());
+                    break;
+                case REMOVE_VARIABLE:
+                    graph.variables().remove((String) reader.readValue());
+                    break;
+                case CLEAR:
+                    graph.clear();
+                    break;
+                default:
+                    throw new IOException(String.format("Unknown record type %s in TinkerGraph mutation log", type));
+            }
+        } catch (BufferUnderflowException | NullPointerException | ClassCastException ex) {
+            throw new IOException("The TinkerGraph mutation log does not match the snapshot it follows", ex);
+        }
+    }
+
+    private static VertexProperty<?> findVertexProperty(final TinkerGraph graph, final TinkerSnapshot.Reader reader) throws IOException {
+        final Vertex vertex = graph.vertices.get(reader.readValue());
+        final String key = (String) reader.readValue();
+        final Object id = reader.readValue();
+        return IteratorUtils.filter(vertex.properties(key), p -> p.id().equals(id)).next();
+    }
+
+    /**
+     * Gets the sequence of the last record appended or replayed.
+     */
+    synchronized long sequence() {
+        return this.sequence;
+    }
+
+    void addVertex(final Vertex vertex) {
+        this.append(ADD_VERTEX, vertex.id(), vertex.label());
+    }
+
+    void addEdge(final Edge edge) {
+        final List<Object> values = new ArrayList<>();
+        values.add(edge.id());
+        values.add(edge.label());
+        values.add(edge.outVertex().id());
+        values.add(edge.inVertex().id());
+        final List<Property<?>> properties = new ArrayList<>();
+        edge.properties().forEachRemaining(properties::add);
+        this.append(ADD_EDGE, values, properties);
+    }
+
+    void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.append(ADD_VERTEX_PROPERTY, vertexProperty.element().id(), vertexProperty.id(), vertexProperty.key(), vertexProperty.value());
+    }
+
+    void setProperty(final Property<?> property) {
+        final Element element = property.element();
+        if (element instanceof Edge)
+            this.append(SET_EDGE_PROPERTY, element.id(), property.key(), property.value());
+        else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) element;
+            this.append(SET_META_PROPERTY, vertexProperty.element().id(), vertexProperty.key(), vertexProperty.id(),
+                    property.key(), property.value());
+        }
+    }
+
+    void removeVertex(final Vertex vertex) {
+        this.append(REMOVE_VERTEX, vertex.id());
+    }
+
+    void removeEdge(final Edge edge) {
+        this.append(REMOVE_EDGE, edge.id());
+    }
+
+    void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.append(REMOVE_VERTEX_PROPERTY, vertexProperty.element().id(), vertexProperty.key(), vertexProperty.id());
+    }
+
+    void removeProperty(final Property<?> property) {
+        final Element element = property.element();
+        if (element instanceof Edge)
+            this.append(REMOVE_EDGE_PROPERTY, element.id(), property.key());
+        else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) element;
+            this.append(REMOVE_META_PROPERTY, vertexProperty.element().id(), vertexProperty.key(), vertexProperty.id(),
+                    property.key());
+        }
+    }
+
+    void setVariable(final String key, final Object value) {
+        this.append(SET_VARIABLE, key, value);
+    }
+
+    void removeVariable(final String key) {
+        this.append(REMOVE_VARIABLE, key);
+    }
+
+    void clear() {
+        this.append(CLEAR);
+    }
+
+    private void append(final byte type, final Object... values) {
+        this.append(type, Arrays.asList(values), null);
+    }
+
+    /**
+     * Appends a record of the values followed by the count and the keys and values of the properties if present.
+     */
+    private synchronized void append(final byte type, final List<Object> values, final List<Property<?>> properties) {
+        if (null != this.failure)
+            throw new IllegalStateException("The TinkerGraph mutation log could not be written", this.failure);
+
+        try {
+            this.record.reset();
+            this.writer.output.writeLong(++this.sequence);
+            this.writer.output.writeByte(type);
+            for (final Object value : values) {
+                this.writer.writeValue(value);
+            }
+            if (null != properties) {
+                this.writer.output.writeInt(properties.size());
+                for (final Property<?> property : properties) {
+                    this.writer.writeValue(property.key());
+                    this.writer.writeValue(property.value());
+                }
+            }
+            this.writer.output.flush();
+
+            this.crc.reset();
+            this.crc.update(this.record.toByteArray(), 0, this.record.size());
+            this.pendingOutput.writeInt(this.record.size());
+            this.pendingOutput.writeInt((int) this.crc.getValue());
+            this.record.writeTo(this.pendingOutput);
+
+            if (null == this.flusher || this.pending.size() >= GROUP_BYTES)
+                this.flush();
+            if (this.compactionBytes > 0 && this.channel.size() >= this.compactionBytes)
+                this.compact();
+        } catch (IOException ex) {
+            this.failure = ex;
+            throw new IllegalStateException("The TinkerGraph mutation log could not be written", ex);
+        }
+    }
+
+    /**
+     * Writes the buffered records to the log and syncs it.
+     */
+    synchronized void flush() throws IOException {
+        if (this.pending.size() == 0) return;
+        final ByteBuffer buffer = ByteBuffer.wrap(this.pending.toByteArray());
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.channel.force(false);
+        this.pending.reset();
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (IOException ex) {
+            synchronized (this) {
+                this.failure = ex;
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the graph that reflects every record appended so far and then truncates the log.
+     */
+    synchronized void compact() throws IOException {
+        this.flush();
+        TinkerSnapshot.write(this.graph, this.snapshotPath, this.sequence);
+        this.channel.truncate(0);
+        this.channel.position(0);
+        this.channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (null != this.flusher) this.flusher.shutdown();
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
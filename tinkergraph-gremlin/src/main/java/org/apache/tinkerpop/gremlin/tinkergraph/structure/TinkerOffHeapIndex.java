@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A hash table from primitive identifiers to the records of a {@link TinkerOffHeapRecords} table, which is held in a
+ * direct buffer outside of the heap. It uses linear probing and shifts entries back on removal rather than leaving
+ * tombstones, so lookups never probe past the first empty slot. It is only changed under the lock of the
+ * {@link TinkerOffHeapStorage} that holds it.
+ */
+final class TinkerOffHeapIndex {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int KEY = 0;
+    private static final int VALUE = 8;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private volatile ByteBuffer slots = ByteBuffer.allocateDirect(INITIAL_CAPACITY * SLOT_SIZE);
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size = 0;
+
+    /**
+     * Gets the record for the key or {@link TinkerOffHeapRecords#NONE} if there is none.
+     */
+    int get(final long key) {
+        final ByteBuffer slots = this.slots;
+        final int mask = slots.capacity() / SLOT_SIZE - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            // values are held plus one so that a zeroed slot is empty
+            final int value = slots.getInt(slot * SLOT_SIZE + VALUE);
+            if (0 == value) return TinkerOffHeapRecords.NONE;
+            if (slots.getLong(slot * SLOT_SIZE + KEY) == key) return value - 1;
+        }
+    }
+
+    /**
+     * Puts the record for a key that is not yet held.
+     */
+    void put(final long key, final int record) {
+        if ((this.size + 1) * 2 > this.mask + 1) this.resize();
+        insert(this.slots, this.mask, key, record + 1);
+        this.size++;
+    }
+
+    /**
+     * Removes the key if it is held.
+     */
+    void remove(final long key) {
+        final ByteBuffer slots = this.slots;
+        int slot = hash(key) & this.mask;
+        while (true) {
+            if (0 == slots.getInt(slot * SLOT_SIZE + VALUE)) return;
+            if (slots.getLong(slot * SLOT_SIZE + KEY) == key) break;
+            slot = (slot + 1) & this.mask;
+        }
+
+        // the entries that follow in the same run are shifted back into the emptied slot when it lies between the
+        // slot they hash to and the slot they are in
+        int empty = slot;
+        for (int next = (empty + 1) & this.mask; 0 != slots.getInt(next * SLOT_SIZE + VALUE); next = (next + 1) & this.mask) {
+            final int home = hash(slots.getLong(next * SLOT_SIZE + KEY)) & this.mask;
+            if (((next - home) & this.mask) >= ((next - empty) & this.mask)) {
+                slots.putLong(empty * SLOT_SIZE + KEY, slots.getLong(next * SLOT_SIZE + KEY));
+                slots.putInt(empty * SLOT_SIZE + VALUE, slots.getInt(next * SLOT_SIZE + VALUE));
+                empty = next;
+            }
+        }
+        slots.putLong(empty * SLOT_SIZE + KEY, 0L);
+        slots.putInt(empty * SLOT_SIZE + VALUE, 0);
+        this.size--;
+    }
+
+    void clear() {
+        this.slots = ByteBuffer.allocateDirect(INITIAL_CAPACITY * SLOT_SIZE);
+        this.mask = INITIAL_CAPACITY - 1;
+        this.size = 0;
+    }
+
+    private void resize() {
+        final ByteBuffer slots = this.slots;
+        final int capacity = (this.mask + 1) * 2;
+        final ByteBuffer resized = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        for (int slot = 0; slot <= this.mask; slot++) {
+            final int value = slots.getInt(slot * SLOT_SIZE + VALUE);
+            if (0 != value) insert(resized, capacity - 1, slots.getLong(slot * SLOT_SIZE + KEY), value);
+        }
+        this.mask = capacity - 1;
+        this.slots = resized;
+    }
+
+    private static void insert(final ByteBuffer slots, final int mask, final long key, final int value) {
+        int slot = hash(key) & mask;
+        while (0 != slots.getInt(slot * SLOT_SIZE + VALUE)) {
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * SLOT_SIZE + KEY, key);
+        slots.putInt(slot * SLOT_SIZE + VALUE, value);
+    }
+
+    private static int hash(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
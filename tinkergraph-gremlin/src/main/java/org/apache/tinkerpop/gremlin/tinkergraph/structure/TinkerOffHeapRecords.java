@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A table of fixed-size records held in direct buffers outside of the heap, which are allocated in chunks as the
+ * table grows. Each record begins with its generation, which is positive while the record is in use and is advanced
+ * every time the record is reused, so that a reference to a record that was since released, or released and reused,
+ * can be told apart from a reference to the record that holds it now. Records are only allocated and released under
+ * the lock of the {@link TinkerOffHeapStorage} that holds the table.
+ */
+final class TinkerOffHeapRecords {
+
+    static final int NONE = -1;
+
+    private static final int GENERATION = 0;
+    private static final int NEXT_FREE = 4;
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    private final int recordSize;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile int limit = 0;
+    private volatile int size = 0;
+    private int firstFree = NONE;
+
+    // the generations of records allocated after the table is cleared start after those of the records before it,
+    // so that references from before are not mistaken for references to the records that replace them
+    private int firstGeneration = 1;
+    private int lastGeneration = 0;
+
+    /**
+     * Creates a table of records of the given size in bytes, which must be a multiple of eight that holds the
+     * generation and the link to the next free record in its first eight bytes.
+     */
+    TinkerOffHeapRecords(final int recordSize) {
+        this.recordSize = recordSize;
+    }
+
+    /**
+     * Allocates a record, which is zeroed apart from its generation.
+     */
+    int allocate() {
+        final int record;
+        int generation;
+        if (NONE != this.firstFree) {
+            record = this.firstFree;
+            this.firstFree = this.getInt(record, NEXT_FREE);
+            generation = 1 - this.getInt(record, GENERATION);
+            if (generation <= 0) generation = 1;
+            final ByteBuffer chunk = this.chunk(record);
+            final int offset = this.offset(record);
+            for (int i = 0; i < this.recordSize; i += 8) {
+                chunk.putLong(offset + i, 0L);
+            }
+        } else {
+            record = this.limit;
+            if (record >>> CHUNK_BITS >= this.chunks.length) {
+                final ByteBuffer[] chunks = Arrays.copyOf(this.chunks, this.chunks.length + 1);
+                chunks[chunks.length - 1] = ByteBuffer.allocateDirect(this.recordSize << CHUNK_BITS);
+                this.chunks = chunks;
+            }
+            generation = this.firstGeneration;
+            this.limit = record + 1;
+        }
+        if (generation > this.lastGeneration) this.lastGeneration = generation;
+        this.putInt(record, GENERATION, generation);
+        this.size++;
+        return record;
+    }
+
+    /**
+     * Releases a record in use so that it can be allocated again.
+     */
+    void release(final int record) {
+        this.putInt(record, GENERATION, -this.getInt(record, GENERATION));
+        this.putInt(record, NEXT_FREE, this.firstFree);
+        this.firstFree = record;
+        this.size--;
+    }
+
+    /**
+     * Determines if the record is in use.
+     */
+    boolean isLive(final int record) {
+        return record >= 0 && record < this.limit && this.getInt(record, GENERATION) > 0;
+    }
+
+    /**
+     * Gets a reference to the record in use, which combines it with its current generation.
+     */
+    long reference(final int record) {
+        return ((long) this.getInt(record, GENERATION) << 32) | record;
+    }
+
+    /**
+     * Gets the record of the reference or {@link #NONE} if the record it refers to was released since.
+     */
+    int record(final long reference) {
+        final int record = (int) reference;
+        return this.isLive(record) && this.getInt(record, GENERATION) == (int) (reference >>> 32) ? record : NONE;
+    }
+
+    /**
+     * Gets the number of records that were ever allocated, which bounds the records that may be in use.
+     */
+    int limit() {
+        return this.limit;
+    }
+
+    /**
+     * Gets the number of records in use.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Releases all of the records along with the buffers that hold them.
+     */
+    void clear() {
+        this.chunks = new ByteBuffer[0];
+        this.limit = 0;
+        this.size = 0;
+        this.firstFree = NONE;
+        this.firstGeneration = this.lastGeneration + 1;
+    }
+
+    int getInt(final int record, final int field) {
+        return this.chunk(record).getInt(this.offset(record) + field);
+    }
+
+    void putInt(final int record, final int field, final int value) {
+        this.chunk(record).putInt(this.offset(record) + field, value);
+    }
+
+    long getLong(final int record, final int field) {
+        return this.chunk(record).getLong(this.offset(record) + field);
+    }
+
+    void putLong(final int record, final int field, final long value) {
+        this.chunk(record).putLong(this.offset(record) + field, value);
+    }
+
+    private ByteBuffer chunk(final int record) {
+        return this.chunks[record >>> CHUNK_BITS];
+    }
+
+    private int offset(final int record) {
+        return (record & CHUNK_MASK) * this.recordSize;
+    }
+}
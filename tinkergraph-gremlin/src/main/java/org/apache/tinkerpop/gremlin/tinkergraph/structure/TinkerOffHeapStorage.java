@@ -0,0 +1,1033 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import static org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerOffHeapRecords.NONE;
+
+/**
+ * The elements of a {@link TinkerGraph} configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE},
+ * which are held in {@link TinkerOffHeapRecords} tables outside of the heap so that the garbage collector does not
+ * have to trace them. Vertices, edges and properties are each a fixed-size record:
+ * <ul>
+ *     <li>a vertex links to the first and last of its out-edges and of its in-edges, which form a list in each
+ *     direction in the order they were added, and keeps the number of edges in each direction</li>
+ *     <li>an edge links to its vertices and to the edges before and after it in the lists of both</li>
+ *     <li>a vertex, edge or vertex property links to the first and last of its properties, which form a list in the
+ *     order they were added</li>
+ *     <li>vertices and edges with the same label form a list that answers lookups by label</li>
+ * </ul>
+ * Identifiers and property values that are {@code null}, primitive wrappers or {@code Character} are held in their
+ * records. Other identifiers and values, such as strings, are held on the heap and referred to by their records, as
+ * are the labels and keys, which are each held once. {@code Long} and {@code Integer} identifiers are looked up in
+ * {@link TinkerOffHeapIndex} tables and other identifiers in a map on the heap.
+ * <p/>
+ * The {@link TinkerVertex}, {@link TinkerEdge} and {@link TinkerVertexProperty} instances of the graph are flyweights
+ * that are created as elements are read and refer to their record, through which they determine if the element was
+ * removed. Changes are made under the lock of the storage while reads are not synchronized, as the graph does not
+ * support concurrent access.
+ */
+final class TinkerOffHeapStorage {
+
+    // the fields that records of vertices, edges and properties have in common, where the label holds the key of
+    // a property and the properties of a property are its meta-properties
+    private static final int LABEL = 4;
+    private static final int ID = 8;
+    private static final int ID_TYPE = 16;
+    private static final int FIRST_PROPERTY = 20;
+    private static final int LAST_PROPERTY = 24;
+
+    private static final int FIRST_OUT = 28;
+    private static final int LAST_OUT = 32;
+    private static final int FIRST_IN = 36;
+    private static final int LAST_IN = 40;
+    private static final int OUT_DEGREE = 44;
+    private static final int IN_DEGREE = 48;
+    private static final int VERTEX_SIZE = 64;
+
+    private static final int OUT_VERTEX = 28;
+    private static final int IN_VERTEX = 32;
+    private static final int NEXT_OUT = 36;
+    private static final int PREVIOUS_OUT = 40;
+    private static final int NEXT_IN = 44;
+    private static final int PREVIOUS_IN = 48;
+    private static final int EDGE_SIZE = 64;
+
+    // vertices and edges share the fields of the list of elements with their label
+    private static final int NEXT_WITH_LABEL = 52;
+    private static final int PREVIOUS_WITH_LABEL = 56;
+
+    private static final int NEXT = 28;
+    private static final int PREVIOUS = 32;
+    private static final int VALUE_TYPE = 36;
+    private static final int VALUE = 40;
+    private static final int PROPERTY_SIZE = 48;
+
+    private static final int NULL = 0;
+    private static final int BOOLEAN = 1;
+    private static final int BYTE = 2;
+    private static final int SHORT = 3;
+    private static final int INTEGER = 4;
+    private static final int LONG = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+    private static final int CHARACTER = 8;
+    private static final int OBJECT = 9;
+
+    private final TinkerGraph graph;
+    private final Table vertices = new Table(VERTEX_SIZE);
+    private final Table edges = new Table(EDGE_SIZE);
+    private final TinkerOffHeapRecords properties = new TinkerOffHeapRecords(PROPERTY_SIZE);
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[16];
+    private volatile Object[] objects = new Object[16];
+    private int objectLimit = 0;
+    private int[] freeObjects = new int[16];
+    private int freeObjectCount = 0;
+
+    TinkerOffHeapStorage(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Gets the storage that holds the element or {@code null} if it is held on the heap, which includes the vertex
+     * properties of a {@code TinkerGraphComputerView} in a graph that is held off the heap.
+     */
+    static TinkerOffHeapStorage of(final TinkerElement element) {
+        return element.reference < 0 ? null : ((TinkerGraph) element.graph()).offHeapStorage;
+    }
+
+    /**
+     * Gets a view of the vertices by their identifiers, which is held by the graph in place of its map of vertices.
+     */
+    Map<Object, Vertex> vertices() {
+        return new ElementMap<>(this.vertices, this::vertex);
+    }
+
+    /**
+     * Gets a view of the edges by their identifiers, which is held by the graph in place of its map of edges.
+     */
+    Map<Object, Edge> edges() {
+        return new ElementMap<>(this.edges, this::edge);
+    }
+
+    /**
+     * Gets a live view of the vertices with the label.
+     */
+    Set<Vertex> verticesByLabel(final String label) {
+        return new LabelSet<>(this.vertices, label, Vertex.class, this::vertex);
+    }
+
+    /**
+     * Gets a live view of the edges with the label.
+     */
+    Set<Edge> edgesByLabel(final String label) {
+        return new LabelSet<>(this.edges, label, Edge.class, this::edge);
+    }
+
+    /**
+     * Determines if the element is still held by the storage.
+     */
+    boolean isLive(final TinkerElement element) {
+        return NONE != this.records(element).record(element.reference);
+    }
+
+    /**
+     * Adds a vertex or returns {@code null} if there is already a vertex with the identifier.
+     */
+    synchronized TinkerVertex addVertex(final Object id, final String label) {
+        final int record = this.vertices.add(id, this.code(label));
+        if (NONE == record) return null;
+        final TinkerOffHeapRecords records = this.vertices.records;
+        records.putInt(record, FIRST_OUT, NONE);
+        records.putInt(record, LAST_OUT, NONE);
+        records.putInt(record, FIRST_IN, NONE);
+        records.putInt(record, LAST_IN, NONE);
+        return new TinkerVertex(id, label, this.graph, records.reference(record));
+    }
+
+    /**
+     * Adds an edge at the end of the out-edges of its out-vertex and the in-edges of its in-vertex or returns
+     * {@code null} if there is already an edge with the identifier.
+     */
+    synchronized TinkerEdge addEdge(final Object id, final TinkerVertex outVertex, final String label, final TinkerVertex inVertex) {
+        final TinkerOffHeapRecords vertexRecords = this.vertices.records;
+        final int out = vertexRecords.record(outVertex.reference);
+        if (NONE == out) throw TinkerElement.elementAlreadyRemoved(Vertex.class, outVertex.id);
+        final int in = vertexRecords.record(inVertex.reference);
+        if (NONE == in) throw TinkerElement.elementAlreadyRemoved(Vertex.class, inVertex.id);
+
+        final int record = this.edges.add(id, this.code(label));
+        if (NONE == record) return null;
+        final TinkerOffHeapRecords records = this.edges.records;
+        records.putInt(record, OUT_VERTEX, out);
+        records.putInt(record, IN_VERTEX, in);
+
+        final int lastOut = vertexRecords.getInt(out, LAST_OUT);
+        records.putInt(record, PREVIOUS_OUT, lastOut);
+        records.putInt(record, NEXT_OUT, NONE);
+        if (NONE == lastOut)
+            vertexRecords.putInt(out, FIRST_OUT, record);
+        else
+            records.putInt(lastOut, NEXT_OUT, record);
+        vertexRecords.putInt(out, LAST_OUT, record);
+        vertexRecords.putInt(out, OUT_DEGREE, vertexRecords.getInt(out, OUT_DEGREE) + 1);
+
+        final int lastIn = vertexRecords.getInt(in, LAST_IN);
+        records.putInt(record, PREVIOUS_IN, lastIn);
+        records.putInt(record, NEXT_IN, NONE);
+        if (NONE == lastIn)
+            vertexRecords.putInt(in, FIRST_IN, record);
+        else
+            records.putInt(lastIn, NEXT_IN, record);
+        vertexRecords.putInt(in, LAST_IN, record);
+        vertexRecords.putInt(in, IN_DEGREE, vertexRecords.getInt(in, IN_DEGREE) + 1);
+
+        return new TinkerEdge(id, outVertex, label, inVertex, records.reference(record));
+    }
+
+    /**
+     * Removes the vertex along with its properties and any edges it still has.
+     */
+    synchronized void removeVertex(final TinkerVertex vertex) {
+        final TinkerOffHeapRecords records = this.vertices.records;
+        final int record = records.record(vertex.reference);
+        if (NONE == record) return;
+        while (NONE != records.getInt(record, FIRST_OUT)) {
+            this.removeEdge(records.getInt(record, FIRST_OUT));
+        }
+        while (NONE != records.getInt(record, FIRST_IN)) {
+            this.removeEdge(records.getInt(record, FIRST_IN));
+        }
+        this.releaseProperties(records, record);
+        this.vertices.remove(record);
+    }
+
+    /**
+     * Removes the edge from its vertices along with its properties.
+     */
+    synchronized void removeEdge(final TinkerEdge edge) {
+        final int record = this.edges.records.record(edge.reference);
+        if (NONE != record) this.removeEdge(record);
+    }
+
+    private void removeEdge(final int record) {
+        final TinkerOffHeapRecords vertexRecords = this.vertices.records;
+        final TinkerOffHeapRecords records = this.edges.records;
+
+        final int out = records.getInt(record, OUT_VERTEX);
+        final int previousOut = records.getInt(record, PREVIOUS_OUT);
+        final int nextOut = records.getInt(record, NEXT_OUT);
+        if (NONE == previousOut)
+            vertexRecords.putInt(out, FIRST_OUT, nextOut);
+        else
+            records.putInt(previousOut, NEXT_OUT, nextOut);
+        if (NONE == nextOut)
+            vertexRecords.putInt(out, LAST_OUT, previousOut);
+        else
+            records.putInt(nextOut, PREVIOUS_OUT, previousOut);
+        vertexRecords.putInt(out, OUT_DEGREE, vertexRecords.getInt(out, OUT_DEGREE) - 1);
+
+        final int in = records.getInt(record, IN_VERTEX);
+        final int previousIn = records.getInt(record, PREVIOUS_IN);
+        final int nextIn = records.getInt(record, NEXT_IN);
+        if (NONE == previousIn)
+            vertexRecords.putInt(in, FIRST_IN, nextIn);
+        else
+            records.putInt(previousIn, NEXT_IN, nextIn);
+        if (NONE == nextIn)
+            vertexRecords.putInt(in, LAST_IN, previousIn);
+        else
+            records.putInt(nextIn, PREVIOUS_IN, previousIn);
+        vertexRecords.putInt(in, IN_DEGREE, vertexRecords.getInt(in, IN_DEGREE) - 1);
+
+        this.releaseProperties(records, record);
+        this.edges.remove(record);
+    }
+
+    /**
+     * Adds a vertex property at the end of the properties of the vertex.
+     */
+    synchronized <V> TinkerVertexProperty<V> addVertexProperty(final TinkerVertex vertex, final Object id, final String key, final V value) {
+        final TinkerOffHeapRecords records = this.vertices.records;
+        final int owner = records.record(vertex.reference);
+        if (NONE == owner) throw TinkerElement.elementAlreadyRemoved(Vertex.class, vertex.id);
+        final int record = this.addProperty(records, owner, this.code(key), value);
+        this.write(this.properties, record, ID_TYPE, ID, id);
+        return new TinkerVertexProperty<>(id, vertex, key, value, this.properties.reference(record));
+    }
+
+    /**
+     * Removes the vertex property along with its meta-properties and returns {@code false} if it was already removed.
+     */
+    synchronized boolean removeVertexProperty(final TinkerVertexProperty<?> vertexProperty) {
+        final int record = this.properties.record(vertexProperty.reference);
+        if (NONE == record) return false;
+        final TinkerOffHeapRecords records = this.vertices.records;
+        this.removeProperty(records, records.record(((TinkerElement) vertexProperty.element()).reference), record);
+        return true;
+    }
+
+    /**
+     * Sets the property of an edge or vertex property, which replaces the value of an existing property with the key.
+     */
+    synchronized void putProperty(final TinkerElement element, final String key, final Object value) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        if (NONE == owner)
+            throw TinkerElement.elementAlreadyRemoved(element instanceof Edge ? Edge.class : VertexProperty.class, element.id);
+        final int code = this.code(key);
+        final int record = this.findProperty(records, owner, code);
+        if (NONE == record) {
+            this.addProperty(records, owner, code, value);
+        } else {
+            this.releaseValue(this.properties, record, VALUE_TYPE, VALUE);
+            this.write(this.properties, record, VALUE_TYPE, VALUE, value);
+        }
+    }
+
+    /**
+     * Removes the property of an edge or vertex property and returns {@code false} if it has none with the key.
+     */
+    synchronized boolean removeProperty(final TinkerElement element, final String key) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        final int code = this.codeOf(key);
+        final int record = NONE == owner || NONE == code ? NONE : this.findProperty(records, owner, code);
+        if (NONE == record) return false;
+        this.removeProperty(records, owner, record);
+        return true;
+    }
+
+    /**
+     * Gets the property of an edge or vertex property.
+     */
+    <V> Property<V> property(final TinkerElement element, final String key) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        final int code = this.codeOf(key);
+        final int record = NONE == owner || NONE == code ? NONE : this.findProperty(records, owner, code);
+        return NONE == record ?
+                Property.<V>empty() :
+                new TinkerProperty<>(element, key, (V) this.read(this.properties, record, VALUE_TYPE, VALUE));
+    }
+
+    /**
+     * Gets the properties of an edge or vertex property with the keys, or all of them if none are given.
+     */
+    <V> Iterator<Property<V>> properties(final TinkerElement element, final String... propertyKeys) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        if (NONE == owner) return Collections.emptyIterator();
+        final List<Property<V>> list = new ArrayList<>();
+        for (int record = records.getInt(owner, FIRST_PROPERTY); NONE != record; record = this.properties.getInt(record, NEXT)) {
+            final String key = this.key(record);
+            if (ElementHelper.keyExists(key, propertyKeys))
+                list.add(new TinkerProperty<>(element, key, (V) this.read(this.properties, record, VALUE_TYPE, VALUE)));
+        }
+        return list.iterator();
+    }
+
+    /**
+     * Gets the properties of the vertex with the keys, or all of them if none are given.
+     */
+    List<VertexProperty> vertexProperties(final TinkerVertex vertex, final String... propertyKeys) {
+        final TinkerOffHeapRecords records = this.vertices.records;
+        final int owner = records.record(vertex.reference);
+        if (NONE == owner) return Collections.emptyList();
+        final List<VertexProperty> list = new ArrayList<>();
+        for (int record = records.getInt(owner, FIRST_PROPERTY); NONE != record; record = this.properties.getInt(record, NEXT)) {
+            if (ElementHelper.keyExists(this.key(record), propertyKeys))
+                list.add(this.vertexProperty(vertex, record));
+        }
+        return list;
+    }
+
+    /**
+     * Gets the properties of the vertex grouped by key in the order the keys were first added.
+     */
+    Map<String, List<VertexProperty>> vertexPropertyMap(final TinkerVertex vertex) {
+        final Map<String, List<VertexProperty>> map = new LinkedHashMap<>();
+        for (final VertexProperty vertexProperty : this.vertexProperties(vertex)) {
+            map.computeIfAbsent(vertexProperty.key(), k -> new ArrayList<>(1)).add(vertexProperty);
+        }
+        return map;
+    }
+
+    /**
+     * Gets the values of the properties of a vertex or edge with the key.
+     */
+    List<Object> values(final TinkerElement element, final String key) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        final int code = this.codeOf(key);
+        if (NONE == owner || NONE == code) return Collections.emptyList();
+        final List<Object> values = new ArrayList<>(1);
+        for (int record = records.getInt(owner, FIRST_PROPERTY); NONE != record; record = this.properties.getInt(record, NEXT)) {
+            if (code == this.properties.getInt(record, LABEL))
+                values.add(this.read(this.properties, record, VALUE_TYPE, VALUE));
+        }
+        return values;
+    }
+
+    /**
+     * Gets the keys of the properties of a vertex, edge or vertex property.
+     */
+    Set<String> keys(final TinkerElement element) {
+        final TinkerOffHeapRecords records = this.records(element);
+        final int owner = records.record(element.reference);
+        if (NONE == owner || NONE == records.getInt(owner, FIRST_PROPERTY)) return Collections.emptySet();
+        final Set<String> keys = new HashSet<>();
+        for (int record = records.getInt(owner, FIRST_PROPERTY); NONE != record; record = this.properties.getInt(record, NEXT)) {
+            keys.add(this.key(record));
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the edges of the vertex with the labels, or all of them if none are given, with its out-edges first.
+     */
+    List<Edge> edges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final TinkerOffHeapRecords vertexRecords = this.vertices.records;
+        final TinkerOffHeapRecords records = this.edges.records;
+        final int vertexRecord = vertexRecords.record(vertex.reference);
+        final int[] labels = this.codes(edgeLabels);
+        if (NONE == vertexRecord || (null != labels && 0 == labels.length)) return Collections.emptyList();
+        final List<Edge> edges = new ArrayList<>();
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_OUT); NONE != record; record = records.getInt(record, NEXT_OUT)) {
+                if (hasLabel(records, record, labels)) edges.add(this.edge(record, vertexRecord, vertex));
+            }
+        }
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_IN); NONE != record; record = records.getInt(record, NEXT_IN)) {
+                if (hasLabel(records, record, labels)) edges.add(this.edge(record, vertexRecord, vertex));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Gets the adjacent vertices of the vertex over the edges with the labels, or all of them if none are given.
+     */
+    List<Vertex> vertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final TinkerOffHeapRecords vertexRecords = this.vertices.records;
+        final TinkerOffHeapRecords records = this.edges.records;
+        final int vertexRecord = vertexRecords.record(vertex.reference);
+        final int[] labels = this.codes(edgeLabels);
+        if (NONE == vertexRecord || (null != labels && 0 == labels.length)) return Collections.emptyList();
+        final List<Vertex> vertices = new ArrayList<>();
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_OUT); NONE != record; record = records.getInt(record, NEXT_OUT)) {
+                if (hasLabel(records, record, labels))
+                    vertices.add(this.vertex(records.getInt(record, IN_VERTEX), vertexRecord, vertex));
+            }
+        }
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_IN); NONE != record; record = records.getInt(record, NEXT_IN)) {
+                if (hasLabel(records, record, labels))
+                    vertices.add(this.vertex(records.getInt(record, OUT_VERTEX), vertexRecord, vertex));
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Counts the edges of the vertex with the labels, which is read from the vertex when no labels are given.
+     */
+    long degree(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final TinkerOffHeapRecords vertexRecords = this.vertices.records;
+        final TinkerOffHeapRecords records = this.edges.records;
+        final int vertexRecord = vertexRecords.record(vertex.reference);
+        if (NONE == vertexRecord) return 0L;
+        final boolean out = direction.equals(Direction.OUT) || direction.equals(Direction.BOTH);
+        final boolean in = direction.equals(Direction.IN) || direction.equals(Direction.BOTH);
+        if (0 == edgeLabels.length)
+            return (out ? vertexRecords.getInt(vertexRecord, OUT_DEGREE) : 0L) + (in ? vertexRecords.getInt(vertexRecord, IN_DEGREE) : 0L);
+
+        final int[] labels = this.codes(edgeLabels);
+        long degree = 0L;
+        if (out) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_OUT); NONE != record; record = records.getInt(record, NEXT_OUT)) {
+                if (hasLabel(records, record, labels)) degree++;
+            }
+        }
+        if (in) {
+            for (int record = vertexRecords.getInt(vertexRecord, FIRST_IN); NONE != record; record = records.getInt(record, NEXT_IN)) {
+                if (hasLabel(records, record, labels)) degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * Removes all of the elements and releases the buffers that held them.
+     */
+    synchronized void clear() {
+        this.vertices.clear();
+        this.edges.clear();
+        this.properties.clear();
+        this.codes.clear();
+        this.strings = new String[16];
+        this.objects = new Object[16];
+        this.objectLimit = 0;
+        this.freeObjectCount = 0;
+    }
+
+    ///////////// RECORDS ///////////////
+
+    private TinkerOffHeapRecords records(final TinkerElement element) {
+        if (element instanceof TinkerVertex)
+            return this.vertices.records;
+        else if (element instanceof TinkerEdge)
+            return this.edges.records;
+        else
+            return this.properties;
+    }
+
+    private TinkerVertex vertex(final int record) {
+        return new TinkerVertex(this.vertices.id(record), this.vertices.label(record), this.graph, this.vertices.records.reference(record));
+    }
+
+    /**
+     * Gets the vertex of the record, which is the given vertex when it is the vertex of the given record.
+     */
+    private TinkerVertex vertex(final int record, final int knownRecord, final TinkerVertex known) {
+        return record == knownRecord ? known : this.vertex(record);
+    }
+
+    private TinkerEdge edge(final int record) {
+        return this.edge(record, NONE, null);
+    }
+
+    private TinkerEdge edge(final int record, final int knownRecord, final TinkerVertex known) {
+        final TinkerOffHeapRecords records = this.edges.records;
+        return new TinkerEdge(this.edges.id(record),
+                this.vertex(records.getInt(record, OUT_VERTEX), knownRecord, known),
+                this.edges.label(record),
+                this.vertex(records.getInt(record, IN_VERTEX), knownRecord, known),
+                records.reference(record));
+    }
+
+    private <V> TinkerVertexProperty<V> vertexProperty(final TinkerVertex vertex, final int record) {
+        return new TinkerVertexProperty<>(this.read(this.properties, record, ID_TYPE, ID), vertex, this.key(record),
+                (V) this.read(this.properties, record, VALUE_TYPE, VALUE), this.properties.reference(record));
+    }
+
+    private String key(final int record) {
+        return this.strings[this.properties.getInt(record, LABEL)];
+    }
+
+    /**
+     * Adds a property at the end of the properties of the owner, which is a vertex, edge or vertex property.
+     */
+    private int addProperty(final TinkerOffHeapRecords records, final int owner, final int key, final Object value) {
+        final int record = this.properties.allocate();
+        this.properties.putInt(record, LABEL, key);
+        this.properties.putInt(record, FIRST_PROPERTY, NONE);
+        this.properties.putInt(record, LAST_PROPERTY, NONE);
+        this.write(this.properties, record, VALUE_TYPE, VALUE, value);
+
+        final int last = records.getInt(owner, LAST_PROPERTY);
+        this.properties.putInt(record, PREVIOUS, last);
+        this.properties.putInt(record, NEXT, NONE);
+        if (NONE == last)
+            records.putInt(owner, FIRST_PROPERTY, record);
+        else
+            this.properties.putInt(last, NEXT, record);
+        records.putInt(owner, LAST_PROPERTY, record);
+        return record;
+    }
+
+    private int findProperty(final TinkerOffHeapRecords records, final int owner, final int key) {
+        for (int record = records.getInt(owner, FIRST_PROPERTY); NONE != record; record = this.properties.getInt(record, NEXT)) {
+            if (key == this.properties.getInt(record, LABEL)) return record;
+        }
+        return NONE;
+    }
+
+    private void removeProperty(final TinkerOffHeapRecords records, final int owner, final int record) {
+        final int previous = this.properties.getInt(record, PREVIOUS);
+        final int next = this.properties.getInt(record, NEXT);
+        if (NONE == previous)
+            records.putInt(owner, FIRST_PROPERTY, next);
+        else
+            this.properties.putInt(previous, NEXT, next);
+        if (NONE == next)
+            records.putInt(owner, LAST_PROPERTY, previous);
+        else
+            this.properties.putInt(next, PREVIOUS, previous);
+        this.releaseProperty(record);
+    }
+
+    /**
+     * Releases all of the properties of the owner without unlinking them, as the owner is released with them.
+     */
+    private void releaseProperties(final TinkerOffHeapRecords records, final int owner) {
+        int record = records.getInt(owner, FIRST_PROPERTY);
+        while (NONE != record) {
+            final int next = this.properties.getInt(record, NEXT);
+            this.releaseProperty(record);
+            record = next;
+        }
+    }
+
+    private void releaseProperty(final int record) {
+        this.releaseProperties(this.properties, record);
+        this.releaseValue(this.properties, record, VALUE_TYPE, VALUE);
+        this.releaseValue(this.properties, record, ID_TYPE, ID);
+        this.properties.release(record);
+    }
+
+    private static boolean hasLabel(final TinkerOffHeapRecords records, final int record, final int[] labels) {
+        if (null == labels) return true;
+        final int label = records.getInt(record, LABEL);
+        for (final int l : labels) {
+            if (l == label) return true;
+        }
+        return false;
+    }
+
+    ///////////// VALUES ///////////////
+
+    /**
+     * Writes an identifier or property value to the record, which holds it in place if it is {@code null}, a
+     * primitive wrapper or a {@code Character} and refers to it on the heap otherwise.
+     */
+    private void write(final TinkerOffHeapRecords records, final int record, final int typeField, final int field, final Object value) {
+        final int type;
+        final long bits;
+        if (null == value) {
+            type = NULL;
+            bits = 0L;
+        } else if (value instanceof Long) {
+            type = LONG;
+            bits = (Long) value;
+        } else if (value instanceof Integer) {
+            type = INTEGER;
+            bits = (Integer) value;
+        } else if (value instanceof Double) {
+            type = DOUBLE;
+            bits = Double.doubleToRawLongBits((Double) value);
+        } else if (value instanceof Float) {
+            type = FLOAT;
+            bits = Float.floatToRawIntBits((Float) value);
+        } else if (value instanceof Boolean) {
+            type = BOOLEAN;
+            bits = (Boolean) value ? 1L : 0L;
+        } else if (value instanceof Short) {
+            type = SHORT;
+            bits = (Short) value;
+        } else if (value instanceof Byte) {
+            type = BYTE;
+            bits = (Byte) value;
+        } else if (value instanceof Character) {
+            type = CHARACTER;
+            bits = (Character) value;
+        } else {
+            type = OBJECT;
+            bits = this.addObject(value);
+        }
+        records.putInt(record, typeField, type);
+        records.putLong(record, field, bits);
+    }
+
+    private Object read(final TinkerOffHeapRecords records, final int record, final int typeField, final int field) {
+        final long bits = records.getLong(record, field);
+        switch (records.getInt(record, typeField)) {
+            case NULL:
+                return null;
+            case LONG:
+                return bits;
+            case INTEGER:
+                return (int) bits;
+            case DOUBLE:
+                return Double.longBitsToDouble(bits);
+            case FLOAT:
+                return Float.intBitsToFloat((int) bits);
+            case BOOLEAN:
+                return 0L != bits;
+            case SHORT:
+                return (short) bits;
+            case BYTE:
+                return (byte) bits;
+            case CHARACTER:
+                return (char) bits;
+            default:
+                return this.objects[(int) bits];
+        }
+    }
+
+    private void releaseValue(final TinkerOffHeapRecords records, final int record, final int typeField, final int field) {
+        if (OBJECT != records.getInt(record, typeField)) return;
+        final int index = (int) records.getLong(record, field);
+        this.objects[index] = null;
+        if (this.freeObjectCount == this.freeObjects.length)
+            this.freeObjects = Arrays.copyOf(this.freeObjects, this.freeObjectCount * 2);
+        this.freeObjects[this.freeObjectCount++] = index;
+    }
+
+    private int addObject(final Object object) {
+        final int index;
+        if (this.freeObjectCount > 0) {
+            index = this.freeObjects[--this.freeObjectCount];
+        } else {
+            index = this.objectLimit++;
+            if (index == this.objects.length) this.objects = Arrays.copyOf(this.objects, index * 2);
+        }
+        this.objects[index] = object;
+        return index;
+    }
+
+    /**
+     * Gets the code of a label or key, which is added if it is not yet known.
+     */
+    private int code(final String string) {
+        final Integer code = this.codes.get(string);
+        return null == code ? this.addCode(string) : code;
+    }
+
+    private synchronized int addCode(final String string) {
+        final Integer existing = this.codes.get(string);
+        if (null != existing) return existing;
+        final int code = this.codes.size();
+        if (code == this.strings.length) this.strings = Arrays.copyOf(this.strings, code * 2);
+        this.strings[code] = string;
+        this.codes.put(string, code);
+        return code;
+    }
+
+    /**
+     * Gets the code of a label or key or {@link TinkerOffHeapRecords#NONE} if it is not known.
+     */
+    private int codeOf(final String string) {
+        final Integer code = null == string ? null : this.codes.get(string);
+        return null == code ? NONE : code;
+    }
+
+    /**
+     * Gets the codes of the labels that are known, or {@code null} if no labels are given.
+     */
+    private int[] codes(final String... labels) {
+        if (0 == labels.length) return null;
+        final int[] codes = new int[labels.length];
+        int known = 0;
+        for (final String label : labels) {
+            final int code = this.codeOf(label);
+            if (NONE != code) codes[known++] = code;
+        }
+        return known == codes.length ? codes : Arrays.copyOf(codes, known);
+    }
+
+    /**
+     * The records of the vertices or edges along with the lookups of their identifiers and the lists of the elements
+     * with each label.
+     */
+    private final class Table {
+
+        private final TinkerOffHeapRecords records;
+        private final TinkerOffHeapIndex longIds = new TinkerOffHeapIndex();
+        private final TinkerOffHeapIndex integerIds = new TinkerOffHeapIndex();
+        private final Map<Object, Integer> objectIds = new ConcurrentHashMap<>();
+        private int[] firstWithLabel = new int[0];
+        private int[] lastWithLabel = new int[0];
+        private int[] sizeWithLabel = new int[0];
+
+        private Table(final int recordSize) {
+            this.records = new TinkerOffHeapRecords(recordSize);
+        }
+
+        private int find(final Object id) {
+            if (id instanceof Long)
+                return this.longIds.get((Long) id);
+            else if (id instanceof Integer)
+                return this.integerIds.get((Integer) id);
+            final Integer record = null == id ? null : this.objectIds.get(id);
+            return null == record ? NONE : record;
+        }
+
+        /**
+         * Allocates the record of an element at the end of the list of elements with its label or returns
+         * {@link TinkerOffHeapRecords#NONE} if there is already an element with the identifier.
+         */
+        private int add(final Object id, final int label) {
+            if (NONE != this.find(id)) return NONE;
+            final int record = this.records.allocate();
+            write(this.records, record, ID_TYPE, ID, id);
+            if (id instanceof Long)
+                this.longIds.put((Long) id, record);
+            else if (id instanceof Integer)
+                this.integerIds.put((Integer) id, record);
+            else
+                this.objectIds.put(id, record);
+            this.records.putInt(record, LABEL, label);
+            this.records.putInt(record, FIRST_PROPERTY, NONE);
+            this.records.putInt(record, LAST_PROPERTY, NONE);
+
+            if (label >= this.firstWithLabel.length) {
+                final int length = Math.max(label + 1, this.firstWithLabel.length * 2);
+                final int from = this.firstWithLabel.length;
+                this.firstWithLabel = Arrays.copyOf(this.firstWithLabel, length);
+                this.lastWithLabel = Arrays.copyOf(this.lastWithLabel, length);
+                this.sizeWithLabel = Arrays.copyOf(this.sizeWithLabel, length);
+                Arrays.fill(this.firstWithLabel, from, length, NONE);
+                Arrays.fill(this.lastWithLabel, from, length, NONE);
+            }
+            final int last = this.lastWithLabel[label];
+            this.records.putInt(record, PREVIOUS_WITH_LABEL, last);
+            this.records.putInt(record, NEXT_WITH_LABEL, NONE);
+            if (NONE == last)
+                this.firstWithLabel[label] = record;
+            else
+                this.records.putInt(last, NEXT_WITH_LABEL, record);
+            this.lastWithLabel[label] = record;
+            this.sizeWithLabel[label]++;
+            return record;
+        }
+
+        private void remove(final int record) {
+            final Object id = this.id(record);
+            if (id instanceof Long)
+                this.longIds.remove((Long) id);
+            else if (id instanceof Integer)
+                this.integerIds.remove((Integer) id);
+            else
+                this.objectIds.remove(id);
+            releaseValue(this.records, record, ID_TYPE, ID);
+
+            final int label = this.records.getInt(record, LABEL);
+            final int previous = this.records.getInt(record, PREVIOUS_WITH_LABEL);
+            final int next = this.records.getInt(record, NEXT_WITH_LABEL);
+            if (NONE == previous)
+                this.firstWithLabel[label] = next;
+            else
+                this.records.putInt(previous, NEXT_WITH_LABEL, next);
+            if (NONE == next)
+                this.lastWithLabel[label] = previous;
+            else
+                this.records.putInt(next, PREVIOUS_WITH_LABEL, previous);
+            this.sizeWithLabel[label]--;
+            this.records.release(record);
+        }
+
+        private Object id(final int record) {
+            return read(this.records, record, ID_TYPE, ID);
+        }
+
+        private String label(final int record) {
+            return strings[this.records.getInt(record, LABEL)];
+        }
+
+        private int firstWithLabel(final String label) {
+            final int code = codeOf(label);
+            return NONE == code || code >= this.firstWithLabel.length ? NONE : this.firstWithLabel[code];
+        }
+
+        private int sizeWithLabel(final String label) {
+            final int code = codeOf(label);
+            return NONE == code || code >= this.sizeWithLabel.length ? 0 : this.sizeWithLabel[code];
+        }
+
+        private void clear() {
+            this.records.clear();
+            this.longIds.clear();
+            this.integerIds.clear();
+            this.objectIds.clear();
+            this.firstWithLabel = new int[0];
+            this.lastWithLabel = new int[0];
+            this.sizeWithLabel = new int[0];
+        }
+    }
+
+    /**
+     * Iterates the elements of the records in use, in the order of the records.
+     */
+    private static <E> Iterator<E> scan(final TinkerOffHeapRecords records, final IntFunction<E> element) {
+        return new Iterator<E>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                final int limit = records.limit();
+                while (this.next < limit && !records.isLive(this.next)) {
+                    this.next++;
+                }
+                return this.next < limit;
+            }
+
+            @Override
+            public E next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return element.apply(this.next++);
+            }
+        };
+    }
+
+    /**
+     * A view of the vertices or edges by their identifiers.
+     */
+    private final class ElementMap<E extends Element> extends AbstractMap<Object, E> {
+
+        private final Table table;
+        private final IntFunction<E> element;
+
+        private ElementMap(final Table table, final IntFunction<E> element) {
+            this.table = table;
+            this.element = element;
+        }
+
+        @Override
+        public E get(final Object id) {
+            final int record = this.table.find(id);
+            return NONE == record ? null : this.element.apply(record);
+        }
+
+        @Override
+        public boolean containsKey(final Object id) {
+            return NONE != this.table.find(id);
+        }
+
+        @Override
+        public int size() {
+            return this.table.records.size();
+        }
+
+        @Override
+        public void clear() {
+            TinkerOffHeapStorage.this.clear();
+        }
+
+        @Override
+        public Collection<E> values() {
+            return new AbstractCollection<E>() {
+                @Override
+                public Iterator<E> iterator() {
+                    return scan(table.records, element);
+                }
+
+                @Override
+                public int size() {
+                    return ElementMap.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Object, E>> entrySet() {
+            return new AbstractSet<Entry<Object, E>>() {
+                @Override
+                public Iterator<Entry<Object, E>> iterator() {
+                    final Iterator<E> values = scan(table.records, element);
+                    return new Iterator<Entry<Object, E>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return values.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Object, E> next() {
+                            final E value = values.next();
+                            return new SimpleImmutableEntry<>(value.id(), value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ElementMap.this.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * A view of the vertices or edges with a label.
+     */
+    private final class LabelSet<E extends Element> extends AbstractSet<E> {
+
+        private final Table table;
+        private final String label;
+        private final Class<E> elementClass;
+        private final IntFunction<E> element;
+
+        private LabelSet(final Table table, final String label, final Class<E> elementClass, final IntFunction<E> element) {
+            this.table = table;
+            this.label = label;
+            this.elementClass = elementClass;
+            this.element = element;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int next = table.firstWithLabel(label);
+
+                @Override
+                public boolean hasNext() {
+                    return NONE != this.next;
+                }
+
+                @Override
+                public E next() {
+                    if (NONE == this.next) throw new NoSuchElementException();
+                    final int record = this.next;
+                    this.next = table.records.getInt(record, NEXT_WITH_LABEL);
+                    return element.apply(record);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.table.sizeWithLabel(this.label);
+        }
+
+        @Override
+        public boolean contains(final Object object) {
+            if (!this.elementClass.isInstance(object)) return false;
+            final int record = this.table.find(((Element) object).id());
+            return NONE != record && this.label.equals(this.table.label(record));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The edges of a vertex for a single label and direction held in the order they were added. It is used in place of a
+ * {@code HashSet} when {@link TinkerGraph} is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY}
+ * so that the edges of a vertex can be iterated without first being copied, which lets a {@code limit()} on a vertex
+ * with many edges stop early.
+ * <p/>
+ * Each edge remembers its slot in the array so that removal only clears that slot. The array is compacted when it is
+ * full, into a new array, so an iterator keeps reading the array it started with and does not see edges that are added
+ * after it was created.
+ */
+final class TinkerOrderedAdjacency extends AbstractCollection<Edge> {
+
+    private static final TinkerEdge[] EMPTY = new TinkerEdge[0];
+
+    private final boolean out;
+    private TinkerEdge[] edges = EMPTY;
+    private int end = 0;
+    private int size = 0;
+
+    /**
+     * @param out whether the edges are the outgoing edges of the vertex, which determines the slot of the edge that
+     *            is used
+     */
+    TinkerOrderedAdjacency(final boolean out) {
+        this.out = out;
+    }
+
+    @Override
+    public boolean add(final Edge edge) {
+        if (this.end == this.edges.length) {
+            final TinkerEdge[] compacted = new TinkerEdge[this.size + (this.size >> 1) + 1];
+            int next = 0;
+            for (int i = 0; i < this.end; i++) {
+                if (null != this.edges[i]) {
+                    compacted[next] = this.edges[i];
+                    this.setSlot(compacted[next], next++);
+                }
+            }
+            this.edges = compacted;
+            this.end = next;
+        }
+        this.setSlot((TinkerEdge) edge, this.end);
+        this.edges[this.end++] = (TinkerEdge) edge;
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object edge) {
+        if (!(edge instanceof TinkerEdge)) return false;
+        final TinkerEdge tinkerEdge = (TinkerEdge) edge;
+        final int slot = this.out ? tinkerEdge.outSlot : tinkerEdge.inSlot;
+        if (slot < 0 || slot >= this.end || this.edges[slot] != tinkerEdge) return false;
+        this.edges[slot] = null;
+        this.setSlot(tinkerEdge, -1);
+        if (0 == --this.size) {
+            // a new array rather than a reset so that open iterators do not see the edges added next
+            this.edges = EMPTY;
+            this.end = 0;
+        }
+        return true;
+    }
+
+    private void setSlot(final TinkerEdge edge, final int slot) {
+        if (this.out)
+            edge.outSlot = slot;
+        else
+            edge.inSlot = slot;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+        final TinkerEdge[] edges = this.edges;
+        final int end = this.end;
+        return new Iterator<Edge>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                // slots of edges removed since the iterator was created are skipped
+                while (this.next < end && null == edges[this.next]) this.next++;
+                return this.next < end;
+            }
+
+            @Override
+            public Edge next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return edges[this.next++];
+            }
+        };
+    }
+}
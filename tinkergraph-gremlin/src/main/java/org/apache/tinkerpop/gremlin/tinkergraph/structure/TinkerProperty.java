@@ -33,6 +33,14 @@ public final class TinkerProperty<V> implements Property<V> {
     protected final String key;
     protected V value;
 
+    /**
+     * The transactions that created and removed this version of the property and the version it replaced, which
+     * are only set when the graph is configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}.
+     */
+    TinkerVersion createdIn;
+    TinkerVersion removedIn;
+    TinkerProperty<V> previous;
+
     public TinkerProperty(final Element element, final String key, final V value) {
         this.element = element;
         this.key = key;
@@ -79,11 +87,35 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
+        final TinkerGraph graph = (TinkerGraph) this.element.graph();
+        if (null != graph.transaction) {
+            final TinkerVersion version = graph.transaction.write();
+            if (!graph.transaction.isVisible(this.createdIn, this.removedIn)) return;
+            if (this.element instanceof Edge) {
+                version.change((TinkerEdge) this.element);
+                TinkerHelper.removeProperty(version, ((TinkerEdge) this.element).properties, this);
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value());
+            } else {
+                version.change((TinkerVertexProperty) this.element);
+                TinkerHelper.removeProperty(version, ((TinkerVertexProperty) this.element).properties, this);
+            }
+            return;
+        }
+
+        final boolean logged = TinkerHelper.isLogged((TinkerElement) this.element);
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of((TinkerElement) this.element);
         if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+            if (null != storage)
+                storage.removeProperty((TinkerElement) this.element, this.key);
+            else if (null != ((TinkerEdge) this.element).properties.remove(this.key) && null != graph.statistics)
+                graph.statistics.removeValue(this.element, this.key);
+            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value());
+        } else if (null != storage) {
+            storage.removeProperty((TinkerElement) this.element, this.key);
         } else {
             ((TinkerVertexProperty) this.element).properties.remove(this.key);
         }
+        if (logged) ((TinkerGraph) this.element.graph()).mutationLog.removeProperty(this);
+        TinkerHelper.graphChanged((TinkerGraph) this.element.graph());
     }
 }
@@ -0,0 +1,587 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Reads and writes the native binary snapshot format of {@link TinkerGraph}, selected by setting
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_FORMAT} to {@code snapshot}. The format holds a record for each vertex
+ * and edge, with common property value types written directly and any other type written with Gryo, followed by
+ * tables that locate the records:
+ * <ul>
+ *     <li>a header with the graph variables</li>
+ *     <li>the vertex records, each with its properties and the ordinals of its outgoing and incoming edges</li>
+ *     <li>the edge records, each with its properties and the ordinals of its vertices</li>
+ *     <li>for the vertices and then the edges, the file offset of each record by ordinal followed by an open
+ *     addressing hash table from the bytes of each identifier to the ordinal of its record</li>
+ *     <li>a trailer with the counts of vertices and edges and the positions of the tables</li>
+ * </ul>
+ * A snapshot is therefore opened without reading its records: the file is memory-mapped and the elements are
+ * materialized by the {@link TinkerSnapshotImage} as they are first looked up or reached. Snapshots are written to a
+ * temporary file that then replaces the previous snapshot so that a failed write does not lose it.
+ */
+final class TinkerSnapshot {
+
+    static final String FORMAT = "snapshot";
+
+    static final int MAGIC = 0x54475331;
+    private static final int VERSION = 2;
+
+    /**
+     * The size of the trailer, which is the counts of vertices and edges, the positions of their offset and hash
+     * tables and the magic number.
+     */
+    static final int TRAILER_BYTES = Integer.BYTES * 3 + Long.BYTES * 4;
+
+    /**
+     * The file is mapped in segments of this many bytes, each of which overlaps the next by
+     * {@link #SEGMENT_OVERLAP_BYTES} so that a record that begins in a segment is almost always read from it alone.
+     */
+    static final long SEGMENT_BYTES = 1L << 30;
+    private static final long SEGMENT_OVERLAP_BYTES = 1L << 24;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SHORT = 7;
+    private static final byte BYTE = 8;
+    private static final byte UUID_TYPE = 9;
+    private static final byte GRYO = 127;
+
+    private TinkerSnapshot() {
+    }
+
+    /**
+     * Writes the graph to a snapshot at the path, replacing any snapshot already there only once the new one is
+     * complete. The sequence is that of the last {@link TinkerMutationLog} record the graph reflects.
+     */
+    static void write(final TinkerGraph graph, final Path path, final long sequence) throws IOException {
+        final Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        final Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (final OutputStream stream = Files.newOutputStream(temp)) {
+                write(graph, stream, sequence);
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static void write(final TinkerGraph graph, final OutputStream stream, final long sequence) throws IOException {
+        final CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(stream, 1 << 16));
+        final Writer writer = new Writer(new DataOutputStream(counter));
+        writer.output.writeInt(MAGIC);
+        writer.output.writeInt(VERSION);
+        writer.output.writeLong(sequence);
+
+        final TinkerGraphVariables variables = graph.variables;
+        writer.output.writeInt(null == variables ? 0 : variables.keys().size());
+        if (null != variables) {
+            for (final String key : variables.keys()) {
+                writer.writeString(key);
+                writer.writeValue(variables.get(key).orElse(null));
+            }
+        }
+
+        final List<Vertex> vertices = new ArrayList<>(visible(graph, graph.vertices.values()));
+        final List<Edge> edges = new ArrayList<>(visible(graph, graph.edges.values()));
+        final Map<Vertex, Integer> vertexOrdinals = ordinals(vertices);
+        final Map<Edge, Integer> edgeOrdinals = ordinals(edges);
+        final ByteArrayOutputStream idBytes = new ByteArrayOutputStream();
+        final Writer idWriter = new Writer(new DataOutputStream(idBytes));
+
+        final long[] vertexOffsets = new long[vertices.size()];
+        final int[] vertexTable = new int[tableSize(vertices.size())];
+        writer.output.writeInt(vertices.size());
+        for (int i = 0; i < vertexOffsets.length; i++) {
+            final Vertex vertex = vertices.get(i);
+            vertexOffsets[i] = counter.count;
+            writer.writeId(vertex.id(), idWriter, idBytes, vertexTable, i);
+            writer.writeString(vertex.label());
+            final List<VertexProperty<Object>> properties = new ArrayList<>();
+            vertex.properties().forEachRemaining(p -> properties.add((VertexProperty<Object>) p));
+            writer.output.writeInt(properties.size());
+            for (final VertexProperty<Object> property : properties) {
+                writer.writeValue(property.id());
+                writer.writeString(property.key());
+                writer.writeValue(property.value());
+                writer.writeProperties(property.properties());
+            }
+            writer.writeOrdinals(vertex.edges(Direction.OUT), edgeOrdinals);
+            writer.writeOrdinals(vertex.edges(Direction.IN), edgeOrdinals);
+        }
+
+        final long[] edgeOffsets = new long[edges.size()];
+        final int[] edgeTable = new int[tableSize(edges.size())];
+        writer.output.writeInt(edges.size());
+        for (int i = 0; i < edgeOffsets.length; i++) {
+            final Edge edge = edges.get(i);
+            edgeOffsets[i] = counter.count;
+            writer.writeId(edge.id(), idWriter, idBytes, edgeTable, i);
+            writer.writeString(edge.label());
+            writer.output.writeInt(vertexOrdinals.get(edge.outVertex()));
+            writer.output.writeInt(vertexOrdinals.get(edge.inVertex()));
+            writer.writeProperties(edge.properties());
+        }
+
+        final long vertexOffsetsStart = counter.count;
+        final long vertexTableStart = writer.writeTables(vertexOffsets, vertexTable, counter);
+        final long edgeOffsetsStart = counter.count;
+        final long edgeTableStart = writer.writeTables(edgeOffsets, edgeTable, counter);
+
+        writer.output.writeInt(vertexOffsets.length);
+        writer.output.writeInt(edgeOffsets.length);
+        writer.output.writeLong(vertexOffsetsStart);
+        writer.output.writeLong(vertexTableStart);
+        writer.output.writeLong(edgeOffsetsStart);
+        writer.output.writeLong(edgeTableStart);
+        writer.output.writeInt(MAGIC);
+        writer.output.flush();
+    }
+
+    private static <T extends Element> Map<T, Integer> ordinals(final List<T> elements) {
+        final Map<T, Integer> ordinals = new IdentityHashMap<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            ordinals.put(elements.get(i), i);
+        }
+        return ordinals;
+    }
+
+    /**
+     * Gets the number of slots of the hash table of identifiers for the number of elements, which is a power of two
+     * that leaves at least half of the slots empty.
+     */
+    static int tableSize(final int elements) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, elements)) << 2);
+    }
+
+    /**
+     * Hashes the bytes of an identifier as they are written to a record.
+     */
+    static int hash(final byte[] bytes, final int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash ^= bytes[i] & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Gets the elements that are visible to the current thread, which are the last committed ones if it has no open
+     * transaction.
+     */
+    private static <T extends Element> Collection<T> visible(final TinkerGraph graph, final Collection<T> elements) {
+        return null == graph.transaction ? elements : elements.stream().filter(TinkerHelper::isVisible).collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the snapshot at the path for the graph, which is expected to be empty, by reading its header and trailer
+     * only, and gets the sequence of the last {@link TinkerMutationLog} record that the snapshot reflects. The
+     * elements of the snapshot are then materialized by a {@link TinkerSnapshotImage} as they are needed.
+     */
+    static long open(final TinkerGraph graph, final Path path) throws IOException {
+        final Reader reader;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            reader = new Reader(path, channel);
+        }
+        try {
+            if (reader.size < Integer.BYTES * 2 || reader.readInt() != MAGIC)
+                throw new IOException(String.format("%s is not a TinkerGraph snapshot", path));
+            final int version = reader.readInt();
+            if (version != VERSION)
+                throw new IOException(String.format("%s is a TinkerGraph snapshot of unsupported version %s", path, version));
+            final long sequence = reader.readLong();
+
+            final int variableCount = reader.readInt();
+            for (int i = 0; i < variableCount; i++) {
+                graph.variables().set(reader.readString(), reader.readValue());
+            }
+
+            if (reader.size < TRAILER_BYTES) throw new BufferUnderflowException();
+            reader.seek(reader.size - TRAILER_BYTES);
+            final int vertexCount = reader.readInt();
+            final int edgeCount = reader.readInt();
+            final long vertexOffsetsStart = reader.readLong();
+            final long vertexTableStart = reader.readLong();
+            final long edgeOffsetsStart = reader.readLong();
+            final long edgeTableStart = reader.readLong();
+            if (reader.readInt() != MAGIC)
+                throw new IOException(String.format("%s is a truncated TinkerGraph snapshot", path));
+
+            if (vertexCount > 0)
+                new TinkerSnapshotImage(graph, path, reader, vertexCount, vertexOffsetsStart, vertexTableStart,
+                        edgeCount, edgeOffsetsStart, edgeTableStart);
+            return sequence;
+        } catch (BufferUnderflowException ex) {
+            throw new IOException(String.format("%s is a truncated TinkerGraph snapshot", path), ex);
+        }
+    }
+
+    private static Kryo createKryo() {
+        return GryoMapper.build().version(GryoVersion.V3_0).addRegistry(TinkerIoRegistryV3d0.instance()).create().createMapper();
+    }
+
+    /**
+     * Writes the values of the format, which are shared with the records of the {@link TinkerMutationLog}.
+     */
+    static final class Writer {
+        final DataOutputStream output;
+        private Kryo kryo;
+
+        Writer(final DataOutputStream output) {
+            this.output = output;
+        }
+
+        void writeString(final String string) throws IOException {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            this.output.writeInt(bytes.length);
+            this.output.write(bytes);
+        }
+
+        /**
+         * Writes the identifier of the element with the specified ordinal and adds it to the hash table, which
+         * requires the identifier to be written through a separate writer first to get its bytes.
+         */
+        private void writeId(final Object id, final Writer idWriter, final ByteArrayOutputStream bytes,
+                             final int[] table, final int ordinal) throws IOException {
+            bytes.reset();
+            idWriter.writeValue(id);
+            idWriter.output.flush();
+            final byte[] key = bytes.toByteArray();
+            int slot = hash(key, key.length) & (table.length - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = ordinal + 1;
+            this.output.write(key);
+        }
+
+        private void writeOrdinals(final Iterator<Edge> edges, final Map<Edge, Integer> ordinals) throws IOException {
+            final List<Integer> list = new ArrayList<>();
+            edges.forEachRemaining(edge -> {
+                final Integer ordinal = ordinals.get(edge);
+                if (null != ordinal) list.add(ordinal);
+            });
+            this.output.writeInt(list.size());
+            for (final int ordinal : list) {
+                this.output.writeInt(ordinal);
+            }
+        }
+
+        /**
+         * Writes the offsets of the records by ordinal and the hash table of their identifiers, and gets the position
+         * of the hash table.
+         */
+        private long writeTables(final long[] offsets, final int[] table, final CountingOutputStream counter) throws IOException {
+            for (final long offset : offsets) {
+                this.output.writeLong(offset);
+            }
+            final long tableStart = counter.count;
+            this.output.writeInt(table.length);
+            for (final int slot : table) {
+                this.output.writeInt(slot);
+            }
+            return tableStart;
+        }
+
+        private void writeProperties(final Iterator<? extends Property<?>> properties) throws IOException {
+            final List<Property<?>> list = new ArrayList<>();
+            properties.forEachRemaining(list::add);
+            this.output.writeInt(list.size());
+            for (final Property<?> property : list) {
+                this.writeString(property.key());
+                this.writeValue(property.value());
+            }
+        }
+
+        void writeValue(final Object value) throws IOException {
+            if (null == value) {
+                this.output.writeByte(NULL);
+            } else if (value instanceof String) {
+                this.output.writeByte(STRING);
+                this.writeString((String) value);
+            } else if (value instanceof Integer) {
+                this.output.writeByte(INTEGER);
+                this.output.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                this.output.writeByte(LONG);
+                this.output.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                this.output.writeByte(DOUBLE);
+                this.output.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                this.output.writeByte(FLOAT);
+                this.output.writeFloat((Float) value);
+            } else if (value instanceof Boolean) {
+                this.output.writeByte(BOOLEAN);
+                this.output.writeBoolean((Boolean) value);
+            } else if (value instanceof Short) {
+                this.output.writeByte(SHORT);
+                this.output.writeShort((Short) value);
+            } else if (value instanceof Byte) {
+                this.output.writeByte(BYTE);
+                this.output.writeByte((Byte) value);
+            } else if (value instanceof UUID) {
+                this.output.writeByte(UUID_TYPE);
+                this.output.writeLong(((UUID) value).getMostSignificantBits());
+                this.output.writeLong(((UUID) value).getLeastSignificantBits());
+            } else {
+                if (null == this.kryo) this.kryo = createKryo();
+                final Output gryo = new Output(256, -1);
+                this.kryo.writeClassAndObject(gryo, value);
+                this.output.writeByte(GRYO);
+                this.output.writeInt(gryo.position());
+                this.output.write(gryo.getBuffer(), 0, gryo.position());
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes written so that the offsets of the records may be recorded.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count = 0L;
+
+        private CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+
+    /**
+     * Reads a snapshot at any position through segments of the file that are memory-mapped when it is opened, which
+     * allows snapshots larger than a single mapping may address. A value that runs past the overlap of a segment with
+     * the next is read through a mapping of its own. It may also read the values of a buffer that is already in
+     * memory such as a record of the {@link TinkerMutationLog}.
+     */
+    static final class Reader {
+        private final Path path;
+        private final long size;
+        private final long segmentBytes;
+        private final ByteBuffer[] segments;
+        private ByteBuffer window;
+        private long windowStart = 0;
+        private Kryo kryo;
+
+        Reader(final Path path, final FileChannel channel) throws IOException {
+            this(path, channel, SEGMENT_BYTES, SEGMENT_OVERLAP_BYTES);
+        }
+
+        Reader(final Path path, final FileChannel channel, final long segmentBytes, final long overlapBytes) throws IOException {
+            this.path = path;
+            this.size = channel.size();
+            this.segmentBytes = segmentBytes;
+            this.segments = new ByteBuffer[(int) Math.max(1, (this.size + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < this.segments.length; i++) {
+                final long start = i * segmentBytes;
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(this.size - start, segmentBytes + overlapBytes));
+            }
+            this.window = this.segments[0];
+        }
+
+        Reader(final ByteBuffer buffer) {
+            this.path = null;
+            this.size = buffer.remaining();
+            this.segmentBytes = this.size;
+            this.segments = null;
+            this.window = buffer;
+        }
+
+        long size() {
+            return this.size;
+        }
+
+        long position() {
+            return this.windowStart + this.window.position();
+        }
+
+        void seek(final long position) {
+            if (null == this.segments) {
+                this.window.position((int) position);
+                return;
+            }
+            final int segment = (int) Math.min(this.segments.length - 1, position / this.segmentBytes);
+            this.window = this.segments[segment];
+            this.windowStart = segment * this.segmentBytes;
+            this.window.position((int) (position - this.windowStart));
+        }
+
+        void skip(final int bytes) {
+            this.seek(this.position() + bytes);
+        }
+
+        private void require(final int bytes) throws IOException {
+            if (this.window.remaining() >= bytes) return;
+            final long position = this.position();
+            if (bytes < 0 || position + bytes > this.size) throw new BufferUnderflowException();
+            if (null != this.segments) {
+                this.seek(position);
+                if (this.window.remaining() >= bytes) return;
+                try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+                    this.window = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+                    this.windowStart = position;
+                }
+            } else {
+                throw new BufferUnderflowException();
+            }
+        }
+
+        /**
+         * Determines if the bytes at the current position are those specified, without moving past them. As values
+         * are written such that none is a prefix of another this compares a value with the one that was written.
+         */
+        boolean matches(final byte[] bytes) throws IOException {
+            if (this.position() + bytes.length > this.size) return false;
+            final long position = this.position();
+            this.require(bytes.length);
+            final int start = this.window.position();
+            boolean matches = true;
+            for (int i = 0; i < bytes.length && matches; i++) {
+                matches = this.window.get(start + i) == bytes[i];
+            }
+            this.seek(position);
+            return matches;
+        }
+
+        byte readByte() throws IOException {
+            this.require(1);
+            return this.window.get();
+        }
+
+        int readInt() throws IOException {
+            this.require(Integer.BYTES);
+            return this.window.getInt();
+        }
+
+        long readLong() throws IOException {
+            this.require(Long.BYTES);
+            return this.window.getLong();
+        }
+
+        String readString() throws IOException {
+            final byte[] bytes = this.readBytes(this.readInt());
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        byte[] readBytes(final int length) throws IOException {
+            this.require(length);
+            final byte[] bytes = new byte[length];
+            this.window.get(bytes);
+            return bytes;
+        }
+
+        Object readValue() throws IOException {
+            this.require(1);
+            final byte type = this.window.get();
+            switch (type) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return this.readString();
+                case INTEGER:
+                    return this.readInt();
+                case LONG:
+                    this.require(Long.BYTES);
+                    return this.window.getLong();
+                case DOUBLE:
+                    this.require(Double.BYTES);
+                    return this.window.getDouble();
+                case FLOAT:
+                    this.require(Float.BYTES);
+                    return this.window.getFloat();
+                case BOOLEAN:
+                    this.require(1);
+                    return this.window.get() != 0;
+                case SHORT:
+                    this.require(Short.BYTES);
+                    return this.window.getShort();
+                case BYTE:
+                    this.require(1);
+                    return this.window.get();
+                case UUID_TYPE:
+                    this.require(Long.BYTES * 2);
+                    return new UUID(this.window.getLong(), this.window.getLong());
+                case GRYO:
+                    if (null == this.kryo) this.kryo = createKryo();
+                    return this.kryo.readClassAndObject(new Input(this.readBytes(this.readInt())));
+                default:
+                    throw new IOException(String.format("Unknown value type %s in TinkerGraph snapshot", type));
+            }
+        }
+    }
+}
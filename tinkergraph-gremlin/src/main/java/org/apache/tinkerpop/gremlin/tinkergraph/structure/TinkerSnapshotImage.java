@@ -0,0 +1,393 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The elements of a {@link TinkerSnapshot} that is memory-mapped when a {@link TinkerGraph} is opened, which are
+ * materialized as they are first needed rather than when the graph is opened. The vertex and edge maps of the graph
+ * are replaced by maps that first look an identifier up among the elements already materialized and then in the hash
+ * table of the snapshot, so that a lookup by identifier reads only the record of that element. The edges of a vertex
+ * are materialized the first time its adjacency is iterated or counted, and a scan of all elements materializes the
+ * rest of the snapshot, after which the image is released and the graph holds its elements as if it had loaded them.
+ * <p/>
+ * The snapshot is materialized in full when the graph is opened if it is configured with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_STATISTICS} or {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}, as
+ * both expect every element to be present. Elements are materialized under the lock of the image.
+ */
+final class TinkerSnapshotImage {
+
+    private final TinkerGraph graph;
+    private final Path path;
+    private final TinkerSnapshot.Reader reader;
+    private final Section<Vertex> vertices;
+    private final Section<Edge> edges;
+
+    /**
+     * The vertices whose edges are not all materialized, with the position of their edge ordinals in the snapshot.
+     */
+    private final Map<TinkerVertex, Long> pendingAdjacency = new ConcurrentHashMap<>();
+
+    private final ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+    private final TinkerSnapshot.Writer keyWriter = new TinkerSnapshot.Writer(new DataOutputStream(this.keyBytes));
+
+    TinkerSnapshotImage(final TinkerGraph graph, final Path path, final TinkerSnapshot.Reader reader,
+                        final int vertexCount, final long vertexOffsetsStart, final long vertexTableStart,
+                        final int edgeCount, final long edgeOffsetsStart, final long edgeTableStart) {
+        this.graph = graph;
+        this.path = path;
+        this.reader = reader;
+        this.vertices = new Section<>(true, graph.vertices, vertexCount, vertexOffsetsStart, vertexTableStart);
+        this.edges = new Section<>(false, graph.edges, edgeCount, edgeOffsetsStart, edgeTableStart);
+        graph.vertices = new ElementMap<>(this.vertices);
+        graph.edges = new ElementMap<>(this.edges);
+        graph.snapshotImage = this;
+    }
+
+    /**
+     * Materializes the edges of the vertex that are not yet materialized.
+     */
+    void loadAdjacency(final TinkerVertex vertex) {
+        if (this.pendingAdjacency.isEmpty() || !this.pendingAdjacency.containsKey(vertex)) return;
+        synchronized (this) {
+            final Long position = this.pendingAdjacency.get(vertex);
+            if (null == position) return;
+            try {
+                this.reader.seek(position);
+                final int[] ordinals = new int[this.reader.readInt()];
+                for (int i = 0; i < ordinals.length; i++) {
+                    ordinals[i] = this.reader.readInt();
+                }
+                final int[] inOrdinals = new int[this.reader.readInt()];
+                for (int i = 0; i < inOrdinals.length; i++) {
+                    inOrdinals[i] = this.reader.readInt();
+                }
+                for (final int ordinal : ordinals) {
+                    if (!this.edges.loaded.get(ordinal)) this.materializeEdge(ordinal);
+                }
+                for (final int ordinal : inOrdinals) {
+                    if (!this.edges.loaded.get(ordinal)) this.materializeEdge(ordinal);
+                }
+            } catch (IOException | BufferUnderflowException ex) {
+                throw this.unreadable(ex);
+            }
+            this.pendingAdjacency.remove(vertex);
+        }
+    }
+
+    /**
+     * Materializes every element that is not yet materialized and releases the image.
+     */
+    synchronized void loadAll() {
+        if (this.graph.snapshotImage != this) return;
+        try {
+            for (int i = this.vertices.loaded.nextClearBit(0); i < this.vertices.count; i = this.vertices.loaded.nextClearBit(i + 1)) {
+                this.materializeVertex(i);
+            }
+            for (int i = this.edges.loaded.nextClearBit(0); i < this.edges.count; i = this.edges.loaded.nextClearBit(i + 1)) {
+                this.materializeEdge(i);
+            }
+        } catch (IOException | BufferUnderflowException ex) {
+            throw this.unreadable(ex);
+        }
+        this.release();
+    }
+
+    /**
+     * Releases the image without materializing the elements that are left, which is done when the graph is cleared.
+     */
+    synchronized void discard() {
+        this.vertices.unload();
+        this.edges.unload();
+        this.release();
+    }
+
+    private void release() {
+        this.pendingAdjacency.clear();
+        if (this.graph.snapshotImage != this) return;
+        this.graph.vertices = this.vertices.elements;
+        this.graph.edges = this.edges.elements;
+        this.graph.snapshotImage = null;
+    }
+
+    /**
+     * Gets the element with the identifier, materializing it if it is held by the snapshot and not yet materialized.
+     */
+    private synchronized <E extends Element> E get(final Section<E> section, final Object id) {
+        final int ordinal = this.find(section, id);
+        if (ordinal >= 0) {
+            try {
+                if (section.vertices)
+                    this.materializeVertex(ordinal);
+                else
+                    this.materializeEdge(ordinal);
+            } catch (IOException | BufferUnderflowException ex) {
+                throw this.unreadable(ex);
+            }
+        }
+        return section.elements.get(id);
+    }
+
+    /**
+     * Determines if the snapshot holds an element with the identifier that is not yet materialized.
+     */
+    private synchronized boolean holds(final Section<?> section, final Object id) {
+        return this.find(section, id) >= 0;
+    }
+
+    /**
+     * Finds the ordinal of the record of the identifier if it is not yet materialized, or else gets {@code -1}.
+     */
+    private int find(final Section<?> section, final Object id) {
+        if (0 == section.unloaded) return -1;
+        final byte[] key;
+        try {
+            this.keyBytes.reset();
+            this.keyWriter.writeValue(id);
+            this.keyWriter.output.flush();
+            key = this.keyBytes.toByteArray();
+        } catch (IOException | RuntimeException ex) {
+            // an identifier that cannot be written cannot have been written to the snapshot either
+            return -1;
+        }
+
+        try {
+            final int mask = section.tableSize - 1;
+            for (int slot = TinkerSnapshot.hash(key, key.length) & mask; ; slot = (slot + 1) & mask) {
+                this.reader.seek(section.tableStart + Integer.BYTES + (long) slot * Integer.BYTES);
+                final int entry = this.reader.readInt();
+                if (0 == entry) return -1;
+                this.reader.seek(this.offset(section, entry - 1));
+                if (this.reader.matches(key)) return section.loaded.get(entry - 1) ? -1 : entry - 1;
+            }
+        } catch (IOException | BufferUnderflowException ex) {
+            throw this.unreadable(ex);
+        }
+    }
+
+    private long offset(final Section<?> section, final int ordinal) throws IOException {
+        this.reader.seek(section.offsetsStart + (long) ordinal * Long.BYTES);
+        return this.reader.readLong();
+    }
+
+    private TinkerVertex vertex(final int ordinal) throws IOException {
+        if (!this.vertices.loaded.get(ordinal)) return this.materializeVertex(ordinal);
+        // the vertices of an edge that is not materialized have not been removed as removing them materializes it
+        this.reader.seek(this.offset(this.vertices, ordinal));
+        return (TinkerVertex) this.vertices.elements.get(this.reader.readValue());
+    }
+
+    private TinkerVertex materializeVertex(final int ordinal) throws IOException {
+        this.vertices.load(ordinal);
+        this.reader.seek(this.offset(this.vertices, ordinal));
+        final TinkerVertex vertex = new TinkerVertex(this.reader.readValue(), this.reader.readString(), this.graph);
+        final int propertyCount = this.reader.readInt();
+        for (int i = 0; i < propertyCount; i++) {
+            final Object id = this.reader.readValue();
+            final String key = this.reader.readString();
+            final Object value = this.reader.readValue();
+            final TinkerVertexProperty<Object> property = new TinkerVertexProperty<>(id, vertex, key, value);
+            final int metaCount = this.reader.readInt();
+            for (int j = 0; j < metaCount; j++) {
+                if (null == property.properties) property.properties = TinkerHelper.createElementMap(this.graph);
+                final String metaKey = this.reader.readString();
+                property.properties.put(metaKey, new TinkerProperty<>(property, metaKey, this.reader.readValue()));
+            }
+            if (null == vertex.properties) vertex.properties = TinkerHelper.createElementMap(this.graph);
+            List<VertexProperty> list = vertex.properties.get(key);
+            if (null == list) {
+                list = TinkerHelper.createPropertyList(this.graph);
+                vertex.properties.put(key, list);
+            }
+            list.add(property);
+            if (null != this.graph.statistics) this.graph.statistics.addValue(vertex, key, value);
+        }
+
+        final long adjacency = this.reader.position();
+        final int outCount = this.reader.readInt();
+        this.reader.skip(outCount * Integer.BYTES);
+        if (outCount > 0 || this.reader.readInt() > 0) this.pendingAdjacency.put(vertex, adjacency);
+
+        TinkerHelper.addLabelIndex(this.graph.vertexLabels, vertex);
+        this.vertices.elements.put(vertex.id(), vertex);
+        return vertex;
+    }
+
+    private void materializeEdge(final int ordinal) throws IOException {
+        this.edges.load(ordinal);
+        this.reader.seek(this.offset(this.edges, ordinal));
+        final Object id = this.reader.readValue();
+        final String label = this.reader.readString();
+        final int outOrdinal = this.reader.readInt();
+        final int inOrdinal = this.reader.readInt();
+        final Object[] keyValues = new Object[this.reader.readInt() * 2];
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            keyValues[i] = this.reader.readString();
+            keyValues[i + 1] = this.reader.readValue();
+        }
+
+        final TinkerVertex outVertex = this.vertex(outOrdinal);
+        final TinkerVertex inVertex = this.vertex(inOrdinal);
+        final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (null == edge.properties) edge.properties = TinkerHelper.createElementMap(this.graph);
+            final String key = (String) keyValues[i];
+            edge.properties.put(key, new TinkerProperty<>(edge, key, keyValues[i + 1]));
+            if (null != this.graph.statistics) this.graph.statistics.addValue(edge, key, keyValues[i + 1]);
+        }
+        TinkerHelper.addOutEdge(outVertex, label, edge);
+        TinkerHelper.addInEdge(inVertex, label, edge);
+        TinkerHelper.addLabelIndex(this.graph.edgeLabels, edge);
+        this.edges.elements.put(id, edge);
+    }
+
+    private RuntimeException unreadable(final Exception ex) {
+        return new RuntimeException(String.format("Could not read the snapshot at %s", this.path), ex);
+    }
+
+    /**
+     * The records of the vertices or the edges of the snapshot along with the elements already materialized, which
+     * includes those added to the graph since it was opened.
+     */
+    private static final class Section<E extends Element> {
+        private final boolean vertices;
+        private final Map<Object, E> elements;
+        private final int count;
+        private final long offsetsStart;
+        private final long tableStart;
+        private final int tableSize;
+        private final BitSet loaded;
+        private volatile int unloaded;
+
+        private Section(final boolean vertices, final Map<Object, E> elements, final int count,
+                        final long offsetsStart, final long tableStart) {
+            this.vertices = vertices;
+            this.elements = elements;
+            this.count = count;
+            this.offsetsStart = offsetsStart;
+            this.tableStart = tableStart;
+            this.tableSize = TinkerSnapshot.tableSize(count);
+            this.loaded = new BitSet(count);
+            this.unloaded = count;
+        }
+
+        private void load(final int ordinal) {
+            this.loaded.set(ordinal);
+            this.unloaded--;
+        }
+
+        private void unload() {
+            this.loaded.set(0, this.count);
+            this.unloaded = 0;
+        }
+    }
+
+    /**
+     * The map of the vertices or the edges of the graph while the image is held, which materializes an element from
+     * the snapshot before it is looked up or replaced and materializes the whole snapshot before it is iterated.
+     */
+    private final class ElementMap<E extends Element> extends AbstractMap<Object, E> {
+        private final Section<E> section;
+
+        private ElementMap(final Section<E> section) {
+            this.section = section;
+        }
+
+        @Override
+        public E get(final Object key) {
+            final E element = this.section.elements.get(key);
+            return null != element || 0 == this.section.unloaded ? element : TinkerSnapshotImage.this.get(this.section, key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return this.section.elements.containsKey(key) ||
+                    (this.section.unloaded > 0 && TinkerSnapshotImage.this.holds(this.section, key));
+        }
+
+        @Override
+        public int size() {
+            return this.section.elements.size() + this.section.unloaded;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return 0 == this.size();
+        }
+
+        @Override
+        public E put(final Object key, final E value) {
+            this.get(key);
+            return this.section.elements.put(key, value);
+        }
+
+        @Override
+        public E putIfAbsent(final Object key, final E value) {
+            this.get(key);
+            return this.section.elements.putIfAbsent(key, value);
+        }
+
+        @Override
+        public E remove(final Object key) {
+            this.get(key);
+            return this.section.elements.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            TinkerSnapshotImage.this.discard();
+            this.section.elements.clear();
+        }
+
+        @Override
+        public Set<Object> keySet() {
+            TinkerSnapshotImage.this.loadAll();
+            return this.section.elements.keySet();
+        }
+
+        @Override
+        public Collection<E> values() {
+            TinkerSnapshotImage.this.loadAll();
+            return this.section.elements.values();
+        }
+
+        @Override
+        public Set<Entry<Object, E>> entrySet() {
+            TinkerSnapshotImage.this.loadAll();
+            return this.section.elements.entrySet();
+        }
+    }
+}
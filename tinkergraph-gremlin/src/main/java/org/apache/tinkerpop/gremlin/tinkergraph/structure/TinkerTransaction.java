@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Transaction} for a {@link TinkerGraph} configured with {@link TinkerGraph#GREMLIN_TINKERGRAPH_TRANSACTIONS}
+ * that provides snapshot isolation through multi-version concurrency control.
+ * <p/>
+ * Elements and properties are versioned by the transaction that added and removed them. A transaction reads the
+ * graph as of the last commit before it was opened along with its own changes, and reads outside of a transaction
+ * see the last commit, so readers never wait on writers and never see uncommitted or partially committed changes.
+ * Changes are made in place without locking the graph, so writers proceed concurrently. The first transaction to
+ * change an element wins: a change to an element that another open transaction changed, or that another transaction
+ * changed and committed after this one was opened, fails right away with a {@link TransactionException} rather than
+ * waiting for the other transaction to end. Commits only take a short lock to assign their version. Removed elements,
+ * replaced property values and stale index entries are purged by a later commit once no open transaction can read
+ * them.
+ */
+public final class TinkerTransaction extends AbstractThreadLocalTransaction {
+
+    private final ThreadLocal<TinkerVersion> current = new ThreadLocal<>();
+    private final Set<TinkerVersion> open = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    /**
+     * The committed versions whose purges wait on transactions that can still read what they remove, which is
+     * guarded by the {@link #commitLock}.
+     */
+    private final Deque<TinkerVersion> unpurged = new ArrayDeque<>();
+    private volatile long lastCommitted = 0L;
+
+    TinkerTransaction(final TinkerGraph graph) {
+        super(graph);
+    }
+
+    @Override
+    protected void doOpen() {
+        final TinkerVersion version = new TinkerVersion();
+        this.open.add(version);
+        version.readVersion = this.lastCommitted;
+        this.current.set(version);
+    }
+
+    @Override
+    protected void doCommit() throws TransactionException {
+        final TinkerVersion version = this.current.get();
+        if (version.writer) {
+            this.commitLock.lock();
+            try {
+                // the changes of the transaction become visible all at once with the assignment of its version
+                version.commitVersion = this.lastCommitted + 1;
+                this.lastCommitted = version.commitVersion;
+                this.unpurged.add(version);
+            } finally {
+                this.commitLock.unlock();
+            }
+        }
+        this.end(version, false);
+    }
+
+    @Override
+    protected void doRollback() throws TransactionException {
+        final TinkerVersion version = this.current.get();
+        try {
+            for (int i = version.rollbacks.size() - 1; i >= 0; i--) {
+                version.rollbacks.get(i).run();
+            }
+        } finally {
+            this.end(version, true);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return null != this.current.get();
+    }
+
+    /**
+     * Closes the transaction of the version and purges what is no longer visible. A transaction that changed the
+     * graph always does so while one that only read the graph does so only if no commit holds the lock. The indices
+     * are corrected for a rollback once the thread reads the last commit.
+     */
+    private void end(final TinkerVersion version, final boolean rolledBack) {
+        this.current.remove();
+        this.open.remove(version);
+        version.closeIterators();
+        if (version.writer)
+            this.commitLock.lock();
+        else if (!this.commitLock.tryLock())
+            return;
+        try {
+            if (rolledBack) version.reindexes.forEach(Runnable::run);
+            this.purge();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the purges of the committed versions that no open transaction can read past.
+     */
+    private void purge() {
+        long oldest = this.lastCommitted;
+        for (final TinkerVersion version : this.open) {
+            oldest = Math.min(oldest, version.readVersion);
+        }
+        while (!this.unpurged.isEmpty() && this.unpurged.peek().commitVersion <= oldest) {
+            final TinkerVersion version = this.unpurged.poll();
+            version.purges.forEach(Runnable::run);
+            version.reindexes.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Gets the version of the transaction of the current thread so that it may change the graph, opening the
+     * transaction as configured by its read-write behavior.
+     */
+    TinkerVersion write() {
+        this.readWrite();
+        final TinkerVersion version = this.current.get();
+        version.writer = true;
+        return version;
+    }
+
+    /**
+     * Gets the version of the transaction of the current thread or {@code null} if it has none open.
+     */
+    TinkerVersion current() {
+        return this.current.get();
+    }
+
+    /**
+     * Determines if data created and removed by the versions is visible to the current thread.
+     */
+    boolean isVisible(final TinkerVersion createdIn, final TinkerVersion removedIn) {
+        if (null == createdIn && null == removedIn) return true;
+        final TinkerVersion reader = this.current.get();
+        final long readVersion = null == reader ? this.lastCommitted : reader.readVersion;
+        return TinkerVersion.sees(createdIn, reader, readVersion) &&
+                (null == removedIn || !TinkerVersion.sees(removedIn, reader, readVersion));
+    }
+
+    /**
+     * Forgets the pending purges after the graph is cleared, which is not transactional.
+     */
+    void clear() {
+        this.unpurged.clear();
+    }
+}
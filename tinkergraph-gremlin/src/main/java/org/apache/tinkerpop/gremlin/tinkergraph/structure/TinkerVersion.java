@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of a transaction of a {@link TinkerTransaction}. Elements and properties refer to the version that
+ * created and removed them, which decides whether they are visible to a transaction from its
+ * {@link #readVersion} and the {@link #commitVersion} of those versions. Committing a transaction is thereby only
+ * a matter of assigning its {@link #commitVersion}.
+ */
+final class TinkerVersion {
+
+    /**
+     * The {@link #commitVersion} of a version that is not committed, which is never visible to other transactions.
+     */
+    static final long UNCOMMITTED = Long.MAX_VALUE;
+
+    /**
+     * The last version committed when the transaction was opened, which is zero until it is registered as open so
+     * that nothing it may read is purged in the meantime.
+     */
+    volatile long readVersion = 0L;
+
+    volatile long commitVersion = UNCOMMITTED;
+
+    /**
+     * Determines if the transaction changed the graph, in which case it is assigned a version when it commits.
+     */
+    boolean writer = false;
+
+    /**
+     * Actions that undo the changes of the transaction, which are run in reverse on rollback.
+     */
+    final List<Runnable> rollbacks = new ArrayList<>();
+
+    /**
+     * Actions that remove what the changes of the transaction replaced, which are run once it is committed and no
+     * open transaction has a {@link #readVersion} that can see what they remove.
+     */
+    final List<Runnable> purges = new ArrayList<>();
+
+    /**
+     * Actions that correct the indices for the elements the transaction changed, which are run along with the
+     * {@link #purges} or right after a rollback.
+     */
+    final List<Runnable> reindexes = new ArrayList<>();
+
+    /**
+     * The iterators over the elements of the graph that were opened in the transaction, which are closed when it
+     * ends so that a read left unfinished does not hold on to the store.
+     */
+    private final List<TinkerGraphIterator<?>> iterators = new ArrayList<>();
+    private int pruneAt = 64;
+
+    /**
+     * Registers an iterator opened in the transaction, forgetting those that were already consumed now and then.
+     */
+    void track(final TinkerGraphIterator<?> iterator) {
+        if (this.iterators.size() >= this.pruneAt) {
+            this.iterators.removeIf(TinkerGraphIterator::isFinished);
+            this.pruneAt = Math.max(64, this.iterators.size() * 2);
+        }
+        this.iterators.add(iterator);
+    }
+
+    /**
+     * Closes the iterators that were opened in the transaction and not yet consumed.
+     */
+    void closeIterators() {
+        this.iterators.forEach(TinkerGraphIterator::close);
+        this.iterators.clear();
+    }
+
+    /**
+     * Determines if the changes of the {@code version} are visible to a reader in the {@code reader} version, or
+     * outside of a transaction if it is {@code null}, given the version it reads. A {@code null} version stands for
+     * data that was not added by a transaction.
+     */
+    static boolean sees(final TinkerVersion version, final TinkerVersion reader, final long readVersion) {
+        return null == version || version == reader || version.commitVersion <= readVersion;
+    }
+
+    /**
+     * Determines if a change of the {@code version} is not yet committed or was committed after this transaction was
+     * opened, in which case this transaction may not change the same data. The changes of a version that is rolled
+     * back are undone, so they no longer refer to it.
+     */
+    boolean conflictsWith(final TinkerVersion version) {
+        return null != version && version != this && version.commitVersion > this.readVersion;
+    }
+
+    /**
+     * Marks the element as changed by this transaction, which fails if another transaction that is still open
+     * changed or removed it, or did so and committed after this one was opened.
+     */
+    void change(final TinkerElement element) {
+        synchronized (element) {
+            final TinkerVersion changedIn = element.changedIn;
+            if (changedIn == this)
+                return;
+            if (this.conflictsWith(changedIn))
+                throw conflict(element);
+            element.changedIn = this;
+            this.rollbacks.add(() -> {
+                synchronized (element) {
+                    element.changedIn = changedIn;
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks the element as added by this transaction so that it is only visible to it until it commits.
+     */
+    void add(final TinkerElement element, final Runnable unlink) {
+        element.createdIn = this;
+        element.changedIn = this;
+        this.rollbacks.add(unlink);
+    }
+
+    /**
+     * Marks the element as removed by this transaction so that it is no longer visible to it or to transactions
+     * opened after it commits. The element is unlinked from the graph once no open transaction can see it.
+     */
+    void remove(final TinkerElement element, final Runnable unlink) {
+        this.change(element);
+        element.removedIn = this;
+        this.rollbacks.add(() -> element.removedIn = null);
+        this.purges.add(unlink);
+    }
+
+    static TransactionException conflict(final TinkerElement element) {
+        return new TransactionException(String.format(
+                "Conflict: %s with id %s was changed by another transaction that is open or committed after this one was opened",
+                element.getClass().getSimpleName(), element.id()));
+    }
+}
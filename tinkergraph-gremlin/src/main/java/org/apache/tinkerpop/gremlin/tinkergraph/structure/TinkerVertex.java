@@ -28,8 +28,9 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -43,8 +44,8 @@ import java.util.stream.Collectors;
 public final class TinkerVertex extends TinkerElement implements Vertex {
 
     protected Map<String, List<VertexProperty>> properties;
-    protected Map<String, Set<Edge>> outEdges;
-    protected Map<String, Set<Edge>> inEdges;
+    protected Map<String, Collection<Edge>> outEdges;
+    protected Map<String, Collection<Edge>> inEdges;
     private final TinkerGraph graph;
     private boolean allowNullPropertyValues;
 
@@ -54,6 +55,15 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         this.allowNullPropertyValues = graph.features().vertex().supportsNullPropertyValues();
     }
 
+    /**
+     * Creates a vertex that refers to its record in the {@link TinkerOffHeapStorage} of the graph.
+     */
+    TinkerVertex(final Object id, final String label, final TinkerGraph graph, final long reference) {
+        super(id, label, reference);
+        this.graph = graph;
+        this.allowNullPropertyValues = graph.allowNullPropertyValues;
+    }
+
     @Override
     public Graph graph() {
         return this.graph;
@@ -61,7 +71,7 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> VertexProperty<V> property(final String key) {
-        if (this.removed) return VertexProperty.empty();
+        if (TinkerHelper.isRemoved(this.graph, this)) return VertexProperty.empty();
         if (TinkerHelper.inComputerMode(this.graph)) {
             final List<VertexProperty> list = (List) this.graph.graphComputerView.getProperty(this, key);
             if (list.size() == 0)
@@ -70,6 +80,14 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                 return list.get(0);
             else
                 throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+        } else if (null != this.graph.transaction || null != this.graph.offHeapStorage) {
+            final Iterator<VertexProperty<V>> iterator = this.properties(key);
+            if (!iterator.hasNext())
+                return VertexProperty.<V>empty();
+            final VertexProperty<V> property = iterator.next();
+            if (iterator.hasNext())
+                throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+            return property;
         } else {
             if (this.properties != null && this.properties.containsKey(key)) {
                 final List<VertexProperty> list = (List) this.properties.get(key);
@@ -84,7 +102,8 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
-        if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
+        final TinkerVersion version = null == this.graph.transaction ? null : this.graph.transaction.write();
+        if (TinkerHelper.isRemoved(this.graph, this)) throw elementAlreadyRemoved(Vertex.class, id);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         ElementHelper.validateProperty(key, value);
 
@@ -110,13 +129,28 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                     graph.vertexPropertyIdManager.convert(optionalId.get()) :
                     graph.vertexPropertyIdManager.getNextId(graph);
 
-            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+            final TinkerVertexProperty<V> vertexProperty;
+            if (null != this.graph.offHeapStorage) {
+                vertexProperty = this.graph.offHeapStorage.addVertexProperty(this, idValue, key, value);
+            } else {
+                vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+                if (null != version) {
+                    version.change(this);
+                    version.add(vertexProperty, vertexProperty::unlink);
+                }
 
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
+                if (null == this.properties) this.properties = TinkerHelper.createElementMap(this.graph);
+                List<VertexProperty> list = this.properties.get(key);
+                if (null == list) {
+                    list = TinkerHelper.createPropertyList(this.graph);
+                    this.properties.put(key, list);
+                }
+                list.add(vertexProperty);
+            }
             TinkerHelper.autoUpdateIndex(this, key, value, null);
+            if (null != this.graph.statistics) this.graph.statistics.addValue(this, key, value);
+            if (null != this.graph.mutationLog) this.graph.mutationLog.addVertexProperty(vertexProperty);
+            TinkerHelper.graphChanged(this.graph);
             ElementHelper.attachProperties(vertexProperty, keyValues);
             return vertexProperty;
         }
@@ -124,8 +158,10 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public Set<String> keys() {
+        if (null != this.graph.offHeapStorage)
+            return TinkerHelper.inComputerMode(this.graph) ? Vertex.super.keys() : this.graph.offHeapStorage.keys(this);
         if (null == this.properties) return Collections.emptySet();
-        return TinkerHelper.inComputerMode((TinkerGraph) graph()) ?
+        return TinkerHelper.inComputerMode((TinkerGraph) graph()) || null != this.graph.transaction ?
                 Vertex.super.keys() :
                 this.properties.keySet();
     }
@@ -133,18 +169,55 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     @Override
     public Edge addEdge(final String label, final Vertex vertex, final Object... keyValues) {
         if (null == vertex) throw Graph.Exceptions.argumentCanNotBeNull("vertex");
-        if (this.removed) throw elementAlreadyRemoved(Vertex.class, this.id);
+        if (TinkerHelper.isUnlinked(this)) throw elementAlreadyRemoved(Vertex.class, this.id);
         return TinkerHelper.addEdge(this.graph, this, (TinkerVertex) vertex, label, keyValues);
     }
 
     @Override
     public void remove() {
+        if (null != this.graph.transaction) {
+            final TinkerVersion version = this.graph.transaction.write();
+            // edges are added to the vertex under its lock, so none can be added that the removal does not see
+            synchronized (this) {
+                if (TinkerHelper.isRemoved(this.graph, this)) return;
+                version.change(this);
+                // an edge that this transaction cannot see would be left without its vertex
+                for (final Map<String, Collection<Edge>> adjacency : Arrays.asList(this.outEdges, this.inEdges)) {
+                    if (null == adjacency) continue;
+                    for (final Collection<Edge> edges : adjacency.values()) {
+                        for (final Edge edge : edges) {
+                            if (version.conflictsWith(((TinkerEdge) edge).createdIn))
+                                throw TinkerVersion.conflict(this);
+                        }
+                    }
+                }
+                this.edges(Direction.BOTH).forEachRemaining(Edge::remove);
+                version.remove(this, this::unlink);
+            }
+            return;
+        }
+
         final List<Edge> edges = new ArrayList<>();
         this.edges(Direction.BOTH).forEachRemaining(edges::add);
-        edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+        edges.stream().filter(edge -> !TinkerHelper.isUnlinked((TinkerEdge) edge)).forEach(Edge::remove);
+        this.unlink();
+        if (null != this.graph.mutationLog) this.graph.mutationLog.removeVertex(this);
+        TinkerHelper.graphChanged(this.graph);
+    }
+
+    /**
+     * Removes the vertex, which is expected to have no more edges, from the indices and the graph.
+     */
+    void unlink() {
+        if (null != this.graph.statistics) this.graph.statistics.removeValues(this);
         this.properties = null;
         TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
+        if (null != this.graph.offHeapStorage) {
+            this.graph.offHeapStorage.removeVertex(this);
+        } else {
+            this.graph.vertices.remove(this.id);
+            TinkerHelper.removeLabelIndex(this.graph.vertexLabels, this);
+        }
         this.removed = true;
     }
 
@@ -174,11 +247,15 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
-        if (this.removed) return Collections.emptyIterator();
+        if (TinkerHelper.isRemoved(this.graph, this)) return Collections.emptyIterator();
         if (TinkerHelper.inComputerMode((TinkerGraph) graph()))
             return (Iterator) ((TinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
         else {
+            if (null != this.graph.offHeapStorage)
+                return (Iterator) this.graph.offHeapStorage.vertexProperties(this, propertyKeys).iterator();
             if (null == this.properties) return Collections.emptyIterator();
+            if (null != this.graph.transaction)
+                return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).flatMap(entry -> entry.getValue().stream()).filter(TinkerHelper::isVisible).collect(Collectors.toList()).iterator();
             if (propertyKeys.length == 1) {
                 final List<VertexProperty> properties = this.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
                 if (properties.size() == 1) {
@@ -28,7 +28,6 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComp
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -43,7 +42,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     protected Map<String, Property> properties;
     private final TinkerVertex vertex;
     private final String key;
-    private final V value;
+    private V value;
     private final boolean allowNullPropertyValues;
 
     /**
@@ -72,6 +71,25 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
 
+    /**
+     * Creates a vertex property that refers to its record in the {@link TinkerOffHeapStorage} of the graph.
+     */
+    TinkerVertexProperty(final Object id, final TinkerVertex vertex, final String key, final V value, final long reference) {
+        super(id, key, reference);
+        this.allowNullPropertyValues = ((TinkerGraph) vertex.graph()).allowNullPropertyValues;
+        this.vertex = vertex;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Replaces the value that the property holds, which allows a subclass to hold it elsewhere by overriding
+     * {@link #value()}.
+     */
+    protected void setValue(final V value) {
+        this.value = value;
+    }
+
     @Override
     public String key() {
         return this.key;
@@ -105,26 +123,48 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public Set<String> keys() {
+        final TinkerTransaction transaction = ((TinkerGraph) this.graph()).transaction;
+        if (null != transaction) return TinkerHelper.getKeys(transaction, this.properties);
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage) return storage.keys(this);
         return null == this.properties ? Collections.emptySet() : this.properties.keySet();
     }
 
     @Override
     public <U> Property<U> property(final String key) {
+        final TinkerTransaction transaction = ((TinkerGraph) this.graph()).transaction;
+        if (null != transaction) return TinkerHelper.getProperty(transaction, this.properties, key);
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage) return storage.property(this, key);
         return null == this.properties ? Property.<U>empty() : this.properties.getOrDefault(key, Property.<U>empty());
     }
 
     @Override
     public <U> Property<U> property(final String key, final U value) {
-        if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final TinkerVersion version = null == graph.transaction ? null : graph.transaction.write();
+        if (TinkerHelper.isRemoved(graph, this)) throw elementAlreadyRemoved(VertexProperty.class, id);
 
         if ((!allowNullPropertyValues && null == value)) {
             properties(key).forEachRemaining(Property::remove);
             return Property.empty();
         }
 
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
+        final TinkerProperty<U> property = new TinkerProperty<>(this, key, value);
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage) {
+            storage.putProperty(this, key, value);
+        } else {
+            if (this.properties == null) this.properties = TinkerHelper.createElementMap(graph);
+            if (null == version) {
+                this.properties.put(key, property);
+            } else {
+                version.change(this);
+                TinkerHelper.putProperty(version, this.properties, property);
+            }
+        }
+        if (TinkerHelper.isLogged(this)) graph.mutationLog.setProperty(property);
+        TinkerHelper.graphChanged(graph);
         return property;
     }
 
@@ -135,11 +175,43 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.transaction) {
+            final TinkerVersion version = graph.transaction.write();
+            if (!TinkerHelper.isRemoved(graph, this)) {
+                version.change(this.vertex);
+                version.remove(this, this::unlink);
+            }
+            return;
+        }
+
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage) {
+            this.unlink();
+            TinkerHelper.graphChanged(graph);
+        } else if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+            final boolean logged = TinkerHelper.isLogged(this);
+            this.unlink();
+            if (logged) graph.mutationLog.removeVertexProperty(this);
+            TinkerHelper.graphChanged(graph);
+        }
+    }
+
+    /**
+     * Removes the vertex property from its vertex and the indices.
+     */
+    void unlink() {
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage ? storage.removeVertexProperty(this) :
+                null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+            final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+            if (null == storage) {
+                if (this.vertex.properties.get(this.key).remove(this) && null != graph.statistics)
+                    graph.statistics.removeValue(this.vertex, this.key);
+                if (this.vertex.properties.get(this.key).size() == 0) {
+                    this.vertex.properties.remove(this.key);
+                    TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                }
             }
             final AtomicBoolean delete = new AtomicBoolean(true);
             this.vertex.properties(this.key).forEachRemaining(property -> {
@@ -155,6 +227,10 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+        final TinkerTransaction transaction = ((TinkerGraph) this.graph()).transaction;
+        if (null != transaction) return TinkerHelper.getProperties(transaction, this.properties, propertyKeys);
+        final TinkerOffHeapStorage storage = TinkerOffHeapStorage.of(this);
+        if (null != storage) return storage.properties(this, propertyKeys);
         if (null == this.properties) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
             final Property<U> property = this.properties.get(propertyKeys[0]);
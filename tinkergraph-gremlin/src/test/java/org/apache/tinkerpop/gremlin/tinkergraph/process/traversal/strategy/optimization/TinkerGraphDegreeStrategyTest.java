@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexDegreeStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.bothE;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class TinkerGraphDegreeStrategyTest {
+
+    @Parameterized.Parameter(value = 0)
+    public Traversal original;
+
+    @Parameterized.Parameter(value = 1)
+    public Traversal optimized;
+
+    @Parameterized.Parameter(value = 2)
+    public Collection<TraversalStrategy> otherStrategies;
+
+    @Test
+    public void doTest() {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(TinkerGraphDegreeStrategy.instance());
+        for (final TraversalStrategy strategy : this.otherStrategies) {
+            strategies.addStrategies(strategy);
+        }
+        if (this.optimized == null) {
+            this.optimized = this.original.asAdmin().clone();
+            this.optimized.asAdmin().setStrategies(strategies);
+            this.optimized.asAdmin().applyStrategies();
+        }
+        this.original.asAdmin().setStrategies(strategies);
+        this.original.asAdmin().applyStrategies();
+        assertEquals(this.optimized, this.original);
+    }
+
+    private static GraphTraversal.Admin<?, ?> degree(final GraphTraversal.Admin<?, ?> traversal, final Direction direction, final String... edgeLabels) {
+        return (GraphTraversal.Admin) traversal.addStep(new TinkerVertexDegreeStep(traversal, direction, edgeLabels));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+        return Arrays.asList(new Object[][]{
+                {__.V().out("knows").count(), degree(__.V().asAdmin(), Direction.OUT, "knows").count(), Collections.emptyList()},
+                {__.V().outE().count(), degree(__.V().asAdmin(), Direction.OUT).count(), Collections.emptyList()},
+                {__.V().bothE("a", "b").count(), degree(__.V().asAdmin(), Direction.BOTH, "a", "b").count(), Collections.emptyList()},
+                {__.V().in().barrier().count(), degree(__.V().asAdmin(), Direction.IN).count(), Collections.emptyList()},
+                {__.V().out().out().count(), degree(__.V().out().asAdmin(), Direction.OUT).count(), Collections.emptyList()},
+                {__.V().project("d").by(outE().count()), __.V().project("d").by(degree(__.start().asAdmin(), Direction.OUT).count()), Collections.emptyList()},
+                {__.V().local(bothE().count()), null, TraversalStrategies.GlobalCache.getStrategies(TinkerGraph.class).toList()},
+                //
+                {__.V().out().as("a").count(), null, Collections.emptyList()},
+                {__.V().out().has("name").count(), null, Collections.emptyList()},
+                {__.V().out().dedup().count(), null, Collections.emptyList()},
+                {__.V().out().values("name").count(), null, Collections.emptyList()},
+                {__.V().out(), null, Collections.emptyList()},
+        });
+    }
+}
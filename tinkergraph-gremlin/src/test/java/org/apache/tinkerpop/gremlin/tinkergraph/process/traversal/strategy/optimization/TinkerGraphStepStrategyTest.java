@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
@@ -90,6 +91,12 @@ public class TinkerGraphStepStrategyTest {
         return traversal.addStep(graphStep);
     }
 
+    private static GraphTraversal.Admin<?, ?> orderedLimit(final GraphTraversal.Admin<?, ?> traversal, final String key,
+                                                          final Order order, final long limit) {
+        ((TinkerGraphStep<?, ?>) traversal.getStartStep()).setOrderedLimit(key, order, limit);
+        return traversal;
+    }
+
     private static GraphStep<?, ?> V(final Object... hasKeyValues) {
         final TinkerGraphStep<Vertex, Vertex> graphStep = new TinkerGraphStep<>(new GraphStep<>(EmptyTraversal.instance(), Vertex.class, true));
         for (int i = 0; i < hasKeyValues.length; i = i + 2) {
@@ -130,6 +137,13 @@ public class TinkerGraphStepStrategyTest {
                         g_V("name", eq("marko"), "name", eq("bob"), "name", eq("stephen")).out("knows"), Collections.emptyList()},
                 {__.V().has("name", P.eq("marko").and(P.eq("bob").or(P.eq("stephen")))).out("knows"),
                         g_V("name", eq("marko"), "name", P.eq("bob").or(eq("stephen"))).out("knows"), Collections.emptyList()},
+                {__.V().has("name", "marko").order().by("age", Order.desc).limit(10),
+                        orderedLimit(g_V("name", eq("marko")), "age", Order.desc, 10).order().by("age", Order.desc).limit(10), Collections.emptyList()},
+                {__.V().order().by("age").range(5, 10),
+                        orderedLimit(g_V(), "age", Order.asc, 10).order().by("age").range(5, 10), Collections.emptyList()},
+                {__.V().order().by("age").by("name").limit(10), g_V().order().by("age").by("name").limit(10), Collections.emptyList()},
+                {__.V().order().by("age", Order.shuffle).limit(10), g_V().order().by("age", Order.shuffle).limit(10), Collections.emptyList()},
+                {__.V().order().by("age"), g_V().order().by("age"), Collections.emptyList()},
                 ///////
                 {__.V().out().out().V().has("name", "marko").out(), g_V().out().barrier(LAZY_SIZE).out().barrier(LAZY_SIZE).asAdmin().addStep(V("name", eq("marko"))).barrier(LAZY_SIZE).out(), Arrays.asList(InlineFilterStrategy.instance(), FilterRankingStrategy.instance(), LazyBarrierStrategy.instance())},
                 {__.V().out().out().V().has("name", "marko").as("a").out(), g_V().out().barrier(LAZY_SIZE).out().barrier(LAZY_SIZE).asAdmin().addStep(V("name", eq("marko"))).barrier(LAZY_SIZE).as("a").out(), Arrays.asList(InlineFilterStrategy.instance(), FilterRankingStrategy.instance(), LazyBarrierStrategy.instance())},
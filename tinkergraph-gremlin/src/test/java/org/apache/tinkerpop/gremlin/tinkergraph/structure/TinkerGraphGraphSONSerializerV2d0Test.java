@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -39,6 +40,7 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONXModuleV2d0;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.TypeInfo;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
@@ -49,6 +51,7 @@ import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.UUID;
@@ -514,13 +517,14 @@ public class TinkerGraphGraphSONSerializerV2d0Test {
     }
 
     /**
-     * Checks sequentially vertices and edges of both graphs. Will check sequentially Vertex IDs, Vertex Properties IDs
-     * and values and classes. Then same for edges. To use when serializing a Graph and deserializing the supposedly
-     * same Graph.
+     * Checks sequentially vertices and edges of both graphs, sorted by their IDs as the graph that is read uses the
+     * default identifier manager and so may iterate them in another order. Will check sequentially Vertex IDs, Vertex
+     * Properties IDs and values and classes. Then same for edges. To use when serializing a Graph and deserializing
+     * the supposedly same Graph.
      */
     private boolean approximateGraphsCheck(Graph g1, Graph g2) {
-        final Iterator<Vertex> itV = g1.vertices();
-        final Iterator<Vertex> itVRead = g2.vertices();
+        final Iterator<Vertex> itV = sortedById(g1.vertices());
+        final Iterator<Vertex> itVRead = sortedById(g2.vertices());
 
         while (itV.hasNext()) {
             final Vertex v = itV.next();
@@ -543,8 +547,8 @@ public class TinkerGraphGraphSONSerializerV2d0Test {
             }
         }
 
-        final Iterator<Edge> itE = g1.edges();
-        final Iterator<Edge> itERead = g2.edges();
+        final Iterator<Edge> itE = sortedById(g1.edges());
+        final Iterator<Edge> itERead = sortedById(g2.edges());
 
         while (itE.hasNext()) {
             final Edge e = itE.next();
@@ -567,4 +571,8 @@ public class TinkerGraphGraphSONSerializerV2d0Test {
         }
         return true;
     }
+
+    private static <E extends Element> Iterator<E> sortedById(final Iterator<E> elements) {
+        return IteratorUtils.list(elements, Comparator.<E, String>comparing(e -> e.id().toString())).iterator();
+    }
 }
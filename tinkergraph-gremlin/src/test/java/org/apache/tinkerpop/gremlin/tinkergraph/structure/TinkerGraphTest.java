@@ -23,21 +23,35 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.GraphHelper;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.connected.ConnectedComponentVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.search.path.ShortestPathVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchExecutionStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.ParallelTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReservedKeysVerificationStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.BulkLoadable;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
@@ -51,6 +65,10 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolverV1d0;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -65,29 +83,46 @@ import java.awt.Color;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.StringContains.containsString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -293,6 +328,33 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldRemoveVertexWithMultiPropertiesFromAnIndexBuiltOnExistingGraph() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex("name", "marko");
+        v.property(VertexProperty.Cardinality.list, "type", "order");
+        v.property(VertexProperty.Cardinality.list, "type", "invoice");
+        final Vertex u = g.addVertex("name", "stephen", "type", "order");
+        g.createIndex("name", Vertex.class);
+        g.createIndex("type", Vertex.class);
+
+        assertEquals(Arrays.asList(v), g.vertexIndex.get("type", "invoice"));
+        assertEquals(2, g.vertexIndex.count("type", "order"));
+
+        v.properties("type").forEachRemaining(p -> {
+            if (p.value().equals("invoice")) p.remove();
+        });
+        assertEquals(0, g.vertexIndex.count("type", "invoice"));
+
+        g.dropIndex("name", Vertex.class);
+        v.remove();
+        assertEquals(Arrays.asList(u), g.vertexIndex.get("type", "order"));
+        assertEquals(Arrays.asList(u), g.traversal().V().has("type", "order").toList());
+
+        u.remove();
+        assertEquals(0, g.vertexIndex.count("type", "order"));
+    }
+
     @Test
     public void shouldUpdateEdgeIndicesInExistingGraph() {
         final TinkerGraph g = TinkerGraph.open();
@@ -321,6 +383,1095 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldUseOrderedVertexIndexForRanges() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27L);
+        g.addVertex("name", "josh", "age", 32);
+        g.addVertex("name", "peter", "age", 35);
+        g.addVertex("name", "lop");
+
+        // spy on the "name" values that reach the pipeline - only those that the index lookup on "age" allows
+        // should pass
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter"));
+            return true;
+        }, "x")).has("age", P.gt(29)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("josh"));
+            return true;
+        }, "x")).has("age", P.between(28, 33)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("vadas") || t.equals("peter"));
+            return true;
+        }, "x")).has("age", P.outside(28L, 33L)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("vadas") || t.equals("josh"));
+            return true;
+        }, "x")).has("age", P.within(27, 32)).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("age", P.inside(29, 30)).count().next());
+    }
+
+    @Test
+    public void shouldUpdateOrderedVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+
+        final Vertex marko = g.addVertex("name", "marko", "age", 29);
+        final Vertex josh = g.addVertex("name", "josh", "age", 32);
+        assertEquals(Arrays.asList("josh"), g.traversal().V().has("age", P.gte(30)).values("name").toList());
+
+        marko.property("age", 31);
+        josh.remove();
+        assertEquals(Arrays.asList("marko"), g.traversal().V().has("age", P.gte(30)).values("name").toList());
+        assertEquals(new Long(0), g.traversal().V().has("age", P.lt(30)).count().next());
+    }
+
+    @Test
+    public void shouldUseOrderedEdgeIndexForRanges() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "oid", "1", "weight", 0.5f);
+        v.addEdge("friend", v, "oid", "2", "weight", 0.6f);
+        v.addEdge("friend", v, "oid", "3", "weight", 0.7f);
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.ORDERED);
+
+        assertEquals(new Long(1), g.traversal().E().has("oid", P.test((t, u) -> {
+            assertEquals("3", t);
+            return true;
+        }, "x")).has("weight", P.gt(0.6f)).count().next());
+    }
+
+    @Test
+    public void shouldFallBackToScanForOrderedIndexWithMixedTypes() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "josh", "age", "thirty-two");
+
+        // a scan would fail comparing a String to a number so the index must not hide that
+        try {
+            g.traversal().V().has("age", P.gt(20)).toList();
+            fail("Should have failed comparing a String with a Number");
+        } catch (Exception ex) {
+            assertThat(ex, instanceOf(IllegalArgumentException.class));
+        }
+
+        // equality still works across the mixed types
+        assertEquals(Arrays.asList("josh"), g.traversal().V().has("age", "thirty-two").values("name").toList());
+        assertEquals(Arrays.asList("marko"), g.traversal().V().has("age", 29L).values("name").toList());
+    }
+
+    @Test
+    public void shouldUseOrderedVertexIndexForOrderedLimit() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("score", Vertex.class, TinkerGraph.IndexType.ORDERED);
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("name", "v" + i, "score", i % 50);
+        }
+        g.addVertex("name", "none");
+
+        // spy on the "name" values that reach the pipeline - with the ordered index only the top of the index
+        // plus ties should pass
+        final List<Object> seen = new ArrayList<>();
+        assertEquals(Arrays.asList(49, 49, 48), g.traversal().V().has("name", P.test((t, u) -> {
+            seen.add(t);
+            return true;
+        }, "x")).order().by("score", Order.desc).limit(3).values("score").toList());
+        assertEquals(4, seen.size());
+
+        assertEquals(Arrays.asList(0, 0, 1, 1, 2), g.traversal().V().order().by("score").limit(5).values("score").toList());
+        assertEquals(Arrays.asList(10, 10, 11), g.traversal().V().has("score", P.gte(10)).order().by("score").limit(3).values("score").toList());
+        assertEquals(Arrays.asList(1, 1), g.traversal().V().order().by("score").range(2, 4).values("score").toList());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotCreateIndexOfDifferentTypeForSameKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+    }
+
+    @Test
+    public void shouldUseCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("tenant", Vertex.class);
+        g.createCompositeIndex(Arrays.asList("tenant", "type"), Vertex.class);
+
+        for (int i = 0; i < 10; i++) {
+            g.addVertex("tenant", "a", "type", "order", "name", "a-order");
+            g.addVertex("tenant", "a", "type", "invoice", "name", "a-invoice");
+        }
+        g.addVertex("tenant", "b", "type", "order", "name", "b-order");
+
+        // the composite index returns fewer elements than the "tenant" index so only "order" vertices of tenant "a"
+        // should reach the pipeline
+        assertEquals(new Long(10), g.traversal().V().has("name", P.test((t, u) -> {
+            assertEquals("a-order", t);
+            return true;
+        }, "x")).has("tenant", "a").has("type", "order").count().next());
+
+        // the "tenant" index is the more selective for "b"
+        assertEquals(new Long(1), g.traversal().V().has("name", P.test((t, u) -> {
+            assertEquals("b-order", t);
+            return true;
+        }, "x")).has("tenant", "b").count().next());
+    }
+
+    @Test
+    public void shouldUpdateCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("tenant", "type"), Vertex.class);
+
+        final Vertex v1 = g.addVertex("tenant", "a", "type", "order");
+        final Vertex v2 = g.addVertex("tenant", "a", "type", "order");
+        final Vertex v3 = g.addVertex("tenant", "a");
+        assertEquals(2, g.traversal().V().has("tenant", "a").has("type", "order").toList().size());
+
+        v1.property("type", "invoice");
+        v3.property("type", "order");
+        v2.property("tenant").remove();
+        assertEquals(Arrays.asList(v3), g.traversal().V().has("tenant", "a").has("type", "order").toList());
+        assertEquals(Arrays.asList(v1), g.traversal().V().has("tenant", "a").has("type", "invoice").toList());
+
+        v3.remove();
+        assertEquals(new Long(0), g.traversal().V().has("tenant", "a").has("type", "order").count().next());
+
+        g.dropCompositeIndex(Arrays.asList("tenant", "type"), Vertex.class);
+        assertEquals(0, g.getCompositeIndexes(Vertex.class).size());
+        assertEquals(Arrays.asList(v1), g.traversal().V().has("tenant", "a").has("type", "invoice").toList());
+    }
+
+    @Test
+    public void shouldIndexCompositeVertexIndexWithMultiProperties() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex("tenant", "a");
+        v.property(VertexProperty.Cardinality.list, "type", "order");
+        v.property(VertexProperty.Cardinality.list, "type", "invoice");
+        g.createCompositeIndex(Arrays.asList("tenant", "type"), Vertex.class);
+
+        assertEquals(Arrays.asList(v), g.traversal().V().has("tenant", "a").has("type", "order").toList());
+        assertEquals(Arrays.asList(v), g.traversal().V().has("tenant", "a").has("type", "invoice").toList());
+    }
+
+    @Test
+    public void shouldUseCompositeEdgeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("oid", "kind"), Edge.class);
+
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "oid", "1", "kind", "x", "weight", 0.5f);
+        v.addEdge("friend", v, "oid", "1", "kind", "y", "weight", 0.6f);
+        v.addEdge("friend", v, "oid", "2", "kind", "x", "weight", 0.7f);
+
+        assertEquals(new Long(1), g.traversal().E().has("weight", P.test((t, u) -> {
+            assertEquals(0.5f, t);
+            return true;
+        }, 0.5)).has("kind", "x").has("oid", "1").count().next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithOneKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Collections.singletonList("tenant"), Vertex.class);
+    }
+
+    @Test
+    public void shouldUseLabelIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, "person", "name", "p" + i);
+        }
+        final Vertex software = g.addVertex(T.label, "software", "name", "lop");
+        g.addVertex(T.label, "company", "name", "acme");
+
+        // only the elements with the label should be tested by the remaining filter
+        final AtomicInteger called = new AtomicInteger(0);
+        assertEquals(2, g.traversal().V().hasLabel("software", "company").has("name", P.test((t, u) -> {
+            called.incrementAndGet();
+            return true;
+        }, null)).count().next().intValue());
+        assertEquals(2, called.get());
+
+        assertEquals(100, g.traversal().V().hasLabel("person").count().next().intValue());
+        assertEquals(0, g.traversal().V().hasLabel("person").hasLabel("software").count().next().intValue());
+        assertEquals(0, g.traversal().V().hasLabel("nothing").count().next().intValue());
+
+        software.remove();
+        assertEquals(0, g.traversal().V().hasLabel("software").count().next().intValue());
+        assertEquals(0, IteratorUtils.count(g.traversal().V().hasLabel("software")));
+
+        // elements added with the label while iterating the index are not visited
+        assertEquals(1, g.traversal().V().hasLabel("company").addV("company").count().next().intValue());
+        assertEquals(2, g.traversal().V().hasLabel("company").count().next().intValue());
+
+        g.clear();
+        assertEquals(0, g.traversal().V().hasLabel("person").count().next().intValue());
+    }
+
+    @Test
+    public void shouldUseLabelIndexForEdges() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        assertEquals(2, g.traversal().E().hasLabel("knows").count().next().intValue());
+        assertEquals(6, g.traversal().E().hasLabel("knows", "created").count().next().intValue());
+        assertEquals(1, g.traversal().E().hasLabel("knows").has("weight", 1.0d).count().next().intValue());
+
+        g.traversal().E().hasLabel("knows").drop().iterate();
+        assertEquals(0, g.traversal().E().hasLabel("knows").count().next().intValue());
+        assertEquals(4, g.traversal().E().hasLabel("knows", "created").toList().size());
+
+        g.traversal().V().has("name", "marko").drop().iterate();
+        assertEquals(3, g.traversal().E().hasLabel("created").count().next().intValue());
+    }
+
+    @Test
+    public void shouldSupportCompactStorage() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_STORAGE, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex a = g.addVertex(T.label, "person", "name", "a", "name", "alias", "age", 29);
+        final List<Vertex> others = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final Vertex other = g.addVertex(T.label, "person", "name", "p" + i);
+            a.addEdge(i % 2 == 0 ? "knows" : "likes", other, "weight", (double) i);
+            others.add(other);
+        }
+        a.properties("name").next().property("since", 2001);
+
+        // compact storage defaults to numeric identifiers held in primitive-keyed maps
+        assertThat(a.id(), instanceOf(Long.class));
+        assertThat(a.properties("name").next().id(), instanceOf(Long.class));
+        assertThat(g.vertices, instanceOf(TinkerLongElementMap.class));
+        assertThat(g.edges, instanceOf(TinkerLongElementMap.class));
+        assertEquals(a, g.vertices(a.id().toString()).next());
+
+        assertEquals(2, IteratorUtils.count(a.properties("name")));
+        assertEquals(2001, (int) a.properties("name").next().value("since"));
+        assertEquals(10, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(5, IteratorUtils.count(a.edges(Direction.OUT, "knows")));
+        assertEquals(1, IteratorUtils.count(others.get(3).edges(Direction.IN, "likes")));
+        assertEquals(3.0d, (double) others.get(3).edges(Direction.IN).next().value("weight"), 0.0d);
+
+        // removal moves the last entry into the removed one which must leave the remaining entries intact
+        others.get(0).remove();
+        others.get(5).remove();
+        a.properties("age").forEachRemaining(Property::remove);
+        assertEquals(8, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(new HashSet<>(Arrays.asList("p1", "p2", "p3", "p4", "p6", "p7", "p8", "p9")),
+                new HashSet<>(g.traversal().V(a).out().values("name").toList()));
+        assertEquals(Collections.singleton("name"), a.keys());
+
+        g.traversal().V(a).outE("knows").drop().iterate();
+        assertEquals(4, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(0, IteratorUtils.count(a.edges(Direction.BOTH, "knows")));
+    }
+
+    @Test(timeout = 30000)
+    public void shouldDropEdgesOfHighDegreeVertexWithCompactStorage() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_STORAGE, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex hub = g.addVertex("name", "hub");
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            final Vertex other = g.addVertex();
+            edges.add(hub.addEdge("knows", other));
+            if (i % 2 == 0) edges.add(other.addEdge("knows", hub));
+        }
+
+        // removing in random order moves edges between slots which must leave every remaining edge removable
+        Collections.shuffle(edges, new Random(123456789L));
+        edges.subList(0, edges.size() / 2).forEach(Edge::remove);
+        assertEquals(150000, IteratorUtils.count(hub.edges(Direction.BOTH)));
+        assertEquals(150000L, (long) g.traversal().E().count().next());
+        assertEquals(new HashSet<>(edges.subList(edges.size() / 2, edges.size())), new HashSet<>(IteratorUtils.list(hub.edges(Direction.BOTH))));
+
+        g.traversal().V(hub).bothE().drop().iterate();
+        assertEquals(0, IteratorUtils.count(hub.edges(Direction.BOTH)));
+        assertEquals(0L, (long) g.traversal().E().count().next());
+        assertEquals(200001L, (long) g.traversal().V().count().next());
+    }
+
+    @Test
+    public void shouldIsolateReadersFromUncommittedChangesWithTransactions() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        assertTrue(g.features().graph().supportsTransactions());
+
+        final Vertex v = g.addVertex("name", "a");
+        g.tx().commit();
+
+        final ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            v.property("name", "b");
+            g.addVertex("name", "c");
+            assertEquals(2L, (long) g.traversal().V().count().next());
+            assertEquals("a", reader.submit(() -> g.traversal().V().values("name").next()).get());
+            assertEquals(1L, (long) reader.submit(() -> g.traversal().V().count().next()).get());
+
+            // the transaction the reader opened before the commit keeps reading the graph as it was
+            g.tx().commit();
+            assertEquals(Collections.singletonList("a"), reader.submit(() -> g.traversal().V().values("name").toList()).get());
+            reader.submit(() -> g.tx().commit()).get();
+            assertEquals(new HashSet<>(Arrays.asList("b", "c")), reader.submit(() -> g.traversal().V().values("name").toSet()).get());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRollbackChangesWithTransactions() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        g.createIndex("name", Vertex.class);
+        g.createIndex("weight", Edge.class);
+
+        final Vertex a = g.addVertex("name", "a");
+        final Vertex b = g.addVertex("name", "b");
+        final Edge e = a.addEdge("knows", b, "weight", 0.5d);
+        g.tx().commit();
+
+        a.property("name", "x");
+        e.property("weight", 1.0d);
+        b.remove();
+        g.addVertex("name", "c");
+        g.variables().set("k", "v");
+        assertEquals(2L, (long) g.traversal().V().count().next());
+        assertEquals(0L, (long) g.traversal().E().count().next());
+        g.tx().rollback();
+
+        final GraphTraversalSource t = g.traversal();
+        assertEquals(2L, (long) t.V().count().next());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), t.V().values("name").toSet());
+        assertEquals(1L, (long) t.V().has("name", "a").count().next());
+        assertEquals(0L, (long) t.V().has("name", "x").count().next());
+        assertEquals(0L, (long) t.V().has("name", "c").count().next());
+        assertEquals(0.5d, t.E().has("weight", 0.5d).values("weight").next());
+        assertEquals(0L, (long) t.E().has("weight", 1.0d).count().next());
+        assertEquals(b, t.V(a).out("knows").next());
+        assertEquals(false, g.variables().get("k").isPresent());
+    }
+
+    @Test
+    public void shouldFailChangesThatConflictWithTransactions() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v = g.addVertex("name", "a");
+        g.tx().commit();
+
+        final ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            other.submit(() -> g.tx().open()).get();
+            v.property("name", "b");
+            g.tx().commit();
+            try {
+                other.submit(() -> v.property("name", "c")).get();
+                fail("The change should conflict with the committed one");
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause(), instanceOf(TransactionException.class));
+            }
+            other.submit(() -> g.tx().rollback()).get();
+
+            // a transaction opened after the commit may change the vertex
+            other.submit(() -> {
+                v.property("name", "c");
+                g.tx().commit();
+            }).get();
+            assertEquals("c", g.traversal().V(v).values("name").next());
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldNotBlockConcurrentWritersWithTransactions() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex a = g.addVertex("name", "a");
+        final Vertex b = g.addVertex("name", "b");
+        g.tx().commit();
+
+        final ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            // the open transaction of this thread does not hold up the writes of the other one
+            a.property("name", "x");
+            other.submit(() -> {
+                b.property("name", "y");
+                g.addVertex("name", "c").addEdge("knows", b);
+            }).get(10, TimeUnit.SECONDS);
+
+            // the first transaction to change an element wins and the other fails without waiting for it to end
+            try {
+                other.submit(() -> a.property("name", "z")).get(10, TimeUnit.SECONDS);
+                fail("The change should conflict with the open transaction");
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause(), instanceOf(TransactionException.class));
+            }
+            try {
+                b.remove();
+                fail("The removal should conflict with the open transaction");
+            } catch (TransactionException ex) {
+                // the other transaction changed the vertex and added an edge to it
+            }
+
+            other.submit(() -> g.tx().commit()).get(10, TimeUnit.SECONDS);
+            g.tx().commit();
+            assertEquals(new HashSet<>(Arrays.asList("x", "y", "c")), g.traversal().V().values("name").toSet());
+            assertEquals(1L, (long) g.traversal().V(b).in("knows").count().next());
+        } finally {
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldPurgeRemovedElementsOnceNoTransactionReadsThem() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        g.createIndex("name", Vertex.class);
+        final Vertex a = g.addVertex("name", "a");
+        g.addVertex("name", "b").addEdge("knows", a);
+        g.tx().commit();
+
+        final ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            reader.submit(() -> g.tx().open()).get();
+            a.remove();
+            g.tx().commit();
+
+            // the reader still sees the vertex and its edge so they are kept
+            assertEquals(0L, (long) g.traversal().V().has("name", "a").count().next());
+            assertEquals(1L, (long) reader.submit(() -> g.traversal().V().has("name", "a").in("knows").count().next()).get());
+            assertEquals(2, TinkerHelper.getVertices(g).size());
+            assertEquals(1, TinkerHelper.getEdges(g).size());
+
+            reader.submit(() -> g.tx().commit()).get();
+            assertEquals(1, TinkerHelper.getVertices(g).size());
+            assertEquals(0, TinkerHelper.getEdges(g).size());
+            assertEquals(0, TinkerHelper.queryVertexIndex(g, "name", "a").size());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowTransactionsWithCompactStorage() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_STORAGE, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldKeepAdjacencyOrderedWhenConfigured() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex a = g.addVertex("name", "a");
+        final List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(a.addEdge("knows", g.addVertex("name", "p" + i)).id());
+        }
+        assertEquals(ids, g.traversal().V(a).outE().id().toList());
+        assertEquals(ids.subList(0, 3), g.traversal().V(a).outE().limit(3).id().toList());
+        assertEquals(Arrays.asList("p0", "p1"), g.traversal().V(a).out().limit(2).values("name").toList());
+
+        // removal while iterating skips the removed edges and additions are appended after the others
+        g.traversal().V(a).outE().limit(50).drop().iterate();
+        final Edge added = a.addEdge("knows", a);
+        assertEquals(51, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(ids.get(50), a.edges(Direction.OUT).next().id());
+        assertEquals(added, g.traversal().V(a).outE().tail().next());
+        assertEquals(added, a.edges(Direction.IN).next());
+        assertEquals(52, IteratorUtils.count(a.vertices(Direction.BOTH)));
+
+        final Iterator<Edge> edges = a.edges(Direction.OUT);
+        edges.next();
+        g.traversal().V(a).outE().drop().iterate();
+        assertThat(edges.hasNext(), is(false));
+        assertEquals(0L, g.traversal().V(a).bothE().count().next().longValue());
+        assertEquals(101L, g.traversal().V().count().next().longValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowTransactionsWithOrderedAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ORDERED_ADJACENCY, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldHoldElementsOffHeapWhenConfigured() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex a = g.addVertex(T.id, 1L, T.label, "person", "name", "a", "age", 29, "weight", 0.5d);
+        a.property("flags", (byte) 3);
+        a.property("rank", (short) 4);
+        a.property("score", 1.5f);
+        a.property("born", 1990L);
+        a.property("active", true);
+        a.property("grade", 'b');
+        final Vertex b = g.addVertex(T.id, 2L, T.label, "person", "name", "b");
+        final Edge e = a.addEdge("knows", b, T.id, 10L, "since", 2010);
+
+        // the values are read back from the storage through new instances of the elements
+        final Vertex readA = g.vertices(1L).next();
+        assertNotSame(a, readA);
+        assertEquals(a, readA);
+        assertEquals("a", readA.value("name"));
+        assertEquals(29, (int) readA.value("age"));
+        assertEquals(0.5d, readA.value("weight"), 0.0d);
+        assertEquals((byte) 3, (byte) readA.value("flags"));
+        assertEquals((short) 4, (short) readA.value("rank"));
+        assertEquals(1.5f, readA.value("score"), 0.0f);
+        assertEquals(1990L, (long) readA.value("born"));
+        assertTrue(readA.value("active"));
+        assertEquals('b', (char) readA.value("grade"));
+        assertEquals(2010, (int) g.edges(10L).next().value("since"));
+        assertEquals(Collections.singletonList("b"), g.traversal().V(1L).out("knows").values("name").toList());
+        assertEquals(1L, TinkerHelper.getDegree((TinkerVertex) readA, Direction.OUT));
+        assertEquals(2, TinkerHelper.getVerticesByLabel(g, "person").size());
+
+        // removals are seen through every instance of the element and its id may be reused
+        readA.property("age").remove();
+        assertFalse(a.property("age").isPresent());
+        g.edges(10L).next().remove();
+        assertFalse(g.edges(10L).hasNext());
+        assertFalse(e.vertices(Direction.OUT).hasNext());
+        assertEquals(0L, TinkerHelper.getDegree((TinkerVertex) b, Direction.IN));
+        readA.remove();
+        assertFalse(a.property("name").isPresent());
+        try {
+            a.property("name", "x");
+            fail("Should not write the properties of a removed vertex");
+        } catch (IllegalStateException ignored) {
+        }
+        final Vertex reused = g.addVertex(T.id, 1L, "name", "c");
+        assertEquals("c", g.vertices(1L).next().value("name"));
+        assertFalse(reused.property("weight").isPresent());
+        assertEquals(2L, g.traversal().V().count().next().longValue());
+
+        g.clear();
+        assertFalse(g.vertices().hasNext());
+        assertFalse(g.vertices(2L).hasNext());
+    }
+
+    @Test
+    public void shouldRunGraphComputerOverOffHeapStorage() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(g.addVertex("name", "v" + i));
+        }
+        for (int i = 0; i < vertices.size(); i++) {
+            vertices.get(i).addEdge("knows", vertices.get((i * 7 + 1) % vertices.size()));
+        }
+        final ComputerResult result = g.compute().program(PageRankVertexProgram.build().iterations(2).create(g)).submit().get();
+        assertEquals(100L, result.graph().traversal().V().has(PageRankVertexProgram.PAGE_RANK).count().next().longValue());
+        assertFalse(g.traversal().V().has(PageRankVertexProgram.PAGE_RANK).hasNext());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowOffHeapStorageWithTransactions() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_STORAGE, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldCountDegreeFromAdjacency() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource gts = g.traversal();
+        final Vertex marko = gts.V(1).next();
+        assertEquals(3L, TinkerHelper.getDegree((TinkerVertex) marko, Direction.OUT));
+        assertEquals(2L, TinkerHelper.getDegree((TinkerVertex) marko, Direction.BOTH, "knows", "missing"));
+        assertEquals(0L, TinkerHelper.getDegree((TinkerVertex) marko, Direction.IN));
+
+        assertEquals(6L, gts.V().out().count().next().longValue());
+        assertEquals(4L, gts.V().in("created").count().next().longValue());
+        assertEquals(12L, gts.V().bothE().count().next().longValue());
+        assertEquals(12L, gts.V().bothE("knows", "created").count().next().longValue());
+        assertEquals(0L, gts.V().outE("missing").count().next().longValue());
+        assertEquals(Arrays.asList(3L, 0L, 0L, 2L, 0L, 1L), gts.V().order().by(T.id).map(__.outE().count()).toList());
+        assertEquals(12L, gts.V().out().in().count().next().longValue());
+        assertEquals(6, gts.V().group("m").by().by(__.bothE().count()).toList().size());
+
+        // the degree step must be in place for the counts above to be taken from the adjacency
+        assertThat(gts.V().out().count().explain().prettyPrint(), containsString("TinkerVertexDegreeStep"));
+
+        gts.V(1).outE("knows").limit(1).drop().iterate();
+        assertEquals(2L, gts.V(1).outE().count().next().longValue());
+        gts.V(1).addE("knows").to(__.V(1)).iterate();
+        assertEquals(3L, gts.V(1).bothE("knows").count().next().longValue());
+        assertEquals(IteratorUtils.count(marko.edges(Direction.BOTH)), gts.V(1).bothE().count().next().longValue());
+    }
+
+    @Test
+    public void shouldShareVerticesBetweenWorkersOfGraphComputer() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            vertices.add(g.addVertex("name", "v" + i));
+        }
+        // the first vertex has far more edges than any other which must not keep the other workers idle
+        for (int i = 1; i < vertices.size(); i++) {
+            vertices.get(0).addEdge("knows", vertices.get(i));
+            vertices.get(i).addEdge("knows", vertices.get((i * 31) % vertices.size()));
+        }
+
+        final TinkerGraphComputer computer = (TinkerGraphComputer) g.compute();
+        final int workers = Math.min(4, computer.features().getMaxWorkers());
+        final ComputerResult result = computer.workers(workers).program(PageRankVertexProgram.build().iterations(2).create(g)).submit().get();
+        assertEquals(10000L, result.graph().traversal().V().has(PageRankVertexProgram.PAGE_RANK).count().next().longValue());
+        assertEquals(2, result.memory().getIteration());
+        assertEquals(workers, computer.getWorkerBusyTime().length);
+        assertEquals(workers, computer.getWorkerIdleTime().length);
+        for (int i = 0; i < workers; i++) {
+            assertThat(computer.getWorkerBusyTime()[i] >= 0, is(true));
+            assertThat(computer.getWorkerIdleTime()[i] >= 0, is(true));
+        }
+    }
+
+    @Test
+    public void shouldReceiveSameMessagesWithAndWithoutTraversingIncidentEdges() throws Exception {
+        final TinkerGraph g = TinkerFactory.createModern();
+        // a single outE() is received by walking the edges of the vertex while the has() requires the reversed traversal
+        final Map<Object, Double> walked = pageRanks(g, __.outE("knows", "created"));
+        final Map<Object, Double> traversed = pageRanks(g, __.outE("knows", "created").has("weight"));
+        assertEquals(6, walked.size());
+        assertEquals(walked.keySet(), traversed.keySet());
+        walked.forEach((id, rank) -> assertEquals(rank, traversed.get(id), 0.000001d));
+    }
+
+    private static Map<Object, Double> pageRanks(final TinkerGraph g, final Traversal<Vertex, Edge> edges) throws Exception {
+        final ComputerResult result = g.compute().program(PageRankVertexProgram.build().edges(edges.asAdmin()).create(g)).submit().get();
+        final Map<Object, Double> ranks = new HashMap<>();
+        result.graph().vertices().forEachRemaining(v -> ranks.put(v.id(), v.<Double>value(PageRankVertexProgram.PAGE_RANK)));
+        return ranks;
+    }
+
+    @Test
+    public void shouldSpillMessagesAndComputeKeysBeyondMemoryBudget() throws Exception {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final TinkerGraphComputer onHeap = (TinkerGraphComputer) g.compute();
+        final List<Path> expected = onHeap.program(ShortestPathVertexProgram.build().create(g)).submit().get().memory().get(ShortestPathVertexProgram.SHORTEST_PATHS);
+        final TinkerGraphComputer spilling = (TinkerGraphComputer) g.compute().configure(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET, 0);
+        final List<Path> actual = spilling.program(ShortestPathVertexProgram.build().create(g)).submit().get().memory().get(ShortestPathVertexProgram.SHORTEST_PATHS);
+        assertEquals(0L, onHeap.getSpilledBytes());
+        assertThat(spilling.getSpilledBytes() > 0, is(true));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+
+        // traversers are messaged between vertices and local barriers hold them in compute keys
+        final File spillDirectory = new File(TestHelper.makeTestDataDirectory(TinkerGraphTest.class, "spill"));
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_MEMORY_BUDGET, 64);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_SPILL_DIRECTORY, spillDirectory.getAbsolutePath());
+        final TinkerGraph spilled = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(spilled);
+        assertEquals(g.traversal().withComputer().V().both().both().groupCount().by("name").next(),
+                spilled.traversal().withComputer().V().both().both().groupCount().by("name").next());
+        assertEquals(0, spillDirectory.listFiles((dir, name) -> name.endsWith(".spill")).length);
+    }
+
+    @Test
+    public void shouldConvergeInFewerIterationsWithAsynchronousMessages() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        Vertex previous = g.addVertex(T.id, 0);
+        for (int i = 1; i < 100; i++) {
+            final Vertex next = g.addVertex(T.id, i);
+            previous.addEdge("next", next);
+            previous = next;
+        }
+
+        final ComputerResult synchronous = g.compute().program(ConnectedComponentVertexProgram.build().create(g)).submit().get();
+        final ComputerResult asynchronous = g.compute().configure(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS, true).
+                program(ConnectedComponentVertexProgram.build().create(g)).submit().get();
+        assertThat(asynchronous.memory().getIteration() < synchronous.memory().getIteration(), is(true));
+        assertThat(asynchronous.memory().getRuntime() >= 0, is(true));
+        assertEquals(Collections.singletonList("0"), asynchronous.graph().traversal().V().values(ConnectedComponentVertexProgram.COMPONENT).dedup().toList());
+
+        final ComputerResult synchronousRanks = g.compute().program(PageRankVertexProgram.build().iterations(100).create(g)).submit().get();
+        final ComputerResult asynchronousRanks = g.compute().configure(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_ASYNCHRONOUS, true).
+                program(PageRankVertexProgram.build().iterations(100).create(g)).submit().get();
+        assertThat(asynchronousRanks.memory().getIteration() < synchronousRanks.memory().getIteration(), is(true));
+        asynchronousRanks.graph().vertices().forEachRemaining(v -> assertEquals(
+                synchronousRanks.graph().vertices(v.id()).next().<Double>value(PageRankVertexProgram.PAGE_RANK),
+                v.<Double>value(PageRankVertexProgram.PAGE_RANK), 0.001d));
+    }
+
+    @Test
+    public void shouldSkipVerticesThatVotedToHaltUntilTheyReceiveMessages() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        Vertex previous = g.addVertex(T.id, 0);
+        for (int i = 1; i < 100; i++) {
+            final Vertex next = g.addVertex(T.id, i);
+            previous.addEdge("next", next);
+            previous = next;
+        }
+        assertThat(g.compute().features().supportsVoteToHalt(), is(true));
+
+        final TinkerGraphComputer components = g.compute(TinkerGraphComputer.class);
+        final ComputerResult componentsResult = components.program(ConnectedComponentVertexProgram.build().create(g)).submit().get();
+        assertEquals(Collections.singletonList("0"), componentsResult.graph().traversal().V().values(ConnectedComponentVertexProgram.COMPONENT).dedup().toList());
+        assertThat(components.getVertexExecutions() < componentsResult.memory().getIteration() * 100L / 2, is(true));
+
+        // all vertices are executed again to collect the paths once the search has no more messages to send
+        final TinkerGraphComputer paths = g.compute(TinkerGraphComputer.class);
+        final ComputerResult pathsResult = paths.program(ShortestPathVertexProgram.build().source(__.hasId(0)).create(g)).submit().get();
+        assertEquals(100, pathsResult.memory().<List<Path>>get(ShortestPathVertexProgram.SHORTEST_PATHS).size());
+        assertThat(paths.getVertexExecutions() < pathsResult.memory().getIteration() * 100L / 2, is(true));
+    }
+
+    @Test
+    public void shouldReuseComputerContextUntilGraphIsMutated() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPUTER_REUSE_CONTEXT, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final TinkerGraphComputer first = graph.compute(TinkerGraphComputer.class);
+        first.program(PageRankVertexProgram.build().create(graph)).submit().get();
+        assertThat(first.isContextReused(), is(false));
+        final TinkerGraphComputer second = graph.compute(TinkerGraphComputer.class);
+        final ComputerResult result = second.program(PageRankVertexProgram.build().create(graph)).submit().get();
+        assertThat(second.isContextReused(), is(true));
+        assertEquals(6, IteratorUtils.count(result.graph().vertices()));
+
+        // a computation with another filter sets up its own context
+        final TinkerGraphComputer filtered = graph.compute(TinkerGraphComputer.class);
+        filtered.vertices(__.hasLabel("person")).program(PageRankVertexProgram.build().create(graph)).submit().get();
+        assertThat(filtered.isContextReused(), is(false));
+        final TinkerGraphComputer filteredAgain = graph.compute(TinkerGraphComputer.class);
+        final ComputerResult filteredResult = filteredAgain.vertices(__.hasLabel("person")).program(PageRankVertexProgram.build().create(graph)).submit().get();
+        assertThat(filteredAgain.isContextReused(), is(true));
+        assertEquals(4L, filteredResult.graph().traversal().V().has(PageRankVertexProgram.PAGE_RANK).count().next().longValue());
+
+        // changing the graph makes the next computation see the change
+        graph.addVertex(T.label, "person", "name", "ellie");
+        final TinkerGraphComputer mutated = graph.compute(TinkerGraphComputer.class);
+        final ComputerResult mutatedResult = mutated.vertices(__.hasLabel("person")).program(PageRankVertexProgram.build().create(graph)).submit().get();
+        assertThat(mutated.isContextReused(), is(false));
+        assertEquals(5L, mutatedResult.graph().traversal().V().has(PageRankVertexProgram.PAGE_RANK).count().next().longValue());
+
+        graph.close();
+        assertNull(TinkerHelper.getComputerContext(graph));
+    }
+
+    @Test
+    public void shouldDeferIndicesAndAdjacencyUntilBulkLoadIsClosed() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("weight", Edge.class);
+        final Vertex existing = graph.addVertex(T.id, 0, "name", "marko");
+
+        try (final TinkerBulkLoader load = graph.bulkLoad(3, 2)) {
+            final Vertex v1 = graph.addVertex(T.id, 1, T.label, "person", "name", "vadas");
+            final Vertex v2 = graph.addVertex(T.id, 2, T.label, "person", "name", "josh");
+            existing.addEdge("knows", v1, "weight", 0.5d);
+            existing.addEdge("knows", v2, "weight", 1.0d);
+
+            // a load begun by a reader nests in the open one
+            BulkLoadable.open(graph).close();
+
+            assertNull(graph.vertexIndex);
+            assertEquals(0, IteratorUtils.count(existing.edges(Direction.OUT)));
+            assertEquals(2, graph.traversal().V().has("name", P.within("vadas", "josh")).count().next().intValue());
+
+            try {
+                graph.addVertex(T.id, 1);
+                fail("The id is already in use");
+            } catch (IllegalArgumentException ex) {
+                assertEquals(Graph.Exceptions.vertexWithIdAlreadyExists(1).getMessage(), ex.getMessage());
+            }
+            try {
+                graph.createIndex("age", Vertex.class);
+                fail("Indices cannot be created during a bulk load");
+            } catch (IllegalStateException ignored) {
+            }
+
+            // other threads may not add elements while the load is open
+            final ExecutorService other = Executors.newSingleThreadExecutor();
+            try {
+                other.submit(() -> graph.addVertex(T.id, 3)).get(10, TimeUnit.SECONDS);
+                fail("Vertices cannot be added by another thread during a bulk load");
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause(), instanceOf(IllegalStateException.class));
+            } finally {
+                other.shutdownNow();
+            }
+            assertFalse(graph.vertices(3).hasNext());
+        }
+
+        assertNull(graph.bulkLoader);
+        assertEquals(1, graph.vertexIndex.count("name", "marko"));
+        assertEquals(1, graph.vertexIndex.count("name", "josh"));
+        assertEquals(1, graph.edgeIndex.count("weight", 0.5d));
+        assertEquals(Arrays.asList("vadas", "josh"), graph.traversal().V(0).outE("knows").order().by("weight").inV().values("name").toList());
+        assertEquals(1, IteratorUtils.count(graph.vertices(1).next().edges(Direction.IN)));
+        assertEquals(1, IteratorUtils.count(graph.vertices(2).next().edges(Direction.IN)));
+    }
+
+    @Test
+    public void shouldBulkLoadWhenReadingWithIoStep() throws Exception {
+        final File file = new File(TestHelper.makeTestDataDirectory(TinkerGraphTest.class, "bulk"), "modern.kryo");
+        TinkerFactory.createModern().io(IoCore.gryo()).writeGraph(file.getAbsolutePath());
+
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        graph.traversal().io(file.getAbsolutePath()).read().iterate();
+
+        assertNull(graph.bulkLoader);
+        assertEquals(1, graph.vertexIndex.count("name", "marko"));
+        assertEquals(Arrays.asList("josh", "vadas"), graph.traversal().V().has("name", "marko").out("knows").order().by("name", Order.asc).values("name").toList());
+        assertEquals(6, IteratorUtils.count(graph.edges()));
+        assertEquals(3, graph.traversal().V().has("name", "lop").in("created").count().next().intValue());
+    }
+
+    @Test
+    public void shouldKeepStatisticsWhenConfigured() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STATISTICS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final GraphStatistics statistics = GraphStatistics.of(graph).get();
+        assertEquals(4, statistics.count(Vertex.class, "person"));
+        assertEquals(4, statistics.count(Edge.class, "created"));
+        assertEquals(4, statistics.countValues(Vertex.class, "age"));
+        assertEquals(6, statistics.countDistinctValues(Vertex.class, "name"));
+        assertEquals(6, statistics.countValues(Edge.class, "weight"));
+        assertArrayEquals(new long[]{3, 1, 2, 0}, Arrays.copyOf(statistics.degreeHistogram(Direction.OUT, null), 4));
+        assertArrayEquals(new long[]{3, 2, 1, 0}, Arrays.copyOf(statistics.degreeHistogram(Direction.OUT, "created"), 4));
+        assertArrayEquals(new long[]{4, 1, 1, 0}, Arrays.copyOf(statistics.degreeHistogram(Direction.IN, "created"), 4));
+
+        graph.traversal().V().has("name", "josh").drop().iterate();
+        assertEquals(5, statistics.countValues(Vertex.class, "name"));
+        assertEquals(3, statistics.countValues(Edge.class, "weight"));
+        assertArrayEquals(new long[]{3, 1, 1, 0}, Arrays.copyOf(statistics.degreeHistogram(Direction.OUT, null), 4));
+        assertArrayEquals(new long[]{4, 0, 1, 0}, Arrays.copyOf(statistics.degreeHistogram(Direction.IN, "created"), 4));
+
+        graph.clear();
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex("group", i % 100);
+        }
+        assertEquals(1000, statistics.countValues(Vertex.class, "group"));
+        assertEquals(100, statistics.countDistinctValues(Vertex.class, "group"), 5);
+        assertEquals(0.01d, statistics.selectivity(Vertex.class, new HasContainer("group", P.eq(1))), 0.001d);
+        assertEquals(0.98d, statistics.selectivity(Vertex.class, new HasContainer("group", P.without(1, 2))), 0.002d);
+        assertEquals(0.0d, statistics.selectivity(Vertex.class, new HasContainer("missing", P.eq(1))), 0.0d);
+    }
+
+    @Test
+    public void shouldRankFiltersBySelectivityWithStatistics() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STATISTICS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final Traversal.Admin<Vertex, Vertex> traversal = graph.traversal().V().
+                has("age", P.gt(0)).hasLabel("person").has("name", "marko").asAdmin();
+        traversal.applyStrategies();
+        final List<String> keys = new ArrayList<>();
+        TraversalHelper.getFirstStepOfAssignableClass(TinkerGraphStep.class, traversal).get().
+                getHasContainers().forEach(hasContainer -> keys.add(((HasContainer) hasContainer).getKey()));
+        assertEquals(Arrays.asList("name", "age", T.label.getAccessor()), keys);
+        assertEquals("marko", traversal.next().value("name"));
+
+        // without statistics the filters are tested in the order they were given
+        final Traversal.Admin<Vertex, Vertex> unranked = TinkerFactory.createModern().traversal().V().
+                has("age", P.gt(0)).hasLabel("person").has("name", "marko").asAdmin();
+        unranked.applyStrategies();
+        keys.clear();
+        TraversalHelper.getFirstStepOfAssignableClass(TinkerGraphStep.class, unranked).get().
+                getHasContainers().forEach(hasContainer -> keys.add(((HasContainer) hasContainer).getKey()));
+        assertEquals(Arrays.asList("age", T.label.getAccessor(), "name"), keys);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotKeepStatisticsWithTransactions() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STATISTICS, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_TRANSACTIONS, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldKeyElementsByPrimitiveIdentifiersForNumericIdManagers() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        assertThat(graph.vertices, instanceOf(TinkerLongElementMap.class));
+        assertThat(graph.edges, instanceOf(TinkerLongElementMap.class));
+
+        final int count = 10000;
+        Vertex previous = graph.addVertex(T.id, -1L);
+        for (int i = 0; i < count; i++) {
+            final Vertex vertex = graph.addVertex(T.id, (long) i, "i", i);
+            vertex.addEdge("next", previous, T.id, i);
+            previous = vertex;
+        }
+        assertEquals(count + 1, graph.vertices.size());
+        assertEquals(count, graph.edges.size());
+        assertEquals(7, (int) graph.vertices(7).next().value("i"));
+        assertEquals(7, (int) graph.vertices(7L, "8", (short) 9).next().value("i"));
+        assertEquals(3, IteratorUtils.count(graph.vertices(7L, "8", (short) 9)));
+        assertEquals(2, IteratorUtils.count(graph.edges(7L, 8)));
+        assertEquals(-1L, graph.traversal().V(0L).out("next").id().next());
+        assertFalse(graph.vertices(count).hasNext());
+
+        // removed identifiers are found no more until they are used again
+        graph.traversal().V().has("i", P.lt(count / 2)).drop().iterate();
+        assertEquals(count / 2 + 1, graph.vertices.size());
+        assertEquals(count / 2 - 1, graph.edges.size());
+        assertFalse(graph.vertices(0).hasNext());
+        assertFalse(graph.edges(count / 2).hasNext());
+        assertEquals(count / 2 + 1, IteratorUtils.count(graph.vertices()));
+        graph.addVertex(T.id, 0L, "i", -2);
+        assertEquals(-2, (int) graph.vertices(0).next().value("i"));
+
+        // the identifiers of the map keep the type of their manager
+        assertThat(graph.vertices.keySet().iterator().next(), instanceOf(Long.class));
+        assertThat(graph.edges.keySet().iterator().next(), instanceOf(Integer.class));
+
+        // small sequential identifiers iterate in ascending order as they did in a ConcurrentHashMap
+        final TinkerGraph modern = TinkerFactory.createModern();
+        assertThat(modern.vertices, instanceOf(TinkerLongElementMap.class));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), modern.traversal().V().id().toList());
+        assertEquals(Arrays.asList(7, 8, 9, 10, 11, 12), modern.traversal().E().id().toList());
+    }
+
+    @Test
+    public void shouldRebindCachedTraversalPlans() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final TraversalPlanCache cache = new TraversalPlanCache(10);
+
+        final Traversal.Admin<?, Object> marko = cache.translate(g, g.V().has("person", "name", "marko").out().values("name").asAdmin().getBytecode());
+        final Traversal.Admin<?, Object> josh = cache.translate(g, g.V().has("person", "name", "josh").out().values("name").asAdmin().getBytecode());
+        final Traversal.Admin<?, Object> older = cache.translate(g, g.V().has("person", "age", P.gt(30)).values("name").asAdmin().getBytecode());
+        final Traversal.Admin<?, Object> younger = cache.translate(g, g.V().has("person", "age", P.gt(28)).values("name").asAdmin().getBytecode());
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertThat(TraversalHelper.getFirstStepOfAssignableClass(TinkerGraphStep.class, josh).isPresent(), is(true));
+        assertEquals(new HashSet<>(Arrays.asList("lop", "vadas", "josh")), new HashSet<>(marko.toList()));
+        assertEquals(new HashSet<>(Arrays.asList("lop", "ripple")), new HashSet<>(josh.toList()));
+        assertEquals(new HashSet<>(Arrays.asList("josh", "peter")), new HashSet<>(older.toList()));
+        assertEquals(new HashSet<>(Arrays.asList("marko", "josh", "peter")), new HashSet<>(younger.toList()));
+
+        // vertex programs are created from the traversal as it was given, so those traversals are compiled every time
+        final GraphTraversalSource computer = g.withComputer();
+        assertEquals(Collections.singletonList(29), cache.translate(computer, computer.V().has("name", "marko").values("age").asAdmin().getBytecode()).toList());
+        assertEquals(Collections.singletonList(27), cache.translate(computer, computer.V().has("name", "vadas").values("age").asAdmin().getBytecode()).toList());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldReturnSameResultsWithBatchExecution() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final List<Function<GraphTraversalSource, Traversal<?, ?>>> traversals = Arrays.asList(
+                s -> s.V().out().out().values("name"),
+                s -> s.V().outE().inV().path(),
+                s -> s.V().as("a").out().as("b").select("a", "b").by("name"),
+                s -> s.V().both().has("age", P.gt(28)).limit(2),
+                s -> s.V().both().barrier().groupCount(),
+                s -> s.V().local(__.out().limit(1)).id(),
+                s -> s.V().repeat(__.out()).times(2).path(),
+                s -> s.V().both().id().is(P.gt(2)),
+                s -> s.V().properties().key().dedup(),
+                s -> s.V().out().in().sideEffect(t -> {}).values("name"));
+
+        // a batch of two leaves remainders at the end of most steps
+        final GraphTraversalSource gb = g.withStrategies(new BatchExecutionStrategy(2));
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : traversals) {
+            final Traversal<?, ?> batched = traversal.apply(gb);
+            assertEquals(batched.toString(), traversal.apply(g).toList(), batched.toList());
+        }
+    }
+
+    @Test
+    public void shouldReturnSameResultsWithParallelExecution() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final List<Function<GraphTraversalSource, Traversal<?, ?>>> traversals = Arrays.asList(
+                s -> s.V().out().out().groupCount().by("name"),
+                s -> s.V().both().count(),
+                s -> s.V().both().has("age", P.gt(28)).values("age").sum(),
+                s -> s.V().both().values("age").mean(),
+                s -> s.V().outE().inV().order().by("name").values("name"),
+                s -> s.V().where(__.out()).values("name").fold(),
+                s -> s.V().both().group().by(T.label).by(__.count()),
+                s -> s.V().local(__.out().limit(1)).values("name").order(),
+                s -> s.V().timeLimit(10000).out().out().count(),
+                s -> s.V().out().values("name").max(),
+                s -> s.V().out().out().tree(),
+                s -> s.V().has("name", "nobody").out().count());
+
+        // a chunk of one start each makes every start its own partial result to merge
+        final GraphTraversalSource gp = g.withStrategies(ParallelTraversalStrategy.build().parallelism(4).chunkSize(1).create());
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : traversals) {
+            final Traversal.Admin<?, ?> parallel = traversal.apply(gp).asAdmin();
+            parallel.applyStrategies();
+            assertThat(parallel.toString(), TraversalHelper.hasStepOfAssignableClass(ParallelStep.class, parallel), is(true));
+            assertEquals(parallel.toString(), traversal.apply(g).toList(), parallel.toList());
+        }
+    }
+
+    @Test
+    public void shouldStreamFullScanWhenConfigured() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STREAMING_SCANS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        for (int i = 0; i < 1000; i++) {
+            g.addVertex("name", "n" + i);
+        }
+
+        // the scan is lazy so the filter is only applied until the first match is found
+        final AtomicInteger called = new AtomicInteger(0);
+        assertNotNull(g.traversal().V().has("name", P.test((t, u) -> {
+            called.incrementAndGet();
+            return true;
+        }, null)).limit(1).next());
+        assertEquals(1, called.get());
+
+        // the default materializes all matches before the first is returned
+        final TinkerGraph materialized = TinkerGraph.open();
+        g.vertices().forEachRemaining(v -> materialized.addVertex("name", v.value("name")));
+        called.set(0);
+        assertNotNull(materialized.traversal().V().has("name", P.test((t, u) -> {
+            called.incrementAndGet();
+            return true;
+        }, null)).limit(1).next());
+        assertEquals(1000, called.get());
+    }
+
+    @Test
+    public void shouldNotStreamFullScanForMutatingTraversal() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STREAMING_SCANS, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("name", "n" + i);
+        }
+
+        assertEquals(100, g.traversal().V().addV().count().next().intValue());
+        assertEquals(200, IteratorUtils.count(g.vertices()));
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -507,6 +1658,319 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldPersistToSnapshot() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSnapshot.tgs");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldPersistToSnapshotAndHandleMultiProperties() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSnapshotMulti.tgs");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+        graph.close();
+
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.toString());
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertCrewGraph(reloadedGraph, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldPersistToSnapshotWithAnyValueType() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSnapshotTypes.tgs");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final UUID uuid = UUID.randomUUID();
+        final Vertex v = graph.addVertex(T.id, uuid, T.label, "thing", "short", (short) 1, "byte", (byte) 2,
+                "list", Arrays.asList(1, "two"), "map", Collections.singletonMap("k", 3L), "name", "\u00e9t\u00e9");
+        v.addEdge("self", v, T.id, "e1", "flag", false, "ratio", 0.5f);
+        graph.variables().set("creator", "me");
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final Vertex reloaded = reloadedGraph.vertices(uuid).next();
+        assertEquals("thing", reloaded.label());
+        assertEquals((short) 1, (short) reloaded.value("short"));
+        assertEquals((byte) 2, (byte) reloaded.value("byte"));
+        assertEquals(Arrays.asList(1, "two"), reloaded.value("list"));
+        assertEquals(Collections.singletonMap("k", 3L), reloaded.value("map"));
+        assertEquals("\u00e9t\u00e9", reloaded.value("name"));
+        final Edge e = reloadedGraph.edges("e1").next();
+        assertEquals(false, e.value("flag"));
+        assertEquals(0.5f, e.<Float>value("ratio"), 0.0f);
+        assertEquals(reloaded, e.inVertex());
+        assertEquals("me", reloadedGraph.variables().get("creator").get());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReplayMutationLogAfterCrash() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldReplayMutationLog.tgs");
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_FLUSH_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final Vertex temp = graph.addVertex(T.id, 100, "name", "temp");
+        graph.vertices(1).next().addEdge("knows", temp, T.id, 101, "weight", 0.1d);
+        graph.vertices(1).next().property(VertexProperty.Cardinality.list, "alias", "m", "since", 2010);
+        graph.vertices(1).next().properties("alias").next().property("since").remove();
+        graph.edges(101).next().property("weight").remove();
+        graph.variables().set("creator", "me");
+
+        // a crash leaves the log in place as no snapshot is ever written
+        assertThat(new File(graphLocation).exists(), is(false));
+        graph.mutationLog.close();
+
+        final TinkerGraph replayedGraph = TinkerGraph.open(conf);
+        assertEquals(7, IteratorUtils.count(replayedGraph.vertices()));
+        assertEquals(7, IteratorUtils.count(replayedGraph.edges()));
+        assertEquals(false, replayedGraph.vertices(1).next().properties("alias").next().property("since").isPresent());
+        assertEquals(false, replayedGraph.edges(101).next().property("weight").isPresent());
+        assertEquals("me", replayedGraph.variables().get("creator").get());
+
+        replayedGraph.vertices(100).next().remove();
+        replayedGraph.vertices(1).next().properties("alias").next().remove();
+        replayedGraph.variables().remove("creator");
+        replayedGraph.mutationLog.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        assertEquals(0, reloadedGraph.variables().keys().size());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldCompactMutationLogIntoSnapshot() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldCompactMutationLog.tgs");
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.checkpoint();
+        assertEquals(0, new File(graphLocation + ".log").length());
+        assertThat(new File(graphLocation).length(), greaterThan(0L));
+
+        // records that follow the snapshot are replayed on top of it
+        graph.vertices(1).next().property("age", 30);
+        graph.mutationLog.flush();
+        assertThat(new File(graphLocation + ".log").length(), greaterThan(0L));
+        graph.mutationLog.close();
+
+        final TinkerGraph replayedGraph = TinkerGraph.open(conf);
+        assertEquals(30, (int) replayedGraph.vertices(1).next().value("age"));
+        replayedGraph.vertices(1).next().property("age", 29);
+        replayedGraph.close();
+        assertEquals(0, new File(graphLocation + ".log").length());
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldIgnoreTornMutationLogRecord() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldIgnoreTornMutationLog.tgs");
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_FLUSH_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.mutationLog.close();
+
+        final File log = new File(graphLocation + ".log");
+        final long length = log.length();
+        try (final FileOutputStream stream = new FileOutputStream(log, true)) {
+            stream.write(new byte[]{0, 0, 0, 42, 1, 2, 3});
+        }
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(length, log.length());
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireSnapshotFormatForMutationLog() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldRequireSnapshot.kryo"));
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldOpenSnapshotWithoutMaterializingElements() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldOpenSnapshotLazily.tgs");
+        new File(graphLocation).delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertNotNull(reloadedGraph.snapshotImage);
+        assertEquals(6, reloadedGraph.vertices.size());
+        assertEquals(6, reloadedGraph.edges.size());
+
+        // lookups by identifier and traversals from the vertices found materialize only what they reach
+        final GraphTraversalSource g = reloadedGraph.traversal();
+        assertEquals(Arrays.asList("josh", "vadas"), g.V(1).out("knows").<String>values("name").order().toList());
+        assertEquals(0.4d, g.E(9).values("weight").next());
+        assertEquals(2L, g.V(1).outE("knows").count().next().longValue());
+        assertFalse(g.V(100).hasNext());
+        assertNotNull(reloadedGraph.snapshotImage);
+
+        // a removed element stays removed and its identifier may be reused
+        g.V(2).drop().iterate();
+        assertEquals(5, reloadedGraph.vertices.size());
+        assertEquals(5, reloadedGraph.edges.size());
+        assertFalse(g.E(7).hasNext());
+        reloadedGraph.addVertex(T.id, 2, T.label, "person", "name", "vadas");
+        try {
+            reloadedGraph.addVertex(T.id, 4);
+            fail("The vertex held by the snapshot should not be replaced");
+        } catch (IllegalArgumentException ex) {
+            assertEquals(Graph.Exceptions.vertexWithIdAlreadyExists(4).getMessage(), ex.getMessage());
+        }
+        assertNotNull(reloadedGraph.snapshotImage);
+
+        // a scan of the elements materializes the rest of the snapshot and releases it
+        assertEquals(6L, g.V().count().next().longValue());
+        assertNull(reloadedGraph.snapshotImage);
+        assertEquals(Arrays.asList("josh", "lop", "marko", "peter", "ripple", "vadas"),
+                g.V().<String>values("name").order().toList());
+        assertEquals(0L, g.V(2).bothE().count().next().longValue());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldNotRewriteUnchangedSnapshot() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldNotRewriteSnapshot.tgs");
+        new File(graphLocation).delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+        final byte[] snapshot = Files.readAllBytes(Paths.get(graphLocation));
+
+        final TinkerGraph readGraph = TinkerGraph.open(conf);
+        assertEquals("marko", readGraph.traversal().V(1).values("name").next());
+        readGraph.close();
+        assertNotNull(readGraph.snapshotImage);
+        assertArrayEquals(snapshot, Files.readAllBytes(Paths.get(graphLocation)));
+
+        final TinkerGraph changedGraph = TinkerGraph.open(conf);
+        changedGraph.traversal().V(1).property("age", 30).iterate();
+        changedGraph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(30, reloadedGraph.traversal().V(1).values("age").next());
+        assertEquals(6L, reloadedGraph.traversal().V().count().next().longValue());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldMaterializeSnapshotWithStatistics() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldMaterializeSnapshotWithStatistics.tgs");
+        new File(graphLocation).delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_STATISTICS, true);
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertNull(reloadedGraph.snapshotImage);
+        assertEquals(4L, reloadedGraph.statistics().count(Vertex.class, "person"));
+        assertEquals(6L, reloadedGraph.statistics().countValues(Edge.class, "weight"));
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReadSnapshotAcrossMappedSegments() throws Exception {
+        final File f = new File(TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldReadSnapshotSegments.bin"));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final TinkerSnapshot.Writer writer = new TinkerSnapshot.Writer(new DataOutputStream(bytes));
+        final char[] chars = new char[100];
+        Arrays.fill(chars, 'x');
+        final List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            values.add(i % 5 == 0 ? new String(chars, 0, i * 2) : i % 2 == 0 ? (Object) (long) i : UUID.randomUUID());
+        }
+        for (final Object value : values) {
+            writer.writeValue(value);
+        }
+        writer.output.flush();
+        Files.write(f.toPath(), bytes.toByteArray());
+
+        final TinkerSnapshot.Reader reader;
+        try (final FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            reader = new TinkerSnapshot.Reader(f.toPath(), channel, 32, 8);
+        }
+        final List<Long> positions = new ArrayList<>();
+        for (final Object value : values) {
+            positions.add(reader.position());
+            assertEquals(value, reader.readValue());
+        }
+        assertEquals(reader.size(), reader.position());
+
+        // values may be read again from any position regardless of the segment it falls in
+        for (int i = values.size() - 1; i >= 0; i--) {
+            reader.seek(positions.get(i));
+            assertEquals(values.get(i), reader.readValue());
+        }
+    }
+
     @Test
     public void shouldPersistWithRelativePath() {
         final String graphLocation = TestHelper.convertToRelative(TinkerGraphTest.class,